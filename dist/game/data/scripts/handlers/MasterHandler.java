@@ -108,6 +108,7 @@ import handlers.admincommandhandlers.AdminPcCondOverride;
 import handlers.admincommandhandlers.AdminPetition;
 import handlers.admincommandhandlers.AdminPledge;
 import handlers.admincommandhandlers.AdminPremium;
+import handlers.admincommandhandlers.AdminProfiler;
 import handlers.admincommandhandlers.AdminPunishment;
 import handlers.admincommandhandlers.AdminQuest;
 import handlers.admincommandhandlers.AdminReload;
@@ -273,7 +274,9 @@ import handlers.telnethandlers.player.UnbanChat;
 import handlers.telnethandlers.player.Unjail;
 import handlers.telnethandlers.server.ForceGC;
 import handlers.telnethandlers.server.Memusage;
+import handlers.telnethandlers.server.Packets;
 import handlers.telnethandlers.server.Performance;
+import handlers.telnethandlers.server.Profiler;
 import handlers.telnethandlers.server.Purge;
 import handlers.telnethandlers.server.Reload;
 import handlers.telnethandlers.server.ServerAbort;
@@ -409,6 +412,7 @@ public class MasterHandler
 			AdminPledge.class,
 			AdminZones.class,
 			AdminPremium.class,
+			AdminProfiler.class,
 			AdminPunishment.class,
 			AdminQuest.class,
 			AdminReload.class,
@@ -678,7 +682,9 @@ public class MasterHandler
 			TelnetServer.getInstance().addHandler(new Unjail());
 			TelnetServer.getInstance().addHandler(new ForceGC());
 			TelnetServer.getInstance().addHandler(new Memusage());
+			TelnetServer.getInstance().addHandler(new Packets());
 			TelnetServer.getInstance().addHandler(new Performance());
+			TelnetServer.getInstance().addHandler(new Profiler());
 			TelnetServer.getInstance().addHandler(new Purge());
 			TelnetServer.getInstance().addHandler(new Reload());
 			TelnetServer.getInstance().addHandler(new SendMail());
@@ -25,9 +25,11 @@ import com.l2jmobius.gameserver.model.actor.L2Character;
 import com.l2jmobius.gameserver.model.actor.instance.L2MonsterInstance;
 import com.l2jmobius.gameserver.model.actor.instance.L2PcInstance;
 import com.l2jmobius.gameserver.model.actor.templates.L2NpcTemplate;
+import com.l2jmobius.gameserver.model.stats.AttackSnapshot;
 import com.l2jmobius.gameserver.model.stats.Formulas;
 import com.l2jmobius.gameserver.network.SystemMessageId;
 import com.l2jmobius.gameserver.network.serverpackets.NpcHtmlMessage;
+import com.l2jmobius.gameserver.util.BuilderUtil;
 
 /**
  * This class handles following admin commands: - gm = turns gm mode on/off
@@ -39,16 +41,30 @@ public class AdminFightCalculator implements IAdminCommandHandler
 	{
 		"admin_fight_calculator",
 		"admin_fight_calculator_show",
+		"admin_fight_calculator_bench",
 		"admin_fcs",
 	};
 	
+	/** The benchmark runs on the packet thread of the GM, it is kept short. */
+	private static final int BENCH_MAX_ITERATIONS = 100000;
+	private static final double[] BENCH_RANDOM_DAMAGE =
+	{
+		0.9,
+		1,
+		1.1,
+	};
+	
 	// TODO: remove from gm list etc etc
 	@Override
 	public boolean useAdminCommand(String command, L2PcInstance activeChar)
 	{
 		try
 		{
-			if (command.startsWith("admin_fight_calculator_show"))
+			if (command.startsWith("admin_fight_calculator_bench"))
+			{
+				handleBench(command.substring("admin_fight_calculator_bench".length()), activeChar);
+			}
+			else if (command.startsWith("admin_fight_calculator_show"))
 			{
 				handleShow(command.substring("admin_fight_calculator_show".length()), activeChar);
 			}
@@ -353,4 +369,123 @@ public class AdminFightCalculator implements IAdminCommandHandler
 			((L2MonsterInstance) npc2).deleteMe();
 		}
 	}
+	
+	/**
+	 * Compares the auto attack formulas with the attack snapshot used by the attack tasks against the current target, then times both of them.
+	 * @param params the number of timed attacks, 100000 by default
+	 * @param activeChar the attacker
+	 */
+	private void handleBench(String params, L2PcInstance activeChar)
+	{
+		params = params.trim();
+		
+		if ((activeChar.getTarget() == null) || !activeChar.getTarget().isCharacter())
+		{
+			activeChar.sendPacket(SystemMessageId.INVALID_TARGET);
+			return;
+		}
+		
+		final L2Character target = (L2Character) activeChar.getTarget();
+		int iterations = 10000;
+		if (!params.isEmpty())
+		{
+			try
+			{
+				iterations = Integer.parseInt(params);
+			}
+			catch (NumberFormatException e)
+			{
+				BuilderUtil.sendSysMessage(activeChar, "Usage: //fight_calculator_bench [attacks]");
+				return;
+			}
+			iterations = Math.max(1, Math.min(iterations, BENCH_MAX_ITERATIONS));
+		}
+		
+		// Same results for every combination of shield, critical, soulshot and random damage.
+		final AttackSnapshot snapshot = new AttackSnapshot(activeChar, target);
+		int checks = 3;
+		int mismatches = 0;
+		if (snapshot.getHitChance() != Formulas.getHitChance(activeChar, target))
+		{
+			mismatches++;
+		}
+		if (Double.compare(snapshot.getCritRate(), Formulas.getCritRate(activeChar, target, null)) != 0)
+		{
+			mismatches++;
+		}
+		if (Double.compare(snapshot.getShieldRate(), Formulas.getShieldRate(activeChar, target, null)) != 0)
+		{
+			mismatches++;
+		}
+		for (byte shld = Formulas.SHIELD_DEFENSE_FAILED; shld <= Formulas.SHIELD_DEFENSE_PERFECT_BLOCK; shld++)
+		{
+			for (int flags = 0; flags < 4; flags++)
+			{
+				final boolean crit = (flags & 1) != 0;
+				final boolean ss = (flags & 2) != 0;
+				for (double random : BENCH_RANDOM_DAMAGE)
+				{
+					checks++;
+					if (Double.compare(snapshot.calcPhysDam(shld, crit, ss, random), Formulas.calcPhysDam(activeChar, target, null, shld, crit, ss, random)) != 0)
+					{
+						mismatches++;
+					}
+				}
+			}
+		}
+		
+		// First runs warm up both paths.
+		benchFormulas(activeChar, target, iterations);
+		benchSnapshot(activeChar, target, iterations);
+		long start = System.nanoTime();
+		final double formulasDamage = benchFormulas(activeChar, target, iterations);
+		final long formulasTime = System.nanoTime() - start;
+		start = System.nanoTime();
+		final double snapshotDamage = benchSnapshot(activeChar, target, iterations);
+		final long snapshotTime = System.nanoTime() - start;
+		
+		final StringBuilder replyMSG = new StringBuilder(1000);
+		replyMSG.append("<html><title>Attack formulas benchmark</title><body><table>");
+		replyMSG.append("<tr><td width=140>Checks</td><td width=140>" + checks + "</td></tr>");
+		replyMSG.append("<tr><td>Mismatches</td><td>" + mismatches + "</td></tr>");
+		replyMSG.append("<tr><td>Attacks</td><td>" + iterations + "</td></tr>");
+		replyMSG.append("<tr><td>Formulas</td><td>" + (formulasTime / iterations) + " ns / " + (int) (formulasDamage / iterations) + " dmg</td></tr>");
+		replyMSG.append("<tr><td>Snapshot</td><td>" + (snapshotTime / iterations) + " ns / " + (int) (snapshotDamage / iterations) + " dmg</td></tr>");
+		replyMSG.append("</table><center><br><button value=\"Retry\" action=\"bypass -h admin_fight_calculator_bench " + iterations + "\"  width=100 height=15 back=\"L2UI_ct1.button_df\" fore=\"L2UI_ct1.button_df\"></center></body></html>");
+		
+		final NpcHtmlMessage adminReply = new NpcHtmlMessage();
+		adminReply.setHtml(replyMSG.toString());
+		activeChar.sendPacket(adminReply);
+	}
+	
+	private static double benchFormulas(L2Character attacker, L2Character target, int iterations)
+	{
+		double damage = 0;
+		for (int i = 0; i < iterations; i++)
+		{
+			if (!Formulas.calcHitMiss(attacker, target))
+			{
+				final byte shld = Formulas.calcShldUse(attacker, target, null, false);
+				final boolean crit = Formulas.calcCrit(attacker, target);
+				damage += Formulas.calcPhysDam(attacker, target, null, shld, crit, false);
+			}
+		}
+		return damage;
+	}
+	
+	private static double benchSnapshot(L2Character attacker, L2Character target, int iterations)
+	{
+		double damage = 0;
+		for (int i = 0; i < iterations; i++)
+		{
+			final AttackSnapshot snapshot = new AttackSnapshot(attacker, target);
+			if (!snapshot.calcHitMiss())
+			{
+				final byte shld = Formulas.calcShldSuccess(target, snapshot.getShieldRate(), false);
+				final boolean crit = snapshot.calcCrit();
+				damage += snapshot.calcPhysDam(shld, crit, false);
+			}
+		}
+		return damage;
+	}
 }
\ No newline at end of file
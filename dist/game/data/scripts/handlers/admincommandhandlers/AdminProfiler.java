@@ -0,0 +1,100 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package handlers.admincommandhandlers;
+
+import com.l2jmobius.commons.concurrent.TaskProfiler;
+import com.l2jmobius.commons.concurrent.TaskProfiler.TaskProfile;
+import com.l2jmobius.gameserver.cache.HtmCache;
+import com.l2jmobius.gameserver.handler.IAdminCommandHandler;
+import com.l2jmobius.gameserver.model.actor.instance.L2PcInstance;
+import com.l2jmobius.gameserver.network.serverpackets.NpcHtmlMessage;
+
+/**
+ * Shows the pooled tasks with the highest run time.
+ * @author Mobius
+ */
+public class AdminProfiler implements IAdminCommandHandler
+{
+	private static final int TOP_COUNT = 15;
+	private static final int MAX_NAME_LENGTH = 24;
+	
+	private static final String[] ADMIN_COMMANDS =
+	{
+		"admin_profiler",
+		"admin_profiler_on",
+		"admin_profiler_off",
+		"admin_profiler_reset"
+	};
+	
+	@Override
+	public boolean useAdminCommand(String command, L2PcInstance activeChar)
+	{
+		switch (command)
+		{
+			case "admin_profiler_on":
+			{
+				TaskProfiler.setEnabled(true);
+				break;
+			}
+			case "admin_profiler_off":
+			{
+				TaskProfiler.setEnabled(false);
+				break;
+			}
+			case "admin_profiler_reset":
+			{
+				TaskProfiler.reset();
+				break;
+			}
+		}
+		
+		final NpcHtmlMessage html = new NpcHtmlMessage();
+		html.setHtml(HtmCache.getInstance().getHtm(activeChar, "data/html/admin/profiler.htm"));
+		html.replace("%status%", TaskProfiler.isEnabled() ? "<font color=\"00FF00\">Enabled</font>" : "<font color=\"FF0000\">Disabled</font>");
+		html.replace("%rate%", TaskProfiler.getSampleRate());
+		html.replace("%tasks%", getTaskRows());
+		activeChar.sendPacket(html);
+		return true;
+	}
+	
+	private String getTaskRows()
+	{
+		final StringBuilder sb = new StringBuilder();
+		for (TaskProfile profile : TaskProfiler.getTopProfiles(TOP_COUNT))
+		{
+			final String name = profile.getName();
+			sb.append("<tr><td width=110>");
+			sb.append(name.length() > MAX_NAME_LENGTH ? name.substring(0, MAX_NAME_LENGTH) : name);
+			sb.append("</td><td width=50><font color=\"00FF00\">");
+			sb.append(profile.getRuns());
+			sb.append("</font></td><td width=50><font color=\"00FF00\">");
+			sb.append(profile.getEstimatedTotalRun() / 1000);
+			sb.append("</font></td><td width=60><font color=\"00FF00\">");
+			sb.append(profile.getWait().getPercentile(50) / 1000);
+			sb.append("/");
+			sb.append(profile.getWait().getPercentile(99) / 1000);
+			sb.append("</font></td></tr>");
+		}
+		return sb.toString();
+	}
+	
+	@Override
+	public String[] getAdminCommandList()
+	{
+		return ADMIN_COMMANDS;
+	}
+}
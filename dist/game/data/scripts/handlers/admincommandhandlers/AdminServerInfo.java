@@ -24,6 +24,8 @@ import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import com.l2jmobius.Config;
+import com.l2jmobius.commons.concurrent.TaskCategory;
+import com.l2jmobius.commons.concurrent.TaskStatistics;
 import com.l2jmobius.gameserver.GameServer;
 import com.l2jmobius.gameserver.GameTimeController;
 import com.l2jmobius.gameserver.cache.HtmCache;
@@ -70,11 +72,31 @@ public class AdminServerInfo implements IAdminCommandHandler
 			html.replace("%usedMem%", (RunTime.maxMemory() / mb) - (((RunTime.maxMemory() - RunTime.totalMemory()) + RunTime.freeMemory()) / mb));
 			html.replace("%freeMem%", ((RunTime.maxMemory() - RunTime.totalMemory()) + RunTime.freeMemory()) / mb);
 			html.replace("%totalMem%", Runtime.getRuntime().maxMemory() / 1048576);
+			html.replace("%taskStats%", getTaskStats());
 			activeChar.sendPacket(html);
 		}
 		return true;
 	}
 	
+	private String getTaskStats()
+	{
+		final StringBuilder sb = new StringBuilder();
+		for (TaskCategory category : TaskCategory.values())
+		{
+			final TaskStatistics statistics = category.getStatistics();
+			sb.append("<tr><td>");
+			sb.append(category);
+			sb.append("</td><td><font color=\"00FF00\">");
+			sb.append(statistics.getCompleted());
+			sb.append("</font></td><td><font color=\"00FF00\">");
+			sb.append(statistics.getRun().getPercentile(99) / 1000);
+			sb.append("</font></td><td><font color=\"00FF00\">");
+			sb.append(statistics.getWait().getPercentile(99) / 1000);
+			sb.append("</font></td></tr>");
+		}
+		return sb.toString();
+	}
+	
 	private String getServerUpTime()
 	{
 		long time = System.currentTimeMillis() - GameServer.dateTimeServerStarted.getTimeInMillis();
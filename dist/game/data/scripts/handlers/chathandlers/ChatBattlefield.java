@@ -24,6 +24,8 @@ import com.l2jmobius.gameserver.model.L2World;
 import com.l2jmobius.gameserver.model.actor.instance.L2PcInstance;
 import com.l2jmobius.gameserver.network.SystemMessageId;
 import com.l2jmobius.gameserver.network.serverpackets.CreatureSay;
+import com.l2jmobius.gameserver.network.serverpackets.IClientOutgoingPacket;
+import com.l2jmobius.gameserver.network.serverpackets.SharedPacket;
 
 /**
  * Battlefield Chat Handler.
@@ -47,7 +49,7 @@ public final class ChatBattlefield implements IChatHandler
 				return;
 			}
 			
-			final CreatureSay cs = new CreatureSay(activeChar.getObjectId(), type, activeChar.getName(), text);
+			final IClientOutgoingPacket cs = SharedPacket.of(new CreatureSay(activeChar.getObjectId(), type, activeChar.getName(), text));
 			for (L2PcInstance player : L2World.getInstance().getPlayers())
 			{
 				if (player.getSiegeSide() == activeChar.getSiegeSide())
@@ -25,6 +25,8 @@ import com.l2jmobius.gameserver.model.PcCondOverride;
 import com.l2jmobius.gameserver.model.actor.instance.L2PcInstance;
 import com.l2jmobius.gameserver.network.SystemMessageId;
 import com.l2jmobius.gameserver.network.serverpackets.CreatureSay;
+import com.l2jmobius.gameserver.network.serverpackets.IClientOutgoingPacket;
+import com.l2jmobius.gameserver.network.serverpackets.SharedPacket;
 
 /**
  * Hero chat handler.
@@ -62,7 +64,7 @@ public final class ChatHeroVoice implements IChatHandler
 			return;
 		}
 		
-		final CreatureSay cs = new CreatureSay(activeChar.getObjectId(), type, activeChar.getName(), text);
+		final IClientOutgoingPacket cs = SharedPacket.of(new CreatureSay(activeChar.getObjectId(), type, activeChar.getName(), text));
 		for (L2PcInstance player : L2World.getInstance().getPlayers())
 		{
 			if ((player != null) && !BlockList.isBlocked(player, activeChar))
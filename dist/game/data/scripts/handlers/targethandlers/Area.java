@@ -16,15 +16,13 @@
  */
 package handlers.targethandlers;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import com.l2jmobius.gameserver.handler.ITargetTypeHandler;
 import com.l2jmobius.gameserver.model.L2Object;
 import com.l2jmobius.gameserver.model.L2World;
 import com.l2jmobius.gameserver.model.actor.L2Character;
 import com.l2jmobius.gameserver.model.skills.Skill;
 import com.l2jmobius.gameserver.model.skills.targets.L2TargetType;
+import com.l2jmobius.gameserver.model.skills.targets.TargetBuffer;
 import com.l2jmobius.gameserver.model.zone.ZoneId;
 import com.l2jmobius.gameserver.network.SystemMessageId;
 import com.l2jmobius.gameserver.util.Util;
@@ -37,7 +35,6 @@ public class Area implements ITargetTypeHandler
 	@Override
 	public L2Object[] getTargetList(Skill skill, L2Character activeChar, boolean onlyFirst, L2Character target)
 	{
-		final List<L2Character> targetList = new ArrayList<>();
 		if ((target == null) || (((target == activeChar) || target.isAlikeDead()) && (skill.getCastRange() >= 0)) || (!(target.isAttackable() || target.isPlayable())))
 		{
 			activeChar.sendPacket(SystemMessageId.THAT_IS_AN_INCORRECT_TARGET);
@@ -63,7 +60,6 @@ public class Area implements ITargetTypeHandler
 			}
 			
 			origin = target;
-			targetList.add(origin); // Add target to target list
 		}
 		else
 		{
@@ -71,35 +67,46 @@ public class Area implements ITargetTypeHandler
 		}
 		
 		final int maxTargets = skill.getAffectLimit();
-		L2World.getInstance().forEachVisibleObject(activeChar, L2Character.class, obj ->
+		final TargetBuffer buffer = TargetBuffer.acquire();
+		try
 		{
-			if (!(obj.isAttackable() || obj.isPlayable()) || (obj == origin))
+			if (origin != activeChar)
 			{
-				return;
+				buffer.addTarget(origin); // Add target to target list
 			}
 			
-			if (Util.checkIfInRange(skill.getAffectRange(), origin, obj, true))
+			L2World.getInstance().collectVisibleCharacters(activeChar, origin, skill.getAffectRange(), buffer);
+			for (int i = 0; i < buffer.getCandidateCount(); i++)
 			{
-				if (!Skill.checkForAreaOffensiveSkills(activeChar, obj, skill, srcInArena))
+				final L2Character obj = buffer.getCandidate(i);
+				if (!(obj.isAttackable() || obj.isPlayable()) || (obj == origin))
 				{
-					return;
+					continue;
 				}
 				
-				if ((maxTargets > 0) && (targetList.size() >= maxTargets))
+				if (!Util.checkIfInRange(skill.getAffectRange(), origin, obj, true))
 				{
-					return;
+					continue;
 				}
 				
-				targetList.add(obj);
+				if (buffer.isFull(maxTargets))
+				{
+					break;
+				}
+				
+				if (!Skill.checkForAreaOffensiveSkills(activeChar, obj, skill, srcInArena))
+				{
+					continue;
+				}
+				
+				buffer.addTarget(obj);
 			}
-		});
-		
-		if (targetList.isEmpty())
+			return buffer.toArray();
+		}
+		finally
 		{
-			return EMPTY_TARGET_LIST;
+			buffer.release();
 		}
-		
-		return targetList.toArray(new L2Character[targetList.size()]);
 	}
 	
 	@Override
@@ -16,9 +16,6 @@
  */
 package handlers.targethandlers;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import com.l2jmobius.gameserver.handler.ITargetTypeHandler;
 import com.l2jmobius.gameserver.model.L2Object;
 import com.l2jmobius.gameserver.model.L2World;
@@ -26,6 +23,7 @@ import com.l2jmobius.gameserver.model.actor.L2Character;
 import com.l2jmobius.gameserver.model.actor.instance.L2DoorInstance;
 import com.l2jmobius.gameserver.model.skills.Skill;
 import com.l2jmobius.gameserver.model.skills.targets.L2TargetType;
+import com.l2jmobius.gameserver.model.skills.targets.TargetBuffer;
 import com.l2jmobius.gameserver.model.zone.ZoneId;
 
 /**
@@ -37,20 +35,23 @@ public class Aura implements ITargetTypeHandler
 	@Override
 	public L2Object[] getTargetList(Skill skill, L2Character activeChar, boolean onlyFirst, L2Character target)
 	{
-		final List<L2Character> targetList = new ArrayList<>();
 		final boolean srcInArena = (activeChar.isInsideZone(ZoneId.PVP) && !activeChar.isInsideZone(ZoneId.SIEGE));
-		for (L2Character obj : L2World.getInstance().getVisibleObjectsInRange(activeChar, L2Character.class, skill.getAffectRange()))
+		final TargetBuffer buffer = TargetBuffer.acquire();
+		try
 		{
-			if (obj.isDoor() || obj.isAttackable() || obj.isPlayable())
+			L2World.getInstance().collectVisibleCharacters(activeChar, activeChar, skill.getAffectRange(), buffer);
+			for (int i = 0; i < buffer.getCandidateCount(); i++)
 			{
+				final L2Character obj = buffer.getCandidate(i);
+				if (!(obj.isDoor() || obj.isAttackable() || obj.isPlayable()) || (obj.calculateDistance3D(activeChar) > skill.getAffectRange()))
+				{
+					continue;
+				}
+				
 				// Stealth door targeting.
-				if (obj.isDoor())
+				if (obj.isDoor() && !((L2DoorInstance) obj).getTemplate().isStealth())
 				{
-					final L2DoorInstance door = (L2DoorInstance) obj;
-					if (!door.getTemplate().isStealth())
-					{
-						continue;
-					}
+					continue;
 				}
 				
 				if (!Skill.checkForAreaOffensiveSkills(activeChar, obj, skill, srcInArena))
@@ -71,10 +72,14 @@ public class Aura implements ITargetTypeHandler
 					};
 				}
 				
-				targetList.add(obj);
+				buffer.addTarget(obj);
 			}
+			return buffer.toArray();
+		}
+		finally
+		{
+			buffer.release();
 		}
-		return targetList.toArray(new L2Character[targetList.size()]);
 	}
 	
 	@Override
@@ -16,15 +16,13 @@
  */
 package handlers.targethandlers;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import com.l2jmobius.gameserver.handler.ITargetTypeHandler;
 import com.l2jmobius.gameserver.model.L2Object;
 import com.l2jmobius.gameserver.model.L2World;
 import com.l2jmobius.gameserver.model.actor.L2Character;
 import com.l2jmobius.gameserver.model.skills.Skill;
 import com.l2jmobius.gameserver.model.skills.targets.L2TargetType;
+import com.l2jmobius.gameserver.model.skills.targets.TargetBuffer;
 import com.l2jmobius.gameserver.model.zone.ZoneId;
 
 /**
@@ -35,13 +33,19 @@ public class BehindAura implements ITargetTypeHandler
 	@Override
 	public L2Object[] getTargetList(Skill skill, L2Character activeChar, boolean onlyFirst, L2Character target)
 	{
-		final List<L2Character> targetList = new ArrayList<>();
 		final boolean srcInArena = (activeChar.isInsideZone(ZoneId.PVP) && !activeChar.isInsideZone(ZoneId.SIEGE));
 		final int maxTargets = skill.getAffectLimit();
-		for (L2Character obj : L2World.getInstance().getVisibleObjectsInRange(activeChar, L2Character.class, skill.getAffectRange()))
+		final TargetBuffer buffer = TargetBuffer.acquire();
+		try
 		{
-			if (obj.isAttackable() || obj.isPlayable())
+			L2World.getInstance().collectVisibleCharacters(activeChar, activeChar, skill.getAffectRange(), buffer);
+			for (int i = 0; i < buffer.getCandidateCount(); i++)
 			{
+				final L2Character obj = buffer.getCandidate(i);
+				if (!(obj.isAttackable() || obj.isPlayable()) || (obj.calculateDistance3D(activeChar) > skill.getAffectRange()))
+				{
+					continue;
+				}
 				
 				if (!obj.isBehind(activeChar))
 				{
@@ -61,15 +65,19 @@ public class BehindAura implements ITargetTypeHandler
 					};
 				}
 				
-				if ((maxTargets > 0) && (targetList.size() >= maxTargets))
+				if (buffer.isFull(maxTargets))
 				{
 					break;
 				}
 				
-				targetList.add(obj);
+				buffer.addTarget(obj);
 			}
+			return buffer.toArray();
+		}
+		finally
+		{
+			buffer.release();
 		}
-		return targetList.toArray(new L2Character[targetList.size()]);
 	}
 	
 	@Override
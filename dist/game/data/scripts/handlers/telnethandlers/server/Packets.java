@@ -0,0 +1,100 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package handlers.telnethandlers.server;
+
+import com.l2jmobius.Config;
+import com.l2jmobius.gameserver.network.PacketTelemetry;
+import com.l2jmobius.gameserver.network.telnet.ITelnetCommand;
+import com.l2jmobius.gameserver.util.Util;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * @author Mobius
+ */
+public class Packets implements ITelnetCommand
+{
+	private static final int DEFAULT_TOP = 20;
+	
+	@Override
+	public String getCommand()
+	{
+		return "packets";
+	}
+	
+	@Override
+	public String getUsage()
+	{
+		return "Packets [on|off|reset|top <count>|bytes <count>]";
+	}
+	
+	@Override
+	public String handle(ChannelHandlerContext ctx, String[] args)
+	{
+		int top = DEFAULT_TOP;
+		boolean byBytes = false;
+		if (args.length > 0)
+		{
+			switch (args[0])
+			{
+				case "on":
+				{
+					PacketTelemetry.setEnabled(true);
+					return "Packet statistics enabled.";
+				}
+				case "off":
+				{
+					PacketTelemetry.setEnabled(false);
+					return "Packet statistics disabled.";
+				}
+				case "reset":
+				{
+					PacketTelemetry.reset();
+					return "Packet statistics reset.";
+				}
+				case "bytes":
+				{
+					byBytes = true;
+					// Fallthrough.
+				}
+				case "top":
+				{
+					if (args.length > 1)
+					{
+						if (!Util.isDigit(args[1]))
+						{
+							return null;
+						}
+						top = Integer.parseInt(args[1]);
+					}
+					break;
+				}
+				default:
+				{
+					return null;
+				}
+			}
+		}
+		
+		final StringBuilder sb = new StringBuilder();
+		for (String line : PacketTelemetry.getStats(top, byBytes))
+		{
+			sb.append(line + Config.EOL);
+		}
+		return sb.toString();
+	}
+}
@@ -18,7 +18,13 @@ package handlers.telnethandlers.server;
 
 import com.l2jmobius.Config;
 import com.l2jmobius.commons.concurrent.ThreadPool;
+import com.l2jmobius.commons.database.DatabaseExecutor;
+import com.l2jmobius.gameserver.model.actor.instance.PlayerLoad;
+import com.l2jmobius.gameserver.model.actor.instance.PlayerStore;
 import com.l2jmobius.gameserver.network.telnet.ITelnetCommand;
+import com.l2jmobius.gameserver.taskmanager.InfoBroadcastTaskManager;
+import com.l2jmobius.gameserver.taskmanager.VisibilityTaskManager;
+import com.l2jmobius.log.handler.AsyncFileHandler;
 
 import io.netty.channel.ChannelHandlerContext;
 
@@ -48,6 +54,30 @@ public class Performance implements ITelnetCommand
 		{
 			sb.append(line + Config.EOL);
 		}
+		for (String line : DatabaseExecutor.getStats())
+		{
+			sb.append(line + Config.EOL);
+		}
+		for (String line : AsyncFileHandler.getStats())
+		{
+			sb.append(line + Config.EOL);
+		}
+		for (String line : InfoBroadcastTaskManager.getInstance().getStats())
+		{
+			sb.append(line + Config.EOL);
+		}
+		for (String line : VisibilityTaskManager.getInstance().getStats())
+		{
+			sb.append(line + Config.EOL);
+		}
+		for (String line : PlayerStore.getStats())
+		{
+			sb.append(line + Config.EOL);
+		}
+		for (String line : PlayerLoad.getStats())
+		{
+			sb.append(line + Config.EOL);
+		}
 		return sb.toString();
 	}
 }
@@ -0,0 +1,100 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package handlers.telnethandlers.server;
+
+import com.l2jmobius.Config;
+import com.l2jmobius.commons.concurrent.TaskProfiler;
+import com.l2jmobius.gameserver.network.telnet.ITelnetCommand;
+import com.l2jmobius.gameserver.util.Util;
+
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * @author Mobius
+ */
+public class Profiler implements ITelnetCommand
+{
+	private static final int DEFAULT_TOP = 20;
+	
+	@Override
+	public String getCommand()
+	{
+		return "profiler";
+	}
+	
+	@Override
+	public String getUsage()
+	{
+		return "Profiler [on|off|reset|rate <sample rate>|top <count>]";
+	}
+	
+	@Override
+	public String handle(ChannelHandlerContext ctx, String[] args)
+	{
+		int top = DEFAULT_TOP;
+		if (args.length > 0)
+		{
+			switch (args[0])
+			{
+				case "on":
+				{
+					TaskProfiler.setEnabled(true);
+					return "Task profiler enabled.";
+				}
+				case "off":
+				{
+					TaskProfiler.setEnabled(false);
+					return "Task profiler disabled.";
+				}
+				case "reset":
+				{
+					TaskProfiler.reset();
+					return "Task profiler reset.";
+				}
+				case "rate":
+				{
+					if ((args.length < 2) || !Util.isDigit(args[1]))
+					{
+						return null;
+					}
+					TaskProfiler.setSampleRate(Integer.parseInt(args[1]));
+					return "Task profiler samples 1/" + TaskProfiler.getSampleRate() + " runs.";
+				}
+				case "top":
+				{
+					if ((args.length < 2) || !Util.isDigit(args[1]))
+					{
+						return null;
+					}
+					top = Integer.parseInt(args[1]);
+					break;
+				}
+				default:
+				{
+					return null;
+				}
+			}
+		}
+		
+		final StringBuilder sb = new StringBuilder();
+		for (String line : TaskProfiler.getStats(top))
+		{
+			sb.append(line + Config.EOL);
+		}
+		return sb.toString();
+	}
+}
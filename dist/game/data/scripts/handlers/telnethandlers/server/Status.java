@@ -16,6 +16,8 @@
  */
 package handlers.telnethandlers.server;
 
+import com.l2jmobius.Config;
+import com.l2jmobius.gameserver.GameTimeController;
 import com.l2jmobius.gameserver.network.telnet.ITelnetCommand;
 
 import io.netty.channel.ChannelHandlerContext;
@@ -40,6 +42,11 @@ public class Status implements ITelnetCommand
 	@Override
 	public String handle(ChannelHandlerContext ctx, String[] args)
 	{
-		return Debug.getServerStatus();
+		final StringBuilder sb = new StringBuilder(Debug.getServerStatus());
+		for (String line : GameTimeController.getInstance().getStats())
+		{
+			sb.append(line + Config.EOL);
+		}
+		return sb.toString();
 	}
 }
@@ -498,10 +498,21 @@ public final class Config
 	public static boolean ALT_DEV_NO_SPAWNS;
 	public static boolean ALT_DEV_SHOW_QUESTS_LOAD_IN_LOGS;
 	public static boolean ALT_DEV_SHOW_SCRIPTS_LOAD_IN_LOGS;
-	public static int SCHEDULED_THREAD_POOL_COUNT;
-	public static int THREADS_PER_SCHEDULED_THREAD_POOL;
-	public static int INSTANT_THREAD_POOL_COUNT;
-	public static int THREADS_PER_INSTANT_THREAD_POOL;
+	public static int THREAD_POOL_SIZE;
+	public static int THREAD_POOL_TICK;
+	public static int THREAD_POOL_COMBAT_TICK;
+	public static int BLOCKING_THREAD_POOL_SIZE;
+	public static boolean THREAD_POOL_VIRTUAL_THREADS;
+	public static boolean THREAD_POOL_PROFILER;
+	public static int THREAD_POOL_PROFILER_SAMPLE_RATE;
+	public static int GAME_TICK_BUDGET;
+	public static int GAME_TICK_SPREAD_FACTOR;
+	public static boolean PACKET_STATISTICS;
+	public static int PACKET_STATISTICS_LOG_INTERVAL;
+	public static int PACKET_STATISTICS_LOG_TOP;
+	public static boolean COALESCE_INFO_BROADCASTS;
+	public static boolean DEFERRED_VISIBILITY_UPDATES;
+	public static int VISIBILITY_UPDATES_PER_TICK;
 	public static int IO_PACKET_THREAD_CORE_SIZE;
 	public static boolean DEADLOCK_DETECTOR;
 	public static int DEADLOCK_CHECK_INTERVAL;
@@ -567,6 +578,7 @@ public final class Config
 	public static String BBS_DEFAULT;
 	public static boolean USE_SAY_FILTER;
 	public static String CHAT_FILTER_CHARS;
+	public static boolean CHAT_FILTER_REGEX;
 	public static Set<ChatType> BAN_CHAT_CHANNELS;
 	public static int ALT_OLY_START_TIME;
 	public static int ALT_OLY_MIN;
@@ -863,6 +875,8 @@ public final class Config
 	public static String DATABASE_PASSWORD;
 	public static int DATABASE_MAX_CONNECTIONS;
 	public static int DATABASE_MAX_IDLE_TIME;
+	public static int DATABASE_ASYNC_WRITERS;
+	public static int DATABASE_ASYNC_QUEUE_SIZE;
 	public static boolean BACKUP_DATABASE;
 	public static String MYSQL_BIN_PATH;
 	public static String BACKUP_PATH;
@@ -1180,6 +1194,7 @@ public final class Config
 	public static int OFFLINE_NAME_COLOR;
 	public static boolean OFFLINE_FAME;
 	public static boolean STORE_OFFLINE_TRADE_IN_REALTIME;
+	public static int OFFLINE_TRADE_JOURNAL_INTERVAL;
 	public static boolean DISPLAY_SERVER_TIME;
 	public static int BUFFER_MAX_SCHEMES;
 	public static int BUFFER_STATIC_BUFF_COST;
@@ -1387,6 +1402,8 @@ public final class Config
 			DATABASE_PASSWORD = serverSettings.getString("Password", "");
 			DATABASE_MAX_CONNECTIONS = serverSettings.getInt("MaximumDbConnections", 10);
 			DATABASE_MAX_IDLE_TIME = serverSettings.getInt("MaximumDbIdleTime", 0);
+			DATABASE_ASYNC_WRITERS = serverSettings.getInt("DatabaseAsyncWriters", -1);
+			DATABASE_ASYNC_QUEUE_SIZE = serverSettings.getInt("DatabaseAsyncQueueSize", 10000);
 			
 			BACKUP_DATABASE = serverSettings.getBoolean("BackupDatabase", false);
 			MYSQL_BIN_PATH = serverSettings.getString("MySqlBinLocation", "C:/xampp/mysql/bin/");
@@ -1440,10 +1457,21 @@ public final class Config
 			SERVER_LIST_AGE = serverSettings.getInt("ServerListAge", 0);
 			SERVER_LIST_BRACKET = serverSettings.getBoolean("ServerListBrackets", false);
 			
-			SCHEDULED_THREAD_POOL_COUNT = serverSettings.getInt("ScheduledThreadPoolCount", -1);
-			THREADS_PER_SCHEDULED_THREAD_POOL = serverSettings.getInt("ThreadsPerScheduledThreadPool", 4);
-			INSTANT_THREAD_POOL_COUNT = serverSettings.getInt("InstantThreadPoolCount", -1);
-			THREADS_PER_INSTANT_THREAD_POOL = serverSettings.getInt("ThreadsPerInstantThreadPool", 2);
+			THREAD_POOL_SIZE = serverSettings.getInt("ThreadPoolSize", -1);
+			THREAD_POOL_TICK = serverSettings.getInt("ThreadPoolTick", 10);
+			THREAD_POOL_COMBAT_TICK = serverSettings.getInt("ThreadPoolCombatTick", 1);
+			BLOCKING_THREAD_POOL_SIZE = serverSettings.getInt("BlockingThreadPoolSize", 16);
+			THREAD_POOL_VIRTUAL_THREADS = serverSettings.getBoolean("ThreadPoolVirtualThreads", false);
+			THREAD_POOL_PROFILER = serverSettings.getBoolean("ThreadPoolProfiler", false);
+			THREAD_POOL_PROFILER_SAMPLE_RATE = serverSettings.getInt("ThreadPoolProfilerSampleRate", 16);
+			GAME_TICK_BUDGET = serverSettings.getInt("GameTickBudget", 50);
+			GAME_TICK_SPREAD_FACTOR = serverSettings.getInt("GameTickSpreadFactor", 4);
+			PACKET_STATISTICS = serverSettings.getBoolean("PacketStatistics", false);
+			PACKET_STATISTICS_LOG_INTERVAL = serverSettings.getInt("PacketStatisticsLogInterval", 0);
+			PACKET_STATISTICS_LOG_TOP = serverSettings.getInt("PacketStatisticsLogTop", 10);
+			COALESCE_INFO_BROADCASTS = serverSettings.getBoolean("CoalesceInfoBroadcasts", true);
+			DEFERRED_VISIBILITY_UPDATES = serverSettings.getBoolean("DeferredVisibilityUpdates", true);
+			VISIBILITY_UPDATES_PER_TICK = serverSettings.getInt("VisibilityUpdatesPerTick", 50);
 			IO_PACKET_THREAD_CORE_SIZE = serverSettings.getInt("UrgentPacketThreadCoreSize", 2);
 			
 			DEADLOCK_DETECTOR = serverSettings.getBoolean("DeadLockDetector", true);
@@ -2092,6 +2120,7 @@ public final class Config
 			BBS_DEFAULT = General.getString("BBSDefault", "_bbshome");
 			USE_SAY_FILTER = General.getBoolean("UseChatFilter", false);
 			CHAT_FILTER_CHARS = General.getString("ChatFilterChars", "^_^");
+			CHAT_FILTER_REGEX = General.getBoolean("ChatFilterRegex", false);
 			final String[] propertySplit4 = General.getString("BanChatChannels", "GENERAL;SHOUT;WORLD;TRADE;HERO_VOICE").trim().split(";");
 			BAN_CHAT_CHANNELS = new HashSet<>();
 			try
@@ -2898,6 +2927,7 @@ public final class Config
 			RESTORE_OFFLINERS = OfflineTrade.getBoolean("RestoreOffliners", false);
 			OFFLINE_MAX_DAYS = OfflineTrade.getInt("OfflineMaxDays", 10);
 			STORE_OFFLINE_TRADE_IN_REALTIME = OfflineTrade.getBoolean("StoreOfflineTradeInRealtime", true);
+			OFFLINE_TRADE_JOURNAL_INTERVAL = OfflineTrade.getInt("OfflineTradeJournalInterval", 1000);
 			OFFLINE_DISCONNECT_FINISHED = OfflineTrade.getBoolean("OfflineDisconnectFinished", true);
 			
 			// Load PasswordChange config file (if exists)
@@ -19,26 +19,52 @@ package com.l2jmobius.commons.concurrent;
 import java.lang.Thread.UncaughtExceptionHandler;
 
 /**
+ * Runs a pooled task, keeping the pool thread alive when it throws and recording its timings in its {@link TaskCategory}.
  * @author UnAfraid
  */
 public final class RunnableWrapper implements Runnable
 {
 	private final Runnable _runnable;
+	private final TaskCategory _category;
+	private volatile long _readyTime;
 	
 	public RunnableWrapper(Runnable runnable)
+	{
+		this(runnable, TaskCategory.of(runnable));
+	}
+	
+	public RunnableWrapper(Runnable runnable, TaskCategory category)
 	{
 		_runnable = runnable;
+		_category = category;
+	}
+	
+	public TaskCategory getCategory()
+	{
+		return _category;
+	}
+	
+	/**
+	 * Counts a submission of the task to the pool.
+	 * @param readyTime the {@link System#nanoTime()} at which the task became due, used to measure its wait
+	 */
+	void markReady(long readyTime)
+	{
+		_readyTime = readyTime;
+		_category.getStatistics().onSubmit();
 	}
 	
 	@Override
 	public void run()
 	{
+		final long start = System.nanoTime();
 		try
 		{
 			_runnable.run();
 		}
 		catch (final Throwable e)
 		{
+			_category.getStatistics().onFailure();
 			final Thread t = Thread.currentThread();
 			final UncaughtExceptionHandler h = t.getUncaughtExceptionHandler();
 			if (h != null)
@@ -46,5 +72,21 @@ public final class RunnableWrapper implements Runnable
 				h.uncaughtException(t, e);
 			}
 		}
+		finally
+		{
+			final long wait = start - _readyTime;
+			final long run = System.nanoTime() - start;
+			_category.getStatistics().onRun(wait, run);
+			if (TaskProfiler.isEnabled())
+			{
+				TaskProfiler.record(_runnable, wait, run);
+			}
+		}
+	}
+	
+	@Override
+	public String toString()
+	{
+		return _runnable.toString();
 	}
 }
@@ -0,0 +1,185 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jmobius.commons.concurrent;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One shot or fixed rate task of the {@link TimingWheel}.<br>
+ * The wheel only hands due tasks to the instant pool, the task reschedules itself after each periodic run, so a periodic task never runs concurrently with itself.<br>
+ * Cancelling never interrupts a running task, the task just does not run again.
+ * @author Mobius
+ */
+final class ScheduledTask implements ScheduledFuture<Object>, Runnable
+{
+	private static final int WAITING = 0;
+	private static final int RUNNING = 1;
+	private static final int DONE = 2;
+	private static final int CANCELLED = 3;
+	
+	private final RunnableWrapper _task;
+	private final TimingWheel _wheel;
+	/** Period in nanoseconds, 0 for a one shot task. */
+	private final long _period;
+	private final AtomicInteger _state = new AtomicInteger(WAITING);
+	private volatile long _deadline;
+	
+	// Wheel bookkeeping, only used by the wheel thread.
+	long _rounds;
+	ScheduledTask _next;
+	
+	ScheduledTask(RunnableWrapper task, TimingWheel wheel, long deadline, long period)
+	{
+		_task = task;
+		_wheel = wheel;
+		_deadline = deadline;
+		_period = period;
+	}
+	
+	long getDeadline()
+	{
+		return _deadline;
+	}
+	
+	RunnableWrapper getTask()
+	{
+		return _task;
+	}
+	
+	@Override
+	public void run()
+	{
+		if (!_state.compareAndSet(WAITING, RUNNING))
+		{
+			return;
+		}
+		
+		_task.run();
+		
+		if (_period == 0)
+		{
+			// A cancel while running is kept, like FutureTask.
+			if (_state.compareAndSet(RUNNING, DONE))
+			{
+				synchronized (this)
+				{
+					notifyAll();
+				}
+			}
+		}
+		else
+		{
+			// Fixed rate, a late task catches up like in ScheduledThreadPoolExecutor.
+			_deadline += _period;
+			if (_state.compareAndSet(RUNNING, WAITING))
+			{
+				_wheel.schedule(this);
+			}
+		}
+	}
+	
+	@Override
+	public boolean cancel(boolean mayInterruptIfRunning)
+	{
+		while (true)
+		{
+			final int state = _state.get();
+			if ((state == DONE) || (state == CANCELLED))
+			{
+				return false;
+			}
+			if (_state.compareAndSet(state, CANCELLED))
+			{
+				synchronized (this)
+				{
+					notifyAll();
+				}
+				return true;
+			}
+		}
+	}
+	
+	@Override
+	public boolean isCancelled()
+	{
+		return _state.get() == CANCELLED;
+	}
+	
+	@Override
+	public boolean isDone()
+	{
+		final int state = _state.get();
+		return (state == DONE) || (state == CANCELLED);
+	}
+	
+	@Override
+	public long getDelay(TimeUnit unit)
+	{
+		return unit.convert(_deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+	}
+	
+	@Override
+	public int compareTo(Delayed other)
+	{
+		return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+	}
+	
+	@Override
+	public synchronized Object get() throws InterruptedException
+	{
+		while (!isDone())
+		{
+			wait();
+		}
+		if (isCancelled())
+		{
+			throw new CancellationException();
+		}
+		return null;
+	}
+	
+	@Override
+	public synchronized Object get(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException
+	{
+		final long end = System.nanoTime() + unit.toNanos(timeout);
+		while (!isDone())
+		{
+			final long remaining = end - System.nanoTime();
+			if (remaining <= 0)
+			{
+				throw new TimeoutException();
+			}
+			TimeUnit.NANOSECONDS.timedWait(this, remaining);
+		}
+		if (isCancelled())
+		{
+			throw new CancellationException();
+		}
+		return null;
+	}
+	
+	@Override
+	public String toString()
+	{
+		return _task.toString();
+	}
+}
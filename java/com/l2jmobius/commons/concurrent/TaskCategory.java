@@ -0,0 +1,90 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jmobius.commons.concurrent;
+
+/**
+ * Kind of work a pooled task does, each category keeps its own {@link TaskStatistics}.<br>
+ * Tasks submitted without a category are classified once per task class, from its package and name.
+ * @author Mobius
+ */
+public enum TaskCategory
+{
+	AI,
+	COMBAT,
+	EFFECT,
+	MOVEMENT,
+	DATABASE,
+	SCRIPT,
+	GENERAL;
+	
+	private static final ClassValue<TaskCategory> BY_CLASS = new ClassValue<>()
+	{
+		@Override
+		protected TaskCategory computeValue(Class<?> type)
+		{
+			return classify(type);
+		}
+	};
+	
+	private final TaskStatistics _statistics = new TaskStatistics();
+	
+	public TaskStatistics getStatistics()
+	{
+		return _statistics;
+	}
+	
+	/**
+	 * @param task the task
+	 * @return the category of the task class
+	 */
+	public static TaskCategory of(Runnable task)
+	{
+		return BY_CLASS.get(task.getClass());
+	}
+	
+	private static TaskCategory classify(Class<?> type)
+	{
+		// Scripts are compiled at runtime, so they have their own class loader.
+		if (type.getClassLoader() != TaskCategory.class.getClassLoader())
+		{
+			return SCRIPT;
+		}
+		
+		final String name = type.getName();
+		if (name.contains(".ai.") || name.contains("AITask"))
+		{
+			return AI;
+		}
+		if (name.contains(".model.effects.") || name.contains(".model.skills.") || name.contains("Effect") || name.contains("Buff"))
+		{
+			return EFFECT;
+		}
+		if (name.contains("Move") || name.contains("Follow") || name.contains("GameTimeController"))
+		{
+			return MOVEMENT;
+		}
+		if (name.contains(".database.") || name.contains(".data.sql.") || name.contains("Save") || name.contains("Store"))
+		{
+			return DATABASE;
+		}
+		if (name.contains(".model.quest.") || name.contains(".scripting."))
+		{
+			return SCRIPT;
+		}
+		return GENERAL;
+	}
+}
@@ -0,0 +1,192 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jmobius.commons.concurrent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.l2jmobius.Config;
+
+/**
+ * Sampling profiler of the pooled tasks, aggregated per task class.<br>
+ * Each lambda or method reference has its own class, so lambdas are reported per call site.<br>
+ * Every run is counted in a striped counter, while run time and wait are only recorded for one run out of {@link Config#THREAD_POOL_PROFILER_SAMPLE_RATE}, which keeps the cost of an enabled profiler far below one percent of the task time.
+ * @author Mobius
+ */
+public final class TaskProfiler
+{
+	private static final Collection<TaskProfile> ALL_PROFILES = new ConcurrentLinkedQueue<>();
+	private static final ClassValue<TaskProfile> PROFILES = new ClassValue<>()
+	{
+		@Override
+		protected TaskProfile computeValue(Class<?> type)
+		{
+			final TaskProfile profile = new TaskProfile(type);
+			ALL_PROFILES.add(profile);
+			return profile;
+		}
+	};
+	
+	private static volatile boolean _enabled;
+	private static volatile int _sampleRate = 1;
+	
+	private TaskProfiler()
+	{
+	}
+	
+	public static void init()
+	{
+		setSampleRate(Config.THREAD_POOL_PROFILER_SAMPLE_RATE);
+		setEnabled(Config.THREAD_POOL_PROFILER);
+	}
+	
+	public static boolean isEnabled()
+	{
+		return _enabled;
+	}
+	
+	public static void setEnabled(boolean enabled)
+	{
+		_enabled = enabled;
+	}
+	
+	public static int getSampleRate()
+	{
+		return _sampleRate;
+	}
+	
+	/**
+	 * @param sampleRate record the timings of one run out of this many, 1 to record all of them
+	 */
+	public static void setSampleRate(int sampleRate)
+	{
+		_sampleRate = Math.max(1, sampleRate);
+	}
+	
+	/**
+	 * Accounts a finished run of a task.
+	 * @param task the task
+	 * @param waitNanos the time between the moment the task was due and its start
+	 * @param runNanos the run time
+	 */
+	static void record(Runnable task, long waitNanos, long runNanos)
+	{
+		final TaskProfile profile = PROFILES.get(task.getClass());
+		profile._runs.increment();
+		final int sampleRate = _sampleRate;
+		if ((sampleRate == 1) || (ThreadLocalRandom.current().nextInt(sampleRate) == 0))
+		{
+			profile._wait.record(waitNanos);
+			profile._run.record(runNanos);
+		}
+	}
+	
+	/**
+	 * @param count the maximum number of profiles
+	 * @return the profiles with the highest estimated total run time first
+	 */
+	public static List<TaskProfile> getTopProfiles(int count)
+	{
+		final List<TaskProfile> profiles = new ArrayList<>(ALL_PROFILES);
+		profiles.removeIf(profile -> profile.getRuns() == 0);
+		profiles.sort(Comparator.comparingLong(TaskProfile::getEstimatedTotalRun).reversed());
+		return profiles.size() > count ? profiles.subList(0, count) : profiles;
+	}
+	
+	public static void reset()
+	{
+		for (TaskProfile profile : ALL_PROFILES)
+		{
+			profile._runs.reset();
+			profile._wait.reset();
+			profile._run.reset();
+		}
+	}
+	
+	/**
+	 * @param count the maximum number of profiles
+	 * @return the report of the profiles with the highest estimated total run time
+	 */
+	public static String[] getStats(int count)
+	{
+		final List<String> stats = new ArrayList<>();
+		stats.add("Task profiler: " + (_enabled ? "enabled" : "disabled") + ", sampling 1/" + _sampleRate + " runs.");
+		for (TaskProfile profile : getTopProfiles(count))
+		{
+			stats.add(profile.getName() + ":");
+			stats.add(" |- Runs: ............. " + profile.getRuns());
+			stats.add(" |- EstimatedTotal: ... " + (profile.getEstimatedTotalRun() / 1000) + "ms");
+			stats.add(" |- Run: .............. " + profile.getRun());
+			stats.add(" |- Wait: ............. " + profile.getWait());
+			stats.add(" | -------");
+		}
+		return stats.toArray(new String[stats.size()]);
+	}
+	
+	/**
+	 * Runs and sampled timings of one task class.
+	 */
+	public static final class TaskProfile
+	{
+		private final String _name;
+		private final LongAdder _runs = new LongAdder();
+		private final TimeHistogram _wait = new TimeHistogram();
+		private final TimeHistogram _run = new TimeHistogram();
+		
+		TaskProfile(Class<?> type)
+		{
+			// Hidden lambda classes end with an address, which only makes the name longer.
+			final String name = type.getName();
+			final int address = name.indexOf('/');
+			_name = name.substring(name.lastIndexOf('.', address < 0 ? name.length() : address) + 1, address < 0 ? name.length() : address);
+		}
+		
+		public String getName()
+		{
+			return _name;
+		}
+		
+		public long getRuns()
+		{
+			return _runs.sum();
+		}
+		
+		/**
+		 * @return the total run time of all runs in microseconds, extrapolated from the samples
+		 */
+		public long getEstimatedTotalRun()
+		{
+			final long samples = _run.getCount();
+			return samples == 0 ? 0 : (long) (((double) _run.getTotal() * getRuns()) / samples);
+		}
+		
+		public TimeHistogram getWait()
+		{
+			return _wait;
+		}
+		
+		public TimeHistogram getRun()
+		{
+			return _run;
+		}
+	}
+}
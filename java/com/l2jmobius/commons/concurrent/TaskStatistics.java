@@ -0,0 +1,82 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jmobius.commons.concurrent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Execution counters and timings of the tasks of one {@link TaskCategory}.
+ * @author Mobius
+ */
+public final class TaskStatistics
+{
+	private final LongAdder _submitted = new LongAdder();
+	private final LongAdder _failed = new LongAdder();
+	/** Time between the moment a task was due and the moment it started. */
+	private final TimeHistogram _wait = new TimeHistogram();
+	/** Time a task was running. */
+	private final TimeHistogram _run = new TimeHistogram();
+	
+	void onSubmit()
+	{
+		_submitted.increment();
+	}
+	
+	void onFailure()
+	{
+		_failed.increment();
+	}
+	
+	void onRun(long waitNanos, long runNanos)
+	{
+		_wait.record(waitNanos);
+		_run.record(runNanos);
+	}
+	
+	public long getSubmitted()
+	{
+		return _submitted.sum();
+	}
+	
+	public long getCompleted()
+	{
+		return _run.getCount();
+	}
+	
+	public long getFailed()
+	{
+		return _failed.sum();
+	}
+	
+	public TimeHistogram getWait()
+	{
+		return _wait;
+	}
+	
+	public TimeHistogram getRun()
+	{
+		return _run;
+	}
+	
+	public void reset()
+	{
+		_submitted.reset();
+		_failed.reset();
+		_wait.reset();
+		_run.reset();
+	}
+}
@@ -16,77 +16,80 @@
  */
 package com.l2jmobius.commons.concurrent;
 
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 
 import com.l2jmobius.Config;
 
 /**
- * This class handles thread pooling system. It relies on two ThreadPoolExecutor arrays, which poolers number is generated using config.
+ * This class handles thread pooling system. Its size and behaviour are generated using config.
  * <p>
- * Those arrays hold following pools:
+ * It holds following executors:
  * </p>
  * <ul>
- * <li>Scheduled pool keeps a track about incoming, future events.</li>
- * <li>Instant pool handles short-life events.</li>
+ * <li>Instant pool, a work stealing pool that runs all short-life tasks, including the scheduled ones once they are due.</li>
+ * <li>Scheduler, a single timing wheel thread that keeps a track about incoming, future events.</li>
+ * <li>Combat scheduler, a finer timing wheel for hit, cast and ready to act events, whose due tasks run in batches.</li>
+ * <li>Blocking pool, for long jobs that wait on I/O. It uses virtual threads when enabled and provided by the runtime.</li>
  * </ul>
+ * Every task belongs to a {@link TaskCategory}, whose timings are reported by {@link #getStats()}.
  */
 public final class ThreadPool
 {
 	private static final Logger LOGGER = Logger.getLogger(ThreadPool.class.getName());
 	
-	private static ScheduledThreadPoolExecutor[] SCHEDULED_POOLS;
-	private static ThreadPoolExecutor[] INSTANT_POOLS;
-	private static int THREAD_POOL_RANDOMIZER;
+	private static ForkJoinPool INSTANT_POOL;
+	private static TimingWheel SCHEDULER;
+	private static TimingWheel COMBAT_SCHEDULER;
+	private static ExecutorService BLOCKING_POOL;
+	private static boolean VIRTUAL_THREADS;
 	
 	/**
 	 * Init the different pools, based on Config. It is launched only once, on Gameserver instance.
 	 */
 	public static void init()
 	{
-		// Feed scheduled pool.
-		int scheduledPoolCount = Config.SCHEDULED_THREAD_POOL_COUNT;
-		if (scheduledPoolCount == -1)
-		{
-			scheduledPoolCount = Runtime.getRuntime().availableProcessors();
-		}
-		
-		SCHEDULED_POOLS = new ScheduledThreadPoolExecutor[scheduledPoolCount];
-		for (int i = 0; i < scheduledPoolCount; i++)
-		{
-			SCHEDULED_POOLS[i] = new ScheduledThreadPoolExecutor(Config.THREADS_PER_SCHEDULED_THREAD_POOL);
-		}
-		
 		// Feed instant pool.
-		int instantPoolCount = Config.INSTANT_THREAD_POOL_COUNT;
-		if (instantPoolCount == -1)
+		int poolSize = Config.THREAD_POOL_SIZE;
+		if (poolSize == -1)
 		{
-			instantPoolCount = Runtime.getRuntime().availableProcessors();
+			poolSize = Runtime.getRuntime().availableProcessors() * 4;
 		}
 		
-		INSTANT_POOLS = new ThreadPoolExecutor[instantPoolCount];
-		for (int i = 0; i < instantPoolCount; i++)
+		final AtomicInteger instantThreads = new AtomicInteger();
+		INSTANT_POOL = new ForkJoinPool(poolSize, pool ->
 		{
-			INSTANT_POOLS[i] = new ThreadPoolExecutor(Config.THREADS_PER_INSTANT_THREAD_POOL, Config.THREADS_PER_INSTANT_THREAD_POOL, 0, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(100000));
-		}
+			final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+			thread.setName("ThreadPool-Instant-" + instantThreads.incrementAndGet());
+			return thread;
+		}, null, true);
 		
-		// Prestart core threads.
-		for (ScheduledThreadPoolExecutor threadPool : SCHEDULED_POOLS)
-		{
-			threadPool.setRejectedExecutionHandler(new RejectedExecutionHandlerImpl());
-			threadPool.prestartAllCoreThreads();
-		}
+		// Feed scheduler.
+		SCHEDULER = new TimingWheel(INSTANT_POOL, Config.THREAD_POOL_TICK);
+		COMBAT_SCHEDULER = new TimingWheel(INSTANT_POOL, Config.THREAD_POOL_COMBAT_TICK, "ThreadPool-CombatScheduler", true);
 		
-		for (ThreadPoolExecutor threadPool : INSTANT_POOLS)
+		// Feed blocking pool.
+		BLOCKING_POOL = Config.THREAD_POOL_VIRTUAL_THREADS ? newVirtualThreadExecutor() : null;
+		VIRTUAL_THREADS = BLOCKING_POOL != null;
+		if (BLOCKING_POOL == null)
 		{
-			threadPool.setRejectedExecutionHandler(new RejectedExecutionHandlerImpl());
-			threadPool.prestartAllCoreThreads();
+			final AtomicInteger blockingThreads = new AtomicInteger();
+			final ThreadPoolExecutor blockingPool = new ThreadPoolExecutor(Config.BLOCKING_THREAD_POOL_SIZE, Config.BLOCKING_THREAD_POOL_SIZE, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> new Thread(r, "ThreadPool-Blocking-" + blockingThreads.incrementAndGet()));
+			blockingPool.allowCoreThreadTimeOut(true);
+			BLOCKING_POOL = blockingPool;
 		}
 		
+		TaskProfiler.init();
+		
 		// Launch purge task.
 		scheduleAtFixedRate(() ->
 		{
@@ -94,42 +97,76 @@ public final class ThreadPool
 		}, 600000, 600000);
 		
 		LOGGER.info("ThreadPool: Initialized");
-		LOGGER.info("..." + scheduledPoolCount + " scheduled pool executors with " + (scheduledPoolCount * Config.THREADS_PER_SCHEDULED_THREAD_POOL) + " total threads.");
-		LOGGER.info("..." + instantPoolCount + " instant pool executors with " + (instantPoolCount * Config.THREADS_PER_INSTANT_THREAD_POOL) + " total threads.");
+		LOGGER.info("...work stealing instant pool with " + poolSize + " threads.");
+		LOGGER.info("...timing wheel scheduler with a " + SCHEDULER.getTickMillis() + "ms tick.");
+		LOGGER.info("...combat scheduler with a " + COMBAT_SCHEDULER.getTickMillis() + "ms tick.");
+		LOGGER.info("...blocking pool with " + (VIRTUAL_THREADS ? "virtual threads." : Config.BLOCKING_THREAD_POOL_SIZE + " threads."));
 	}
 	
-	public static void purge()
+	/**
+	 * Virtual threads are not part of the Java version the server is built with, so they are looked up at runtime.
+	 * @return a virtual thread per task executor, or {@code null} if the runtime does not provide them
+	 */
+	private static ExecutorService newVirtualThreadExecutor()
 	{
-		for (ScheduledThreadPoolExecutor threadPool1 : SCHEDULED_POOLS)
+		try
 		{
-			threadPool1.purge();
+			return (ExecutorService) java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
 		}
-		for (ThreadPoolExecutor threadPool2 : INSTANT_POOLS)
+		catch (Exception e)
 		{
-			threadPool2.purge();
+			LOGGER.warning("ThreadPool: Virtual threads are not supported by this Java version, using platform threads.");
+			return null;
 		}
 	}
 	
+	public static void purge()
+	{
+		SCHEDULER.purge();
+		COMBAT_SCHEDULER.purge();
+	}
+	
 	/**
-	 * Schedules a one-shot action that becomes enabled after a delay. The pool is chosen based on pools activity.
+	 * Schedules a one-shot action that becomes enabled after a delay.
 	 * @param r : the task to execute.
 	 * @param delay : the time from now to delay execution.
 	 * @return a ScheduledFuture representing pending completion of the task and whose get() method will return null upon completion.
 	 */
 	public static ScheduledFuture<?> schedule(Runnable r, long delay)
 	{
-		try
-		{
-			return getPool(SCHEDULED_POOLS).schedule(new RunnableWrapper(r), delay, TimeUnit.MILLISECONDS);
-		}
-		catch (Exception e)
-		{
-			return null;
-		}
+		return schedule(TaskCategory.of(r), r, delay);
 	}
 	
 	/**
-	 * Schedules a periodic action that becomes enabled after a delay. The pool is chosen based on pools activity.
+	 * Schedules a one-shot action that becomes enabled after a delay.
+	 * @param category : the category the task is accounted to.
+	 * @param r : the task to execute.
+	 * @param delay : the time from now to delay execution.
+	 * @return a ScheduledFuture representing pending completion of the task and whose get() method will return null upon completion.
+	 */
+	public static ScheduledFuture<?> schedule(TaskCategory category, Runnable r, long delay)
+	{
+		final ScheduledTask task = new ScheduledTask(new RunnableWrapper(r, category), SCHEDULER, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delay)), 0);
+		SCHEDULER.schedule(task);
+		return task;
+	}
+	
+	/**
+	 * Schedules a one-shot combat event, such as a hit, a cast step or a ready to act notification, on the combat scheduler.<br>
+	 * The wait of these tasks is accounted to {@link TaskCategory#COMBAT}.
+	 * @param r : the task to execute.
+	 * @param delay : the time from now to delay execution.
+	 * @return a ScheduledFuture representing pending completion of the task, cancelling it only flags it.
+	 */
+	public static ScheduledFuture<?> scheduleCombat(Runnable r, long delay)
+	{
+		final ScheduledTask task = new ScheduledTask(new RunnableWrapper(r, TaskCategory.COMBAT), COMBAT_SCHEDULER, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delay)), 0);
+		COMBAT_SCHEDULER.schedule(task);
+		return task;
+	}
+	
+	/**
+	 * Schedules a periodic action that becomes enabled after a delay.
 	 * @param r : the task to execute.
 	 * @param delay : the time from now to delay execution.
 	 * @param period : the period between successive executions.
@@ -137,14 +174,26 @@ public final class ThreadPool
 	 */
 	public static ScheduledFuture<?> scheduleAtFixedRate(Runnable r, long delay, long period)
 	{
-		try
-		{
-			return getPool(SCHEDULED_POOLS).scheduleAtFixedRate(new RunnableWrapper(r), delay, period, TimeUnit.MILLISECONDS);
-		}
-		catch (Exception e)
+		return scheduleAtFixedRate(TaskCategory.of(r), r, delay, period);
+	}
+	
+	/**
+	 * Schedules a periodic action that becomes enabled after a delay.
+	 * @param category : the category the task is accounted to.
+	 * @param r : the task to execute.
+	 * @param delay : the time from now to delay execution.
+	 * @param period : the period between successive executions.
+	 * @return a ScheduledFuture representing pending completion of the task and whose get() method will throw an exception upon cancellation.
+	 */
+	public static ScheduledFuture<?> scheduleAtFixedRate(TaskCategory category, Runnable r, long delay, long period)
+	{
+		if (period <= 0)
 		{
-			return null;
+			throw new IllegalArgumentException("Period must be positive: " + period);
 		}
+		final ScheduledTask task = new ScheduledTask(new RunnableWrapper(r, category), SCHEDULER, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delay)), TimeUnit.MILLISECONDS.toNanos(period));
+		SCHEDULER.schedule(task);
+		return task;
 	}
 	
 	/**
@@ -153,9 +202,21 @@ public final class ThreadPool
 	 */
 	public static void execute(Runnable r)
 	{
+		execute(TaskCategory.of(r), r);
+	}
+	
+	/**
+	 * Executes the given task sometime in the future.
+	 * @param category : the category the task is accounted to.
+	 * @param r : the task to execute.
+	 */
+	public static void execute(TaskCategory category, Runnable r)
+	{
+		final RunnableWrapper task = new RunnableWrapper(r, category);
+		task.markReady(System.nanoTime());
 		try
 		{
-			getPool(INSTANT_POOLS).execute(new RunnableWrapper(r));
+			INSTANT_POOL.execute(task);
 		}
 		catch (Exception e)
 		{
@@ -163,48 +224,67 @@ public final class ThreadPool
 	}
 	
 	/**
-	 * @param <T> : The pool type.
-	 * @param threadPools : The pool array to check.
-	 * @return the less fed pool.
+	 * Executes a task that spends most of its time waiting, such as file or database I/O, outside of the instant pool.
+	 * @param r : the task to execute.
 	 */
-	private static <T> T getPool(T[] threadPools)
+	public static void executeBlocking(Runnable r)
 	{
-		return threadPools[THREAD_POOL_RANDOMIZER++ % threadPools.length];
+		final RunnableWrapper task = new RunnableWrapper(r);
+		task.markReady(System.nanoTime());
+		try
+		{
+			BLOCKING_POOL.execute(task);
+		}
+		catch (Exception e)
+		{
+		}
 	}
 	
 	public static String[] getStats()
 	{
-		final String[] stats = new String[(SCHEDULED_POOLS.length + INSTANT_POOLS.length) * 10];
-		int pos = 0;
-		for (int i = 0; i < SCHEDULED_POOLS.length; i++)
-		{
-			final ScheduledThreadPoolExecutor threadPool = SCHEDULED_POOLS[i];
-			stats[pos++] = "Scheduled pool #" + i + ":";
-			stats[pos++] = " |- ActiveCount: ...... " + threadPool.getActiveCount();
-			stats[pos++] = " |- CorePoolSize: ..... " + threadPool.getCorePoolSize();
-			stats[pos++] = " |- PoolSize: ......... " + threadPool.getPoolSize();
-			stats[pos++] = " |- LargestPoolSize: .. " + threadPool.getLargestPoolSize();
-			stats[pos++] = " |- MaximumPoolSize: .. " + threadPool.getMaximumPoolSize();
-			stats[pos++] = " |- CompletedTaskCount: " + threadPool.getCompletedTaskCount();
-			stats[pos++] = " |- QueuedTaskCount: .. " + threadPool.getQueue().size();
-			stats[pos++] = " |- TaskCount: ........ " + threadPool.getTaskCount();
-			stats[pos++] = " | -------";
+		final List<String> stats = new ArrayList<>();
+		stats.add("Instant pool:");
+		stats.add(" |- ActiveCount: ...... " + INSTANT_POOL.getActiveThreadCount());
+		stats.add(" |- RunningCount: ..... " + INSTANT_POOL.getRunningThreadCount());
+		stats.add(" |- PoolSize: ......... " + INSTANT_POOL.getPoolSize());
+		stats.add(" |- Parallelism: ...... " + INSTANT_POOL.getParallelism());
+		stats.add(" |- QueuedTaskCount: .. " + (INSTANT_POOL.getQueuedTaskCount() + INSTANT_POOL.getQueuedSubmissionCount()));
+		stats.add(" |- StealCount: ....... " + INSTANT_POOL.getStealCount());
+		stats.add(" | -------");
+		stats.add("Scheduler:");
+		stats.add(" |- Tick: ............. " + SCHEDULER.getTickMillis() + "ms");
+		stats.add(" |- ScheduledCount: ... " + SCHEDULER.size());
+		stats.add(" | -------");
+		stats.add("Combat scheduler:");
+		stats.add(" |- Tick: ............. " + COMBAT_SCHEDULER.getTickMillis() + "ms");
+		stats.add(" |- ScheduledCount: ... " + COMBAT_SCHEDULER.size());
+		stats.add(" |- Batches: .......... " + COMBAT_SCHEDULER.getBatches());
+		stats.add(" | -------");
+		stats.add("Blocking pool:");
+		if (BLOCKING_POOL instanceof ThreadPoolExecutor)
+		{
+			final ThreadPoolExecutor blockingPool = (ThreadPoolExecutor) BLOCKING_POOL;
+			stats.add(" |- ActiveCount: ...... " + blockingPool.getActiveCount());
+			stats.add(" |- PoolSize: ......... " + blockingPool.getPoolSize());
+			stats.add(" |- QueuedTaskCount: .. " + blockingPool.getQueue().size());
 		}
-		for (int i = 0; i < INSTANT_POOLS.length; i++)
-		{
-			final ThreadPoolExecutor threadPool = INSTANT_POOLS[i];
-			stats[pos++] = "Instant pool #" + i + ":";
-			stats[pos++] = " |- ActiveCount: ...... " + threadPool.getActiveCount();
-			stats[pos++] = " |- CorePoolSize: ..... " + threadPool.getCorePoolSize();
-			stats[pos++] = " |- PoolSize: ......... " + threadPool.getPoolSize();
-			stats[pos++] = " |- LargestPoolSize: .. " + threadPool.getLargestPoolSize();
-			stats[pos++] = " |- MaximumPoolSize: .. " + threadPool.getMaximumPoolSize();
-			stats[pos++] = " |- CompletedTaskCount: " + threadPool.getCompletedTaskCount();
-			stats[pos++] = " |- QueuedTaskCount: .. " + threadPool.getQueue().size();
-			stats[pos++] = " |- TaskCount: ........ " + threadPool.getTaskCount();
-			stats[pos++] = " | -------";
+		else
+		{
+			stats.add(" |- Virtual threads");
+		}
+		stats.add(" | -------");
+		for (TaskCategory category : TaskCategory.values())
+		{
+			final TaskStatistics statistics = category.getStatistics();
+			stats.add("Tasks " + category + ":");
+			stats.add(" |- Submitted: ........ " + statistics.getSubmitted());
+			stats.add(" |- Completed: ........ " + statistics.getCompleted());
+			stats.add(" |- Failed: ........... " + statistics.getFailed());
+			stats.add(" |- Wait: ............. " + statistics.getWait());
+			stats.add(" |- Run: .............. " + statistics.getRun());
+			stats.add(" | -------");
 		}
-		return stats;
+		return stats.toArray(new String[stats.size()]);
 	}
 	
 	/**
@@ -216,19 +296,14 @@ public final class ThreadPool
 		{
 			LOGGER.info("ThreadPool: Shutting down.");
 			
-			for (ScheduledThreadPoolExecutor threadPool : SCHEDULED_POOLS)
-			{
-				threadPool.shutdownNow();
-			}
-			
-			for (ThreadPoolExecutor threadPool : INSTANT_POOLS)
-			{
-				threadPool.shutdownNow();
-			}
+			SCHEDULER.shutdown();
+			COMBAT_SCHEDULER.shutdown();
+			INSTANT_POOL.shutdownNow();
+			BLOCKING_POOL.shutdownNow();
 		}
 		catch (Throwable t)
 		{
 			t.printStackTrace();
 		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,125 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jmobius.commons.concurrent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock free histogram of durations, with power of two microsecond buckets.<br>
+ * Percentiles are reported as the upper bound of their bucket, so they are accurate to a factor of two.
+ * @author Mobius
+ */
+public final class TimeHistogram
+{
+	/** Bucket i holds durations below 2^i microseconds, the last one holds everything longer. */
+	private static final int BUCKETS = 32;
+	
+	private final AtomicLongArray _buckets = new AtomicLongArray(BUCKETS);
+	private final LongAdder _count = new LongAdder();
+	private final LongAdder _total = new LongAdder();
+	private final AtomicLong _max = new AtomicLong();
+	
+	/**
+	 * @param nanos the duration in nanoseconds, negative values count as zero
+	 */
+	public void record(long nanos)
+	{
+		final long duration = Math.max(0, nanos);
+		final long micros = duration / 1000;
+		_buckets.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros)));
+		_count.increment();
+		_total.add(duration);
+		if (duration > _max.get())
+		{
+			_max.accumulateAndGet(duration, Math::max);
+		}
+	}
+	
+	public long getCount()
+	{
+		return _count.sum();
+	}
+	
+	/**
+	 * @return the sum of the durations in microseconds
+	 */
+	public long getTotal()
+	{
+		return _total.sum() / 1000;
+	}
+	
+	/**
+	 * @return the mean duration in microseconds
+	 */
+	public long getMean()
+	{
+		final long count = _count.sum();
+		return count == 0 ? 0 : (_total.sum() / count) / 1000;
+	}
+	
+	/**
+	 * @return the longest duration in microseconds
+	 */
+	public long getMax()
+	{
+		return _max.get() / 1000;
+	}
+	
+	/**
+	 * @param percentile the percentile, between 0 and 100
+	 * @return the upper bound of the bucket holding the percentile in microseconds
+	 */
+	public long getPercentile(double percentile)
+	{
+		final long count = _count.sum();
+		if (count == 0)
+		{
+			return 0;
+		}
+		
+		final long rank = (long) Math.ceil((count * percentile) / 100);
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++)
+		{
+			seen += _buckets.get(i);
+			if (seen >= rank)
+			{
+				return i == (BUCKETS - 1) ? getMax() : Math.min(1L << i, getMax());
+			}
+		}
+		return getMax();
+	}
+	
+	public void reset()
+	{
+		for (int i = 0; i < BUCKETS; i++)
+		{
+			_buckets.set(i, 0);
+		}
+		_count.reset();
+		_total.reset();
+		_max.set(0);
+	}
+	
+	@Override
+	public String toString()
+	{
+		return "avg " + getMean() + "us, p50 " + getPercentile(50) + "us, p99 " + getPercentile(99) + "us, max " + getMax() + "us";
+	}
+}
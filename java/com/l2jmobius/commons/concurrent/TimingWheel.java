@@ -0,0 +1,297 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jmobius.commons.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Hashed timing wheel, the schedulers of the thread pool.<br>
+ * Scheduling only appends the task to a lock free queue. The wheel thread moves new tasks into their bucket, then on each tick hands the due tasks of the current bucket to the executor.<br>
+ * Tasks further away than one revolution stay in their bucket and count down the remaining revolutions, so scheduling and expiring are constant time.<br>
+ * A batched wheel hands the due tasks of a tick to the executor in batches that run one after another, instead of one pool task each.
+ * @author Mobius
+ */
+final class TimingWheel implements Runnable
+{
+	private static final Logger LOGGER = Logger.getLogger(TimingWheel.class.getName());
+	
+	private static final int WHEEL_BITS = 9;
+	private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+	private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+	/** Most tasks run by one pool task of a batched wheel, so a busy tick still spreads over the pool. */
+	private static final int BATCH_SIZE = 64;
+	
+	private final Executor _executor;
+	private final long _tickNanos;
+	private final long _startTime = System.nanoTime();
+	private final ScheduledTask[] _buckets = new ScheduledTask[WHEEL_SIZE];
+	private final Queue<ScheduledTask> _pending = new ConcurrentLinkedQueue<>();
+	private final Thread _thread;
+	/** Due tasks of the current tick not dispatched yet, {@code null} for a wheel dispatching each task on its own. */
+	private final List<ScheduledTask> _batch;
+	
+	/** Index of the tick being processed, only used by the wheel thread. */
+	private long _tick;
+	private volatile long _batches;
+	private volatile int _size;
+	private volatile boolean _purge;
+	private volatile boolean _running = true;
+	
+	TimingWheel(Executor executor, long tickMillis)
+	{
+		this(executor, tickMillis, "ThreadPool-Scheduler", false);
+	}
+	
+	/**
+	 * @param executor the executor of the due tasks
+	 * @param tickMillis the resolution of the wheel
+	 * @param name the name of the wheel thread
+	 * @param batched {@code true} to run the due tasks of a tick in batches
+	 */
+	TimingWheel(Executor executor, long tickMillis, String name, boolean batched)
+	{
+		_executor = executor;
+		_tickNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, tickMillis));
+		_batch = batched ? new ArrayList<>(BATCH_SIZE) : null;
+		_thread = new Thread(this, name);
+		_thread.setDaemon(true);
+		_thread.setPriority(Thread.MAX_PRIORITY);
+		_thread.start();
+	}
+	
+	/**
+	 * Queues a task for its deadline, a task that is already due goes straight to the executor.
+	 * @param task the task
+	 */
+	void schedule(ScheduledTask task)
+	{
+		if ((task.getDeadline() - System.nanoTime()) <= 0)
+		{
+			dispatch(task);
+		}
+		else
+		{
+			_pending.add(task);
+		}
+	}
+	
+	private void dispatch(ScheduledTask task)
+	{
+		task.getTask().markReady(task.getDeadline());
+		execute(task);
+	}
+	
+	/**
+	 * Adds a due task to the batch of the current tick, only called by the wheel thread.
+	 * @param task the task
+	 */
+	private void addToBatch(ScheduledTask task)
+	{
+		task.getTask().markReady(task.getDeadline());
+		_batch.add(task);
+		if (_batch.size() == BATCH_SIZE)
+		{
+			flushBatch();
+		}
+	}
+	
+	private void flushBatch()
+	{
+		if (_batch.isEmpty())
+		{
+			return;
+		}
+		
+		final ScheduledTask[] tasks = _batch.toArray(new ScheduledTask[_batch.size()]);
+		_batch.clear();
+		_batches++;
+		execute(() ->
+		{
+			for (ScheduledTask task : tasks)
+			{
+				task.run();
+			}
+		});
+	}
+	
+	private void execute(Runnable task)
+	{
+		try
+		{
+			_executor.execute(task);
+		}
+		catch (Exception e)
+		{
+			// Executor is shutting down.
+		}
+	}
+	
+	/**
+	 * Drops cancelled tasks from all buckets on the next tick, instead of when their bucket comes up.
+	 */
+	void purge()
+	{
+		_purge = true;
+	}
+	
+	/**
+	 * @return the number of waiting tasks, including cancelled ones that were not dropped yet
+	 */
+	int size()
+	{
+		return _size + _pending.size();
+	}
+	
+	long getTickMillis()
+	{
+		return TimeUnit.NANOSECONDS.toMillis(_tickNanos);
+	}
+	
+	/**
+	 * @return the number of batches handed to the executor by a batched wheel
+	 */
+	long getBatches()
+	{
+		return _batches;
+	}
+	
+	void shutdown()
+	{
+		_running = false;
+		LockSupport.unpark(_thread);
+	}
+	
+	@Override
+	public void run()
+	{
+		while (_running)
+		{
+			final long wait = (_startTime + ((_tick + 1) * _tickNanos)) - System.nanoTime();
+			if (wait > 0)
+			{
+				LockSupport.parkNanos(this, wait);
+				continue;
+			}
+			
+			try
+			{
+				transferPending();
+				if (_purge)
+				{
+					_purge = false;
+					for (int i = 0; i < WHEEL_SIZE; i++)
+					{
+						expire(i, false);
+					}
+				}
+				expire((int) (_tick & WHEEL_MASK), true);
+				if (_batch != null)
+				{
+					flushBatch();
+				}
+			}
+			catch (Throwable t)
+			{
+				LOGGER.log(Level.WARNING, "TimingWheel: Error on tick " + _tick + ".", t);
+			}
+			_tick++;
+		}
+	}
+	
+	private void transferPending()
+	{
+		ScheduledTask task;
+		while ((task = _pending.poll()) != null)
+		{
+			if (task.isDone())
+			{
+				continue;
+			}
+			
+			// The tick whose end is the first one at or after the deadline.
+			final long ticks = Math.floorDiv((task.getDeadline() - _startTime) + _tickNanos - 1, _tickNanos) - 1;
+			final long target = Math.max(ticks, _tick);
+			task._rounds = (target - _tick) >>> WHEEL_BITS;
+			final int index = (int) (target & WHEEL_MASK);
+			task._next = _buckets[index];
+			_buckets[index] = task;
+			_size++;
+		}
+	}
+	
+	/**
+	 * Walks one bucket, dropping cancelled tasks and counting down the others.
+	 * @param index the bucket
+	 * @param current {@code true} if this is the bucket of the current tick, whose due tasks are executed
+	 */
+	private void expire(int index, boolean current)
+	{
+		ScheduledTask previous = null;
+		ScheduledTask task = _buckets[index];
+		int removed = 0;
+		while (task != null)
+		{
+			final ScheduledTask next = task._next;
+			final boolean due = current && (task._rounds <= 0);
+			if (task.isDone() || due)
+			{
+				if (previous == null)
+				{
+					_buckets[index] = next;
+				}
+				else
+				{
+					previous._next = next;
+				}
+				task._next = null;
+				removed++;
+				if (due && !task.isDone())
+				{
+					if (_batch != null)
+					{
+						addToBatch(task);
+					}
+					else
+					{
+						dispatch(task);
+					}
+				}
+			}
+			else
+			{
+				if (current)
+				{
+					task._rounds--;
+				}
+				previous = task;
+			}
+			task = next;
+		}
+		if (removed > 0)
+		{
+			_size -= removed;
+		}
+	}
+}
@@ -0,0 +1,465 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jmobius.commons.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.l2jmobius.Config;
+
+/**
+ * Asynchronous writer for statements whose result the caller does not wait for.<br>
+ * Jobs are spread over a fixed number of writer threads, each one with its own bounded queue. Jobs submitted with the same key always go to the same writer, so they are executed in submission order.<br>
+ * A writer drains its queue on a single connection and sends consecutive jobs with identical SQL as one JDBC batch.<br>
+ * When a queue is full the submitting thread waits for free space, which is counted as backpressure. Before {@link #init()} and after {@link #shutdown()} jobs are executed on the calling thread.
+ * @author Mobius
+ */
+public final class DatabaseExecutor
+{
+	private static final Logger LOGGER = Logger.getLogger(DatabaseExecutor.class.getName());
+	
+	/** Maximum number of jobs a writer takes from its queue at once. */
+	private static final int DRAIN_LIMIT = 256;
+	private static final long SHUTDOWN_TIMEOUT = 60000;
+	/** Time an idle writer waits for a job before checking for shutdown. */
+	private static final long IDLE_POLL = 1000;
+	
+	private static final AtomicLong SUBMITTED = new AtomicLong();
+	private static final AtomicLong EXECUTED = new AtomicLong();
+	private static final AtomicLong BATCHES = new AtomicLong();
+	private static final AtomicLong BATCHED_STATEMENTS = new AtomicLong();
+	private static final AtomicLong FAILURES = new AtomicLong();
+	private static final AtomicLong CALLER_RUNS = new AtomicLong();
+	private static final AtomicLong BACKPRESSURE_WAITS = new AtomicLong();
+	private static final AtomicLong BACKPRESSURE_TIME = new AtomicLong();
+	
+	private static volatile Writer[] WRITERS;
+	private static volatile boolean SHUTDOWN;
+	
+	/**
+	 * Work that needs more than a single statement, executed on the connection of a writer.
+	 */
+	@FunctionalInterface
+	public interface DatabaseTask
+	{
+		void execute(Connection con) throws SQLException;
+	}
+	
+	private DatabaseExecutor()
+	{
+	}
+	
+	/**
+	 * Starts the writers, based on Config. The writer count is kept below the connection pool size, so synchronous callers always find a free connection.
+	 */
+	public static void init()
+	{
+		int writerCount = Config.DATABASE_ASYNC_WRITERS;
+		if (writerCount == -1)
+		{
+			writerCount = Math.max(1, Config.DATABASE_MAX_CONNECTIONS / 4);
+		}
+		writerCount = Math.max(1, Math.min(writerCount, Config.DATABASE_MAX_CONNECTIONS - 1));
+		
+		final Writer[] writers = new Writer[writerCount];
+		for (int i = 0; i < writerCount; i++)
+		{
+			writers[i] = new Writer(i, Config.DATABASE_ASYNC_QUEUE_SIZE);
+			writers[i].start();
+		}
+		SHUTDOWN = false;
+		WRITERS = writers;
+		
+		LOGGER.info("DatabaseExecutor: Initialized " + writerCount + " writers with a queue of " + Config.DATABASE_ASYNC_QUEUE_SIZE + " statements each.");
+	}
+	
+	/**
+	 * Queues a statement that does not depend on the order of other statements.
+	 * @param sql the statement
+	 * @param params the statement parameters
+	 */
+	public static void execute(String sql, Object... params)
+	{
+		submit(new Job(sql.hashCode(), sql, params, null));
+	}
+	
+	/**
+	 * Queues a statement, executed after all statements previously queued with the same key.
+	 * @param key the ordering key, usually the object id of the owner of the data
+	 * @param sql the statement
+	 * @param params the statement parameters
+	 */
+	public static void execute(int key, String sql, Object... params)
+	{
+		submit(new Job(key, sql, params, null));
+	}
+	
+	/**
+	 * Queues a task, executed after all statements previously queued with the same key.
+	 * @param key the ordering key, usually the object id of the owner of the data
+	 * @param task the task
+	 */
+	public static void execute(int key, DatabaseTask task)
+	{
+		submit(new Job(key, null, null, task));
+	}
+	
+	/**
+	 * Waits until the statements queued with the key so far are executed, before reading back the data they write.<br>
+	 * Must not be called from a task of the executor.
+	 * @param key the ordering key
+	 */
+	public static void await(int key)
+	{
+		final CountDownLatch done = new CountDownLatch(1);
+		execute(key, con -> done.countDown());
+		try
+		{
+			if (!done.await(SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS))
+			{
+				LOGGER.warning("DatabaseExecutor: Timed out waiting for the statements of key " + key + ".");
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	private static void submit(Job job)
+	{
+		SUBMITTED.incrementAndGet();
+		
+		final Writer[] writers = WRITERS;
+		if ((writers == null) || SHUTDOWN)
+		{
+			CALLER_RUNS.incrementAndGet();
+			runNow(job);
+			return;
+		}
+		
+		final BlockingQueue<Job> queue = writers[(job.key & 0x7FFFFFFF) % writers.length].getQueue();
+		if (queue.offer(job))
+		{
+			return;
+		}
+		
+		// Queue is full, wait for the writer instead of executing out of order.
+		BACKPRESSURE_WAITS.incrementAndGet();
+		final long start = System.currentTimeMillis();
+		try
+		{
+			queue.put(job);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			CALLER_RUNS.incrementAndGet();
+			runNow(job);
+		}
+		BACKPRESSURE_TIME.addAndGet(System.currentTimeMillis() - start);
+	}
+	
+	private static void runNow(Job job)
+	{
+		try (Connection con = DatabaseFactory.getConnection())
+		{
+			job.run(con);
+			EXECUTED.incrementAndGet();
+		}
+		catch (Exception e)
+		{
+			FAILURES.incrementAndGet();
+			LOGGER.log(Level.WARNING, "DatabaseExecutor: Could not execute " + job, e);
+		}
+	}
+	
+	/**
+	 * Stops accepting jobs and waits for the writers to execute the queued ones.
+	 */
+	public static void shutdown()
+	{
+		final Writer[] writers = WRITERS;
+		if ((writers == null) || SHUTDOWN)
+		{
+			return;
+		}
+		
+		SHUTDOWN = true;
+		LOGGER.info("DatabaseExecutor: Shutting down, " + getQueuedCount() + " statements queued.");
+		
+		final long deadline = System.currentTimeMillis() + SHUTDOWN_TIMEOUT;
+		for (Writer writer : writers)
+		{
+			try
+			{
+				writer.join(Math.max(1, deadline - System.currentTimeMillis()));
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		
+		// Jobs queued while the writers were stopping are executed here.
+		for (Writer writer : writers)
+		{
+			if (!writer.isAlive())
+			{
+				Job job;
+				while ((job = writer.getQueue().poll()) != null)
+				{
+					runNow(job);
+				}
+			}
+		}
+		
+		final int remaining = getQueuedCount();
+		if (remaining > 0)
+		{
+			LOGGER.warning("DatabaseExecutor: " + remaining + " statements were not executed before the timeout.");
+		}
+	}
+	
+	private static int getQueuedCount()
+	{
+		final Writer[] writers = WRITERS;
+		int count = 0;
+		if (writers != null)
+		{
+			for (Writer writer : writers)
+			{
+				count += writer.getQueue().size();
+			}
+		}
+		return count;
+	}
+	
+	public static String[] getStats()
+	{
+		final Writer[] writers = WRITERS;
+		final int writerCount = writers == null ? 0 : writers.length;
+		final String[] stats = new String[10 + (writerCount * 2)];
+		int pos = 0;
+		stats[pos++] = "Database executor:";
+		stats[pos++] = " |- Submitted: ........ " + SUBMITTED.get();
+		stats[pos++] = " |- Executed: ......... " + EXECUTED.get();
+		stats[pos++] = " |- Batches: .......... " + BATCHES.get();
+		stats[pos++] = " |- BatchedStatements:  " + BATCHED_STATEMENTS.get();
+		stats[pos++] = " |- Failures: ......... " + FAILURES.get();
+		stats[pos++] = " |- CallerRuns: ....... " + CALLER_RUNS.get();
+		stats[pos++] = " |- BackpressureWaits:  " + BACKPRESSURE_WAITS.get();
+		stats[pos++] = " |- BackpressureTime: . " + BACKPRESSURE_TIME.get() + "ms";
+		for (int i = 0; i < writerCount; i++)
+		{
+			stats[pos++] = " |- Writer #" + i + " QueuedCount: " + writers[i].getQueue().size();
+			stats[pos++] = " |- Writer #" + i + " LargestQueue: " + writers[i].getLargestQueue();
+		}
+		stats[pos++] = " | -------";
+		return stats;
+	}
+	
+	private static final class Job
+	{
+		final int key;
+		final String sql;
+		final Object[] params;
+		final DatabaseTask task;
+		
+		Job(int key, String sql, Object[] params, DatabaseTask task)
+		{
+			this.key = key;
+			this.sql = sql;
+			this.params = params;
+			this.task = task;
+		}
+		
+		void run(Connection con) throws SQLException
+		{
+			if (task != null)
+			{
+				task.execute(con);
+				return;
+			}
+			try (PreparedStatement ps = con.prepareStatement(sql))
+			{
+				bind(ps);
+				ps.execute();
+			}
+		}
+		
+		void bind(PreparedStatement ps) throws SQLException
+		{
+			for (int i = 0; i < params.length; i++)
+			{
+				ps.setObject(i + 1, params[i]);
+			}
+		}
+		
+		@Override
+		public String toString()
+		{
+			return task != null ? task.getClass().getName() : sql;
+		}
+	}
+	
+	private static final class Writer extends Thread
+	{
+		private final BlockingQueue<Job> _queue;
+		private final List<Job> _drained = new ArrayList<>(DRAIN_LIMIT);
+		private volatile int _largestQueue;
+		
+		Writer(int id, int queueSize)
+		{
+			super("DatabaseWriter-" + id);
+			setDaemon(true);
+			_queue = new ArrayBlockingQueue<>(queueSize);
+		}
+		
+		BlockingQueue<Job> getQueue()
+		{
+			return _queue;
+		}
+		
+		int getLargestQueue()
+		{
+			return _largestQueue;
+		}
+		
+		@Override
+		public void run()
+		{
+			while (true)
+			{
+				try
+				{
+					final Job first = _queue.poll(IDLE_POLL, TimeUnit.MILLISECONDS);
+					if (first == null)
+					{
+						if (SHUTDOWN)
+						{
+							return;
+						}
+						continue;
+					}
+					
+					final int queued = _queue.size() + 1;
+					if (queued > _largestQueue)
+					{
+						_largestQueue = queued;
+					}
+					
+					_drained.add(first);
+					_queue.drainTo(_drained, DRAIN_LIMIT - 1);
+					executeDrained();
+				}
+				catch (InterruptedException e)
+				{
+					return;
+				}
+				catch (Throwable t)
+				{
+					LOGGER.log(Level.WARNING, getName() + ": Unexpected error.", t);
+				}
+				finally
+				{
+					_drained.clear();
+				}
+			}
+		}
+		
+		/**
+		 * Executes the drained jobs in order on one connection. Runs of consecutive jobs with the same SQL are sent as one batch.
+		 */
+		private void executeDrained()
+		{
+			try (Connection con = DatabaseFactory.getConnection())
+			{
+				int i = 0;
+				while (i < _drained.size())
+				{
+					final Job job = _drained.get(i);
+					int end = i + 1;
+					if (job.task == null)
+					{
+						while ((end < _drained.size()) && job.sql.equals(_drained.get(end).sql))
+						{
+							end++;
+						}
+					}
+					
+					if ((end - i) > 1)
+					{
+						executeBatch(con, i, end);
+					}
+					else
+					{
+						try
+						{
+							job.run(con);
+							EXECUTED.incrementAndGet();
+						}
+						catch (Exception e)
+						{
+							FAILURES.incrementAndGet();
+							LOGGER.log(Level.WARNING, getName() + ": Could not execute " + job, e);
+						}
+					}
+					i = end;
+				}
+			}
+			catch (SQLException e)
+			{
+				FAILURES.addAndGet(_drained.size());
+				LOGGER.log(Level.WARNING, getName() + ": Could not execute " + _drained.size() + " statements.", e);
+			}
+		}
+		
+		private void executeBatch(Connection con, int from, int to) throws SQLException
+		{
+			final Job first = _drained.get(from);
+			try (PreparedStatement ps = con.prepareStatement(first.sql))
+			{
+				for (int i = from; i < to; i++)
+				{
+					_drained.get(i).bind(ps);
+					ps.addBatch();
+				}
+				ps.executeBatch();
+				EXECUTED.addAndGet(to - from);
+				BATCHES.incrementAndGet();
+				BATCHED_STATEMENTS.addAndGet(to - from);
+			}
+			catch (SQLException e)
+			{
+				FAILURES.addAndGet(to - from);
+				LOGGER.log(Level.WARNING, getName() + ": Could not execute batch of " + (to - from) + " " + first, e);
+			}
+		}
+	}
+}
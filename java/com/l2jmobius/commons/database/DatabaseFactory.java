@@ -31,6 +31,10 @@ public class DatabaseFactory
 	
 	private static final HikariDataSource _hds = new HikariDataSource();
 	
+	private static final long MIN_RETRY_DELAY = 50;
+	private static final long MAX_RETRY_DELAY = 5000;
+	private static final long FAILURE_LOG_INTERVAL = 10000;
+	
 	public static void init()
 	{
 		_hds.setDriverClassName(Config.DATABASE_DRIVER);
@@ -52,21 +56,54 @@ public class DatabaseFactory
 		}
 	}
 	
+	/**
+	 * Gets a connection from the pool, waiting until the database is reachable.<br>
+	 * Failed attempts are retried with an increasing delay and reported at most once per {@link #FAILURE_LOG_INTERVAL}.
+	 * @return the connection, never {@code null}
+	 */
 	public static Connection getConnection()
 	{
-		Connection con = null;
-		while (con == null)
+		long delay = MIN_RETRY_DELAY;
+		long lastLog = 0;
+		int failures = 0;
+		boolean interrupted = false;
+		while (true)
 		{
 			try
 			{
-				con = _hds.getConnection();
+				final Connection con = _hds.getConnection();
+				if (failures > 0)
+				{
+					LOGGER.info("DatabaseFactory: Got a connection after " + failures + " failed attempts.");
+				}
+				if (interrupted)
+				{
+					Thread.currentThread().interrupt();
+				}
+				return con;
 			}
 			catch (Exception e)
 			{
-				LOGGER.severe("DatabaseFactory: Cound not get a connection. " + e);
+				failures++;
+				final long now = System.currentTimeMillis();
+				if ((now - lastLog) >= FAILURE_LOG_INTERVAL)
+				{
+					lastLog = now;
+					LOGGER.severe("DatabaseFactory: Cound not get a connection (" + failures + " attempts). " + e);
+				}
+			}
+			
+			try
+			{
+				Thread.sleep(delay);
+			}
+			catch (InterruptedException e)
+			{
+				// Callers expect a connection, keep the interrupt for when one is returned.
+				interrupted = true;
 			}
+			delay = Math.min(delay * 2, MAX_RETRY_DELAY);
 		}
-		return con;
 	}
 	
 	public static void close()
@@ -0,0 +1,304 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jmobius.commons.network;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
+
+/**
+ * Per opcode counters of one packet direction.<br>
+ * Opcodes are slots of a flat array, the sub opcodes of the extended opcode follow the 256 main opcodes, so accounting a packet is an array read and a few striped counter updates.<br>
+ * The counters of an opcode are created the first time it is seen, nothing is allocated afterwards.
+ * @author Mobius
+ */
+public final class PacketStatistics
+{
+	/** Counters of the last decoded packet of a channel, picked up by the handler that runs it. */
+	public static final AttributeKey<PacketCounters> COUNTERS_KEY = AttributeKey.valueOf(PacketStatistics.class, "COUNTERS");
+	
+	private static final int MAIN_SLOTS = 0x100;
+	private static final int EX_SLOTS = 0x10000;
+	
+	private final String _name;
+	private final int _exOpcode;
+	private final IntFunction<String> _namer;
+	private final PacketCounters[] _counters;
+	private final LongAdder _dropped = new LongAdder();
+	private volatile boolean _enabled;
+	
+	/**
+	 * @param name the name of the direction, used in the reports
+	 * @param exOpcode the opcode followed by a two bytes sub opcode, -1 if there is none
+	 * @param namer the name of a slot, the sub opcodes of the extended opcode start at slot 256
+	 */
+	public PacketStatistics(String name, int exOpcode, IntFunction<String> namer)
+	{
+		_name = name;
+		_exOpcode = exOpcode;
+		_namer = namer;
+		_counters = new PacketCounters[exOpcode < 0 ? MAIN_SLOTS : MAIN_SLOTS + EX_SLOTS];
+	}
+	
+	public boolean isEnabled()
+	{
+		return _enabled;
+	}
+	
+	public void setEnabled(boolean enabled)
+	{
+		_enabled = enabled;
+	}
+	
+	/**
+	 * @param buf the buffer
+	 * @param index the index of the opcode
+	 * @return the slot of the packet starting at this index
+	 */
+	public int getSlot(ByteBuf buf, int index)
+	{
+		final int opcode = buf.getUnsignedByte(index);
+		if ((opcode == _exOpcode) && ((buf.writerIndex() - index) >= 3))
+		{
+			return MAIN_SLOTS + buf.getUnsignedShortLE(index + 1);
+		}
+		return opcode;
+	}
+	
+	/**
+	 * @param slot the slot
+	 * @return the counters of the slot
+	 */
+	public PacketCounters getCounters(int slot)
+	{
+		final PacketCounters counters = _counters[slot];
+		return counters != null ? counters : createCounters(slot);
+	}
+	
+	private synchronized PacketCounters createCounters(int slot)
+	{
+		// Counters only have final fields, so they are safely published without a volatile read.
+		PacketCounters counters = _counters[slot];
+		if (counters == null)
+		{
+			counters = new PacketCounters(slot);
+			_counters[slot] = counters;
+		}
+		return counters;
+	}
+	
+	/**
+	 * Accounts a received packet.
+	 * @param channel the channel, it keeps the counters of a decoded packet until the packet runs
+	 * @param slot the slot of the packet
+	 * @param decoded {@code false} if the packet was unknown, not allowed in the connection state or unreadable
+	 * @param bytes the size of the packet
+	 * @param nanos the decode time
+	 */
+	public void onDecode(Channel channel, int slot, boolean decoded, int bytes, long nanos)
+	{
+		if (!decoded)
+		{
+			_dropped.increment();
+			return;
+		}
+		
+		final PacketCounters counters = getCounters(slot);
+		counters.onProcess(bytes, nanos);
+		channel.attr(COUNTERS_KEY).set(counters);
+	}
+	
+	/**
+	 * Accounts a sent packet.
+	 * @param buf the encoded packet
+	 * @param nanos the encode time
+	 */
+	public void onEncode(ByteBuf buf, long nanos)
+	{
+		if (buf.isReadable())
+		{
+			getCounters(getSlot(buf, buf.readerIndex())).onProcess(buf.readableBytes(), nanos);
+		}
+	}
+	
+	/**
+	 * @return the number of unknown, unreadable or unexpected packets
+	 */
+	public long getDropped()
+	{
+		return _dropped.sum();
+	}
+	
+	/**
+	 * @param count the maximum number of opcodes
+	 * @param byBytes {@code true} to order by traffic, {@code false} to order by processing time
+	 * @return the busiest opcodes first
+	 */
+	public List<PacketCounters> getTopCounters(int count, boolean byBytes)
+	{
+		final List<PacketCounters> result = new ArrayList<>();
+		for (PacketCounters counters : _counters)
+		{
+			if ((counters != null) && (counters.getCount() > 0))
+			{
+				result.add(counters);
+			}
+		}
+		result.sort(Comparator.comparingLong(byBytes ? PacketCounters::getBytes : PacketCounters::getTotalNanos).reversed());
+		return result.size() > count ? result.subList(0, count) : result;
+	}
+	
+	public void reset()
+	{
+		for (PacketCounters counters : _counters)
+		{
+			if (counters != null)
+			{
+				counters.reset();
+			}
+		}
+		_dropped.reset();
+	}
+	
+	/**
+	 * @param count the maximum number of opcodes
+	 * @param byBytes {@code true} to order by traffic, {@code false} to order by processing time
+	 * @return the report of the busiest opcodes
+	 */
+	public String[] getStats(int count, boolean byBytes)
+	{
+		long packets = 0;
+		long bytes = 0;
+		for (PacketCounters counters : _counters)
+		{
+			if (counters != null)
+			{
+				packets += counters.getCount();
+				bytes += counters.getBytes();
+			}
+		}
+		
+		final List<String> stats = new ArrayList<>();
+		stats.add(_name + " packets: " + (_enabled ? "enabled" : "disabled") + ", " + packets + " packets, " + (bytes / 1024) + " KB, " + getDropped() + " dropped.");
+		for (PacketCounters counters : getTopCounters(count, byBytes))
+		{
+			stats.add(" |- " + counters.toString());
+		}
+		return stats.toArray(new String[stats.size()]);
+	}
+	
+	/**
+	 * Counters of one opcode.
+	 */
+	public final class PacketCounters
+	{
+		private final int _slot;
+		private final LongAdder _count = new LongAdder();
+		private final LongAdder _bytes = new LongAdder();
+		/** Decode or encode time. */
+		private final LongAdder _processNanos = new LongAdder();
+		/** Handler run time, received packets only. */
+		private final LongAdder _runNanos = new LongAdder();
+		private final AtomicLong _maxRunNanos = new AtomicLong();
+		
+		PacketCounters(int slot)
+		{
+			_slot = slot;
+		}
+		
+		void onProcess(int bytes, long nanos)
+		{
+			_count.increment();
+			_bytes.add(bytes);
+			_processNanos.add(nanos);
+		}
+		
+		/**
+		 * @param nanos the run time of the packet handler
+		 */
+		public void onRun(long nanos)
+		{
+			_runNanos.add(nanos);
+			if (nanos > _maxRunNanos.get())
+			{
+				_maxRunNanos.accumulateAndGet(nanos, Math::max);
+			}
+		}
+		
+		public String getName()
+		{
+			final String name = _namer.apply(_slot);
+			final String opcode = _slot < MAIN_SLOTS ? String.format("0x%02X", _slot) : String.format("0x%02X:0x%02X", _exOpcode, _slot - MAIN_SLOTS);
+			return name != null ? name + " (" + opcode + ")" : opcode;
+		}
+		
+		public long getCount()
+		{
+			return _count.sum();
+		}
+		
+		public long getBytes()
+		{
+			return _bytes.sum();
+		}
+		
+		public long getProcessNanos()
+		{
+			return _processNanos.sum();
+		}
+		
+		public long getRunNanos()
+		{
+			return _runNanos.sum();
+		}
+		
+		public long getTotalNanos()
+		{
+			return _processNanos.sum() + _runNanos.sum();
+		}
+		
+		void reset()
+		{
+			_count.reset();
+			_bytes.reset();
+			_processNanos.reset();
+			_runNanos.reset();
+			_maxRunNanos.set(0);
+		}
+		
+		@Override
+		public String toString()
+		{
+			final long count = Math.max(1, getCount());
+			final StringBuilder sb = new StringBuilder();
+			sb.append(getName() + ": " + getCount() + " packets, " + (getBytes() / 1024) + " KB, codec " + (getProcessNanos() / 1000000) + "ms (avg " + (getProcessNanos() / count / 1000) + "us)");
+			final long run = getRunNanos();
+			if (run > 0)
+			{
+				sb.append(", run " + (run / 1000000) + "ms (avg " + (run / count / 1000) + "us, max " + (_maxRunNanos.get() / 1000) + "us)");
+			}
+			return sb.toString();
+		}
+	}
+}
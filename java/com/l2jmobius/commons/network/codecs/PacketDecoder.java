@@ -23,6 +23,7 @@ import com.l2jmobius.commons.network.IConnectionState;
 import com.l2jmobius.commons.network.IIncomingPacket;
 import com.l2jmobius.commons.network.IIncomingPackets;
 import com.l2jmobius.commons.network.PacketReader;
+import com.l2jmobius.commons.network.PacketStatistics;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
@@ -38,11 +39,23 @@ public class PacketDecoder<T>extends ByteToMessageDecoder
 	
 	private final IIncomingPackets<T>[] _incomingPackets;
 	private final T _client;
+	private final PacketStatistics _statistics;
 	
 	public PacketDecoder(IIncomingPackets<T>[] incomingPackets, T client)
+	{
+		this(incomingPackets, client, null);
+	}
+	
+	/**
+	 * @param incomingPackets the packets by opcode
+	 * @param client the client
+	 * @param statistics the counters of the received packets, {@code null} for none
+	 */
+	public PacketDecoder(IIncomingPackets<T>[] incomingPackets, T client, PacketStatistics statistics)
 	{
 		_incomingPackets = incomingPackets;
 		_client = client;
+		_statistics = statistics;
 	}
 	
 	@Override
@@ -53,6 +66,11 @@ public class PacketDecoder<T>extends ByteToMessageDecoder
 			return;
 		}
 		
+		final PacketStatistics statistics = (_statistics != null) && _statistics.isEnabled() ? _statistics : null;
+		final long start = statistics != null ? System.nanoTime() : 0;
+		final int size = in.readableBytes();
+		final int slot = statistics != null ? statistics.getSlot(in, in.readerIndex()) : 0;
+		boolean decoded = false;
 		try
 		{
 			final short packetId = in.readUnsignedByte();
@@ -80,12 +98,18 @@ public class PacketDecoder<T>extends ByteToMessageDecoder
 			if ((packet != null) && packet.read(_client, new PacketReader(in)))
 			{
 				out.add(packet);
+				decoded = true;
 			}
 		}
 		finally
 		{
 			// We always consider that we read whole packet.
 			in.readerIndex(in.writerIndex());
+			
+			if (statistics != null)
+			{
+				statistics.onDecode(ctx.channel(), slot, decoded, size, System.nanoTime() - start);
+			}
 		}
 	}
 }
@@ -20,6 +20,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import com.l2jmobius.commons.network.IOutgoingPacket;
+import com.l2jmobius.commons.network.PacketStatistics;
 import com.l2jmobius.commons.network.PacketWriter;
 
 import io.netty.buffer.ByteBuf;
@@ -36,16 +37,29 @@ public class PacketEncoder extends MessageToByteEncoder<IOutgoingPacket>
 	private static final Logger LOGGER = Logger.getLogger(PacketEncoder.class.getName());
 	
 	private final int _maxPacketSize;
+	private final PacketStatistics _statistics;
 	
 	public PacketEncoder(int maxPacketSize)
+	{
+		this(maxPacketSize, null);
+	}
+	
+	/**
+	 * @param maxPacketSize the maximum size of a packet
+	 * @param statistics the counters of the sent packets, {@code null} for none
+	 */
+	public PacketEncoder(int maxPacketSize, PacketStatistics statistics)
 	{
 		super();
 		_maxPacketSize = maxPacketSize;
+		_statistics = statistics;
 	}
 	
 	@Override
 	protected void encode(ChannelHandlerContext ctx, IOutgoingPacket packet, ByteBuf out)
 	{
+		final PacketStatistics statistics = (_statistics != null) && _statistics.isEnabled() ? _statistics : null;
+		final long start = statistics != null ? System.nanoTime() : 0;
 		try
 		{
 			if (packet.write(new PacketWriter(out)))
@@ -54,6 +68,11 @@ public class PacketEncoder extends MessageToByteEncoder<IOutgoingPacket>
 				{
 					throw new IllegalStateException("Packet (" + packet + ") size (" + out.writerIndex() + ") is bigger than the limit (" + _maxPacketSize + ")");
 				}
+				
+				if (statistics != null)
+				{
+					statistics.onEncode(out, System.nanoTime() - start);
+				}
 			}
 			else
 			{
@@ -0,0 +1,472 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jmobius.commons.util.collections;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Concurrent open addressing int to object map.<br>
+ * Keys are spread over segments, writes lock their segment while reads never lock.<br>
+ * A slot keeps its key once written, removing an entry only clears the value, so entries never move while readers probe. Cleared slots are dropped when the segment is rehashed.<br>
+ * Iteration is weakly consistent, like the {@link java.util.concurrent.ConcurrentHashMap} views it replaces.
+ * @author Mobius
+ * @param <V> the type of mapped values
+ */
+public class ConcurrentIntObjectHashMap<V> implements IntObjectMap<V>
+{
+	private static final VarHandle KEYS = MethodHandles.arrayElementVarHandle(int[].class);
+	private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(Object[].class);
+	
+	/** Key 0 marks a free slot, so its value is kept aside. */
+	private static final int FREE = 0;
+	private static final Table EMPTY = new Table(1);
+	
+	private final Segment[] _segments;
+	private final int _segmentShift;
+	private volatile Object _zeroValue;
+	
+	public ConcurrentIntObjectHashMap()
+	{
+		this(16);
+	}
+	
+	/**
+	 * @param concurrencyLevel the expected number of concurrent writers, rounded up to a power of two
+	 */
+	public ConcurrentIntObjectHashMap(int concurrencyLevel)
+	{
+		final int segments = Integer.highestOneBit(Math.max(1, concurrencyLevel) - 1) << 1;
+		_segments = new Segment[Math.max(1, segments)];
+		for (int i = 0; i < _segments.length; i++)
+		{
+			_segments[i] = new Segment();
+		}
+		_segmentShift = 32 - Integer.numberOfTrailingZeros(_segments.length);
+	}
+	
+	private Segment segmentFor(int hash)
+	{
+		// top bits pick the segment, low bits pick the slot
+		return _segmentShift == 32 ? _segments[0] : _segments[hash >>> _segmentShift];
+	}
+	
+	@Override
+	public int size()
+	{
+		int size = _zeroValue != null ? 1 : 0;
+		for (Segment segment : _segments)
+		{
+			size += segment._count;
+		}
+		return size;
+	}
+	
+	@Override
+	public boolean isEmpty()
+	{
+		if (_zeroValue != null)
+		{
+			return false;
+		}
+		for (Segment segment : _segments)
+		{
+			if (segment._count != 0)
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	@Override
+	public boolean containsKey(int key)
+	{
+		return get(key) != null;
+	}
+	
+	@Override
+	@SuppressWarnings("unchecked")
+	public V get(int key)
+	{
+		if (key == FREE)
+		{
+			return (V) _zeroValue;
+		}
+		
+		final int hash = IntObjectMap.hash(key);
+		final Table table = segmentFor(hash)._table;
+		final int mask = table.keys.length - 1;
+		for (int i = hash & mask, probes = 0; probes <= mask; i = (i + 1) & mask, probes++)
+		{
+			final int k = (int) KEYS.getAcquire(table.keys, i);
+			if (k == key)
+			{
+				return (V) VALUES.getAcquire(table.values, i);
+			}
+			if (k == FREE)
+			{
+				return null;
+			}
+		}
+		return null;
+	}
+	
+	@Override
+	public V put(int key, V value)
+	{
+		Objects.requireNonNull(value);
+		if (key == FREE)
+		{
+			return putZero(value, true);
+		}
+		final int hash = IntObjectMap.hash(key);
+		return segmentFor(hash).put(key, hash, value, true);
+	}
+	
+	@Override
+	public V putIfAbsent(int key, V value)
+	{
+		Objects.requireNonNull(value);
+		if (key == FREE)
+		{
+			return putZero(value, false);
+		}
+		final int hash = IntObjectMap.hash(key);
+		return segmentFor(hash).put(key, hash, value, false);
+	}
+	
+	@SuppressWarnings("unchecked")
+	private synchronized V putZero(V value, boolean replace)
+	{
+		final V old = (V) _zeroValue;
+		if ((old == null) || replace)
+		{
+			_zeroValue = value;
+		}
+		return old;
+	}
+	
+	@Override
+	@SuppressWarnings("unchecked")
+	public V remove(int key)
+	{
+		if (key == FREE)
+		{
+			synchronized (this)
+			{
+				final V old = (V) _zeroValue;
+				_zeroValue = null;
+				return old;
+			}
+		}
+		final int hash = IntObjectMap.hash(key);
+		return segmentFor(hash).remove(key, hash);
+	}
+	
+	@Override
+	public void clear()
+	{
+		synchronized (this)
+		{
+			_zeroValue = null;
+		}
+		for (Segment segment : _segments)
+		{
+			segment.clear();
+		}
+	}
+	
+	@Override
+	public int[] keys()
+	{
+		int[] result = new int[size()];
+		int n = 0;
+		if (_zeroValue != null)
+		{
+			result[n++] = FREE;
+		}
+		for (Segment segment : _segments)
+		{
+			final Table table = segment._table;
+			for (int i = 0; i < table.keys.length; i++)
+			{
+				final int k = (int) KEYS.getAcquire(table.keys, i);
+				if ((k != FREE) && (VALUES.getAcquire(table.values, i) != null))
+				{
+					if (n == result.length)
+					{
+						result = Arrays.copyOf(result, (n * 2) + 1);
+					}
+					result[n++] = k;
+				}
+			}
+		}
+		return n == result.length ? result : Arrays.copyOf(result, n);
+	}
+	
+	@Override
+	public Collection<V> values()
+	{
+		return new AbstractCollection<>()
+		{
+			@Override
+			public Iterator<V> iterator()
+			{
+				return new ValueIterator();
+			}
+			
+			@Override
+			public int size()
+			{
+				return ConcurrentIntObjectHashMap.this.size();
+			}
+			
+			@Override
+			public boolean isEmpty()
+			{
+				return ConcurrentIntObjectHashMap.this.isEmpty();
+			}
+		};
+	}
+	
+	private static final class Table
+	{
+		final int[] keys;
+		final Object[] values;
+		
+		Table(int capacity)
+		{
+			keys = new int[capacity];
+			values = new Object[capacity];
+		}
+	}
+	
+	private static final class Segment
+	{
+		volatile Table _table = EMPTY;
+		/** Number of mapped keys. */
+		volatile int _count;
+		/** Number of slots holding a key, mapped or cleared. */
+		int _used;
+		
+		@SuppressWarnings("unchecked")
+		synchronized <V> V put(int key, int hash, V value, boolean replace)
+		{
+			Table table = _table;
+			int mask = table.keys.length - 1;
+			int i = hash & mask;
+			for (int probes = 0; probes <= mask; i = (i + 1) & mask, probes++)
+			{
+				final int k = table.keys[i];
+				if (k == key)
+				{
+					final V old = (V) table.values[i];
+					if (old == null)
+					{
+						_count++;
+					}
+					if ((old == null) || replace)
+					{
+						VALUES.setRelease(table.values, i, value);
+					}
+					return old;
+				}
+				if (k == FREE)
+				{
+					break;
+				}
+			}
+			
+			if (((_used + 1) * 2) > table.keys.length)
+			{
+				table = rehash(table);
+				mask = table.keys.length - 1;
+				i = hash & mask;
+				while (table.keys[i] != FREE)
+				{
+					i = (i + 1) & mask;
+				}
+			}
+			
+			// value first, so a reader that sees the key also sees the value
+			VALUES.setRelease(table.values, i, value);
+			KEYS.setRelease(table.keys, i, key);
+			_used++;
+			_count++;
+			return null;
+		}
+		
+		@SuppressWarnings("unchecked")
+		synchronized <V> V remove(int key, int hash)
+		{
+			final Table table = _table;
+			final int mask = table.keys.length - 1;
+			for (int i = hash & mask, probes = 0; probes <= mask; i = (i + 1) & mask, probes++)
+			{
+				final int k = table.keys[i];
+				if (k == key)
+				{
+					final V old = (V) table.values[i];
+					if (old != null)
+					{
+						VALUES.setRelease(table.values, i, null);
+						_count--;
+					}
+					return old;
+				}
+				if (k == FREE)
+				{
+					break;
+				}
+			}
+			return null;
+		}
+		
+		synchronized void clear()
+		{
+			_table = EMPTY;
+			_used = 0;
+			_count = 0;
+		}
+		
+		/**
+		 * Copies the mapped entries into a new table sized for the current count and publishes it.
+		 * @param table the current table
+		 * @return the new table
+		 */
+		private Table rehash(Table table)
+		{
+			final Table newTable = new Table(IntObjectMap.capacityFor(_count + 1));
+			final int mask = newTable.keys.length - 1;
+			for (int j = 0; j < table.keys.length; j++)
+			{
+				final int k = table.keys[j];
+				final Object v = table.values[j];
+				if ((k != FREE) && (v != null))
+				{
+					int i = IntObjectMap.hash(k) & mask;
+					while (newTable.keys[i] != FREE)
+					{
+						i = (i + 1) & mask;
+					}
+					newTable.keys[i] = k;
+					newTable.values[i] = v;
+				}
+			}
+			_used = _count;
+			_table = newTable;
+			return newTable;
+		}
+	}
+	
+	private class ValueIterator implements Iterator<V>
+	{
+		private boolean _zeroVisited;
+		private int _segment;
+		private Table _table;
+		private int _index;
+		private int _nextKey;
+		private V _next;
+		private int _lastKey;
+		private boolean _canRemove;
+		
+		ValueIterator()
+		{
+			advance();
+		}
+		
+		@SuppressWarnings("unchecked")
+		private void advance()
+		{
+			if (!_zeroVisited)
+			{
+				_zeroVisited = true;
+				final Object zero = _zeroValue;
+				if (zero != null)
+				{
+					_nextKey = FREE;
+					_next = (V) zero;
+					return;
+				}
+			}
+			while (_segment < _segments.length)
+			{
+				if (_table == null)
+				{
+					_table = _segments[_segment]._table;
+					_index = 0;
+				}
+				while (_index < _table.keys.length)
+				{
+					final int i = _index++;
+					final int k = (int) KEYS.getAcquire(_table.keys, i);
+					if (k != FREE)
+					{
+						final Object v = VALUES.getAcquire(_table.values, i);
+						if (v != null)
+						{
+							_nextKey = k;
+							_next = (V) v;
+							return;
+						}
+					}
+				}
+				_table = null;
+				_segment++;
+			}
+			_next = null;
+		}
+		
+		@Override
+		public boolean hasNext()
+		{
+			return _next != null;
+		}
+		
+		@Override
+		public V next()
+		{
+			final V result = _next;
+			if (result == null)
+			{
+				throw new NoSuchElementException();
+			}
+			_lastKey = _nextKey;
+			_canRemove = true;
+			advance();
+			return result;
+		}
+		
+		@Override
+		public void remove()
+		{
+			if (!_canRemove)
+			{
+				throw new IllegalStateException();
+			}
+			_canRemove = false;
+			ConcurrentIntObjectHashMap.this.remove(_lastKey);
+		}
+	}
+}
@@ -0,0 +1,222 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jmobius.commons.util.collections;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing set of primitive ints with linear probing.<br>
+ * Not thread safe, meant for id sets that are filled on load and only read afterwards.
+ * @author Mobius
+ */
+public class IntHashSet
+{
+	/** Value 0 marks a free slot, so its presence is kept aside. */
+	private static final int FREE = 0;
+	
+	private int[] _keys;
+	private int _mask;
+	private int _size;
+	private boolean _containsZero;
+	
+	public IntHashSet()
+	{
+		this(8);
+	}
+	
+	public IntHashSet(int expected)
+	{
+		final int capacity = IntObjectMap.capacityFor(expected);
+		_keys = new int[capacity];
+		_mask = capacity - 1;
+	}
+	
+	public int size()
+	{
+		return _size;
+	}
+	
+	public boolean isEmpty()
+	{
+		return _size == 0;
+	}
+	
+	public boolean contains(int value)
+	{
+		if (value == FREE)
+		{
+			return _containsZero;
+		}
+		
+		final int[] keys = _keys;
+		final int mask = keys.length - 1;
+		for (int i = IntObjectMap.hash(value) & mask;; i = (i + 1) & mask)
+		{
+			final int k = keys[i];
+			if (k == value)
+			{
+				return true;
+			}
+			if (k == FREE)
+			{
+				return false;
+			}
+		}
+	}
+	
+	/**
+	 * @param value the value to add
+	 * @return {@code true} if the set did not already contain the value
+	 */
+	public boolean add(int value)
+	{
+		if (value == FREE)
+		{
+			if (_containsZero)
+			{
+				return false;
+			}
+			_containsZero = true;
+			_size++;
+			return true;
+		}
+		
+		for (int i = IntObjectMap.hash(value) & _mask;; i = (i + 1) & _mask)
+		{
+			final int k = _keys[i];
+			if (k == value)
+			{
+				return false;
+			}
+			if (k == FREE)
+			{
+				_keys[i] = value;
+				if ((++_size * 2) > _keys.length)
+				{
+					rehash(_keys.length << 1);
+				}
+				return true;
+			}
+		}
+	}
+	
+	/**
+	 * @param value the value to remove
+	 * @return {@code true} if the set contained the value
+	 */
+	public boolean remove(int value)
+	{
+		if (value == FREE)
+		{
+			if (!_containsZero)
+			{
+				return false;
+			}
+			_containsZero = false;
+			_size--;
+			return true;
+		}
+		
+		for (int i = IntObjectMap.hash(value) & _mask;; i = (i + 1) & _mask)
+		{
+			final int k = _keys[i];
+			if (k == value)
+			{
+				shiftBack(i);
+				_size--;
+				return true;
+			}
+			if (k == FREE)
+			{
+				return false;
+			}
+		}
+	}
+	
+	/**
+	 * Frees the given slot and moves back the following values of its probe sequence.
+	 * @param slot the slot to free
+	 */
+	private void shiftBack(int slot)
+	{
+		int free = slot;
+		for (int i = (free + 1) & _mask;; i = (i + 1) & _mask)
+		{
+			final int k = _keys[i];
+			if (k == FREE)
+			{
+				break;
+			}
+			
+			// values whose home slot is cyclically after the free slot stay where they are
+			final int home = IntObjectMap.hash(k) & _mask;
+			if (((i - home) & _mask) >= ((i - free) & _mask))
+			{
+				_keys[free] = k;
+				free = i;
+			}
+		}
+		_keys[free] = FREE;
+	}
+	
+	private void rehash(int capacity)
+	{
+		final int[] oldKeys = _keys;
+		_keys = new int[capacity];
+		_mask = capacity - 1;
+		for (int k : oldKeys)
+		{
+			if (k != FREE)
+			{
+				int i = IntObjectMap.hash(k) & _mask;
+				while (_keys[i] != FREE)
+				{
+					i = (i + 1) & _mask;
+				}
+				_keys[i] = k;
+			}
+		}
+	}
+	
+	public void clear()
+	{
+		Arrays.fill(_keys, FREE);
+		_containsZero = false;
+		_size = 0;
+	}
+	
+	/**
+	 * @return a snapshot of the values
+	 */
+	public int[] toArray()
+	{
+		final int[] result = new int[_size];
+		int n = 0;
+		if (_containsZero)
+		{
+			result[n++] = FREE;
+		}
+		for (int k : _keys)
+		{
+			if (k != FREE)
+			{
+				result[n++] = k;
+			}
+		}
+		return result;
+	}
+}
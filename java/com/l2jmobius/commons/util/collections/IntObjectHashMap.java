@@ -0,0 +1,330 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jmobius.commons.util.collections;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Open addressing int to object map with linear probing.<br>
+ * Not thread safe, meant for registries that are filled on load and only read afterwards.<br>
+ * Removals shift the following entries back, so the table never contains tombstones.
+ * @author Mobius
+ * @param <V> the type of mapped values
+ */
+public class IntObjectHashMap<V> implements IntObjectMap<V>
+{
+	/** Key 0 marks a free slot, so its value is kept aside. */
+	private static final int FREE = 0;
+	
+	private int[] _keys;
+	private Object[] _values;
+	private int _mask;
+	private int _size;
+	private V _zeroValue;
+	
+	public IntObjectHashMap()
+	{
+		this(8);
+	}
+	
+	public IntObjectHashMap(int expected)
+	{
+		final int capacity = IntObjectMap.capacityFor(expected);
+		_keys = new int[capacity];
+		_values = new Object[capacity];
+		_mask = capacity - 1;
+	}
+	
+	@Override
+	public int size()
+	{
+		return _size;
+	}
+	
+	@Override
+	public boolean isEmpty()
+	{
+		return _size == 0;
+	}
+	
+	@Override
+	public boolean containsKey(int key)
+	{
+		return get(key) != null;
+	}
+	
+	@Override
+	@SuppressWarnings("unchecked")
+	public V get(int key)
+	{
+		if (key == FREE)
+		{
+			return _zeroValue;
+		}
+		
+		final int[] keys = _keys;
+		final int mask = keys.length - 1;
+		for (int i = IntObjectMap.hash(key) & mask;; i = (i + 1) & mask)
+		{
+			final int k = keys[i];
+			if (k == key)
+			{
+				return (V) _values[i];
+			}
+			if (k == FREE)
+			{
+				return null;
+			}
+		}
+	}
+	
+	@Override
+	public V put(int key, V value)
+	{
+		return insert(key, value, true);
+	}
+	
+	@Override
+	public V putIfAbsent(int key, V value)
+	{
+		return insert(key, value, false);
+	}
+	
+	@SuppressWarnings("unchecked")
+	private V insert(int key, V value, boolean replace)
+	{
+		Objects.requireNonNull(value);
+		if (key == FREE)
+		{
+			final V old = _zeroValue;
+			if (old == null)
+			{
+				_size++;
+			}
+			if ((old == null) || replace)
+			{
+				_zeroValue = value;
+			}
+			return old;
+		}
+		
+		for (int i = IntObjectMap.hash(key) & _mask;; i = (i + 1) & _mask)
+		{
+			final int k = _keys[i];
+			if (k == key)
+			{
+				final V old = (V) _values[i];
+				if (replace)
+				{
+					_values[i] = value;
+				}
+				return old;
+			}
+			if (k == FREE)
+			{
+				_keys[i] = key;
+				_values[i] = value;
+				if ((++_size * 2) > _keys.length)
+				{
+					rehash(_keys.length << 1);
+				}
+				return null;
+			}
+		}
+	}
+	
+	@Override
+	@SuppressWarnings("unchecked")
+	public V remove(int key)
+	{
+		if (key == FREE)
+		{
+			final V old = _zeroValue;
+			if (old != null)
+			{
+				_zeroValue = null;
+				_size--;
+			}
+			return old;
+		}
+		
+		for (int i = IntObjectMap.hash(key) & _mask;; i = (i + 1) & _mask)
+		{
+			final int k = _keys[i];
+			if (k == key)
+			{
+				final V old = (V) _values[i];
+				shiftBack(i);
+				_size--;
+				return old;
+			}
+			if (k == FREE)
+			{
+				return null;
+			}
+		}
+	}
+	
+	/**
+	 * Frees the given slot and moves back the following entries of its probe sequence.
+	 * @param slot the slot to free
+	 */
+	private void shiftBack(int slot)
+	{
+		int free = slot;
+		for (int i = (free + 1) & _mask;; i = (i + 1) & _mask)
+		{
+			final int k = _keys[i];
+			if (k == FREE)
+			{
+				break;
+			}
+			
+			// entries whose home slot is cyclically after the free slot stay where they are
+			final int home = IntObjectMap.hash(k) & _mask;
+			if (((i - home) & _mask) >= ((i - free) & _mask))
+			{
+				_keys[free] = k;
+				_values[free] = _values[i];
+				free = i;
+			}
+		}
+		_keys[free] = FREE;
+		_values[free] = null;
+	}
+	
+	private void rehash(int capacity)
+	{
+		final int[] oldKeys = _keys;
+		final Object[] oldValues = _values;
+		_keys = new int[capacity];
+		_values = new Object[capacity];
+		_mask = capacity - 1;
+		for (int j = 0; j < oldKeys.length; j++)
+		{
+			final int k = oldKeys[j];
+			if (k != FREE)
+			{
+				int i = IntObjectMap.hash(k) & _mask;
+				while (_keys[i] != FREE)
+				{
+					i = (i + 1) & _mask;
+				}
+				_keys[i] = k;
+				_values[i] = oldValues[j];
+			}
+		}
+	}
+	
+	@Override
+	public void clear()
+	{
+		Arrays.fill(_keys, FREE);
+		Arrays.fill(_values, null);
+		_zeroValue = null;
+		_size = 0;
+	}
+	
+	@Override
+	public int[] keys()
+	{
+		final int[] result = new int[_size];
+		int n = 0;
+		if (_zeroValue != null)
+		{
+			result[n++] = FREE;
+		}
+		for (int k : _keys)
+		{
+			if (k != FREE)
+			{
+				result[n++] = k;
+			}
+		}
+		return result;
+	}
+	
+	@Override
+	public Collection<V> values()
+	{
+		return new AbstractCollection<>()
+		{
+			@Override
+			public Iterator<V> iterator()
+			{
+				return new ValueIterator();
+			}
+			
+			@Override
+			public int size()
+			{
+				return _size;
+			}
+		};
+	}
+	
+	private class ValueIterator implements Iterator<V>
+	{
+		private int _index = -1;
+		private V _next = advance();
+		
+		@SuppressWarnings("unchecked")
+		private V advance()
+		{
+			if (_index < 0)
+			{
+				_index = 0;
+				if (_zeroValue != null)
+				{
+					return _zeroValue;
+				}
+			}
+			while (_index < _keys.length)
+			{
+				final int i = _index++;
+				if (_keys[i] != FREE)
+				{
+					return (V) _values[i];
+				}
+			}
+			return null;
+		}
+		
+		@Override
+		public boolean hasNext()
+		{
+			return _next != null;
+		}
+		
+		@Override
+		public V next()
+		{
+			final V result = _next;
+			if (result == null)
+			{
+				throw new NoSuchElementException();
+			}
+			_next = advance();
+			return result;
+		}
+	}
+}
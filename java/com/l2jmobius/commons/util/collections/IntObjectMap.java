@@ -0,0 +1,98 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jmobius.commons.util.collections;
+
+import java.util.Collection;
+
+/**
+ * Map with primitive int keys, so lookups do not box the key.<br>
+ * Null values are not allowed, a {@code null} result always means that the key is not mapped.
+ * @author Mobius
+ * @param <V> the type of mapped values
+ */
+public interface IntObjectMap<V>
+{
+	int size();
+	
+	boolean isEmpty();
+	
+	boolean containsKey(int key);
+	
+	V get(int key);
+	
+	/**
+	 * @param key the key
+	 * @param value the value, not {@code null}
+	 * @return the previous value, or {@code null} if there was none
+	 */
+	V put(int key, V value);
+	
+	/**
+	 * @param key the key
+	 * @param value the value, not {@code null}
+	 * @return the current value, or {@code null} if the given value was added
+	 */
+	V putIfAbsent(int key, V value);
+	
+	/**
+	 * @param key the key
+	 * @return the removed value, or {@code null} if the key was not mapped
+	 */
+	V remove(int key);
+	
+	void clear();
+	
+	/**
+	 * @return a snapshot of the mapped keys
+	 */
+	int[] keys();
+	
+	/**
+	 * @return a view of the mapped values
+	 */
+	Collection<V> values();
+	
+	/**
+	 * Spreads sequential keys, such as object ids, over the whole int range.
+	 * @param key the key
+	 * @return the mixed hash
+	 */
+	static int hash(int key)
+	{
+		int h = key;
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		h *= 0xc2b2ae35;
+		h ^= h >>> 16;
+		return h;
+	}
+	
+	/**
+	 * @param expected the expected number of elements
+	 * @return the power of two table capacity that keeps the load factor at or below one half
+	 */
+	static int capacityFor(int expected)
+	{
+		final int capacity = Integer.highestOneBit(Math.max(4, expected * 2) - 1) << 1;
+		if (capacity <= 0)
+		{
+			throw new IllegalStateException("Too many elements: " + expected);
+		}
+		return capacity;
+	}
+}
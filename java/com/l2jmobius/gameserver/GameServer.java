@@ -31,6 +31,7 @@ import java.util.logging.Logger;
 import com.l2jmobius.Config;
 import com.l2jmobius.Server;
 import com.l2jmobius.commons.concurrent.ThreadPool;
+import com.l2jmobius.commons.database.DatabaseExecutor;
 import com.l2jmobius.commons.database.DatabaseFactory;
 import com.l2jmobius.commons.util.DeadLockDetector;
 import com.l2jmobius.gameserver.cache.HtmCache;
@@ -142,6 +143,7 @@ import com.l2jmobius.gameserver.model.events.EventDispatcher;
 import com.l2jmobius.gameserver.model.olympiad.Olympiad;
 import com.l2jmobius.gameserver.model.votereward.VoteSystem;
 import com.l2jmobius.gameserver.network.ClientNetworkManager;
+import com.l2jmobius.gameserver.network.PacketTelemetry;
 import com.l2jmobius.gameserver.network.loginserver.LoginServerNetworkManager;
 import com.l2jmobius.gameserver.network.telnet.TelnetServer;
 import com.l2jmobius.gameserver.scripting.ScriptEngineManager;
@@ -198,6 +200,7 @@ public class GameServer
 		
 		printSection("ThreadPool");
 		ThreadPool.init();
+		DatabaseExecutor.init();
 		
 		printSection("IdFactory");
 		if (!IdFactory.getInstance().isInitialized())
@@ -458,6 +461,7 @@ public class GameServer
 		LOGGER.info(getClass().getSimpleName() + ": Maximum number of connected players is " + Config.MAXIMUM_ONLINE_USERS + ".");
 		LOGGER.info(getClass().getSimpleName() + ": Server loaded in " + ((System.currentTimeMillis() - serverLoadStart) / 1000) + " seconds.");
 		
+		PacketTelemetry.init();
 		ClientNetworkManager.getInstance().start();
 		
 		if (Boolean.getBoolean("newLoginServer"))
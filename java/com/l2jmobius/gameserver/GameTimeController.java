@@ -16,18 +16,29 @@
  */
 package com.l2jmobius.gameserver;
 
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import com.l2jmobius.Config;
+import com.l2jmobius.commons.concurrent.TaskCategory;
 import com.l2jmobius.commons.concurrent.ThreadPool;
+import com.l2jmobius.commons.concurrent.TimeHistogram;
 import com.l2jmobius.gameserver.instancemanager.DayNightSpawnManager;
 import com.l2jmobius.gameserver.model.actor.L2Character;
 
 /**
- * Game Time controller class.
+ * Game Time controller class.<br>
+ * Each tick runs the movement, world region, zone and follow phases in turn and measures them.<br>
+ * When a tick exceeds its budget, the next ticks spread the zone and follow updates over several ticks until the load drops.
  * @author Forsaiken
  */
 public final class GameTimeController extends Thread
@@ -41,9 +52,92 @@ public final class GameTimeController extends Thread
 	public static final int SECONDS_PER_IG_DAY = MILLIS_PER_IG_DAY / 1000;
 	public static final int TICKS_PER_IG_DAY = SECONDS_PER_IG_DAY * TICKS_PER_SECOND;
 	
+	private static final long OVERRUN_WARNING_INTERVAL = 60000;
+	
+	/**
+	 * The measured parts of a tick, in running order.
+	 */
+	public enum Phase
+	{
+		MOVEMENT,
+		REGIONS,
+		ZONES,
+		FOLLOW;
+		
+		private final TimeHistogram _histogram = new TimeHistogram();
+		
+		public TimeHistogram getHistogram()
+		{
+			return _histogram;
+		}
+	}
+	
+	/**
+	 * Periodic follow check run by the follow phase, instead of a scheduled task per follower.<br>
+	 * The check runs on the tick thread and must stay cheap, the update it asks for runs on the thread pool.
+	 */
+	public abstract static class FollowUpdate
+	{
+		private final int _interval;
+		private long _nextRun = 0;
+		private volatile boolean _pending = false;
+		private volatile boolean _cancelled = false;
+		
+		/**
+		 * @param interval the delay between two checks in milliseconds
+		 */
+		protected FollowUpdate(int interval)
+		{
+			_interval = interval;
+		}
+		
+		/**
+		 * @return {@code true} if {@link #update()} has to run
+		 */
+		protected abstract boolean needsUpdate();
+		
+		protected abstract void update();
+		
+		public void cancel()
+		{
+			_cancelled = true;
+		}
+		
+		public boolean isCancelled()
+		{
+			return _cancelled;
+		}
+		
+		private void runUpdate()
+		{
+			try
+			{
+				if (!_cancelled)
+				{
+					update();
+				}
+			}
+			finally
+			{
+				_pending = false;
+			}
+		}
+	}
+	
 	private static GameTimeController _instance;
 	
 	private final Set<L2Character> _movingObjects = ConcurrentHashMap.newKeySet();
+	private final Set<FollowUpdate> _followUpdates = ConcurrentHashMap.newKeySet();
+	// Only used by the tick thread.
+	private final List<L2Character> _regionUpdates = new ArrayList<>();
+	private final Set<L2Character> _zoneUpdates = new LinkedHashSet<>();
+	private boolean _degraded = false;
+	private long _lastOverrunWarning = 0;
+	
+	private final TimeHistogram _tickHistogram = new TimeHistogram();
+	private final AtomicLong _overruns = new AtomicLong();
+	private final AtomicLong _degradedTicks = new AtomicLong();
+	private final AtomicInteger _dayNightRequests = new AtomicInteger();
 	private final long _referenceTime;
 	
 	private GameTimeController()
@@ -113,6 +207,26 @@ public final class GameTimeController extends Thread
 		}
 	}
 	
+	/**
+	 * Queues the world region and zone updates of a character moved by the movement phase.<br>
+	 * Only called from {@link L2Character#updatePosition()} on the tick thread.
+	 * @param cha the moved character
+	 */
+	public final void onPositionUpdated(L2Character cha)
+	{
+		_regionUpdates.add(cha);
+		_zoneUpdates.add(cha);
+	}
+	
+	/**
+	 * Adds a follow check, until it is cancelled.
+	 * @param update the follow check
+	 */
+	public final void registerFollowUpdate(FollowUpdate update)
+	{
+		_followUpdates.add(update);
+	}
+	
 	/**
 	 * Move all L2Characters contained in movingObjects of GameTimeController.<BR>
 	 * <B><U> Concept</U> :</B><BR>
@@ -129,6 +243,145 @@ public final class GameTimeController extends Thread
 		_movingObjects.removeIf(L2Character::updatePosition);
 	}
 	
+	/**
+	 * Moves the characters moved by this tick to the world region of their new position.
+	 */
+	private void updateRegions()
+	{
+		for (L2Character cha : _regionUpdates)
+		{
+			cha.updateWorldRegion();
+		}
+		_regionUpdates.clear();
+	}
+	
+	/**
+	 * Revalidates the zones of the moved characters, only a part of them when degraded, the others wait for the next ticks.
+	 */
+	private void updateZones()
+	{
+		int count = _degraded ? getSpreadCount(_zoneUpdates.size()) : _zoneUpdates.size();
+		final Iterator<L2Character> iterator = _zoneUpdates.iterator();
+		while ((count-- > 0) && iterator.hasNext())
+		{
+			final L2Character cha = iterator.next();
+			iterator.remove();
+			if (cha.isSpawned())
+			{
+				cha.revalidateZone(false);
+			}
+		}
+	}
+	
+	/**
+	 * Runs the due follow checks, only a part of them when degraded, the others stay due for the next ticks.
+	 * @param now the tick start time
+	 */
+	private void updateFollowers(long now)
+	{
+		int count = _degraded ? getSpreadCount(_followUpdates.size()) : Integer.MAX_VALUE;
+		final Iterator<FollowUpdate> iterator = _followUpdates.iterator();
+		while ((count > 0) && iterator.hasNext())
+		{
+			final FollowUpdate update = iterator.next();
+			if (update._cancelled)
+			{
+				iterator.remove();
+				continue;
+			}
+			
+			if ((now < update._nextRun) || update._pending)
+			{
+				continue;
+			}
+			
+			count--;
+			update._nextRun = now + update._interval;
+			try
+			{
+				if (update.needsUpdate())
+				{
+					update._pending = true;
+					ThreadPool.execute(TaskCategory.MOVEMENT, update::runUpdate);
+				}
+			}
+			catch (Exception e)
+			{
+				update._pending = false;
+				LOGGER.log(Level.WARNING, getClass().getSimpleName() + ": Error in follow check.", e);
+			}
+		}
+	}
+	
+	private static int getSpreadCount(int size)
+	{
+		final int spread = Math.max(1, Config.GAME_TICK_SPREAD_FACTOR);
+		return Math.max(1, (size + spread - 1) / spread);
+	}
+	
+	/**
+	 * Notifies DayNightSpawnManager of a day/night change on the thread pool.<br>
+	 * Changes happening while a notification runs are merged into a single extra run, so two notifications never overlap.
+	 */
+	private void notifyDayNightChange()
+	{
+		if (_dayNightRequests.getAndIncrement() == 0)
+		{
+			ThreadPool.execute(TaskCategory.GENERAL, () ->
+			{
+				int requests;
+				do
+				{
+					requests = _dayNightRequests.get();
+					DayNightSpawnManager.getInstance().notifyChangeMode();
+				}
+				while (_dayNightRequests.addAndGet(-requests) > 0);
+			});
+		}
+	}
+	
+	private void runPhase(Phase phase, Runnable action)
+	{
+		final long start = System.nanoTime();
+		try
+		{
+			action.run();
+		}
+		catch (Throwable e)
+		{
+			LOGGER.log(Level.WARNING, getClass().getSimpleName() + ": Error in " + phase + " phase.", e);
+		}
+		phase.getHistogram().record(System.nanoTime() - start);
+	}
+	
+	private void tick(long now)
+	{
+		final long start = System.nanoTime();
+		runPhase(Phase.MOVEMENT, this::moveObjects);
+		runPhase(Phase.REGIONS, this::updateRegions);
+		runPhase(Phase.ZONES, this::updateZones);
+		runPhase(Phase.FOLLOW, () -> updateFollowers(now));
+		
+		final long duration = System.nanoTime() - start;
+		_tickHistogram.record(duration);
+		
+		if (_degraded)
+		{
+			_degradedTicks.incrementAndGet();
+		}
+		_degraded = (Config.GAME_TICK_BUDGET > 0) && (duration > (Config.GAME_TICK_BUDGET * 1000000L));
+		
+		if (duration > (MILLIS_IN_TICK * 1000000L))
+		{
+			_overruns.incrementAndGet();
+			if ((now - _lastOverrunWarning) > OVERRUN_WARNING_INTERVAL)
+			{
+				_lastOverrunWarning = now;
+				LOGGER.warning(getClass().getSimpleName() + ": Tick took " + (duration / 1000000) + "ms, " + _movingObjects.size() + " moving objects, " + _zoneUpdates.size() + " pending zone updates.");
+			}
+		}
+	}
+	
 	public final void stopTimer()
 	{
 		super.interrupt();
@@ -146,21 +399,15 @@ public final class GameTimeController extends Thread
 		
 		if (isNight)
 		{
-			ThreadPool.execute(() -> DayNightSpawnManager.getInstance().notifyChangeMode());
+			notifyDayNightChange();
 		}
 		
 		while (true)
 		{
-			nextTickTime = ((System.currentTimeMillis() / MILLIS_IN_TICK) * MILLIS_IN_TICK) + 100;
+			final long now = System.currentTimeMillis();
+			nextTickTime = ((now / MILLIS_IN_TICK) * MILLIS_IN_TICK) + 100;
 			
-			try
-			{
-				moveObjects();
-			}
-			catch (Throwable e)
-			{
-				LOGGER.log(Level.WARNING, getClass().getSimpleName(), e);
-			}
+			tick(now);
 			
 			sleepTime = nextTickTime - System.currentTimeMillis();
 			if (sleepTime > 0)
@@ -178,13 +425,41 @@ public final class GameTimeController extends Thread
 			{
 				isNight = !isNight;
 				
-				ThreadPool.execute(() -> DayNightSpawnManager.getInstance().notifyChangeMode());
+				notifyDayNightChange();
 			}
 		}
 	}
 	
+	public void resetStats()
+	{
+		for (Phase phase : Phase.values())
+		{
+			phase.getHistogram().reset();
+		}
+		_tickHistogram.reset();
+		_overruns.set(0);
+		_degradedTicks.set(0);
+	}
+	
+	public String[] getStats()
+	{
+		final List<String> stats = new ArrayList<>();
+		stats.add("Game tick:");
+		stats.add(" |- Ticks: ............ " + _tickHistogram.getCount());
+		stats.add(" |- Duration: ......... " + _tickHistogram);
+		stats.add(" |- Overruns: ......... " + _overruns.get());
+		stats.add(" |- DegradedTicks: .... " + _degradedTicks.get());
+		stats.add(" |- MovingObjects: .... " + _movingObjects.size());
+		stats.add(" |- FollowUpdates: .... " + _followUpdates.size());
+		for (Phase phase : Phase.values())
+		{
+			stats.add(" |- " + phase + ": " + ".....................".substring(phase.name().length() + 4) + " " + phase.getHistogram());
+		}
+		return stats.toArray(new String[stats.size()]);
+	}
+	
 	public static GameTimeController getInstance()
 	{
 		return _instance;
 	}
-}
\ No newline at end of file
+}
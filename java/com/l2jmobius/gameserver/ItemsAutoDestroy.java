@@ -16,9 +16,13 @@
  */
 package com.l2jmobius.gameserver;
 
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
 
 import com.l2jmobius.Config;
 import com.l2jmobius.commons.concurrent.ThreadPool;
@@ -26,9 +30,16 @@ import com.l2jmobius.gameserver.enums.ItemLocation;
 import com.l2jmobius.gameserver.instancemanager.ItemsOnGroundManager;
 import com.l2jmobius.gameserver.model.items.instance.L2ItemInstance;
 
+/**
+ * Destroys dropped items once their time on ground is over.<br>
+ * Items are queued by destroy deadline, computed when they are dropped, so each run only takes the due ones.<br>
+ * Only the task of the last drop of an item is kept, the tasks of earlier drops are discarded when due.
+ */
 public final class ItemsAutoDestroy
 {
-	private final List<L2ItemInstance> _items = new LinkedList<>();
+	private final DelayQueue<DestroyTask> _items = new DelayQueue<>();
+	/** Task of the last drop of each item by object id. */
+	private final Map<Integer, DestroyTask> _current = new ConcurrentHashMap<>();
 	
 	protected ItemsAutoDestroy()
 	{
@@ -40,59 +51,117 @@ public final class ItemsAutoDestroy
 		return SingletonHolder._instance;
 	}
 	
-	public synchronized void addItem(L2ItemInstance item)
+	public void addItem(L2ItemInstance item)
 	{
 		item.setDropTime(System.currentTimeMillis());
-		_items.add(item);
+		final DestroyTask task = new DestroyTask(item, getAutoDestroyTime(item));
+		_current.put(item.getObjectId(), task);
+		_items.add(task);
+	}
+	
+	private static long getAutoDestroyTime(L2ItemInstance item)
+	{
+		if (item.getItem().getAutoDestroyTime() > 0)
+		{
+			return item.getItem().getAutoDestroyTime();
+		}
+		else if (item.getItem().hasExImmediateEffect())
+		{
+			return Config.HERB_AUTO_DESTROY_TIME;
+		}
+		return ((Config.AUTODESTROY_ITEM_AFTER == 0) ? 3600000 : Config.AUTODESTROY_ITEM_AFTER * 1000);
 	}
 	
-	private synchronized void removeItems()
+	private void removeItems()
 	{
-		if (_items.isEmpty())
+		final List<DestroyTask> expired = new ArrayList<>();
+		_items.drainTo(expired);
+		if (expired.isEmpty())
 		{
 			return;
 		}
 		
-		final long curtime = System.currentTimeMillis();
-		final Iterator<L2ItemInstance> itemIterator = _items.iterator();
-		while (itemIterator.hasNext())
+		for (DestroyTask task : expired)
 		{
-			final L2ItemInstance item = itemIterator.next();
+			final L2ItemInstance item = task.getItem();
+			if (_current.get(item.getObjectId()) != task)
+			{
+				// The item was dropped again, that drop has its own task.
+				continue;
+			}
+			
 			if ((item.getDropTime() == 0) || (item.getItemLocation() != ItemLocation.VOID))
 			{
-				itemIterator.remove();
+				_current.remove(item.getObjectId(), task);
+				continue;
 			}
-			else
+			
+			// The drop task refreshes the drop time when the item lands, after it was queued.
+			if (item.getDropTime() != task.getDropTime())
 			{
-				final long autoDestroyTime;
-				if (item.getItem().getAutoDestroyTime() > 0)
+				final DestroyTask landed = new DestroyTask(item, task.getAutoDestroyTime());
+				if (_current.replace(item.getObjectId(), task, landed))
 				{
-					autoDestroyTime = item.getItem().getAutoDestroyTime();
-				}
-				else if (item.getItem().hasExImmediateEffect())
-				{
-					autoDestroyTime = Config.HERB_AUTO_DESTROY_TIME;
-				}
-				else
-				{
-					autoDestroyTime = ((Config.AUTODESTROY_ITEM_AFTER == 0) ? 3600000 : Config.AUTODESTROY_ITEM_AFTER * 1000);
-				}
-				
-				if ((curtime - item.getDropTime()) > autoDestroyTime)
-				{
-					item.decayMe();
-					itemIterator.remove();
-					if (Config.SAVE_DROPPED_ITEM)
-					{
-						ItemsOnGroundManager.getInstance().removeObject(item);
-					}
+					_items.add(landed);
 				}
+				continue;
+			}
+			
+			_current.remove(item.getObjectId(), task);
+			item.decayMe();
+			if (Config.SAVE_DROPPED_ITEM)
+			{
+				ItemsOnGroundManager.getInstance().removeObject(item);
 			}
 		}
 	}
 	
+	private static class DestroyTask implements Delayed
+	{
+		private final L2ItemInstance _item;
+		private final long _autoDestroyTime;
+		/** Drop time of the item this task was created for. */
+		private final long _dropTime;
+		private final long _deadline;
+		
+		public DestroyTask(L2ItemInstance item, long autoDestroyTime)
+		{
+			_item = item;
+			_autoDestroyTime = autoDestroyTime;
+			_dropTime = item.getDropTime();
+			_deadline = _dropTime + autoDestroyTime;
+		}
+		
+		public L2ItemInstance getItem()
+		{
+			return _item;
+		}
+		
+		public long getAutoDestroyTime()
+		{
+			return _autoDestroyTime;
+		}
+		
+		public long getDropTime()
+		{
+			return _dropTime;
+		}
+		
+		@Override
+		public long getDelay(TimeUnit unit)
+		{
+			return unit.convert(_deadline - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+		}
+		
+		@Override
+		public int compareTo(Delayed other)
+		{
+			return Long.compare(_deadline, ((DestroyTask) other)._deadline);
+		}
+	}
+	
 	private static class SingletonHolder
 	{
 		protected static final ItemsAutoDestroy _instance = new ItemsAutoDestroy();
 	}
-}
\ No newline at end of file
+}
@@ -36,13 +36,15 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 import com.l2jmobius.Config;
+import com.l2jmobius.commons.concurrent.ThreadPool;
 import com.l2jmobius.commons.database.DatabaseFactory;
 import com.l2jmobius.commons.network.BaseSendablePacket;
 import com.l2jmobius.commons.util.CommonUtil;
@@ -84,6 +86,8 @@ public class LoginServerThread extends Thread
 	 * @see com.l2jmobius.loginserver.LoginServer#PROTOCOL_REV
 	 */
 	private static final int REVISION = 0x0106;
+	/** Accounts per merged PlayerInGame packet, keeps the packet below the 0xFFFF bytes length limit. */
+	private static final int MAX_ACCOUNTS_PER_PACKET = 500;
 	private final String _hostname;
 	private final int _port;
 	private final int _gamePort;
@@ -105,7 +109,11 @@ public class LoginServerThread extends Thread
 	private int _requestID;
 	private final boolean _reserveHost;
 	private int _maxPlayer;
-	private final Set<WaitingClient> _waitingClients = ConcurrentHashMap.newKeySet();
+	/** Clients waiting for the authentication of the login server, by account. */
+	private final Map<String, WaitingClient> _waitingClients = new ConcurrentHashMap<>();
+	/** Packets written and flushed together by the writer thread once registered on login. */
+	private final BlockingQueue<BaseSendablePacket> _sendQueue = new LinkedBlockingQueue<>();
+	private volatile Thread _writer;
 	private final Map<String, L2GameClient> _accountsInGameServer = new ConcurrentHashMap<>();
 	private int _status;
 	private String _serverName;
@@ -235,10 +243,10 @@ public class LoginServerThread extends Thread
 								break;
 							}
 							// send the blowfish key through the rsa encryption
-							sendPacket(new BlowFishKey(blowfishKey, publicKey));
+							sendHandshakePacket(new BlowFishKey(blowfishKey, publicKey));
 							// now, only accept packet with the new encryption
 							_blowfish = new NewCrypt(blowfishKey);
-							sendPacket(new AuthRequest(_requestID, _acceptAlternate, _hexID, _gamePort, _reserveHost, _maxPlayer, _subnets, _hosts));
+							sendHandshakePacket(new AuthRequest(_requestID, _acceptAlternate, _hexID, _gamePort, _reserveHost, _maxPlayer, _subnets, _hosts));
 							break;
 						}
 						case 0x01:
@@ -285,49 +293,34 @@ public class LoginServerThread extends Thread
 							{
 								st.addAttribute(ServerStatus.SERVER_AGE, ServerStatus.SERVER_AGE_ALL);
 							}
+							startWriter();
 							sendPacket(st);
 							final List<String> playerList = L2World.getInstance().getPlayers().stream().filter(player -> !player.isInOfflineMode()).map(L2PcInstance::getAccountName).collect(Collectors.toList());
 							if (!playerList.isEmpty())
 							{
 								sendPacket(new PlayerInGame(playerList));
 							}
+							// Requests sent before the link was lost got no response.
+							for (WaitingClient wc : _waitingClients.values())
+							{
+								sendPacket(new PlayerAuthRequest(wc.account, wc.session));
+							}
 							break;
 						}
 						case 0x03:
 						{
 							final PlayerAuthResponse par = new PlayerAuthResponse(incoming);
-							final String account = par.getAccount();
-							WaitingClient wcToRemove = null;
-							synchronized (_waitingClients)
-							{
-								for (WaitingClient wc : _waitingClients)
-								{
-									if (wc.account.equals(account))
-									{
-										wcToRemove = wc;
-									}
-								}
-							}
-							if (wcToRemove != null)
+							final WaitingClient wc = _waitingClients.remove(par.getAccount());
+							if (wc != null)
 							{
-								if (par.isAuthed())
-								{
-									final PlayerInGame pig = new PlayerInGame(par.getAccount());
-									sendPacket(pig);
-									wcToRemove.gameClient.setConnectionState(ConnectionState.AUTHENTICATED);
-									wcToRemove.gameClient.setSessionId(wcToRemove.session);
-									final CharSelectionInfo cl = new CharSelectionInfo(wcToRemove.account, wcToRemove.gameClient.getSessionId().playOkID1);
-									wcToRemove.gameClient.sendPacket(cl);
-									wcToRemove.gameClient.setCharSelection(cl.getCharInfo());
-								}
-								else
+								final boolean authed = par.isAuthed();
+								if (authed)
 								{
-									LOGGER.warning(getClass().getSimpleName() + ": Session key is not correct. Closing connection for account " + wcToRemove.account);
-									// wcToRemove.gameClient.getConnection().sendPacket(new LoginFail(LoginFail.SYSTEM_ERROR_LOGIN_LATER));
-									wcToRemove.gameClient.close(new LoginFail(LoginFail.SYSTEM_ERROR_LOGIN_LATER));
-									_accountsInGameServer.remove(wcToRemove.account);
+									// Queued here to stay ahead of a logout caused by the following packets.
+									sendPacket(new PlayerInGame(wc.account));
 								}
-								_waitingClients.remove(wcToRemove);
+								// The character list is loaded from the database, keep reading the following responses meanwhile.
+								ThreadPool.executeBlocking(() -> onPlayerAuthResponse(wc, authed));
 							}
 							break;
 						}
@@ -340,7 +333,7 @@ public class LoginServerThread extends Thread
 						case 0x05:
 						{
 							final RequestCharacters rc = new RequestCharacters(incoming);
-							getCharsOnServer(rc.getAccount());
+							ThreadPool.executeBlocking(() -> getCharsOnServer(rc.getAccount()));
 							break;
 						}
 						case 0x06:
@@ -365,6 +358,7 @@ public class LoginServerThread extends Thread
 			}
 			finally
 			{
+				stopWriter();
 				try
 				{
 					_loginSocket.close();
@@ -397,19 +391,31 @@ public class LoginServerThread extends Thread
 	 */
 	public void addWaitingClientAndSendRequest(String acc, L2GameClient client, SessionKey key)
 	{
-		final WaitingClient wc = new WaitingClient(acc, client, key);
-		synchronized (_waitingClients)
-		{
-			_waitingClients.add(wc);
-		}
-		final PlayerAuthRequest par = new PlayerAuthRequest(acc, key);
-		try
+		_waitingClients.put(acc, new WaitingClient(acc, client, key));
+		sendPacket(new PlayerAuthRequest(acc, key));
+	}
+	
+	/**
+	 * Completes the authentication of a waiting client.
+	 * @param wc the waiting client
+	 * @param authed {@code true} if the login server accepted the session key
+	 */
+	private void onPlayerAuthResponse(WaitingClient wc, boolean authed)
+	{
+		if (authed)
 		{
-			sendPacket(par);
+			wc.gameClient.setConnectionState(ConnectionState.AUTHENTICATED);
+			wc.gameClient.setSessionId(wc.session);
+			final CharSelectionInfo cl = new CharSelectionInfo(wc.account, wc.gameClient.getSessionId().playOkID1);
+			wc.gameClient.sendPacket(cl);
+			wc.gameClient.setCharSelection(cl.getCharInfo());
 		}
-		catch (IOException e)
+		else
 		{
-			LOGGER.warning(getClass().getSimpleName() + ": Error while sending player auth request");
+			LOGGER.warning(getClass().getSimpleName() + ": Session key is not correct. Closing connection for account " + wc.account);
+			// wc.gameClient.getConnection().sendPacket(new LoginFail(LoginFail.SYSTEM_ERROR_LOGIN_LATER));
+			wc.gameClient.close(new LoginFail(LoginFail.SYSTEM_ERROR_LOGIN_LATER));
+			_accountsInGameServer.remove(wc.account);
 		}
 	}
 	
@@ -419,20 +425,10 @@ public class LoginServerThread extends Thread
 	 */
 	public void removeWaitingClient(L2GameClient client)
 	{
-		WaitingClient toRemove = null;
-		synchronized (_waitingClients)
+		final String account = client.getAccountName();
+		if (account != null)
 		{
-			for (WaitingClient c : _waitingClients)
-			{
-				if (c.gameClient == client)
-				{
-					toRemove = c;
-				}
-			}
-			if (toRemove != null)
-			{
-				_waitingClients.remove(toRemove);
-			}
+			_waitingClients.computeIfPresent(account, (acc, wc) -> wc.gameClient == client ? null : wc);
 		}
 	}
 	
@@ -446,19 +442,8 @@ public class LoginServerThread extends Thread
 		{
 			return;
 		}
-		final PlayerLogout pl = new PlayerLogout(account);
-		try
-		{
-			sendPacket(pl);
-		}
-		catch (IOException e)
-		{
-			LOGGER.warning(getClass().getSimpleName() + ": Error while sending logout packet to login");
-		}
-		finally
-		{
-			_accountsInGameServer.remove(account);
-		}
+		sendPacket(new PlayerLogout(account));
+		_accountsInGameServer.remove(account);
 	}
 	
 	/**
@@ -479,14 +464,7 @@ public class LoginServerThread extends Thread
 	 */
 	public void sendAccessLevel(String account, int level)
 	{
-		final ChangeAccessLevel cal = new ChangeAccessLevel(account, level);
-		try
-		{
-			sendPacket(cal);
-		}
-		catch (IOException e)
-		{
-		}
+		sendPacket(new ChangeAccessLevel(account, level));
 	}
 	
 	/**
@@ -496,14 +474,7 @@ public class LoginServerThread extends Thread
 	 */
 	public void sendClientTracert(String account, String[] address)
 	{
-		final PlayerTracert ptc = new PlayerTracert(account, address[0], address[1], address[2], address[3], address[4]);
-		try
-		{
-			sendPacket(ptc);
-		}
-		catch (IOException e)
-		{
-		}
+		sendPacket(new PlayerTracert(account, address[0], address[1], address[2], address[3], address[4]));
 	}
 	
 	/**
@@ -514,14 +485,7 @@ public class LoginServerThread extends Thread
 	 */
 	public void sendMail(String account, String mailId, String... args)
 	{
-		final SendMail sem = new SendMail(account, mailId, args);
-		try
-		{
-			sendPacket(sem);
-		}
-		catch (IOException e)
-		{
-		}
+		sendPacket(new SendMail(account, mailId, args));
 	}
 	
 	/**
@@ -532,14 +496,7 @@ public class LoginServerThread extends Thread
 	 */
 	public void sendTempBan(String account, String ip, long time)
 	{
-		final TempBan tbn = new TempBan(account, ip, time);
-		try
-		{
-			sendPacket(tbn);
-		}
-		catch (IOException e)
-		{
-		}
+		sendPacket(new TempBan(account, ip, time));
 	}
 	
 	/**
@@ -608,35 +565,123 @@ public class LoginServerThread extends Thread
 			LOGGER.log(Level.WARNING, getClass().getSimpleName() + ": Exception: getCharsOnServer: " + e.getMessage(), e);
 		}
 		
-		final ReplyCharacters rec = new ReplyCharacters(account, chars, charToDel);
-		try
-		{
-			sendPacket(rec);
-		}
-		catch (IOException e)
+		sendPacket(new ReplyCharacters(account, chars, charToDel));
+	}
+	
+	/**
+	 * Queues the packet for the writer thread, dropped while not registered on login.<br>
+	 * Pending authentications are requested again and the players in game are sent again on registration.
+	 * @param sl the sendable packet
+	 */
+	private void sendPacket(BaseSendablePacket sl)
+	{
+		if (_writer != null)
 		{
+			_sendQueue.add(sl);
 		}
 	}
 	
 	/**
-	 * Send packet.
+	 * Writes the packet right away, only used on the login thread before the writer thread is started.
 	 * @param sl the sendable packet
 	 * @throws IOException Signals that an I/O exception has occurred.
 	 */
-	private void sendPacket(BaseSendablePacket sl) throws IOException
+	private void sendHandshakePacket(BaseSendablePacket sl) throws IOException
+	{
+		writePacket(_out, sl);
+		_out.flush();
+	}
+	
+	private void writePacket(OutputStream out, BaseSendablePacket sl) throws IOException
 	{
 		final byte[] data = sl.getContent();
 		NewCrypt.appendChecksum(data);
 		_blowfish.crypt(data, 0, data.length);
 		
 		final int len = data.length + 2;
-		synchronized (_out) // avoids tow threads writing in the mean time
+		out.write(len & 0xff);
+		out.write((len >> 8) & 0xff);
+		out.write(data);
+	}
+	
+	private void startWriter()
+	{
+		final Socket socket = _loginSocket;
+		final OutputStream out = _out;
+		final Thread writer = new Thread(() -> writePackets(socket, out), "LoginServerWriter");
+		writer.setDaemon(true);
+		_sendQueue.clear();
+		_writer = writer;
+		writer.start();
+	}
+	
+	private void stopWriter()
+	{
+		final Thread writer = _writer;
+		if (writer != null)
 		{
-			_out.write(len & 0xff);
-			_out.write((len >> 8) & 0xff);
-			_out.write(data);
-			_out.flush();
+			_writer = null;
+			writer.interrupt();
 		}
+		_sendQueue.clear();
+	}
+	
+	/**
+	 * Writes the queued packets until the connection is lost, with one flush for all the packets queued meanwhile.<br>
+	 * Consecutive PlayerInGame packets are merged.
+	 * @param socket the login socket
+	 * @param out the output stream of the socket
+	 */
+	private void writePackets(Socket socket, OutputStream out)
+	{
+		final List<BaseSendablePacket> packets = new ArrayList<>();
+		final List<String> accounts = new ArrayList<>();
+		try
+		{
+			while (_writer == Thread.currentThread())
+			{
+				packets.add(_sendQueue.take());
+				_sendQueue.drainTo(packets);
+				for (BaseSendablePacket packet : packets)
+				{
+					if (packet instanceof PlayerInGame)
+					{
+						accounts.addAll(((PlayerInGame) packet).getPlayers());
+						continue;
+					}
+					
+					writePlayersInGame(out, accounts);
+					writePacket(out, packet);
+				}
+				writePlayersInGame(out, accounts);
+				out.flush();
+				packets.clear();
+			}
+		}
+		catch (InterruptedException e)
+		{
+			// Disconnected from login.
+		}
+		catch (IOException e)
+		{
+			LOGGER.warning(getClass().getSimpleName() + ": Error while sending packets to login: " + e.getMessage());
+			try
+			{
+				socket.close(); // The login thread reconnects.
+			}
+			catch (IOException e1)
+			{
+			}
+		}
+	}
+	
+	private void writePlayersInGame(OutputStream out, List<String> accounts) throws IOException
+	{
+		for (int i = 0; i < accounts.size(); i += MAX_ACCOUNTS_PER_PACKET)
+		{
+			writePacket(out, new PlayerInGame(accounts.subList(i, Math.min(accounts.size(), i + MAX_ACCOUNTS_PER_PACKET))));
+		}
+		accounts.clear();
 	}
 	
 	/**
@@ -667,13 +712,7 @@ public class LoginServerThread extends Thread
 	{
 		final ServerStatus ss = new ServerStatus();
 		ss.addAttribute(id, value);
-		try
-		{
-			sendPacket(ss);
-		}
-		catch (IOException e)
-		{
-		}
+		sendPacket(ss);
 	}
 	
 	/**
@@ -683,13 +722,7 @@ public class LoginServerThread extends Thread
 	{
 		final ServerStatus ss = new ServerStatus();
 		ss.addAttribute(ServerStatus.SERVER_TYPE, Config.SERVER_LIST_TYPE);
-		try
-		{
-			sendPacket(ss);
-		}
-		catch (IOException e)
-		{
-		}
+		sendPacket(ss);
 	}
 	
 	/**
@@ -701,14 +734,7 @@ public class LoginServerThread extends Thread
 	 */
 	public void sendChangePassword(String accountName, String charName, String oldpass, String newpass)
 	{
-		final ChangePassword cp = new ChangePassword(accountName, charName, oldpass, newpass);
-		try
-		{
-			sendPacket(cp);
-		}
-		catch (IOException e)
-		{
-		}
+		sendPacket(new ChangePassword(accountName, charName, oldpass, newpass));
 	}
 	
 	/**
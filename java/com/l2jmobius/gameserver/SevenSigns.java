@@ -136,7 +136,7 @@ public class SevenSigns
 	
 	private static final String INSERT_PLAYER = "INSERT INTO seven_signs (charId, cabal, seal) VALUES (?,?,?)";
 	
-	private static final String UPDATE_PLAYER = "UPDATE seven_signs SET cabal=?, seal=?, red_stones=?, green_stones=?, blue_stones=?, ancient_adena_amount=?, contribution_score=? WHERE charId=?";
+	public static final String UPDATE_PLAYER = "UPDATE seven_signs SET cabal=?, seal=?, red_stones=?, green_stones=?, blue_stones=?, ancient_adena_amount=?, contribution_score=? WHERE charId=?";
 	
 	private static final String UPDATE_STATUS = "UPDATE seven_signs_status SET current_cycle=?, active_period=?, previous_winner=?, dawn_stone_score=?, dawn_festival_score=?, dusk_stone_score=?, dusk_festival_score=?, avarice_owner=?, gnosis_owner=?, strife_owner=?, avarice_dawn_score=?, gnosis_dawn_score=?, strife_dawn_score=?, avarice_dusk_score=?, gnosis_dusk_score=?, strife_dusk_score=?, festival_cycle=?, accumulated_bonus0=?, accumulated_bonus1=?, accumulated_bonus2=?,accumulated_bonus3=?, accumulated_bonus4=?, date=? WHERE id=0";
 	
@@ -940,6 +940,31 @@ public class SevenSigns
 		}
 	}
 	
+	/**
+	 * @param objectId the player object id
+	 * @return the parameters of {@link #UPDATE_PLAYER} for the player, {@code null} if the player has no seven signs data
+	 */
+	public final Object[] getPlayerStoreParams(int objectId)
+	{
+		final StatsSet sevenDat = _signsPlayerData.get(objectId);
+		if (sevenDat == null)
+		{
+			return null;
+		}
+		
+		return new Object[]
+		{
+			sevenDat.getString("cabal"),
+			sevenDat.getInt("seal"),
+			sevenDat.getInt("red_stones"),
+			sevenDat.getInt("green_stones"),
+			sevenDat.getInt("blue_stones"),
+			sevenDat.getDouble("ancient_adena_amount"),
+			sevenDat.getDouble("contribution_score"),
+			sevenDat.getInt("charId")
+		};
+	}
+	
 	public final void saveSevenSignsData(int objectId)
 	{
 		final StatsSet sevenDat = _signsPlayerData.get(objectId);
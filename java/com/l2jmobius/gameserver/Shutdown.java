@@ -22,6 +22,7 @@ import java.util.logging.Logger;
 import com.l2jmobius.Config;
 import com.l2jmobius.commons.concurrent.ThreadPool;
 import com.l2jmobius.commons.database.DatabaseBackup;
+import com.l2jmobius.commons.database.DatabaseExecutor;
 import com.l2jmobius.commons.database.DatabaseFactory;
 import com.l2jmobius.gameserver.data.sql.impl.ClanTable;
 import com.l2jmobius.gameserver.data.sql.impl.OfflineTradersTable;
@@ -49,6 +50,7 @@ import com.l2jmobius.gameserver.network.loginserverpackets.game.ServerStatus;
 import com.l2jmobius.gameserver.network.serverpackets.SystemMessage;
 import com.l2jmobius.gameserver.network.telnet.TelnetServer;
 import com.l2jmobius.gameserver.util.Broadcast;
+import com.l2jmobius.log.handler.AsyncFileHandler;
 
 /**
  * This class provides the functions for shutting down and restarting the server.<br>
@@ -203,6 +205,21 @@ public class Shutdown extends Thread
 				// ignore
 			}
 			
+			// execute queued statements
+			try
+			{
+				if ((Config.OFFLINE_TRADE_ENABLE || Config.OFFLINE_CRAFT_ENABLE) && Config.STORE_OFFLINE_TRADE_IN_REALTIME)
+				{
+					OfflineTradersTable.getInstance().compactJournal();
+				}
+				DatabaseExecutor.shutdown();
+				LOGGER.info("Database Executor: Queued statements have been executed(" + tc.getEstimatedTimeAndRestartCounter() + "ms).");
+			}
+			catch (Throwable t)
+			{
+				// ignore
+			}
+			
 			// commit data, last chance
 			try
 			{
@@ -219,6 +236,9 @@ public class Shutdown extends Thread
 				DatabaseBackup.performBackup();
 			}
 			
+			// Halt skips the shutdown hooks, write the queued log records now.
+			AsyncFileHandler.shutdownAll();
+			
 			// server will quit, when this function ends.
 			if (getInstance()._shutdownMode == GM_RESTART)
 			{
@@ -20,11 +20,10 @@ import static com.l2jmobius.gameserver.ai.CtrlIntention.AI_INTENTION_ATTACK;
 import static com.l2jmobius.gameserver.ai.CtrlIntention.AI_INTENTION_FOLLOW;
 import static com.l2jmobius.gameserver.ai.CtrlIntention.AI_INTENTION_IDLE;
 
-import java.util.concurrent.Future;
 import java.util.logging.Logger;
 
-import com.l2jmobius.commons.concurrent.ThreadPool;
 import com.l2jmobius.gameserver.GameTimeController;
+import com.l2jmobius.gameserver.GameTimeController.FollowUpdate;
 import com.l2jmobius.gameserver.model.L2Object;
 import com.l2jmobius.gameserver.model.Location;
 import com.l2jmobius.gameserver.model.actor.L2Character;
@@ -69,25 +68,34 @@ public abstract class AbstractAI implements Ctrl
 		_nextAction = nextAction;
 	}
 	
-	private class FollowTask implements Runnable
+	private class FollowTask extends FollowUpdate
 	{
 		protected int _range = 70;
 		
 		public FollowTask()
 		{
+			super(FOLLOW_INTERVAL);
 		}
 		
 		public FollowTask(int range)
 		{
+			super(ATTACK_FOLLOW_INTERVAL);
 			_range = range;
 		}
 		
 		@Override
-		public void run()
+		protected boolean needsUpdate()
+		{
+			final L2Character followTarget = _followTarget;
+			return (followTarget == null) || !_actor.isInsideRadius3D(followTarget, _range);
+		}
+		
+		@Override
+		protected void update()
 		{
 			try
 			{
-				if (_followTask == null)
+				if (_followTask != this)
 				{
 					return;
 				}
@@ -156,7 +164,7 @@ public abstract class AbstractAI implements Ctrl
 	/** Different internal state flags */
 	private int _moveToPawnTimeout;
 	
-	protected Future<?> _followTask = null;
+	protected FollowUpdate _followTask = null;
 	private static final int FOLLOW_INTERVAL = 1000;
 	private static final int ATTACK_FOLLOW_INTERVAL = 500;
 	
@@ -832,13 +840,14 @@ public abstract class AbstractAI implements Ctrl
 	{
 		if (_followTask != null)
 		{
-			_followTask.cancel(false);
+			_followTask.cancel();
 			_followTask = null;
 		}
 		
 		// Create and Launch an AI Follow Task to execute every 1s
 		_followTarget = target;
-		_followTask = ThreadPool.scheduleAtFixedRate(new FollowTask(), 5, FOLLOW_INTERVAL);
+		_followTask = new FollowTask();
+		GameTimeController.getInstance().registerFollowUpdate(_followTask);
 	}
 	
 	/**
@@ -850,12 +859,13 @@ public abstract class AbstractAI implements Ctrl
 	{
 		if (_followTask != null)
 		{
-			_followTask.cancel(false);
+			_followTask.cancel();
 			_followTask = null;
 		}
 		
 		_followTarget = target;
-		_followTask = ThreadPool.scheduleAtFixedRate(new FollowTask(range), 5, ATTACK_FOLLOW_INTERVAL);
+		_followTask = new FollowTask(range);
+		GameTimeController.getInstance().registerFollowUpdate(_followTask);
 	}
 	
 	/**
@@ -866,7 +876,7 @@ public abstract class AbstractAI implements Ctrl
 		if (_followTask != null)
 		{
 			// Stop the Follow Task
-			_followTask.cancel(false);
+			_followTask.cancel();
 			_followTask = null;
 		}
 		_followTarget = null;
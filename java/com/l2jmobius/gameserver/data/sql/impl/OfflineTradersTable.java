@@ -19,12 +19,24 @@ package com.l2jmobius.gameserver.data.sql.impl;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import com.l2jmobius.Config;
+import com.l2jmobius.commons.concurrent.TaskCategory;
+import com.l2jmobius.commons.concurrent.ThreadPool;
+import com.l2jmobius.commons.database.DatabaseExecutor;
 import com.l2jmobius.commons.database.DatabaseFactory;
 import com.l2jmobius.gameserver.enums.PrivateStoreType;
 import com.l2jmobius.gameserver.instancemanager.PlayerCountManager;
@@ -50,8 +62,18 @@ public class OfflineTradersTable
 	private static final String LOAD_OFFLINE_STATUS = "SELECT * FROM character_offline_trade";
 	private static final String LOAD_OFFLINE_ITEMS = "SELECT * FROM character_offline_trade_items WHERE `charId`=?";
 	
+	/** Ordering key of the journal compactions in the database executor. */
+	private static final int JOURNAL_KEY = 0;
+	
+	private final Map<Integer, JournalEntry> _journal = new ConcurrentHashMap<>();
+	private final AtomicBoolean _compactionQueued = new AtomicBoolean();
+	
 	protected OfflineTradersTable()
 	{
+		if (Config.STORE_OFFLINE_TRADE_IN_REALTIME)
+		{
+			ThreadPool.scheduleAtFixedRate(TaskCategory.DATABASE, this::scheduleCompaction, Config.OFFLINE_TRADE_JOURNAL_INTERVAL, Config.OFFLINE_TRADE_JOURNAL_INTERVAL);
+		}
 	}
 	
 	public void storeOffliners()
@@ -327,147 +349,276 @@ public class OfflineTradersTable
 		}
 	}
 	
-	public static synchronized void onTransaction(L2PcInstance trader, boolean finished, boolean firstCall)
+	/**
+	 * Records the current store of an offline trader in the journal.<br>
+	 * Only a snapshot of the store is taken on the calling thread, the database is updated by the next journal compaction.
+	 * @param trader the trader
+	 * @param finished {@code true} if the store is closed and its rows must be removed
+	 * @param firstCall {@code true} if the trader just went offline and the store header must be written too
+	 */
+	public static void onTransaction(L2PcInstance trader, boolean finished, boolean firstCall)
 	{
-		try (Connection con = DatabaseFactory.getConnection();
-			PreparedStatement stm1 = con.prepareStatement(CLEAR_OFFLINE_TABLE_ITEMS_PLAYER);
-			PreparedStatement stm2 = con.prepareStatement(CLEAR_OFFLINE_TABLE_PLAYER);
-			PreparedStatement stm3 = con.prepareStatement(SAVE_ITEMS);
-			PreparedStatement stm4 = con.prepareStatement(SAVE_OFFLINE_STATUS))
+		try
 		{
-			String title = null;
-			
-			stm1.setInt(1, trader.getObjectId()); // Char Id
-			stm1.execute();
-			stm1.close();
-			
-			// Trade is done - clear info
+			final JournalEntry entry;
 			if (finished)
 			{
-				stm2.setInt(1, trader.getObjectId()); // Char Id
-				stm2.execute();
-				stm2.close();
+				entry = JournalEntry.FINISHED;
+			}
+			else if ((trader.getClient() == null) || trader.getClient().isDetached())
+			{
+				entry = snapshot(trader, firstCall);
 			}
 			else
 			{
-				try
+				// Trader is online, only its item rows are cleared.
+				entry = JournalEntry.CLEAR_ITEMS;
+			}
+			getInstance().record(trader.getObjectId(), entry);
+		}
+		catch (Exception e)
+		{
+			LOGGER.log(Level.WARNING, "OfflineTradersTable[storeTradeItems()]: Error while saving offline trader: " + trader.getObjectId() + " " + e, e);
+		}
+	}
+	
+	public static void removeTrader(int traderObjId)
+	{
+		PlayerCountManager.getInstance().decOfflineTradeCount();
+		getInstance().record(traderObjId, JournalEntry.FINISHED);
+	}
+	
+	private static JournalEntry snapshot(L2PcInstance trader, boolean firstCall)
+	{
+		String title = null;
+		final List<long[]> rows = new ArrayList<>();
+		switch (trader.getPrivateStoreType())
+		{
+			case BUY:
+			{
+				title = trader.getBuyList().getTitle();
+				for (TradeItem i : trader.getBuyList().getItems())
 				{
-					if ((trader.getClient() == null) || trader.getClient().isDetached())
+					rows.add(new long[]
 					{
-						switch (trader.getPrivateStoreType())
+						i.getItem().getId(),
+						i.getCount(),
+						i.getPrice()
+					});
+				}
+				break;
+			}
+			case SELL:
+			case PACKAGE_SELL:
+			{
+				title = trader.getSellList().getTitle();
+				if (trader.isSellingBuffs())
+				{
+					for (SellBuffHolder holder : trader.getSellingBuffs())
+					{
+						rows.add(new long[]
 						{
-							case BUY:
-							{
-								if (firstCall)
-								{
-									title = trader.getBuyList().getTitle();
-								}
-								for (TradeItem i : trader.getBuyList().getItems())
-								{
-									stm3.setInt(1, trader.getObjectId());
-									stm3.setInt(2, i.getItem().getId());
-									stm3.setLong(3, i.getCount());
-									stm3.setLong(4, i.getPrice());
-									stm3.executeUpdate();
-									stm3.clearParameters();
-								}
-								break;
-							}
-							case SELL:
-							case PACKAGE_SELL:
-							{
-								if (firstCall)
-								{
-									title = trader.getSellList().getTitle();
-								}
-								if (trader.isSellingBuffs())
-								{
-									for (SellBuffHolder holder : trader.getSellingBuffs())
-									{
-										stm3.setInt(1, trader.getObjectId());
-										stm3.setInt(2, holder.getSkillId());
-										stm3.setLong(3, 0);
-										stm3.setLong(4, holder.getPrice());
-										stm3.executeUpdate();
-										stm3.clearParameters();
-									}
-								}
-								else
-								{
-									for (TradeItem i : trader.getSellList().getItems())
-									{
-										stm3.setInt(1, trader.getObjectId());
-										stm3.setInt(2, i.getObjectId());
-										stm3.setLong(3, i.getCount());
-										stm3.setLong(4, i.getPrice());
-										stm3.executeUpdate();
-										stm3.clearParameters();
-									}
-								}
-								break;
-							}
-							case MANUFACTURE:
-							{
-								if (firstCall)
-								{
-									title = trader.getStoreName();
-								}
-								for (L2ManufactureItem i : trader.getManufactureItems().values())
-								{
-									stm3.setInt(1, trader.getObjectId());
-									stm3.setInt(2, i.getRecipeId());
-									stm3.setLong(3, 0);
-									stm3.setLong(4, i.getCost());
-									stm3.executeUpdate();
-									stm3.clearParameters();
-								}
-								break;
-							}
-						}
-						stm3.close();
-						if (firstCall)
+							holder.getSkillId(),
+							0,
+							holder.getPrice()
+						});
+					}
+				}
+				else
+				{
+					for (TradeItem i : trader.getSellList().getItems())
+					{
+						rows.add(new long[]
 						{
-							stm4.setInt(1, trader.getObjectId()); // Char Id
-							stm4.setLong(2, trader.getOfflineStartTime());
-							stm4.setInt(3, trader.isSellingBuffs() ? PrivateStoreType.SELL_BUFFS.getId() : trader.getPrivateStoreType().getId()); // store type
-							stm4.setString(4, title);
-							stm4.executeUpdate();
-							stm4.clearParameters();
-							stm4.close();
-						}
+							i.getObjectId(),
+							i.getCount(),
+							i.getPrice()
+						});
 					}
 				}
-				catch (Exception e)
+				break;
+			}
+			case MANUFACTURE:
+			{
+				title = trader.getStoreName();
+				for (L2ManufactureItem i : trader.getManufactureItems().values())
 				{
-					LOGGER.log(Level.WARNING, "OfflineTradersTable[storeTradeItems()]: Error while saving offline trader: " + trader.getObjectId() + " " + e, e);
+					rows.add(new long[]
+					{
+						i.getRecipeId(),
+						0,
+						i.getCost()
+					});
 				}
+				break;
 			}
 		}
+		
+		if (!firstCall)
+		{
+			return new JournalEntry(false, null, rows);
+		}
+		final int type = trader.isSellingBuffs() ? PrivateStoreType.SELL_BUFFS.getId() : trader.getPrivateStoreType().getId();
+		return new JournalEntry(false, new Object[]
+		{
+			trader.getOfflineStartTime(),
+			type,
+			title
+		}, rows);
+	}
+	
+	/**
+	 * Appends a delta of the given trader. Pending deltas of the same trader are folded together, so only the latest store state is written.
+	 * @param objectId the trader object id
+	 * @param entry the delta
+	 */
+	private void record(int objectId, JournalEntry entry)
+	{
+		_journal.merge(objectId, entry, JournalEntry::append);
+	}
+	
+	/**
+	 * Hands the pending deltas to the database executor, unless a compaction is already queued.
+	 */
+	private void scheduleCompaction()
+	{
+		if (!_journal.isEmpty() && _compactionQueued.compareAndSet(false, true))
+		{
+			DatabaseExecutor.execute(JOURNAL_KEY, con ->
+			{
+				_compactionQueued.set(false);
+				compact(con);
+			});
+		}
+	}
+	
+	/**
+	 * Writes all pending deltas, used on shutdown.
+	 */
+	public void compactJournal()
+	{
+		try (Connection con = DatabaseFactory.getConnection())
+		{
+			compact(con);
+		}
 		catch (Exception e)
 		{
-			LOGGER.log(Level.WARNING, "OfflineTradersTable[storeTradeItems()]: Error while saving offline traders: " + e, e);
+			LOGGER.log(Level.WARNING, getClass().getSimpleName() + ": Error while storing offline trader journal: " + e, e);
 		}
 	}
 	
-	public static synchronized void removeTrader(int traderObjId)
+	/**
+	 * Writes the pending deltas to the offline trade tables in a single transaction.<br>
+	 * On failure the deltas are put back in front of any newer ones, so the next compaction retries them.
+	 * @param con the connection
+	 * @throws SQLException if the connection fails
+	 */
+	private synchronized void compact(Connection con) throws SQLException
 	{
-		PlayerCountManager.getInstance().decOfflineTradeCount();
+		final Map<Integer, JournalEntry> entries = new HashMap<>();
+		for (Integer objectId : _journal.keySet())
+		{
+			final JournalEntry entry = _journal.remove(objectId);
+			if (entry != null)
+			{
+				entries.put(objectId, entry);
+			}
+		}
+		if (entries.isEmpty())
+		{
+			return;
+		}
 		
-		try (Connection con = DatabaseFactory.getConnection();
-			PreparedStatement stm1 = con.prepareStatement(CLEAR_OFFLINE_TABLE_ITEMS_PLAYER);
-			PreparedStatement stm2 = con.prepareStatement(CLEAR_OFFLINE_TABLE_PLAYER))
+		con.setAutoCommit(false);
+		try (PreparedStatement clearItems = con.prepareStatement(CLEAR_OFFLINE_TABLE_ITEMS_PLAYER);
+			PreparedStatement clearStatus = con.prepareStatement(CLEAR_OFFLINE_TABLE_PLAYER);
+			PreparedStatement saveStatus = con.prepareStatement(SAVE_OFFLINE_STATUS);
+			PreparedStatement saveItems = con.prepareStatement(SAVE_ITEMS))
 		{
-			stm1.setInt(1, traderObjId);
-			stm1.execute();
-			stm1.close();
+			for (Entry<Integer, JournalEntry> e : entries.entrySet())
+			{
+				final int objectId = e.getKey();
+				final JournalEntry entry = e.getValue();
+				
+				clearItems.setInt(1, objectId);
+				clearItems.addBatch();
+				
+				if (entry.clearStatus || (entry.status != null))
+				{
+					clearStatus.setInt(1, objectId);
+					clearStatus.addBatch();
+				}
+				
+				if (entry.status != null)
+				{
+					saveStatus.setInt(1, objectId);
+					saveStatus.setLong(2, (long) entry.status[0]);
+					saveStatus.setInt(3, (int) entry.status[1]);
+					saveStatus.setString(4, (String) entry.status[2]);
+					saveStatus.addBatch();
+				}
+				
+				for (long[] row : entry.rows)
+				{
+					saveItems.setInt(1, objectId);
+					saveItems.setInt(2, (int) row[0]);
+					saveItems.setLong(3, row[1]);
+					saveItems.setLong(4, row[2]);
+					saveItems.addBatch();
+				}
+			}
 			
-			stm2.setInt(1, traderObjId);
-			stm2.execute();
-			stm2.close();
+			clearItems.executeBatch();
+			clearStatus.executeBatch();
+			saveStatus.executeBatch();
+			saveItems.executeBatch();
+			con.commit();
 		}
-		catch (Exception e)
+		catch (SQLException e)
+		{
+			con.rollback();
+			entries.forEach((objectId, entry) -> _journal.merge(objectId, entry, (newer, failed) -> failed.append(newer)));
+			throw e;
+		}
+		finally
 		{
-			LOGGER.log(Level.WARNING, "OfflineTradersTable[removeTrader()]: Error while removing offline trader: " + traderObjId + " " + e, e);
+			con.setAutoCommit(true);
+		}
+	}
+	
+	/**
+	 * Pending change of one offline trader.
+	 */
+	private static final class JournalEntry
+	{
+		static final JournalEntry FINISHED = new JournalEntry(true, null, Collections.emptyList());
+		static final JournalEntry CLEAR_ITEMS = new JournalEntry(false, null, Collections.emptyList());
+		
+		/** Whether the store header row must be deleted. */
+		final boolean clearStatus;
+		/** Store header to insert (time, type, title), or {@code null} to keep the current one. */
+		final Object[] status;
+		/** Item rows (item, count, price) replacing the current ones. */
+		final List<long[]> rows;
+		
+		JournalEntry(boolean clearStatus, Object[] status, List<long[]> rows)
+		{
+			this.clearStatus = clearStatus;
+			this.status = status;
+			this.rows = rows;
+		}
+		
+		/**
+		 * @param next the newer delta
+		 * @return the delta with the effect of this one followed by the given one
+		 */
+		JournalEntry append(JournalEntry next)
+		{
+			if ((next.status != null) || next.clearStatus || ((status == null) && !clearStatus))
+			{
+				return next;
+			}
+			return new JournalEntry(clearStatus, status, next.rows);
 		}
 	}
 	
@@ -18,7 +18,6 @@ package com.l2jmobius.gameserver.data.xml.impl;
 
 import java.io.File;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
@@ -82,8 +81,7 @@ public class EnchantItemHPBonusData implements IGameXmlReader
 		{
 			final ItemTable it = ItemTable.getInstance();
 			// Armors
-			final Collection<Integer> armorIds = it.getAllArmorsId();
-			for (Integer itemId : armorIds)
+			for (int itemId : it.getAllArmorsId())
 			{
 				final L2Item item = it.getTemplate(itemId);
 				if ((item != null) && (item.getCrystalType() != CrystalType.NONE))
@@ -35,6 +35,7 @@ import org.w3c.dom.Node;
 import com.l2jmobius.Config;
 import com.l2jmobius.commons.util.CommonUtil;
 import com.l2jmobius.commons.util.IGameXmlReader;
+import com.l2jmobius.commons.util.collections.IntHashSet;
 import com.l2jmobius.gameserver.datatables.ItemTable;
 import com.l2jmobius.gameserver.enums.AISkillScope;
 import com.l2jmobius.gameserver.enums.DropType;
@@ -55,7 +56,7 @@ public class NpcData implements IGameXmlReader
 {
 	private final Map<Integer, L2NpcTemplate> _npcs = new HashMap<>();
 	private final Map<String, Integer> _clans = new HashMap<>();
-	private static final List<Integer> _masterMonsterIDs = new ArrayList<>();
+	private static final IntHashSet _masterMonsterIDs = new IntHashSet();
 	
 	protected NpcData()
 	{
@@ -78,6 +79,8 @@ public class NpcData implements IGameXmlReader
 		}
 		
 		loadNpcsSkillLearn();
+		
+		_npcs.values().forEach(L2NpcTemplate::compileDropTables);
 	}
 	
 	@Override
@@ -787,7 +790,7 @@ public class NpcData implements IGameXmlReader
 	/**
 	 * @return the IDs of monsters that have minions.
 	 */
-	public static List<Integer> getMasterMonsterIDs()
+	public static IntHashSet getMasterMonsterIDs()
 	{
 		return _masterMonsterIDs;
 	}
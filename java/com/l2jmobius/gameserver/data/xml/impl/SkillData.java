@@ -17,11 +17,12 @@
 package com.l2jmobius.gameserver.data.xml.impl;
 
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
 import java.util.logging.Logger;
 
+import com.l2jmobius.commons.util.collections.IntHashSet;
+import com.l2jmobius.commons.util.collections.IntObjectHashMap;
+import com.l2jmobius.commons.util.collections.IntObjectMap;
 import com.l2jmobius.gameserver.engines.DocumentEngine;
 import com.l2jmobius.gameserver.model.skills.Skill;
 
@@ -32,9 +33,9 @@ public final class SkillData
 {
 	private static Logger LOGGER = Logger.getLogger(SkillData.class.getName());
 	
-	private final Map<Integer, Skill> _skills = new HashMap<>();
+	private volatile IntObjectMap<Skill> _skills = new IntObjectHashMap<>();
 	private final Map<Integer, Integer> _skillMaxLevel = new HashMap<>();
-	private final Set<Integer> _enchantable = new HashSet<>();
+	private final IntHashSet _enchantable = new IntHashSet();
 	
 	protected SkillData()
 	{
@@ -53,8 +54,10 @@ public final class SkillData
 		final Map<Integer, Skill> _temp = new HashMap<>();
 		DocumentEngine.getInstance().loadAllSkills(_temp);
 		
-		_skills.clear();
-		_skills.putAll(_temp);
+		// Built aside and swapped, so lookups never see a half filled table during reload.
+		final IntObjectMap<Skill> skills = new IntObjectHashMap<>(_temp.size());
+		_temp.forEach(skills::put);
+		_skills = skills;
 		
 		_skillMaxLevel.clear();
 		_enchantable.clear();
@@ -64,10 +67,7 @@ public final class SkillData
 			final int skillLvl = skill.getLevel();
 			if (skillLvl > 99)
 			{
-				if (!_enchantable.contains(skillId))
-				{
-					_enchantable.add(skillId);
-				}
+				_enchantable.add(skillId);
 				continue;
 			}
 			
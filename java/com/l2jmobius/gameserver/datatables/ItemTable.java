@@ -30,6 +30,8 @@ import java.util.logging.Logger;
 import com.l2jmobius.Config;
 import com.l2jmobius.commons.concurrent.ThreadPool;
 import com.l2jmobius.commons.database.DatabaseFactory;
+import com.l2jmobius.commons.util.collections.IntObjectHashMap;
+import com.l2jmobius.commons.util.collections.IntObjectMap;
 import com.l2jmobius.gameserver.data.xml.impl.EnchantItemHPBonusData;
 import com.l2jmobius.gameserver.engines.DocumentEngine;
 import com.l2jmobius.gameserver.enums.ItemLocation;
@@ -48,6 +50,7 @@ import com.l2jmobius.gameserver.model.items.L2Item;
 import com.l2jmobius.gameserver.model.items.L2Weapon;
 import com.l2jmobius.gameserver.model.items.instance.L2ItemInstance;
 import com.l2jmobius.gameserver.util.GMAudit;
+import com.l2jmobius.log.ItemLogRecord;
 
 /**
  * This class serves as a container for all item templates in the game.
@@ -60,9 +63,9 @@ public class ItemTable
 	public static final Map<String, Integer> SLOTS = new HashMap<>();
 	
 	private L2Item[] _allTemplates;
-	private final Map<Integer, L2EtcItem> _etcItems = new HashMap<>();
-	private final Map<Integer, L2Armor> _armors = new HashMap<>();
-	private final Map<Integer, L2Weapon> _weapons = new HashMap<>();
+	private final IntObjectMap<L2EtcItem> _etcItems = new IntObjectHashMap<>();
+	private final IntObjectMap<L2Armor> _armors = new IntObjectHashMap<>();
+	private final IntObjectMap<L2Weapon> _weapons = new IntObjectHashMap<>();
 	static
 	{
 		SLOTS.put("shirt", L2Item.SLOT_UNDERWEAR);
@@ -244,25 +247,7 @@ public class ItemTable
 		{
 			if (!Config.LOG_ITEMS_SMALL_LOG || (Config.LOG_ITEMS_SMALL_LOG && (item.isEquipable() || (item.getId() == ADENA_ID))))
 			{
-				if (item.getEnchantLevel() > 0)
-				{
-					LOGGER_ITEMS.info("CREATE:" + String.valueOf(process) // in case of null
-						+ ", item " + item.getObjectId() //
-						+ ":+" + item.getEnchantLevel() //
-						+ " " + item.getItem().getName() //
-						+ "(" + item.getCount() //
-						+ "), " + String.valueOf(actor) // in case of null
-						+ ", " + String.valueOf(reference)); // in case of null
-				}
-				else
-				{
-					LOGGER_ITEMS.info("CREATE:" + String.valueOf(process) // in case of null
-						+ ", item " + item.getObjectId() //
-						+ ":" + item.getItem().getName() //
-						+ "(" + item.getCount() //
-						+ "), " + String.valueOf(actor) // in case of null
-						+ ", " + String.valueOf(reference)); // in case of null
-				}
+				LOGGER_ITEMS.log(new ItemLogRecord(LOGGER_ITEMS, "CREATE", process, item, actor, reference));
 			}
 		}
 		
@@ -331,27 +316,7 @@ public class ItemTable
 			{
 				if (!Config.LOG_ITEMS_SMALL_LOG || (Config.LOG_ITEMS_SMALL_LOG && (item.isEquipable() || (item.getId() == ADENA_ID))))
 				{
-					if (item.getEnchantLevel() > 0)
-					{
-						LOGGER_ITEMS.info("DELETE:" + String.valueOf(process) // in case of null
-							+ ", item " + item.getObjectId() //
-							+ ":+" + item.getEnchantLevel() //
-							+ " " + item.getItem().getName() //
-							+ "(" + item.getCount() //
-							+ "), PrevCount(" + old //
-							+ "), " + String.valueOf(actor) // in case of null
-							+ ", " + String.valueOf(reference)); // in case of null
-					}
-					else
-					{
-						LOGGER_ITEMS.info("DELETE:" + String.valueOf(process) // in case of null
-							+ ", item " + item.getObjectId() //
-							+ ":" + item.getItem().getName() //
-							+ "(" + item.getCount() //
-							+ "), PrevCount(" + old //
-							+ "), " + String.valueOf(actor) // in case of null
-							+ ", " + String.valueOf(reference)); // in case of null
-					}
+					LOGGER_ITEMS.log(new ItemLogRecord(LOGGER_ITEMS, "DELETE", process, item, old, actor, reference));
 				}
 			}
 			
@@ -421,14 +386,14 @@ public class ItemTable
 		}
 	}
 	
-	public Set<Integer> getAllArmorsId()
+	public int[] getAllArmorsId()
 	{
-		return _armors.keySet();
+		return _armors.keys();
 	}
 	
-	public Set<Integer> getAllWeaponsId()
+	public int[] getAllWeaponsId()
 	{
-		return _weapons.keySet();
+		return _weapons.keys();
 	}
 	
 	public L2Item[] getAllItems()
@@ -42,6 +42,7 @@ import com.l2jmobius.gameserver.model.base.PlayerState;
 import com.l2jmobius.gameserver.model.conditions.Condition;
 import com.l2jmobius.gameserver.model.conditions.ConditionCategoryType;
 import com.l2jmobius.gameserver.model.conditions.ConditionChangeWeapon;
+import com.l2jmobius.gameserver.model.conditions.ConditionCompiler;
 import com.l2jmobius.gameserver.model.conditions.ConditionGameChance;
 import com.l2jmobius.gameserver.model.conditions.ConditionGameTime;
 import com.l2jmobius.gameserver.model.conditions.ConditionGameTime.CheckGameTime;
@@ -361,7 +362,18 @@ public abstract class DocumentBase
 		return parameters == null ? StatsSet.EMPTY_STATSET : parameters;
 	}
 	
+	/**
+	 * Parses a condition tree and compiles it.
+	 * @param n the node of the condition
+	 * @param template the template owning the condition
+	 * @return the compiled condition, {@code null} if there is none
+	 */
 	protected Condition parseCondition(Node n, Object template)
+	{
+		return ConditionCompiler.compile(parseConditionTree(n, template));
+	}
+	
+	protected Condition parseConditionTree(Node n, Object template)
 	{
 		while ((n != null) && (n.getNodeType() != Node.ELEMENT_NODE))
 		{
@@ -420,7 +432,7 @@ public abstract class DocumentBase
 		{
 			if (n.getNodeType() == Node.ELEMENT_NODE)
 			{
-				cond.add(parseCondition(n, template));
+				cond.add(parseConditionTree(n, template));
 			}
 		}
 		if ((cond.conditions == null) || (cond.conditions.length == 0))
@@ -437,7 +449,7 @@ public abstract class DocumentBase
 		{
 			if (n.getNodeType() == Node.ELEMENT_NODE)
 			{
-				cond.add(parseCondition(n, template));
+				cond.add(parseConditionTree(n, template));
 			}
 		}
 		if ((cond.conditions == null) || (cond.conditions.length == 0))
@@ -453,7 +465,7 @@ public abstract class DocumentBase
 		{
 			if (n.getNodeType() == Node.ELEMENT_NODE)
 			{
-				return new ConditionLogicNot(parseCondition(n, template));
+				return new ConditionLogicNot(parseConditionTree(n, template));
 			}
 		}
 		LOGGER.severe("Empty <not> condition in " + _file);
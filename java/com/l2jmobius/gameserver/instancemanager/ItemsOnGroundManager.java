@@ -21,14 +21,19 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import com.l2jmobius.Config;
+import com.l2jmobius.commons.concurrent.TaskCategory;
 import com.l2jmobius.commons.concurrent.ThreadPool;
+import com.l2jmobius.commons.database.DatabaseExecutor;
 import com.l2jmobius.commons.database.DatabaseFactory;
+import com.l2jmobius.commons.util.collections.ConcurrentIntObjectHashMap;
+import com.l2jmobius.commons.util.collections.IntObjectMap;
 import com.l2jmobius.gameserver.ItemsAutoDestroy;
 import com.l2jmobius.gameserver.model.L2World;
 import com.l2jmobius.gameserver.model.items.instance.L2ItemInstance;
@@ -41,13 +46,23 @@ public final class ItemsOnGroundManager implements Runnable
 {
 	private static final Logger LOGGER = Logger.getLogger(ItemsOnGroundManager.class.getName());
 	
-	private final List<L2ItemInstance> _items = new CopyOnWriteArrayList<>();
+	private static final String INSERT_ITEM = "REPLACE INTO itemsonground(object_id,item_id,count,enchant_level,x,y,z,drop_time,equipable) VALUES(?,?,?,?,?,?,?,?,?)";
+	private static final String DELETE_ITEM = "DELETE FROM itemsonground WHERE object_id=?";
+	private static final String EMPTY_TABLE = "DELETE FROM itemsonground";
+	/** Ordering key of the saves in the database executor. */
+	private static final int SAVE_KEY = 1;
+	
+	private final IntObjectMap<L2ItemInstance> _items = new ConcurrentIntObjectHashMap<>();
+	/** Items dropped or removed since the last save, the row of an item that is no longer on ground is deleted. */
+	private final IntObjectMap<L2ItemInstance> _changes = new ConcurrentIntObjectHashMap<>();
+	private final AtomicBoolean _saveQueued = new AtomicBoolean();
+	private volatile boolean _fullSaveRequired;
 	
 	protected ItemsOnGroundManager()
 	{
 		if (Config.SAVE_DROPPED_ITEM_INTERVAL > 0)
 		{
-			ThreadPool.scheduleAtFixedRate(this, Config.SAVE_DROPPED_ITEM_INTERVAL, Config.SAVE_DROPPED_ITEM_INTERVAL);
+			ThreadPool.scheduleAtFixedRate(TaskCategory.DATABASE, this, Config.SAVE_DROPPED_ITEM_INTERVAL, Config.SAVE_DROPPED_ITEM_INTERVAL);
 		}
 		load();
 	}
@@ -122,7 +137,7 @@ public final class ItemsOnGroundManager implements Runnable
 					item.setProtected(dropTime == -1);
 					item.setSpawned(true);
 					L2World.getInstance().addVisibleObject(item, item.getWorldRegion());
-					_items.add(item);
+					_items.put(item.getObjectId(), item);
 					count++;
 					// add to ItemsAutoDestroy only items not protected
 					if (!Config.LIST_PROTECTED_ITEMS.contains(item.getId()) && (dropTime > -1) && (((Config.AUTODESTROY_ITEM_AFTER > 0) && !item.getItem().hasExImmediateEffect()) || ((Config.HERB_AUTO_DESTROY_TIME > 0) && item.getItem().hasExImmediateEffect())))
@@ -141,6 +156,7 @@ public final class ItemsOnGroundManager implements Runnable
 		if (Config.EMPTY_DROPPED_ITEM_TABLE_AFTER_LOAD)
 		{
 			emptyTable();
+			_fullSaveRequired = !_items.isEmpty();
 		}
 	}
 	
@@ -150,25 +166,42 @@ public final class ItemsOnGroundManager implements Runnable
 		{
 			return;
 		}
-		_items.add(item);
+		_items.put(item.getObjectId(), item);
+		_changes.put(item.getObjectId(), item);
 	}
 	
 	public void removeObject(L2ItemInstance item)
 	{
-		if (Config.SAVE_DROPPED_ITEM)
+		if (Config.SAVE_DROPPED_ITEM && (_items.remove(item.getObjectId()) != null))
 		{
-			_items.remove(item);
+			_changes.put(item.getObjectId(), item);
 		}
 	}
 	
+	/**
+	 * Rewrites the whole table with the items currently on ground, used on shutdown.
+	 */
 	public void saveInDb()
 	{
-		run();
+		if (!Config.SAVE_DROPPED_ITEM)
+		{
+			return;
+		}
+		
+		try (Connection con = DatabaseFactory.getConnection())
+		{
+			saveAll(con);
+		}
+		catch (SQLException e)
+		{
+			LOGGER.log(Level.SEVERE, getClass().getSimpleName() + ": SQL error while storing items on ground: " + e.getMessage(), e);
+		}
 	}
 	
 	public void cleanUp()
 	{
 		_items.clear();
+		_changes.clear();
 	}
 	
 	public void emptyTable()
@@ -176,7 +209,7 @@ public final class ItemsOnGroundManager implements Runnable
 		try (Connection con = DatabaseFactory.getConnection();
 			Statement s = con.createStatement())
 		{
-			s.executeUpdate("DELETE FROM itemsonground");
+			s.executeUpdate(EMPTY_TABLE);
 		}
 		catch (Exception e1)
 		{
@@ -184,57 +217,144 @@ public final class ItemsOnGroundManager implements Runnable
 		}
 	}
 	
+	/**
+	 * Hands the pending changes to the database executor, so the scheduled pool thread does not wait for the database.
+	 */
 	@Override
-	public synchronized void run()
+	public void run()
 	{
 		if (!Config.SAVE_DROPPED_ITEM)
 		{
 			return;
 		}
 		
-		emptyTable();
-		
-		if (_items.isEmpty())
+		if (_saveQueued.compareAndSet(false, true))
+		{
+			DatabaseExecutor.execute(SAVE_KEY, con ->
+			{
+				_saveQueued.set(false);
+				saveChanges(con);
+			});
+		}
+	}
+	
+	/**
+	 * Writes the items dropped and removed since the last save in a single transaction.<br>
+	 * The table is rewritten instead after a failed rewrite or when it was emptied after load.
+	 * @param con the connection
+	 * @throws SQLException if the connection fails
+	 */
+	private synchronized void saveChanges(Connection con) throws SQLException
+	{
+		if (_fullSaveRequired)
 		{
+			saveAll(con);
 			return;
 		}
 		
-		try (Connection con = DatabaseFactory.getConnection();
-			PreparedStatement ps = con.prepareStatement("INSERT INTO itemsonground(object_id,item_id,count,enchant_level,x,y,z,drop_time,equipable) VALUES(?,?,?,?,?,?,?,?,?)"))
+		final int[] objectIds = _changes.keys();
+		if (objectIds.length > 0)
 		{
-			for (L2ItemInstance item : _items)
+			final List<L2ItemInstance> changes = new ArrayList<>(objectIds.length);
+			for (int objectId : objectIds)
 			{
-				if ((item == null) || CursedWeaponsManager.getInstance().isCursed(item.getId()))
+				final L2ItemInstance item = _changes.remove(objectId);
+				if (item != null)
 				{
-					continue; // Cursed Items not saved to ground, prevent double save
+					changes.add(item);
 				}
-				
-				try
+			}
+			
+			con.setAutoCommit(false);
+			try (PreparedStatement insert = con.prepareStatement(INSERT_ITEM);
+				PreparedStatement delete = con.prepareStatement(DELETE_ITEM))
+			{
+				for (L2ItemInstance item : changes)
 				{
-					ps.setInt(1, item.getObjectId());
-					ps.setInt(2, item.getId());
-					ps.setLong(3, item.getCount());
-					ps.setInt(4, item.getEnchantLevel());
-					ps.setInt(5, item.getX());
-					ps.setInt(6, item.getY());
-					ps.setInt(7, item.getZ());
-					ps.setLong(8, item.isProtected() ? -1 : item.getDropTime()); // item is protected or AutoDestroyed
-					ps.setLong(9, item.isEquipable() ? 1 : 0); // set equip-able
-					ps.execute();
-					ps.clearParameters();
+					// An item removed after it was taken from the changes is marked again, so the next save deletes it.
+					if (_items.get(item.getObjectId()) == item)
+					{
+						addInsert(insert, item);
+					}
+					else
+					{
+						delete.setInt(1, item.getObjectId());
+						delete.addBatch();
+					}
 				}
-				catch (Exception e)
+				delete.executeBatch();
+				insert.executeBatch();
+				con.commit();
+			}
+			catch (SQLException e)
+			{
+				con.rollback();
+				for (L2ItemInstance item : changes)
 				{
-					LOGGER.log(Level.SEVERE, getClass().getSimpleName() + ": Error while inserting into table ItemsOnGround: " + e.getMessage(), e);
+					_changes.putIfAbsent(item.getObjectId(), item);
 				}
+				throw e;
+			}
+			finally
+			{
+				con.setAutoCommit(true);
+			}
+		}
+	}
+	
+	/**
+	 * Replaces the table content with the items currently on ground in a single transaction.
+	 * @param con the connection
+	 * @throws SQLException if the connection fails
+	 */
+	private synchronized void saveAll(Connection con) throws SQLException
+	{
+		_fullSaveRequired = false;
+		_changes.clear();
+		
+		con.setAutoCommit(false);
+		try (Statement s = con.createStatement();
+			PreparedStatement insert = con.prepareStatement(INSERT_ITEM))
+		{
+			s.executeUpdate(EMPTY_TABLE);
+			for (L2ItemInstance item : _items.values())
+			{
+				addInsert(insert, item);
 			}
+			insert.executeBatch();
+			con.commit();
 		}
 		catch (SQLException e)
 		{
-			LOGGER.log(Level.SEVERE, getClass().getSimpleName() + ": SQL error while storing items on ground: " + e.getMessage(), e);
+			con.rollback();
+			_fullSaveRequired = true;
+			throw e;
+		}
+		finally
+		{
+			con.setAutoCommit(true);
 		}
 	}
 	
+	private static void addInsert(PreparedStatement ps, L2ItemInstance item) throws SQLException
+	{
+		if (CursedWeaponsManager.getInstance().isCursed(item.getId()))
+		{
+			return; // Cursed Items not saved to ground, prevent double save
+		}
+		
+		ps.setInt(1, item.getObjectId());
+		ps.setInt(2, item.getId());
+		ps.setLong(3, item.getCount());
+		ps.setInt(4, item.getEnchantLevel());
+		ps.setInt(5, item.getX());
+		ps.setInt(6, item.getY());
+		ps.setInt(7, item.getZ());
+		ps.setLong(8, item.isProtected() ? -1 : item.getDropTime()); // item is protected or AutoDestroyed
+		ps.setLong(9, item.isEquipable() ? 1 : 0); // set equip-able
+		ps.addBatch();
+	}
+	
 	/**
 	 * Gets the single instance of {@code ItemsOnGroundManager}.
 	 * @return single instance of {@code ItemsOnGroundManager}
@@ -30,6 +30,7 @@ import com.l2jmobius.commons.util.IGameXmlReader;
 import com.l2jmobius.gameserver.SevenSigns;
 import com.l2jmobius.gameserver.model.L2MapRegion;
 import com.l2jmobius.gameserver.model.L2Object;
+import com.l2jmobius.gameserver.model.L2World;
 import com.l2jmobius.gameserver.model.Location;
 import com.l2jmobius.gameserver.model.TeleportWhereType;
 import com.l2jmobius.gameserver.model.actor.L2Character;
@@ -53,6 +54,9 @@ public final class MapRegionManager implements IGameXmlReader
 	private static final Map<String, L2MapRegion> _regions = new HashMap<>();
 	private static final String defaultRespawn = "talking_island_town";
 	
+	/** Map regions indexed by map tile x and y, built from the region maps on load. */
+	private static volatile L2MapRegion[][] _regionGrid = new L2MapRegion[0][0];
+	
 	protected MapRegionManager()
 	{
 		load();
@@ -63,6 +67,16 @@ public final class MapRegionManager implements IGameXmlReader
 	{
 		_regions.clear();
 		parseDatapackDirectory("data/mapregion", false);
+		_regionGrid = buildRegionGrid();
+		
+		// Characters cache the map region of their world region.
+		for (L2Object obj : L2World.getInstance().getVisibleObjects())
+		{
+			if (obj.isCharacter())
+			{
+				((L2Character) obj).updateMapRegion();
+			}
+		}
 		LOGGER.info(getClass().getSimpleName() + ": Loaded " + _regions.size() + " map regions.");
 	}
 	
@@ -135,20 +149,57 @@ public final class MapRegionManager implements IGameXmlReader
 	}
 	
 	/**
-	 * @param locX
-	 * @param locY
-	 * @return
+	 * The first region of a tile wins when regions overlap, as the scan over all regions used to do.
+	 * @return the map regions indexed by map tile x and y
 	 */
-	public final L2MapRegion getMapRegion(int locX, int locY)
+	private L2MapRegion[][] buildRegionGrid()
 	{
+		int maxX = -1;
+		int maxY = -1;
 		for (L2MapRegion region : _regions.values())
 		{
-			if (region.isZoneInRegion(getMapRegionX(locX), getMapRegionY(locY)))
+			if (region.getMaps() != null)
 			{
-				return region;
+				for (int[] map : region.getMaps())
+				{
+					maxX = Math.max(maxX, map[0]);
+					maxY = Math.max(maxY, map[1]);
+				}
 			}
 		}
-		return null;
+		
+		final L2MapRegion[][] grid = new L2MapRegion[maxX + 1][maxY + 1];
+		for (L2MapRegion region : _regions.values())
+		{
+			if (region.getMaps() != null)
+			{
+				for (int[] map : region.getMaps())
+				{
+					if ((map[0] >= 0) && (map[1] >= 0) && (grid[map[0]][map[1]] == null))
+					{
+						grid[map[0]][map[1]] = region;
+					}
+				}
+			}
+		}
+		return grid;
+	}
+	
+	/**
+	 * @param locX
+	 * @param locY
+	 * @return the map region of the coordinates, {@code null} if none
+	 */
+	public final L2MapRegion getMapRegion(int locX, int locY)
+	{
+		final L2MapRegion[][] grid = _regionGrid;
+		final int tileX = getMapRegionX(locX);
+		final int tileY = getMapRegionY(locY);
+		if ((tileX < 0) || (tileX >= grid.length) || (tileY < 0) || (tileY >= grid[tileX].length))
+		{
+			return null;
+		}
+		return grid[tileX][tileY];
 	}
 	
 	/**
@@ -172,6 +223,10 @@ public final class MapRegionManager implements IGameXmlReader
 	 */
 	public final L2MapRegion getMapRegion(L2Object obj)
 	{
+		if (obj.isCharacter())
+		{
+			return ((L2Character) obj).getMapRegion();
+		}
 		return getMapRegion(obj.getX(), obj.getY());
 	}
 	
@@ -181,7 +236,12 @@ public final class MapRegionManager implements IGameXmlReader
 	 */
 	public final int getMapRegionLocId(L2Object obj)
 	{
-		return getMapRegionLocId(obj.getX(), obj.getY());
+		final L2MapRegion region = getMapRegion(obj);
+		if (region != null)
+		{
+			return region.getLocId();
+		}
+		return 0;
 	}
 	
 	/**
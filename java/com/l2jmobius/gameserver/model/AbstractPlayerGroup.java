@@ -25,6 +25,7 @@ import com.l2jmobius.gameserver.model.actor.instance.L2PcInstance;
 import com.l2jmobius.gameserver.network.SystemMessageId;
 import com.l2jmobius.gameserver.network.serverpackets.CreatureSay;
 import com.l2jmobius.gameserver.network.serverpackets.IClientOutgoingPacket;
+import com.l2jmobius.gameserver.network.serverpackets.SharedPacket;
 import com.l2jmobius.gameserver.network.serverpackets.SystemMessage;
 
 /**
@@ -99,11 +100,12 @@ public abstract class AbstractPlayerGroup
 	 */
 	public void broadcastPacket(IClientOutgoingPacket packet)
 	{
+		final IClientOutgoingPacket sharedPacket = SharedPacket.of(packet);
 		forEachMember(m ->
 		{
 			if (m != null)
 			{
-				m.sendPacket(packet);
+				m.sendPacket(sharedPacket);
 			}
 			return true;
 		});
@@ -129,11 +131,12 @@ public abstract class AbstractPlayerGroup
 	
 	public void broadcastCreatureSay(CreatureSay msg, L2PcInstance broadcaster)
 	{
+		final IClientOutgoingPacket sharedPacket = SharedPacket.of(msg);
 		forEachMember(m ->
 		{
 			if ((m != null) && !BlockList.isBlocked(m, broadcaster))
 			{
-				m.sendPacket(msg);
+				m.sendPacket(sharedPacket);
 			}
 			return true;
 		});
@@ -73,6 +73,7 @@ import com.l2jmobius.gameserver.network.serverpackets.PledgeShowMemberListUpdate
 import com.l2jmobius.gameserver.network.serverpackets.PledgeSkillList;
 import com.l2jmobius.gameserver.network.serverpackets.PledgeSkillList.SubPledgeSkill;
 import com.l2jmobius.gameserver.network.serverpackets.PledgeSkillListAdd;
+import com.l2jmobius.gameserver.network.serverpackets.SharedPacket;
 import com.l2jmobius.gameserver.network.serverpackets.StatusUpdate;
 import com.l2jmobius.gameserver.network.serverpackets.SystemMessage;
 import com.l2jmobius.gameserver.network.serverpackets.UserInfo;
@@ -116,6 +117,8 @@ public class L2Clan implements IIdentifiable, INamable
 	private int _clanId;
 	private L2ClanMember _leader;
 	private final Map<Integer, L2ClanMember> _members = new ConcurrentHashMap<>();
+	/** Members with a player instance by object id, broadcasts only go through them instead of all the members. */
+	private final Map<Integer, L2ClanMember> _playerMembers = new ConcurrentHashMap<>();
 	
 	private String _allyName;
 	private int _allyId = 0;
@@ -345,6 +348,8 @@ public class L2Clan implements IIdentifiable, INamable
 	private void addClanMember(L2ClanMember member)
 	{
 		_members.put(member.getObjectId(), member);
+		// Replaces the previous member with the same object id.
+		onPlayerInstanceChanged(member);
 	}
 	
 	/**
@@ -421,6 +426,7 @@ public class L2Clan implements IIdentifiable, INamable
 			LOGGER.warning("Member Object ID: " + objectId + " not found in clan while trying to remove");
 			return;
 		}
+		_playerMembers.remove(objectId);
 		final int leadssubpledge = getLeaderSubPledge(objectId);
 		if (leadssubpledge != 0)
 		{
@@ -647,7 +653,7 @@ public class L2Clan implements IIdentifiable, INamable
 	public List<L2PcInstance> getOnlineMembers(int exclude)
 	{
 		final List<L2PcInstance> onlineMembers = new ArrayList<>();
-		for (L2ClanMember temp : _members.values())
+		for (L2ClanMember temp : _playerMembers.values())
 		{
 			if ((temp != null) && temp.isOnline() && (temp.getObjectId() != exclude))
 			{
@@ -663,7 +669,7 @@ public class L2Clan implements IIdentifiable, INamable
 	public int getOnlineMembersCount()
 	{
 		int count = 0;
-		for (L2ClanMember temp : _members.values())
+		for (L2ClanMember temp : _playerMembers.values())
 		{
 			if ((temp == null) || !temp.isOnline())
 			{
@@ -1542,45 +1548,70 @@ public class L2Clan implements IIdentifiable, INamable
 	
 	public void broadcastToOnlineAllyMembers(IClientOutgoingPacket packet)
 	{
+		final IClientOutgoingPacket sharedPacket = SharedPacket.of(packet);
 		for (L2Clan clan : ClanTable.getInstance().getClanAllies(getAllyId()))
 		{
-			clan.broadcastToOnlineMembers(packet);
+			clan.broadcastToOnlineMembers(sharedPacket);
 		}
 	}
 	
 	public void broadcastToOnlineMembers(IClientOutgoingPacket packet)
 	{
-		for (L2ClanMember member : _members.values())
+		final IClientOutgoingPacket sharedPacket = SharedPacket.of(packet);
+		for (L2ClanMember member : _playerMembers.values())
 		{
-			if ((member != null) && member.isOnline())
+			if (member.isOnline())
 			{
-				member.getPlayerInstance().sendPacket(packet);
+				member.getPlayerInstance().sendPacket(sharedPacket);
 			}
 		}
 	}
 	
 	public void broadcastCSToOnlineMembers(CreatureSay packet, L2PcInstance broadcaster)
 	{
-		for (L2ClanMember member : _members.values())
+		final IClientOutgoingPacket sharedPacket = SharedPacket.of(packet);
+		for (L2ClanMember member : _playerMembers.values())
 		{
-			if ((member != null) && member.isOnline() && !BlockList.isBlocked(member.getPlayerInstance(), broadcaster))
+			if (member.isOnline() && !BlockList.isBlocked(member.getPlayerInstance(), broadcaster))
 			{
-				member.getPlayerInstance().sendPacket(packet);
+				member.getPlayerInstance().sendPacket(sharedPacket);
 			}
 		}
 	}
 	
 	public void broadcastToOtherOnlineMembers(IClientOutgoingPacket packet, L2PcInstance player)
 	{
-		for (L2ClanMember member : _members.values())
+		final IClientOutgoingPacket sharedPacket = SharedPacket.of(packet);
+		for (L2ClanMember member : _playerMembers.values())
 		{
-			if ((member != null) && member.isOnline() && (member.getPlayerInstance() != player))
+			if (member.isOnline() && (member.getPlayerInstance() != player))
 			{
-				member.getPlayerInstance().sendPacket(packet);
+				member.getPlayerInstance().sendPacket(sharedPacket);
 			}
 		}
 	}
 	
+	/**
+	 * Keeps the members with a player instance up to date.
+	 * @param member the member whose player instance changed
+	 */
+	void onPlayerInstanceChanged(L2ClanMember member)
+	{
+		// Members replaced by updateClanMember are not tracked anymore.
+		if (_members.get(member.getObjectId()) != member)
+		{
+			_playerMembers.remove(member.getObjectId(), member);
+		}
+		else if (member.getPlayerInstance() != null)
+		{
+			_playerMembers.put(member.getObjectId(), member);
+		}
+		else
+		{
+			_playerMembers.remove(member.getObjectId());
+		}
+	}
+	
 	@Override
 	public String toString()
 	{
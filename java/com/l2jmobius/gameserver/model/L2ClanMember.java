@@ -135,6 +135,7 @@ public class L2ClanMember
 			}
 		}
 		_player = player;
+		_clan.onPlayerInstanceChanged(this);
 	}
 	
 	/**
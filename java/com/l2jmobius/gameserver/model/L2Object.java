@@ -617,6 +617,27 @@ public abstract class L2Object extends ListenersContainer implements IIdentifiab
 		_y = newY;
 		_z = newZ;
 		
+		updateWorldRegion();
+	}
+	
+	/**
+	 * Sets the x, y, z coordinate without moving the object to another world region, {@link #updateWorldRegion()} has to follow.
+	 * @param newX the X coordinate
+	 * @param newY the Y coordinate
+	 * @param newZ the Z coordinate
+	 */
+	protected final void setCoordinates(int newX, int newY, int newZ)
+	{
+		_x = newX;
+		_y = newY;
+		_z = newZ;
+	}
+	
+	/**
+	 * Moves the object to the world region of its coordinates, if it changed.
+	 */
+	public final void updateWorldRegion()
+	{
 		if (_isSpawned)
 		{
 			final L2WorldRegion newRegion = L2World.getInstance().getRegion(this);
@@ -711,6 +732,10 @@ public abstract class L2Object extends ListenersContainer implements IIdentifiab
 		}
 		
 		_instanceId = instanceId;
+		if (isPlayer())
+		{
+			L2World.getInstance().updatePlayerIndex(getActingPlayer());
+		}
 	}
 	
 	/**
@@ -58,6 +58,7 @@ import com.l2jmobius.gameserver.network.serverpackets.PartySmallWindowAdd;
 import com.l2jmobius.gameserver.network.serverpackets.PartySmallWindowAll;
 import com.l2jmobius.gameserver.network.serverpackets.PartySmallWindowDelete;
 import com.l2jmobius.gameserver.network.serverpackets.PartySmallWindowDeleteAll;
+import com.l2jmobius.gameserver.network.serverpackets.SharedPacket;
 import com.l2jmobius.gameserver.network.serverpackets.SystemMessage;
 import com.l2jmobius.gameserver.util.Util;
 
@@ -91,7 +92,6 @@ public class L2Party extends AbstractPlayerGroup
 	private L2CommandChannel _commandChannel = null;
 	private DimensionalRift _dr;
 	private Future<?> _positionBroadcastTask = null;
-	protected PartyMemberPosition _positionPacket;
 	private boolean _disbanding = false;
 	
 	/**
@@ -267,11 +267,12 @@ public class L2Party extends AbstractPlayerGroup
 	 */
 	public void broadcastToPartyMembers(L2PcInstance player, IClientOutgoingPacket msg)
 	{
+		final IClientOutgoingPacket sharedPacket = SharedPacket.of(msg);
 		for (L2PcInstance member : _members)
 		{
 			if ((member != null) && (member.getObjectId() != player.getObjectId()))
 			{
-				member.sendPacket(msg);
+				member.sendPacket(sharedPacket);
 			}
 		}
 	}
@@ -364,18 +365,8 @@ public class L2Party extends AbstractPlayerGroup
 		
 		if (_positionBroadcastTask == null)
 		{
-			_positionBroadcastTask = ThreadPool.scheduleAtFixedRate(() ->
-			{
-				if (_positionPacket == null)
-				{
-					_positionPacket = new PartyMemberPosition(this);
-				}
-				else
-				{
-					_positionPacket.reuse(this);
-				}
-				broadcastPacket(_positionPacket);
-			}, PARTY_POSITION_BROADCAST_INTERVAL.toMillis() / 2, PARTY_POSITION_BROADCAST_INTERVAL.toMillis());
+			// A new packet each time, the previous one may still be written by the network threads.
+			_positionBroadcastTask = ThreadPool.scheduleAtFixedRate(() -> broadcastPacket(new PartyMemberPosition(this)), PARTY_POSITION_BROADCAST_INTERVAL.toMillis() / 2, PARTY_POSITION_BROADCAST_INTERVAL.toMillis());
 		}
 	}
 	
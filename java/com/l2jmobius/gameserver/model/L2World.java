@@ -18,8 +18,10 @@ package com.l2jmobius.gameserver.model;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -27,10 +29,13 @@ import java.util.logging.Logger;
 
 import com.l2jmobius.Config;
 import com.l2jmobius.commons.util.CommonUtil;
+import com.l2jmobius.commons.util.collections.ConcurrentIntObjectHashMap;
+import com.l2jmobius.commons.util.collections.IntObjectMap;
 import com.l2jmobius.gameserver.ai.CtrlEvent;
 import com.l2jmobius.gameserver.ai.CtrlIntention;
 import com.l2jmobius.gameserver.ai.L2CharacterAI;
 import com.l2jmobius.gameserver.data.sql.impl.CharNameTable;
+import com.l2jmobius.gameserver.instancemanager.MapRegionManager;
 import com.l2jmobius.gameserver.instancemanager.PlayerCountManager;
 import com.l2jmobius.gameserver.model.actor.L2Character;
 import com.l2jmobius.gameserver.model.actor.L2Npc;
@@ -39,8 +44,10 @@ import com.l2jmobius.gameserver.model.actor.instance.L2PcInstance;
 import com.l2jmobius.gameserver.model.actor.instance.L2PetInstance;
 import com.l2jmobius.gameserver.model.events.EventDispatcher;
 import com.l2jmobius.gameserver.model.events.impl.character.npc.OnNpcCreatureSee;
+import com.l2jmobius.gameserver.model.skills.targets.TargetBuffer;
 import com.l2jmobius.gameserver.network.Disconnection;
 import com.l2jmobius.gameserver.network.serverpackets.DeleteObject;
+import com.l2jmobius.gameserver.taskmanager.VisibilityTaskManager;
 
 public final class L2World
 {
@@ -76,16 +83,25 @@ public final class L2World
 	private static final int REGIONS_X = (MAP_MAX_X >> SHIFT_BY) + OFFSET_X;
 	private static final int REGIONS_Y = (MAP_MAX_Y >> SHIFT_BY) + OFFSET_Y;
 	
+	/** Region pre-filter margin for collision radiuses, greater than the largest one in the datapack. */
+	private static final int REGION_SCAN_MARGIN = 512;
+	
 	/** Map containing all the players in game. */
-	private final Map<Integer, L2PcInstance> _allPlayers = new ConcurrentHashMap<>();
+	private final IntObjectMap<L2PcInstance> _allPlayers = new ConcurrentIntObjectHashMap<>();
 	/** Map containing all the Good players in game. */
-	private static final Map<Integer, L2PcInstance> _allGoodPlayers = new ConcurrentHashMap<>();
+	private static final IntObjectMap<L2PcInstance> _allGoodPlayers = new ConcurrentIntObjectHashMap<>();
 	/** Map containing all the Evil players in game. */
-	private static final Map<Integer, L2PcInstance> _allEvilPlayers = new ConcurrentHashMap<>();
+	private static final IntObjectMap<L2PcInstance> _allEvilPlayers = new ConcurrentIntObjectHashMap<>();
 	/** Map containing all visible objects. */
-	private final Map<Integer, L2Object> _allObjects = new ConcurrentHashMap<>();
+	private final IntObjectMap<L2Object> _allObjects = new ConcurrentIntObjectHashMap<>();
 	/** Map with the pets instances and their owner ID. */
-	private final Map<Integer, L2PetInstance> _petsInstance = new ConcurrentHashMap<>();
+	private final IntObjectMap<L2PetInstance> _petsInstance = new ConcurrentIntObjectHashMap<>();
+	/** Players in game by the loc id of their map region. */
+	private final Map<Integer, Set<L2PcInstance>> _regionPlayers = new ConcurrentHashMap<>();
+	/** Players in game by instance id. */
+	private final Map<Integer, Set<L2PcInstance>> _instancePlayers = new ConcurrentHashMap<>();
+	/** The map region loc id and the instance id each player in game is indexed with. */
+	private final Map<Integer, int[]> _playerIndexKeys = new ConcurrentHashMap<>();
 	
 	private final L2WorldRegion[][] _worldRegions = new L2WorldRegion[REGIONS_X + 1][REGIONS_Y + 1];
 	
@@ -159,9 +175,13 @@ public final class L2World
 				Disconnection.of(newPlayer).defaultSequence(false);
 				LOGGER.warning(getClass().getSimpleName() + ": Duplicate character!? Disconnected both characters (" + newPlayer.getName() + ")");
 			}
-			else if (Config.FACTION_SYSTEM_ENABLED)
+			else
 			{
-				addFactionPlayerToWorld(newPlayer);
+				updatePlayerIndex(newPlayer);
+				if (Config.FACTION_SYSTEM_ENABLED)
+				{
+					addFactionPlayerToWorld(newPlayer);
+				}
 			}
 		}
 	}
@@ -189,6 +209,7 @@ public final class L2World
 				return;
 			}
 			_allPlayers.remove(object.getObjectId());
+			updatePlayerIndex(player);
 			
 			if (Config.FACTION_SYSTEM_ENABLED)
 			{
@@ -246,6 +267,91 @@ public final class L2World
 		return _allEvilPlayers.values();
 	}
 	
+	/**
+	 * @param locId the loc id of the map region
+	 * @return the players in game in the map region
+	 */
+	public Collection<L2PcInstance> getPlayersInMapRegion(int locId)
+	{
+		final Set<L2PcInstance> players = _regionPlayers.get(locId);
+		return players != null ? players : Collections.emptySet();
+	}
+	
+	/**
+	 * @param instanceId the instance id
+	 * @return the players in game in the instance
+	 */
+	public Collection<L2PcInstance> getPlayersInInstance(int instanceId)
+	{
+		final Set<L2PcInstance> players = _instancePlayers.get(instanceId);
+		return players != null ? players : Collections.emptySet();
+	}
+	
+	/**
+	 * Moves the player to the sets of its current map region and instance, or removes it from them if it left the game.<br>
+	 * Called when the player enters or leaves the game, changes map region or changes instance.
+	 * @param player the player
+	 */
+	public void updatePlayerIndex(L2PcInstance player)
+	{
+		_playerIndexKeys.compute(player.getObjectId(), (objectId, keys) ->
+		{
+			if (_allPlayers.get(objectId) != player)
+			{
+				if (keys != null)
+				{
+					removeIndexedPlayer(_regionPlayers, keys[0], player);
+					removeIndexedPlayer(_instancePlayers, keys[1], player);
+				}
+				return null;
+			}
+			
+			final int locId = MapRegionManager.getInstance().getMapRegionLocId(player);
+			final int instanceId = player.getInstanceId();
+			if ((keys == null) || (keys[0] != locId))
+			{
+				if (keys != null)
+				{
+					removeIndexedPlayer(_regionPlayers, keys[0], player);
+				}
+				addIndexedPlayer(_regionPlayers, locId, player);
+			}
+			if ((keys == null) || (keys[1] != instanceId))
+			{
+				if (keys != null)
+				{
+					removeIndexedPlayer(_instancePlayers, keys[1], player);
+				}
+				addIndexedPlayer(_instancePlayers, instanceId, player);
+			}
+			return new int[]
+			{
+				locId,
+				instanceId
+			};
+		});
+	}
+	
+	private static void addIndexedPlayer(Map<Integer, Set<L2PcInstance>> index, int key, L2PcInstance player)
+	{
+		// Added inside compute, the set could be dropped by a concurrent removal otherwise.
+		index.compute(key, (k, players) ->
+		{
+			final Set<L2PcInstance> set = players != null ? players : ConcurrentHashMap.newKeySet();
+			set.add(player);
+			return set;
+		});
+	}
+	
+	private static void removeIndexedPlayer(Map<Integer, Set<L2PcInstance>> index, int key, L2PcInstance player)
+	{
+		index.computeIfPresent(key, (k, players) ->
+		{
+			players.remove(player);
+			return players.isEmpty() ? null : players;
+		});
+	}
+	
 	/**
 	 * <B>If you have access to player objectId use {@link #getPlayer(int playerObjId)}</B>
 	 * @param name Name of the player to get Instance
@@ -321,42 +427,14 @@ public final class L2World
 		{
 			if (object.isPlayer() && wo.isVisibleFor((L2PcInstance) object))
 			{
-				wo.sendInfo((L2PcInstance) object);
-				if (wo.isCharacter())
-				{
-					final L2CharacterAI ai = ((L2Character) wo).getAI();
-					if (ai != null)
-					{
-						ai.describeStateToPlayer((L2PcInstance) object);
-						if (wo.isMonster())
-						{
-							if (ai.getIntention() == CtrlIntention.AI_INTENTION_IDLE)
-							{
-								ai.setIntention(CtrlIntention.AI_INTENTION_ACTIVE);
-							}
-						}
-					}
-				}
+				showObject((L2PcInstance) object, wo);
+				wakeUpMonster(wo);
 			}
 			
 			if (wo.isPlayer() && object.isVisibleFor((L2PcInstance) wo))
 			{
-				object.sendInfo((L2PcInstance) wo);
-				if (object.isCharacter())
-				{
-					final L2CharacterAI ai = ((L2Character) object).getAI();
-					if (ai != null)
-					{
-						ai.describeStateToPlayer((L2PcInstance) wo);
-						if (object.isMonster())
-						{
-							if (ai.getIntention() == CtrlIntention.AI_INTENTION_IDLE)
-							{
-								ai.setIntention(CtrlIntention.AI_INTENTION_ACTIVE);
-							}
-						}
-					}
-				}
+				showObject((L2PcInstance) wo, object);
+				wakeUpMonster(object);
 			}
 			
 			if (wo.isNpc() && object.isCharacter())
@@ -371,6 +449,52 @@ public final class L2World
 		});
 	}
 	
+	/**
+	 * Sends the info of an object coming into the view of a player, at the end of the tick when visibility updates are deferred.
+	 * @param player the player
+	 * @param object the object
+	 */
+	private static void showObject(L2PcInstance player, L2Object object)
+	{
+		if (Config.DEFERRED_VISIBILITY_UPDATES)
+		{
+			VisibilityTaskManager.getInstance().show(player, object);
+		}
+		else
+		{
+			VisibilityTaskManager.sendInfo(player, object);
+		}
+	}
+	
+	/**
+	 * Deletes an object going out of the view of a player, at the end of the tick when visibility updates are deferred.
+	 * @param player the player
+	 * @param object the object
+	 */
+	private static void hideObject(L2PcInstance player, L2Object object)
+	{
+		if (Config.DEFERRED_VISIBILITY_UPDATES)
+		{
+			VisibilityTaskManager.getInstance().hide(player, object);
+		}
+		else
+		{
+			player.sendPacket(new DeleteObject(object));
+		}
+	}
+	
+	private static void wakeUpMonster(L2Object object)
+	{
+		if (object.isMonster())
+		{
+			final L2CharacterAI ai = ((L2Character) object).getAI();
+			if ((ai != null) && (ai.getIntention() == CtrlIntention.AI_INTENTION_IDLE))
+			{
+				ai.setIntention(CtrlIntention.AI_INTENTION_ACTIVE);
+			}
+		}
+	}
+	
 	public static void addFactionPlayerToWorld(L2PcInstance player)
 	{
 		if (player.isGood())
@@ -434,7 +558,7 @@ public final class L2World
 						
 						if (object.isPlayer())
 						{
-							object.sendPacket(new DeleteObject(wo));
+							hideObject((L2PcInstance) object, wo);
 						}
 					}
 					
@@ -454,7 +578,7 @@ public final class L2World
 						
 						if (wo.isPlayer())
 						{
-							wo.sendPacket(new DeleteObject(object));
+							hideObject((L2PcInstance) wo, object);
 						}
 					}
 				}
@@ -498,7 +622,7 @@ public final class L2World
 						
 						if (object.isPlayer())
 						{
-							object.sendPacket(new DeleteObject(wo));
+							hideObject((L2PcInstance) object, wo);
 						}
 					}
 					
@@ -518,7 +642,7 @@ public final class L2World
 						
 						if (wo.isPlayer())
 						{
-							wo.sendPacket(new DeleteObject(object));
+							hideObject((L2PcInstance) wo, object);
 						}
 					}
 				}
@@ -539,42 +663,14 @@ public final class L2World
 					
 					if (object.isPlayer() && wo.isVisibleFor((L2PcInstance) object))
 					{
-						wo.sendInfo((L2PcInstance) object);
-						if (wo.isCharacter())
-						{
-							final L2CharacterAI ai = ((L2Character) wo).getAI();
-							if (ai != null)
-							{
-								ai.describeStateToPlayer((L2PcInstance) object);
-								if (wo.isMonster())
-								{
-									if (ai.getIntention() == CtrlIntention.AI_INTENTION_IDLE)
-									{
-										ai.setIntention(CtrlIntention.AI_INTENTION_ACTIVE);
-									}
-								}
-							}
-						}
+						showObject((L2PcInstance) object, wo);
+						wakeUpMonster(wo);
 					}
 					
 					if (wo.isPlayer() && object.isVisibleFor((L2PcInstance) wo))
 					{
-						object.sendInfo((L2PcInstance) wo);
-						if (object.isCharacter())
-						{
-							final L2CharacterAI ai = ((L2Character) object).getAI();
-							if (ai != null)
-							{
-								ai.describeStateToPlayer((L2PcInstance) wo);
-								if (object.isMonster())
-								{
-									if (ai.getIntention() == CtrlIntention.AI_INTENTION_IDLE)
-									{
-										ai.setIntention(CtrlIntention.AI_INTENTION_ACTIVE);
-									}
-								}
-							}
-						}
+						showObject((L2PcInstance) wo, object);
+						wakeUpMonster(object);
 					}
 					
 					if (wo.isNpc() && object.isCharacter())
@@ -699,6 +795,56 @@ public final class L2World
 		}
 	}
 	
+	/**
+	 * Collects the characters visible to the given object that may be within range of the given center, as candidates of the buffer.<br>
+	 * Surrounding regions that do not overlap the range are skipped, and candidates are pre-filtered on their 2D distance including both collision radiuses, so the caller still applies its exact range check.
+	 * @param object the object whose surrounding regions are scanned, it is never collected
+	 * @param center the center of the range
+	 * @param range the range
+	 * @param buffer the buffer receiving the candidates
+	 */
+	public void collectVisibleCharacters(L2Object object, L2Object center, int range, TargetBuffer buffer)
+	{
+		if ((object == null) || (center == null))
+		{
+			return;
+		}
+		
+		final L2WorldRegion centerWorldRegion = getRegion(object);
+		if (centerWorldRegion == null)
+		{
+			return;
+		}
+		
+		final int centerRadius = center.isCharacter() ? ((L2Character) center).getTemplate().getCollisionRadius() : 0;
+		final int x = center.getX();
+		final int y = center.getY();
+		for (L2WorldRegion region : centerWorldRegion.getSurroundingRegions())
+		{
+			if (!region.intersects(x, y, range + centerRadius + REGION_SCAN_MARGIN))
+			{
+				continue;
+			}
+			
+			for (L2Object visibleObject : region.getVisibleObjects().values())
+			{
+				if ((visibleObject == object) || !visibleObject.isCharacter() || (visibleObject.getInstanceId() != object.getInstanceId()))
+				{
+					continue;
+				}
+				
+				final L2Character character = (L2Character) visibleObject;
+				final long maxDistance = range + centerRadius + character.getTemplate().getCollisionRadius();
+				final long dx = character.getX() - x;
+				final long dy = character.getY() - y;
+				if (((dx * dx) + (dy * dy)) <= (maxDistance * maxDistance))
+				{
+					buffer.addCandidate(character);
+				}
+			}
+		}
+	}
+	
 	/**
 	 * Calculate the current L2WorldRegions of the object according to its position (x,y). <B><U> Example of use </U> :</B>
 	 * <li>Set position of a new L2Object (drop, spawn...)</li>
@@ -17,13 +17,14 @@
 package com.l2jmobius.gameserver.model;
 
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.function.Predicate;
 import java.util.logging.Logger;
 
 import com.l2jmobius.Config;
 import com.l2jmobius.commons.concurrent.ThreadPool;
+import com.l2jmobius.commons.util.collections.ConcurrentIntObjectHashMap;
+import com.l2jmobius.commons.util.collections.IntObjectMap;
 import com.l2jmobius.gameserver.model.actor.L2Attackable;
 import com.l2jmobius.gameserver.model.actor.L2Npc;
 import com.l2jmobius.gameserver.model.actor.L2Vehicle;
@@ -33,7 +34,7 @@ public final class L2WorldRegion
 	private static final Logger LOGGER = Logger.getLogger(L2WorldRegion.class.getName());
 	
 	/** Map containing visible objects in this world region. */
-	private volatile Map<Integer, L2Object> _visibleObjects = new ConcurrentHashMap<>();
+	private final IntObjectMap<L2Object> _visibleObjects = new ConcurrentIntObjectHashMap<>(1);
 	/** Map containing nearby regions forming this world region's effective area. */
 	private L2WorldRegion[] _surroundingRegions;
 	private final int _regionX;
@@ -257,7 +258,7 @@ public final class L2WorldRegion
 		}
 	}
 	
-	public Map<Integer, L2Object> getVisibleObjects()
+	public IntObjectMap<L2Object> getVisibleObjects()
 	{
 		return _visibleObjects;
 	}
@@ -289,6 +290,23 @@ public final class L2WorldRegion
 		return (region != null) && (_regionX >= (region.getRegionX() - 1)) && (_regionX <= (region.getRegionX() + 1)) && (_regionY >= (region.getRegionY() - 1)) && (_regionY <= (region.getRegionY() + 1));
 	}
 	
+	/**
+	 * @param x the circle center X
+	 * @param y the circle center Y
+	 * @param radius the circle radius
+	 * @return {@code true} if the given circle overlaps the area of this region
+	 */
+	public boolean intersects(int x, int y, int radius)
+	{
+		final int minX = (_regionX - L2World.OFFSET_X) << L2World.SHIFT_BY;
+		final int minY = (_regionY - L2World.OFFSET_Y) << L2World.SHIFT_BY;
+		final int maxX = minX + (1 << L2World.SHIFT_BY);
+		final int maxY = minY + (1 << L2World.SHIFT_BY);
+		final long dx = x < minX ? minX - x : x > maxX ? x - maxX : 0;
+		final long dy = y < minY ? minY - y : y > maxY ? y - maxY : 0;
+		return ((dx * dx) + (dy * dy)) <= ((long) radius * radius);
+	}
+	
 	public int getRegionX()
 	{
 		return _regionX;
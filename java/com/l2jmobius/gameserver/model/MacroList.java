@@ -18,7 +18,6 @@ package com.l2jmobius.gameserver.model;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -33,6 +32,7 @@ import com.l2jmobius.commons.database.DatabaseFactory;
 import com.l2jmobius.gameserver.enums.MacroType;
 import com.l2jmobius.gameserver.enums.ShortcutType;
 import com.l2jmobius.gameserver.model.actor.instance.L2PcInstance;
+import com.l2jmobius.gameserver.model.actor.instance.PlayerLoad;
 import com.l2jmobius.gameserver.model.interfaces.IRestorable;
 import com.l2jmobius.gameserver.network.serverpackets.SendMacroList;
 
@@ -40,6 +40,8 @@ public class MacroList implements IRestorable
 {
 	private static final Logger LOGGER = Logger.getLogger(MacroList.class.getName());
 	
+	public static final String RESTORE_MACROS = "SELECT charId, id, icon, name, descr, acronym, commands FROM character_macroses WHERE charId=?";
+	
 	private final L2PcInstance _owner;
 	private int _revision;
 	private int _macroId;
@@ -181,11 +183,9 @@ public class MacroList implements IRestorable
 	public boolean restoreMe()
 	{
 		_macroses.clear();
-		try (Connection con = DatabaseFactory.getConnection();
-			PreparedStatement ps = con.prepareStatement("SELECT charId, id, icon, name, descr, acronym, commands FROM character_macroses WHERE charId=?"))
+		try
 		{
-			ps.setInt(1, _owner.getObjectId());
-			try (ResultSet rset = ps.executeQuery())
+			PlayerLoad.read(_owner, "Macros", RESTORE_MACROS, rset ->
 			{
 				while (rset.next())
 				{
@@ -215,7 +215,7 @@ public class MacroList implements IRestorable
 					}
 					_macroses.put(id, new Macro(id, icon, name, descr, acronym, commands));
 				}
-			}
+			}, _owner.getObjectId());
 		}
 		catch (Exception e)
 		{
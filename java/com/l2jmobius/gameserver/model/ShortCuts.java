@@ -18,7 +18,6 @@ package com.l2jmobius.gameserver.model;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.logging.Level;
@@ -27,6 +26,7 @@ import java.util.logging.Logger;
 import com.l2jmobius.commons.database.DatabaseFactory;
 import com.l2jmobius.gameserver.enums.ShortcutType;
 import com.l2jmobius.gameserver.model.actor.instance.L2PcInstance;
+import com.l2jmobius.gameserver.model.actor.instance.PlayerLoad;
 import com.l2jmobius.gameserver.model.interfaces.IRestorable;
 import com.l2jmobius.gameserver.model.items.instance.L2ItemInstance;
 import com.l2jmobius.gameserver.model.items.type.EtcItemType;
@@ -38,6 +38,7 @@ public class ShortCuts implements IRestorable
 {
 	private static Logger LOGGER = Logger.getLogger(ShortCuts.class.getName());
 	private static final int MAX_SHORTCUTS_PER_BAR = 12;
+	public static final String RESTORE_SHORTCUTS = "SELECT charId, slot, page, type, shortcut_id, level FROM character_shortcuts WHERE charId=? AND class_index=?";
 	private final L2PcInstance _owner;
 	private final Map<Integer, Shortcut> _shortCuts = new TreeMap<>();
 	
@@ -172,13 +173,9 @@ public class ShortCuts implements IRestorable
 	public boolean restoreMe()
 	{
 		_shortCuts.clear();
-		try (Connection con = DatabaseFactory.getConnection();
-			PreparedStatement statement = con.prepareStatement("SELECT charId, slot, page, type, shortcut_id, level FROM character_shortcuts WHERE charId=? AND class_index=?"))
+		try
 		{
-			statement.setInt(1, _owner.getObjectId());
-			statement.setInt(2, _owner.getClassIndex());
-			
-			try (ResultSet rset = statement.executeQuery())
+			PlayerLoad.read(_owner, "Shortcuts", RESTORE_SHORTCUTS, rset ->
 			{
 				while (rset.next())
 				{
@@ -186,7 +183,7 @@ public class ShortCuts implements IRestorable
 					final int page = rset.getInt("page");
 					_shortCuts.put(slot + (page * MAX_SHORTCUTS_PER_BAR), new Shortcut(slot, page, ShortcutType.values()[rset.getInt("type")], rset.getInt("shortcut_id"), rset.getInt("level"), 1));
 				}
-			}
+			}, _owner.getObjectId(), _owner.getClassIndex());
 		}
 		catch (Exception e)
 		{
@@ -35,6 +35,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import com.l2jmobius.Config;
+import com.l2jmobius.commons.concurrent.TaskCategory;
 import com.l2jmobius.commons.concurrent.ThreadPool;
 import com.l2jmobius.commons.util.CommonUtil;
 import com.l2jmobius.commons.util.EmptyQueue;
@@ -61,6 +62,7 @@ import com.l2jmobius.gameserver.instancemanager.ZoneManager;
 import com.l2jmobius.gameserver.model.CharEffectList;
 import com.l2jmobius.gameserver.model.L2AccessLevel;
 import com.l2jmobius.gameserver.model.L2Clan;
+import com.l2jmobius.gameserver.model.L2MapRegion;
 import com.l2jmobius.gameserver.model.L2Object;
 import com.l2jmobius.gameserver.model.L2Party;
 import com.l2jmobius.gameserver.model.L2World;
@@ -121,6 +123,7 @@ import com.l2jmobius.gameserver.model.skills.Skill;
 import com.l2jmobius.gameserver.model.skills.SkillChannelized;
 import com.l2jmobius.gameserver.model.skills.SkillChannelizer;
 import com.l2jmobius.gameserver.model.skills.targets.L2TargetType;
+import com.l2jmobius.gameserver.model.stats.AttackSnapshot;
 import com.l2jmobius.gameserver.model.stats.BaseStats;
 import com.l2jmobius.gameserver.model.stats.Calculator;
 import com.l2jmobius.gameserver.model.stats.Formulas;
@@ -151,6 +154,8 @@ import com.l2jmobius.gameserver.network.serverpackets.StopMove;
 import com.l2jmobius.gameserver.network.serverpackets.SystemMessage;
 import com.l2jmobius.gameserver.network.serverpackets.TeleportToLocation;
 import com.l2jmobius.gameserver.taskmanager.AttackStanceTaskManager;
+import com.l2jmobius.gameserver.taskmanager.InfoBroadcastTaskManager;
+import com.l2jmobius.gameserver.taskmanager.InfoBroadcastTaskManager.InfoType;
 import com.l2jmobius.gameserver.util.Util;
 
 /**
@@ -222,6 +227,8 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 	
 	private final byte[] _zones = new byte[ZoneId.getZoneCount()];
 	protected byte _zoneValidateCounter = 4;
+	/** Map region of the world region, a world region never spans two map tiles. */
+	private volatile L2MapRegion _mapRegion;
 	
 	private final StampedLock _attackLock = new StampedLock();
 	
@@ -434,6 +441,36 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 		}
 	}
 	
+	@Override
+	public void setWorldRegion(L2WorldRegion value)
+	{
+		super.setWorldRegion(value);
+		updateMapRegion();
+	}
+	
+	/**
+	 * Resolves the map region again, called when the world region or the map regions change.
+	 */
+	public final void updateMapRegion()
+	{
+		final L2MapRegion oldRegion = _mapRegion;
+		final L2MapRegion region = getWorldRegion() != null ? MapRegionManager.getInstance().getMapRegion(getX(), getY()) : null;
+		_mapRegion = region;
+		if ((region != null) && (region != oldRegion) && isPlayer())
+		{
+			L2World.getInstance().updatePlayerIndex(getActingPlayer());
+		}
+	}
+	
+	/**
+	 * @return the map region of the character, cached while it stays in the same world region
+	 */
+	public final L2MapRegion getMapRegion()
+	{
+		final L2MapRegion region = _mapRegion;
+		return region != null ? region : MapRegionManager.getInstance().getMapRegion(getX(), getY());
+	}
+	
 	/**
 	 * This will return true if the player is transformed,<br>
 	 * but if the player is not transformed it will return false.
@@ -608,11 +645,32 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 	 */
 	public void broadcastStatusUpdate()
 	{
-		if (_status.getStatusListener().isEmpty() || !needHpUpdate())
+		if (Config.COALESCE_INFO_BROADCASTS)
+		{
+			InfoBroadcastTaskManager.getInstance().add(this, InfoType.STATUS);
+		}
+		else
+		{
+			sendStatusUpdate();
+		}
+	}
+	
+	/**
+	 * Sends the StatusUpdate of {@link #broadcastStatusUpdate()} right away, instead of at the end of the tick.
+	 */
+	public void sendStatusUpdate()
+	{
+		if (_status.getStatusListener().isEmpty())
 		{
 			return;
 		}
 		
+		if (!needHpUpdate())
+		{
+			InfoType.STATUS.onSuppressed();
+			return;
+		}
+		
 		// Create the Server->Client packet StatusUpdate with current HP
 		final StatusUpdate su = new StatusUpdate(this);
 		su.addAttribute(StatusUpdate.MAX_HP, _stat.getMaxHp());
@@ -627,6 +685,7 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 				temp.sendPacket(su);
 			}
 		}
+		InfoType.STATUS.onSent();
 	}
 	
 	/**
@@ -797,7 +856,7 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 				if (_status.getCurrentMp() < mpConsume)
 				{
 					// If L2PcInstance doesn't have enough MP, stop the attack
-					ThreadPool.schedule(new NotifyAITask(this, CtrlEvent.EVT_READY_TO_ACT), 1000);
+					ThreadPool.scheduleCombat(new NotifyAITask(this, CtrlEvent.EVT_READY_TO_ACT), 1000);
 					sendPacket(SystemMessageId.NOT_ENOUGH_MP);
 					sendPacket(ActionFailed.STATIC_PACKET);
 					return false;
@@ -815,7 +874,7 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 			else
 			{
 				// Cancel the action because the bow can't be re-use at this moment
-				ThreadPool.schedule(new NotifyAITask(this, CtrlEvent.EVT_READY_TO_ACT), 1000);
+				ThreadPool.scheduleCombat(new NotifyAITask(this, CtrlEvent.EVT_READY_TO_ACT), 1000);
 				sendPacket(ActionFailed.STATIC_PACKET);
 				return false;
 			}
@@ -1096,7 +1155,7 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 			}
 			
 			// Notify AI with EVT_READY_TO_ACT
-			ThreadPool.schedule(new NotifyAITask(this, CtrlEvent.EVT_READY_TO_ACT), timeAtk + reuse);
+			ThreadPool.scheduleCombat(new NotifyAITask(this, CtrlEvent.EVT_READY_TO_ACT), timeAtk + reuse);
 		}
 		finally
 		{
@@ -1131,7 +1190,8 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 		boolean crit1 = false;
 		
 		// Calculate if hit is missed or not
-		final boolean miss1 = Formulas.calcHitMiss(this, target);
+		final AttackSnapshot snapshot = new AttackSnapshot(this, target);
+		final boolean miss1 = snapshot.calcHitMiss();
 		
 		// Consume arrows
 		reduceArrowCount(false);
@@ -1142,13 +1202,13 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 		if (!miss1)
 		{
 			// Calculate if shield defense is efficient
-			shld1 = Formulas.calcShldUse(this, target);
+			shld1 = snapshot.calcShldUse();
 			
 			// Calculate if hit is critical
-			crit1 = Formulas.calcCrit(this, target);
+			crit1 = snapshot.calcCrit();
 			
 			// Calculate physical damages
-			damage1 = (int) Formulas.calcPhysDam(this, target, null, shld1, crit1, attack.hasSoulshot());
+			damage1 = (int) snapshot.calcPhysDam(shld1, crit1, attack.hasSoulshot());
 			
 			// Bows Ranged Damage Formula (Damage gradually decreases when 60% or lower than full hit range, and increases when 60% or higher).
 			// full hit range is 500 which is the base bow range, and the 60% of this is 800.
@@ -1162,7 +1222,7 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 		}
 		
 		// Create a new hit task with Medium priority
-		ThreadPool.schedule(new HitTask(this, target, damage1, crit1, miss1, attack.hasSoulshot(), shld1), sAtk);
+		ThreadPool.scheduleCombat(new HitTask(this, target, damage1, crit1, miss1, attack.hasSoulshot(), shld1), sAtk);
 		
 		// Calculate and set the disable delay of the bow in function of the Attack Speed
 		_disableBowAttackEndTime = ((sAtk + reuse) / GameTimeController.MILLIS_IN_TICK) + GameTimeController.getInstance().getGameTicks();
@@ -1200,7 +1260,8 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 		boolean crit1 = false;
 		
 		// Calculate if hit is missed or not
-		final boolean miss1 = Formulas.calcHitMiss(this, target);
+		final AttackSnapshot snapshot = new AttackSnapshot(this, target);
+		final boolean miss1 = snapshot.calcHitMiss();
 		
 		// Consume bolts
 		reduceArrowCount(true);
@@ -1211,13 +1272,13 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 		if (!miss1)
 		{
 			// Calculate if shield defense is efficient
-			shld1 = Formulas.calcShldUse(this, target);
+			shld1 = snapshot.calcShldUse();
 			
 			// Calculate if hit is critical
-			crit1 = Formulas.calcCrit(this, target);
+			crit1 = snapshot.calcCrit();
 			
 			// Calculate physical damages
-			damage1 = (int) Formulas.calcPhysDam(this, target, null, shld1, crit1, attack.hasSoulshot());
+			damage1 = (int) snapshot.calcPhysDam(shld1, crit1, attack.hasSoulshot());
 		}
 		
 		// Check if the L2Character is a L2PcInstance
@@ -1232,7 +1293,7 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 		}
 		
 		// Create a new hit task with Medium priority
-		ThreadPool.schedule(new HitTask(this, target, damage1, crit1, miss1, attack.hasSoulshot(), shld1), sAtk);
+		ThreadPool.scheduleCombat(new HitTask(this, target, damage1, crit1, miss1, attack.hasSoulshot(), shld1), sAtk);
 		
 		// Calculate and set the disable delay of the bow in function of the Attack Speed
 		_disableBowAttackEndTime = ((sAtk + reuse) / GameTimeController.MILLIS_IN_TICK) + GameTimeController.getInstance().getGameTicks();
@@ -1270,20 +1331,21 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 		boolean crit2 = false;
 		
 		// Calculate if hits are missed or not
-		final boolean miss1 = Formulas.calcHitMiss(this, target);
-		final boolean miss2 = Formulas.calcHitMiss(this, target);
+		final AttackSnapshot snapshot = new AttackSnapshot(this, target);
+		final boolean miss1 = snapshot.calcHitMiss();
+		final boolean miss2 = snapshot.calcHitMiss();
 		
 		// Check if hit 1 isn't missed
 		if (!miss1)
 		{
 			// Calculate if shield defense is efficient against hit 1
-			shld1 = Formulas.calcShldUse(this, target);
+			shld1 = snapshot.calcShldUse();
 			
 			// Calculate if hit 1 is critical
-			crit1 = Formulas.calcCrit(this, target);
+			crit1 = snapshot.calcCrit();
 			
 			// Calculate physical damages of hit 1
-			damage1 = (int) Formulas.calcPhysDam(this, target, null, shld1, crit1, attack.hasSoulshot());
+			damage1 = (int) snapshot.calcPhysDam(shld1, crit1, attack.hasSoulshot());
 			damage1 /= 2;
 		}
 		
@@ -1291,21 +1353,21 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 		if (!miss2)
 		{
 			// Calculate if shield defense is efficient against hit 2
-			shld2 = Formulas.calcShldUse(this, target);
+			shld2 = snapshot.calcShldUse();
 			
 			// Calculate if hit 2 is critical
-			crit2 = Formulas.calcCrit(this, target);
+			crit2 = snapshot.calcCrit();
 			
 			// Calculate physical damages of hit 2
-			damage2 = (int) Formulas.calcPhysDam(this, target, null, shld2, crit2, attack.hasSoulshot());
+			damage2 = (int) snapshot.calcPhysDam(shld2, crit2, attack.hasSoulshot());
 			damage2 /= 2;
 		}
 		
 		// Create a new hit task with Medium priority for hit 1
-		ThreadPool.schedule(new HitTask(this, target, damage1, crit1, miss1, attack.hasSoulshot(), shld1), sAtk / 2);
+		ThreadPool.scheduleCombat(new HitTask(this, target, damage1, crit1, miss1, attack.hasSoulshot(), shld1), sAtk / 2);
 		
 		// Create a new hit task with Medium priority for hit 2 with a higher delay
-		ThreadPool.schedule(new HitTask(this, target, damage2, crit2, miss2, attack.hasSoulshot(), shld2), sAtk);
+		ThreadPool.scheduleCombat(new HitTask(this, target, damage2, crit2, miss2, attack.hasSoulshot(), shld2), sAtk);
 		
 		// Add those hits to the Server-Client packet Attack
 		attack.addHit(target, damage1, miss1, crit1, shld1);
@@ -1424,19 +1486,20 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 		boolean crit1 = false;
 		
 		// Calculate if hit is missed or not
-		final boolean miss1 = Formulas.calcHitMiss(this, target);
+		final AttackSnapshot snapshot = new AttackSnapshot(this, target);
+		final boolean miss1 = snapshot.calcHitMiss();
 		
 		// Check if hit isn't missed
 		if (!miss1)
 		{
 			// Calculate if shield defense is efficient
-			shld1 = Formulas.calcShldUse(this, target);
+			shld1 = snapshot.calcShldUse();
 			
 			// Calculate if hit is critical
-			crit1 = Formulas.calcCrit(this, target);
+			crit1 = snapshot.calcCrit();
 			
 			// Calculate physical damages
-			damage1 = (int) Formulas.calcPhysDam(this, target, null, shld1, crit1, attack.hasSoulshot());
+			damage1 = (int) snapshot.calcPhysDam(shld1, crit1, attack.hasSoulshot());
 			
 			if (attackpercent != 100)
 			{
@@ -1445,7 +1508,7 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 		}
 		
 		// Create a new hit task with Medium priority
-		ThreadPool.schedule(new HitTask(this, target, damage1, crit1, miss1, attack.hasSoulshot(), shld1), sAtk);
+		ThreadPool.scheduleCombat(new HitTask(this, target, damage1, crit1, miss1, attack.hasSoulshot(), shld1), sAtk);
 		
 		// Add this hit to the Server-Client packet Attack
 		attack.addHit(target, damage1, miss1, crit1, shld1);
@@ -1716,7 +1779,7 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 		// queue herbs and potions
 		if (_isCastingSimultaneouslyNow && simultaneously)
 		{
-			ThreadPool.schedule(() -> beginCast(skill, simultaneously, target, targets), 100);
+			ThreadPool.scheduleCombat(() -> beginCast(skill, simultaneously, target, targets), 100);
 			return;
 		}
 		
@@ -1873,7 +1936,7 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 		// Before start AI Cast Broadcast Fly Effect is Need
 		if (skill.getFlyType() != null)
 		{
-			ThreadPool.schedule(new FlyToLocationTask(this, target, skill), 50);
+			ThreadPool.scheduleCombat(new FlyToLocationTask(this, target, skill), 50);
 		}
 		
 		final MagicUseTask mut = new MagicUseTask(this, targets, skill, skillTime, simultaneously);
@@ -1903,7 +1966,7 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 				
 				// Create a task MagicUseTask to launch the MagicSkill at the end of the casting time (skillTime)
 				// For client animation reasons (party buffs especially) 400 ms before!
-				_skillCast2 = ThreadPool.schedule(mut, skillTime - 400);
+				_skillCast2 = ThreadPool.scheduleCombat(mut, skillTime - 400);
 			}
 			else
 			{
@@ -1916,7 +1979,7 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 				
 				// Create a task MagicUseTask to launch the MagicSkill at the end of the casting time (skillTime)
 				// For client animation reasons (party buffs especially) 400 ms before!
-				_skillCast = ThreadPool.schedule(mut, skillTime - 400);
+				_skillCast = ThreadPool.scheduleCombat(mut, skillTime - 400);
 			}
 		}
 		else
@@ -3986,7 +4049,7 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 		if (distFraction > 1)
 		{
 			// Set the position of the L2Character to the destination
-			super.setXYZ(m._xDestination, m._yDestination, m._zDestination);
+			setCoordinates(m._xDestination, m._yDestination, m._zDestination);
 		}
 		else
 		{
@@ -3994,16 +4057,20 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 			m._yAccurate += dy * distFraction;
 			
 			// Set the position of the L2Character to estimated after parcial move
-			super.setXYZ((int) (m._xAccurate), (int) (m._yAccurate), zPrev + (int) ((dz * distFraction) + 0.5));
+			setCoordinates((int) (m._xAccurate), (int) (m._yAccurate), zPrev + (int) ((dz * distFraction) + 0.5));
 		}
-		revalidateZone(false);
+		
+		// World region and zones are updated by the next phases of the tick
+		GameTimeController.getInstance().onPositionUpdated(this);
 		
 		// Set the timer of last position update to now
 		m._moveTimestamp = gameTicks;
 		
 		if (distFraction > 1)
 		{
-			ThreadPool.execute(() -> getAI().notifyEvent(CtrlEvent.EVT_ARRIVED));
+			// The arrival handlers expect the final world region
+			updateWorldRegion();
+			ThreadPool.execute(TaskCategory.MOVEMENT, () -> getAI().notifyEvent(CtrlEvent.EVT_ARRIVED));
 			return true;
 		}
 		
@@ -5343,7 +5410,7 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 		}
 		else
 		{
-			_skillCast = ThreadPool.schedule(mut, 400);
+			_skillCast = ThreadPool.scheduleCombat(mut, 400);
 		}
 	}
 	
@@ -5472,11 +5539,11 @@ public abstract class L2Character extends L2Object implements ISkillsHolder, IDe
 		{
 			if (mut.isSimultaneous())
 			{
-				_skillCast2 = ThreadPool.schedule(mut, 0);
+				_skillCast2 = ThreadPool.scheduleCombat(mut, 0);
 			}
 			else
 			{
-				_skillCast = ThreadPool.schedule(mut, 0);
+				_skillCast = ThreadPool.scheduleCombat(mut, 0);
 			}
 		}
 	}
@@ -137,6 +137,10 @@ public class PcAppearance
 	public final void setSex(boolean isfemale)
 	{
 		_sex = isfemale;
+		if (_owner != null)
+		{
+			_owner.getConditionCache().invalidate();
+		}
 	}
 	
 	public int getNameColor()
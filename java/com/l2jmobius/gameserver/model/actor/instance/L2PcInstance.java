@@ -46,6 +46,7 @@ import java.util.logging.Level;
 
 import com.l2jmobius.Config;
 import com.l2jmobius.commons.concurrent.ThreadPool;
+import com.l2jmobius.commons.database.DatabaseExecutor;
 import com.l2jmobius.commons.database.DatabaseFactory;
 import com.l2jmobius.commons.util.Rnd;
 import com.l2jmobius.gameserver.GameTimeController;
@@ -154,6 +155,8 @@ import com.l2jmobius.gameserver.model.actor.L2Playable;
 import com.l2jmobius.gameserver.model.actor.L2Summon;
 import com.l2jmobius.gameserver.model.actor.L2Vehicle;
 import com.l2jmobius.gameserver.model.actor.appearance.PcAppearance;
+import com.l2jmobius.gameserver.model.actor.instance.PlayerLoad.ResultReader;
+import com.l2jmobius.gameserver.model.actor.instance.PlayerStore.Section;
 import com.l2jmobius.gameserver.model.actor.stat.PcStat;
 import com.l2jmobius.gameserver.model.actor.status.PcStatus;
 import com.l2jmobius.gameserver.model.actor.tasks.player.DismountTask;
@@ -179,6 +182,7 @@ import com.l2jmobius.gameserver.model.base.ClassId;
 import com.l2jmobius.gameserver.model.base.ClassLevel;
 import com.l2jmobius.gameserver.model.base.PlayerClass;
 import com.l2jmobius.gameserver.model.base.SubClass;
+import com.l2jmobius.gameserver.model.conditions.ConditionCache;
 import com.l2jmobius.gameserver.model.effects.EffectFlag;
 import com.l2jmobius.gameserver.model.effects.L2EffectType;
 import com.l2jmobius.gameserver.model.entity.Castle;
@@ -239,6 +243,7 @@ import com.l2jmobius.gameserver.model.punishment.PunishmentAffect;
 import com.l2jmobius.gameserver.model.punishment.PunishmentType;
 import com.l2jmobius.gameserver.model.quest.Quest;
 import com.l2jmobius.gameserver.model.quest.QuestState;
+import com.l2jmobius.gameserver.model.quest.State;
 import com.l2jmobius.gameserver.model.skills.AbnormalType;
 import com.l2jmobius.gameserver.model.skills.BuffInfo;
 import com.l2jmobius.gameserver.model.skills.CommonSkill;
@@ -319,6 +324,8 @@ import com.l2jmobius.gameserver.network.serverpackets.TradeStart;
 import com.l2jmobius.gameserver.network.serverpackets.UserInfo;
 import com.l2jmobius.gameserver.network.serverpackets.ValidateLocation;
 import com.l2jmobius.gameserver.taskmanager.AttackStanceTaskManager;
+import com.l2jmobius.gameserver.taskmanager.InfoBroadcastTaskManager;
+import com.l2jmobius.gameserver.taskmanager.InfoBroadcastTaskManager.InfoType;
 import com.l2jmobius.gameserver.util.Broadcast;
 import com.l2jmobius.gameserver.util.EnumIntBitmask;
 import com.l2jmobius.gameserver.util.FloodProtectors;
@@ -378,6 +385,21 @@ public final class L2PcInstance extends L2Playable
 	private static final String INSERT_CHAR_RECIPE_SHOP = "REPLACE INTO character_recipeshoplist (`charId`, `recipeId`, `price`, `index`) VALUES (?, ?, ?, ?)";
 	private static final String RESTORE_CHAR_RECIPE_SHOP = "SELECT * FROM character_recipeshoplist WHERE charId=? ORDER BY `index`";
 	
+	// Character Recipe Book SQL String Definitions:
+	private static final String RESTORE_RECIPE_BOOK = "SELECT id, type, classIndex FROM character_recipebook WHERE charId=?";
+	private static final String RESTORE_DWARVEN_RECIPE_BOOK = "SELECT id FROM character_recipebook WHERE charId=? AND classIndex=? AND type = 1";
+	
+	private static final String RESTORE_PREMIUM_ITEMS = "SELECT itemNum, itemId, itemCount, itemSender FROM character_premium_items WHERE charId=?";
+	private static final String RESTORE_FRIENDS = "SELECT friendId FROM character_friends WHERE charId=? AND relation=0";
+	private static final String RESTORE_PET_ITEMS = "SELECT object_id FROM `items` WHERE `owner_id`=? AND (`loc`='PET' OR `loc`='PET_EQUIP') LIMIT 1;";
+	
+	// Character Quest SQL String Definitions:
+	private static final String INSERT_QUEST_VAR = "INSERT INTO character_quests (charId,name,var,value) VALUES (?,?,?,?) ON DUPLICATE KEY UPDATE value=VALUES(value)";
+	private static final String UPDATE_QUEST_VAR = "UPDATE character_quests SET value=? WHERE charId=? AND name=? AND var=?";
+	private static final String DELETE_QUEST_VAR = "DELETE FROM character_quests WHERE charId=? AND name=? AND var=?";
+	private static final String DELETE_QUEST = "DELETE FROM character_quests WHERE charId=? AND name=?";
+	private static final String DELETE_QUEST_VARS = "DELETE FROM character_quests WHERE charId=? AND name=? AND var!=?";
+	
 	private static final String COND_OVERRIDE_KEY = "cond_override";
 	
 	public static final String NEWBIE_KEY = "NEWBIE";
@@ -410,6 +432,11 @@ public final class L2PcInstance extends L2Playable
 	private L2GameClient _client;
 	private String _ip = "N/A";
 	
+	/** Values of the own StatusUpdate attributes known by the client, indexed by attribute id. */
+	private final int[] _knownStatus = new int[StatusUpdate.MAX_CP + 1];
+	/** Content of the last CharInfo broadcast, see {@link CharInfo#getContent(L2PcInstance)}. */
+	private volatile byte[] _broadcastCharInfo;
+	
 	private final String _accountName;
 	private long _deleteTimer;
 	private Calendar _createDate = Calendar.getInstance();
@@ -571,6 +598,9 @@ public final class L2PcInstance extends L2Playable
 	private boolean _noble = false;
 	private boolean _hero = false;
 	
+	/** Results of the conditions reading class, level, hero status, sex and worn items. */
+	private final ConditionCache _conditionCache = new ConditionCache();
+	
 	/** Premium System */
 	private boolean _premiumStatus = false;
 	
@@ -906,6 +936,10 @@ public final class L2PcInstance extends L2Playable
 	// Character UI
 	private UIKeysSettings _uiKeySettings;
 	
+	private final PlayerStore _store = new PlayerStore(this);
+	/** Rows read ahead while the player is restored, {@code null} once it is loaded. */
+	PlayerLoad _load;
+	
 	// L2JMOD Wedding
 	private boolean _married = false;
 	private int _partnerId = 0;
@@ -1251,11 +1285,13 @@ public final class L2PcInstance extends L2Playable
 	public void setBaseClass(int baseClass)
 	{
 		_baseClass = baseClass;
+		_conditionCache.invalidate();
 	}
 	
 	public void setBaseClass(ClassId classId)
 	{
 		_baseClass = classId.ordinal();
+		_conditionCache.invalidate();
 	}
 	
 	public boolean isInStoreMode()
@@ -2638,6 +2674,14 @@ public final class L2PcInstance extends L2Playable
 		return PlayerTemplateData.getInstance().getTemplate(_baseClass).getRace();
 	}
 	
+	/**
+	 * @return the results of the conditions reading rarely changing state of this player
+	 */
+	public ConditionCache getConditionCache()
+	{
+		return _conditionCache;
+	}
+	
 	public L2Radar getRadar()
 	{
 		return _radar;
@@ -4034,21 +4078,32 @@ public final class L2PcInstance extends L2Playable
 	 * <li>Send the Server->Client packet PartySmallWindowUpdate with current HP, MP and Level to all other L2PcInstance of the Party</li> <FONT COLOR=#FF0000><B> <U>Caution</U> : This method DOESN'T SEND current HP and MP to all L2PcInstance of the _statusListener</B></FONT>
 	 */
 	@Override
-	public void broadcastStatusUpdate()
+	public void sendStatusUpdate()
 	{
 		// TODO We mustn't send these informations to other players
 		// Send the Server->Client packet StatusUpdate with current HP and MP to all L2PcInstance that must be informed of HP/MP updates of this L2PcInstance
-		// super.broadcastStatusUpdate();
+		// super.sendStatusUpdate();
 		
-		// Send the Server->Client packet StatusUpdate with current HP, MP and CP to this L2PcInstance
+		// Send the Server->Client packet StatusUpdate with current HP, MP and CP to this L2PcInstance, only the changed values when coalescing
 		final StatusUpdate su = new StatusUpdate(this);
-		su.addAttribute(StatusUpdate.MAX_HP, getMaxHp());
-		su.addAttribute(StatusUpdate.CUR_HP, (int) getCurrentHp());
-		su.addAttribute(StatusUpdate.MAX_MP, getMaxMp());
-		su.addAttribute(StatusUpdate.CUR_MP, (int) getCurrentMp());
-		su.addAttribute(StatusUpdate.MAX_CP, getMaxCp());
-		su.addAttribute(StatusUpdate.CUR_CP, (int) getCurrentCp());
-		sendPacket(su);
+		synchronized (_knownStatus)
+		{
+			addStatusAttribute(su, StatusUpdate.MAX_HP, getMaxHp());
+			addStatusAttribute(su, StatusUpdate.CUR_HP, (int) getCurrentHp());
+			addStatusAttribute(su, StatusUpdate.MAX_MP, getMaxMp());
+			addStatusAttribute(su, StatusUpdate.CUR_MP, (int) getCurrentMp());
+			addStatusAttribute(su, StatusUpdate.MAX_CP, getMaxCp());
+			addStatusAttribute(su, StatusUpdate.CUR_CP, (int) getCurrentCp());
+		}
+		if (su.hasAttributes())
+		{
+			sendPacket(su);
+			InfoType.STATUS.onSent();
+		}
+		else
+		{
+			InfoType.STATUS.onSuppressed();
+		}
 		
 		final boolean needCpUpdate = needCpUpdate();
 		final boolean needHpUpdate = needHpUpdate();
@@ -4084,15 +4139,63 @@ public final class L2PcInstance extends L2Playable
 	 */
 	public final void broadcastUserInfo()
 	{
+		if (Config.COALESCE_INFO_BROADCASTS)
+		{
+			InfoBroadcastTaskManager.getInstance().add(this, InfoType.USER_INFO);
+			InfoBroadcastTaskManager.getInstance().add(this, InfoType.CHAR_INFO);
+			return;
+		}
+		
 		// Send user info to the current player
 		sendPacket(new UserInfo(this));
 		broadcastPacket(new ExBrExtraUserInfo(this));
 		
 		// Broadcast char info to known players
-		broadcastCharInfo();
+		broadcastCharInfo(null);
 	}
 	
 	public final void broadcastCharInfo()
+	{
+		if (Config.COALESCE_INFO_BROADCASTS)
+		{
+			InfoBroadcastTaskManager.getInstance().add(this, InfoType.CHAR_INFO);
+			return;
+		}
+		
+		broadcastCharInfo(null);
+	}
+	
+	/**
+	 * Sends UserInfo to this player right away, instead of at the end of the tick.
+	 */
+	public final void sendUserInfo()
+	{
+		sendPacket(new UserInfo(this));
+		sendPacket(new ExBrExtraUserInfo(this));
+		InfoType.USER_INFO.onSent();
+	}
+	
+	/**
+	 * Broadcasts CharInfo right away, unless neither the appearance nor the position of this player changed since the last broadcast.
+	 */
+	public final void sendCharInfo()
+	{
+		final byte[] content = CharInfo.getContent(this);
+		if (Arrays.equals(content, _broadcastCharInfo))
+		{
+			InfoType.CHAR_INFO.onSuppressed();
+			return;
+		}
+		
+		_broadcastCharInfo = content;
+		broadcastCharInfo(new ExBrExtraUserInfo(this));
+		InfoType.CHAR_INFO.onSent();
+	}
+	
+	/**
+	 * @param extraInfo the ExBrExtraUserInfo sent along, {@code null} for none
+	 */
+	private void broadcastCharInfo(ExBrExtraUserInfo extraInfo)
 	{
 		final CharInfo charInfo = new CharInfo(this, false);
 		L2World.getInstance().forEachVisibleObject(this, L2PcInstance.class, player ->
@@ -4107,10 +4210,51 @@ public final class L2PcInstance extends L2Playable
 				{
 					player.sendPacket(charInfo);
 				}
+				
+				if (extraInfo != null)
+				{
+					player.sendPacket(extraInfo);
+				}
 			}
 		});
 	}
 	
+	private void addStatusAttribute(StatusUpdate su, int id, int value)
+	{
+		if (!Config.COALESCE_INFO_BROADCASTS || (_knownStatus[id] != value))
+		{
+			_knownStatus[id] = value;
+			su.addAttribute(id, value);
+		}
+	}
+	
+	/**
+	 * Keeps track of the own status values sent to the client by other packets.
+	 * @param packet the packet sent to this player
+	 */
+	private void trackKnownStatus(IClientOutgoingPacket packet)
+	{
+		if (packet instanceof StatusUpdate)
+		{
+			final StatusUpdate su = (StatusUpdate) packet;
+			if (su.getObjectId() == getObjectId())
+			{
+				synchronized (_knownStatus)
+				{
+					su.copyAttributes(_knownStatus);
+				}
+			}
+		}
+		else if (packet instanceof UserInfo)
+		{
+			// The values are read when the packet is written, they are unknown until the next StatusUpdate.
+			synchronized (_knownStatus)
+			{
+				Arrays.fill(_knownStatus, Integer.MIN_VALUE);
+			}
+		}
+	}
+	
 	public final void broadcastTitleInfo()
 	{
 		// Send a Server->Client packet UserInfo to this L2PcInstance
@@ -4211,6 +4355,10 @@ public final class L2PcInstance extends L2Playable
 		{
 			for (IClientOutgoingPacket packet : packets)
 			{
+				if (Config.COALESCE_INFO_BROADCASTS)
+				{
+					trackKnownStatus(packet);
+				}
 				_client.sendPacket(packet);
 			}
 		}
@@ -6618,8 +6766,14 @@ public final class L2PcInstance extends L2Playable
 		// Send a Server->Client packet UserInfo to this L2PcInstance and CharInfo to all L2PcInstance in its _KnownPlayers (broadcast)
 		if (broadcastType == 1)
 		{
-			sendPacket(new UserInfo(this));
-			sendPacket(new ExBrExtraUserInfo(this));
+			if (Config.COALESCE_INFO_BROADCASTS)
+			{
+				InfoBroadcastTaskManager.getInstance().add(this, InfoType.USER_INFO);
+			}
+			else
+			{
+				sendUserInfo();
+			}
 		}
 		if (broadcastType == 2)
 		{
@@ -6693,18 +6847,8 @@ public final class L2PcInstance extends L2Playable
 	 */
 	public void updateOnlineStatus()
 	{
-		try (Connection con = DatabaseFactory.getConnection();
-			PreparedStatement ps = con.prepareStatement("UPDATE characters SET online=?, lastAccess=? WHERE charId=?"))
-		{
-			ps.setInt(1, isOnlineInt());
-			ps.setLong(2, System.currentTimeMillis());
-			ps.setInt(3, getObjectId());
-			ps.execute();
-		}
-		catch (Exception e)
-		{
-			LOGGER.log(Level.SEVERE, "Failed updating character online status.", e);
-		}
+		// Queued behind the stores of the player, which also write the online status.
+		DatabaseExecutor.execute(getObjectId(), "UPDATE characters SET online=?, lastAccess=? WHERE charId=?", isOnlineInt(), System.currentTimeMillis(), getObjectId());
 	}
 	
 	/**
@@ -6774,6 +6918,25 @@ public final class L2PcInstance extends L2Playable
 	 */
 	private static L2PcInstance restore(int objectId)
 	{
+		// A store of the previous session may still be queued.
+		DatabaseExecutor.await(objectId);
+		
+		// The secondary tables are read on another connection while the character row and the items are restored.
+		final PlayerLoad load = new PlayerLoad();
+		load.prefetch("Subclasses", RESTORE_CHAR_SUBCLASSES, objectId);
+		load.prefetch("Macros", MacroList.RESTORE_MACROS, objectId);
+		load.prefetch("Bookmarks", RESTORE_TP_BOOKMARK, objectId);
+		load.prefetch("RecipeBook", RESTORE_RECIPE_BOOK, objectId);
+		if (Config.STORE_RECIPE_SHOPLIST)
+		{
+			load.prefetch("RecipeShop", RESTORE_CHAR_RECIPE_SHOP, objectId);
+		}
+		load.prefetch("PremiumItems", RESTORE_PREMIUM_ITEMS, objectId);
+		load.prefetch("PetItems", RESTORE_PET_ITEMS, objectId);
+		load.prefetch("ItemReuse", RESTORE_ITEM_REUSE_SAVE, objectId);
+		load.prefetch("Friends", RESTORE_FRIENDS, objectId);
+		load.start();
+		
 		L2PcInstance player = null;
 		double currentCp = 0;
 		double currentHp = 0;
@@ -6853,6 +7016,7 @@ public final class L2PcInstance extends L2Playable
 					currentCp = rset.getDouble("curCp");
 					currentMp = rset.getDouble("curMp");
 					
+					player._load = load;
 					player._classIndex = 0;
 					try
 					{
@@ -6890,6 +7054,13 @@ public final class L2PcInstance extends L2Playable
 					{
 						player._activeClass = activeClassId;
 					}
+					player._conditionCache.invalidate();
+					
+					// The tables of the active class are read once its index is known.
+					load.prefetch("Skills", RESTORE_SKILLS_FOR_CHAR, objectId, player._classIndex);
+					load.prefetch("Shortcuts", ShortCuts.RESTORE_SHORTCUTS, objectId, player._classIndex);
+					load.prefetch("Henna", RESTORE_CHAR_HENNAS, objectId, player._classIndex);
+					load.start();
 					
 					player.setApprentice(rset.getInt("apprentice"));
 					player.setSponsor(rset.getInt("sponsor"));
@@ -7043,6 +7214,14 @@ public final class L2PcInstance extends L2Playable
 		{
 			LOGGER.log(Level.SEVERE, "Failed loading character.", e);
 		}
+		finally
+		{
+			if (player != null)
+			{
+				player._load = null;
+			}
+			load.finish();
+		}
 		return player;
 	}
 	
@@ -7107,11 +7286,9 @@ public final class L2PcInstance extends L2Playable
 	 */
 	private static boolean restoreSubClassData(L2PcInstance player)
 	{
-		try (Connection con = DatabaseFactory.getConnection();
-			PreparedStatement ps = con.prepareStatement(RESTORE_CHAR_SUBCLASSES))
+		try
 		{
-			ps.setInt(1, player.getObjectId());
-			try (ResultSet rs = ps.executeQuery())
+			PlayerLoad.read(player, "Subclasses", RESTORE_CHAR_SUBCLASSES, rs ->
 			{
 				while (rs.next())
 				{
@@ -7125,7 +7302,7 @@ public final class L2PcInstance extends L2Playable
 					// Enforce the correct indexing of _subClasses against their class indexes.
 					player.getSubClasses().put(subClass.getClassIndex(), subClass);
 				}
-			}
+			}, player.getObjectId());
 		}
 		catch (Exception e)
 		{
@@ -7187,44 +7364,44 @@ public final class L2PcInstance extends L2Playable
 	 */
 	private void restoreRecipeBook(boolean loadCommon)
 	{
-		final String sql = loadCommon ? "SELECT id, type, classIndex FROM character_recipebook WHERE charId=?" : "SELECT id FROM character_recipebook WHERE charId=? AND classIndex=? AND type = 1";
-		try (Connection con = DatabaseFactory.getConnection();
-			PreparedStatement ps = con.prepareStatement(sql))
+		final ResultReader reader = rs ->
 		{
-			ps.setInt(1, getObjectId());
-			if (!loadCommon)
-			{
-				ps.setInt(2, _classIndex);
-			}
+			_dwarvenRecipeBook.clear();
 			
-			try (ResultSet rs = ps.executeQuery())
+			final RecipeData rd = RecipeData.getInstance();
+			while (rs.next())
 			{
-				_dwarvenRecipeBook.clear();
-				
-				L2RecipeList recipe;
-				final RecipeData rd = RecipeData.getInstance();
-				while (rs.next())
+				final L2RecipeList recipe = rd.getRecipeList(rs.getInt("id"));
+				if (loadCommon)
 				{
-					recipe = rd.getRecipeList(rs.getInt("id"));
-					if (loadCommon)
+					if (rs.getInt(2) == 1)
 					{
-						if (rs.getInt(2) == 1)
+						if (rs.getInt(3) == _classIndex)
 						{
-							if (rs.getInt(3) == _classIndex)
-							{
-								registerDwarvenRecipeList(recipe, false);
-							}
-						}
-						else
-						{
-							registerCommonRecipeList(recipe, false);
+							registerDwarvenRecipeList(recipe, false);
 						}
 					}
 					else
 					{
-						registerDwarvenRecipeList(recipe, false);
+						registerCommonRecipeList(recipe, false);
 					}
 				}
+				else
+				{
+					registerDwarvenRecipeList(recipe, false);
+				}
+			}
+		};
+		
+		try
+		{
+			if (loadCommon)
+			{
+				PlayerLoad.read(this, "RecipeBook", RESTORE_RECIPE_BOOK, reader, getObjectId());
+			}
+			else
+			{
+				PlayerLoad.read(this, "RecipeBook", RESTORE_DWARVEN_RECIPE_BOOK, reader, getObjectId(), _classIndex);
 			}
 		}
 		catch (Exception e)
@@ -7240,18 +7417,15 @@ public final class L2PcInstance extends L2Playable
 	
 	private void loadPremiumItemList()
 	{
-		final String sql = "SELECT itemNum, itemId, itemCount, itemSender FROM character_premium_items WHERE charId=?";
-		try (Connection con = DatabaseFactory.getConnection();
-			PreparedStatement ps = con.prepareStatement(sql))
+		try
 		{
-			ps.setInt(1, getObjectId());
-			try (ResultSet rs = ps.executeQuery())
+			PlayerLoad.read(this, "PremiumItems", RESTORE_PREMIUM_ITEMS, rs ->
 			{
 				while (rs.next())
 				{
 					_premiumItems.put(rs.getInt("itemNum"), new L2PremiumItem(rs.getInt("itemId"), rs.getLong("itemCount"), rs.getString("itemSender")));
 				}
-			}
+			}, getObjectId());
 		}
 		catch (Exception e)
 		{
@@ -7291,36 +7465,58 @@ public final class L2PcInstance extends L2Playable
 	}
 	
 	/**
-	 * Update L2PcInstance stats in the characters table of the database.
+	 * Update L2PcInstance stats in the characters table of the database.<br>
+	 * The data is copied on the calling thread and written later by the database writer of the player, see {@link PlayerStore}.
 	 * @param storeActiveEffects
 	 */
-	public synchronized void store(boolean storeActiveEffects)
+	public void store(boolean storeActiveEffects)
 	{
-		storeCharBase();
-		storeCharSub();
-		storeEffect(storeActiveEffects);
-		storeItemReuseDelay();
-		if (Config.STORE_RECIPE_SHOPLIST)
-		{
-			storeRecipeShopList();
-		}
-		if (Config.STORE_UI_SETTINGS)
+		final List<Section> sections = new ArrayList<>();
+		synchronized (this)
 		{
-			storeUISettings();
+			sections.add(getCharBaseSection());
+			if (getTotalSubClasses() > 0)
+			{
+				sections.add(getCharSubSection());
+			}
+			if (Config.STORE_SKILL_COOLTIME)
+			{
+				sections.add(getEffectSection(storeActiveEffects));
+			}
+			sections.add(getItemReuseSection());
+			if (Config.STORE_RECIPE_SHOPLIST && hasManufactureShop())
+			{
+				sections.add(getRecipeShopListSection());
+			}
+			final Object[] sevenSigns = SevenSigns.getInstance().getPlayerStoreParams(getObjectId());
+			if (sevenSigns != null)
+			{
+				sections.add(new Section("seven_signs", SevenSigns.UPDATE_PLAYER).addRow(sevenSigns));
+			}
+			for (QuestState qs : _quests.values())
+			{
+				addQuestVarSections(sections, qs);
+			}
 		}
-		SevenSigns.getInstance().saveSevenSignsData(getObjectId());
 		
+		// Variables and key settings keep track of their own changes.
 		final PlayerVariables vars = getScript(PlayerVariables.class);
-		if (vars != null)
-		{
-			vars.storeMe();
-		}
-		
 		final AccountVariables aVars = getScript(AccountVariables.class);
-		if (aVars != null)
+		_store.write(sections, () ->
 		{
-			aVars.storeMe();
-		}
+			if (Config.STORE_UI_SETTINGS)
+			{
+				storeUISettings();
+			}
+			if (vars != null)
+			{
+				vars.storeMe();
+			}
+			if (aVars != null)
+			{
+				aVars.storeMe();
+			}
+		});
 	}
 	
 	@Override
@@ -7329,263 +7525,230 @@ public final class L2PcInstance extends L2Playable
 		store(true);
 	}
 	
-	private void storeCharBase()
+	/**
+	 * Queues the state of a quest and its changed variables for the database writer of the player.
+	 * @param qs the quest state
+	 * @param create {@code true} to insert the state row, {@code false} to update it
+	 */
+	public void storeQuestState(QuestState qs, boolean create)
 	{
-		// Get the exp, level, and sp of base class to store in base table
-		final long exp = getStat().getBaseExp();
-		final int level = getStat().getBaseLevel();
-		final long sp = getStat().getBaseSp();
-		try (Connection con = DatabaseFactory.getConnection();
-			PreparedStatement ps = con.prepareStatement(UPDATE_CHARACTER))
-		{
-			ps.setInt(1, level);
-			ps.setInt(2, getMaxHp());
-			ps.setDouble(3, getCurrentHp());
-			ps.setInt(4, getMaxCp());
-			ps.setDouble(5, getCurrentCp());
-			ps.setInt(6, getMaxMp());
-			ps.setDouble(7, getCurrentMp());
-			ps.setInt(8, _appearance.getFace());
-			ps.setInt(9, _appearance.getHairStyle());
-			ps.setInt(10, _appearance.getHairColor());
-			ps.setInt(11, _appearance.getSex() ? 1 : 0);
-			ps.setInt(12, getHeading());
-			ps.setInt(13, _observerMode ? _lastLoc.getX() : getX());
-			ps.setInt(14, _observerMode ? _lastLoc.getY() : getY());
-			ps.setInt(15, _observerMode ? _lastLoc.getZ() : getZ());
-			ps.setLong(16, exp);
-			ps.setLong(17, _expBeforeDeath);
-			ps.setLong(18, sp);
-			ps.setInt(19, getKarma());
-			ps.setInt(20, _fame);
-			ps.setInt(21, _pvpKills);
-			ps.setInt(22, _pkKills);
-			ps.setInt(23, _clanId);
-			ps.setInt(24, getRace().ordinal());
-			ps.setInt(25, getClassId().getId());
-			ps.setLong(26, _deleteTimer);
-			ps.setString(27, getTitle());
-			ps.setInt(28, _appearance.getTitleColor());
-			ps.setInt(29, getAccessLevel().getLevel());
-			ps.setInt(30, isOnlineInt());
-			ps.setInt(31, _isIn7sDungeon ? 1 : 0);
-			ps.setInt(32, _clanPrivileges.getBitmask());
-			ps.setInt(33, _wantsPeace);
-			ps.setInt(34, _baseClass);
-			
-			long totalOnlineTime = _onlineTime;
-			if (_onlineBeginTime > 0)
-			{
-				totalOnlineTime += (System.currentTimeMillis() - _onlineBeginTime) / 1000;
-			}
-			
-			ps.setLong(35, totalOnlineTime);
-			ps.setInt(36, _newbie);
-			ps.setInt(37, _noble ? 1 : 0);
-			ps.setInt(38, _powerGrade);
-			ps.setInt(39, _pledgeType);
-			ps.setInt(40, _lvlJoinedAcademy);
-			ps.setLong(41, _apprentice);
-			ps.setLong(42, _sponsor);
-			ps.setLong(43, _clanJoinExpiryTime);
-			ps.setLong(44, _clanCreateExpiryTime);
-			ps.setString(45, getName());
-			ps.setLong(46, _deathPenaltyBuffLevel);
-			ps.setInt(47, _bookmarkslot);
-			ps.setInt(48, getVitalityPoints());
-			ps.setString(49, _lang);
-			
-			int factionId = 0;
-			if (_isGood)
-			{
-				factionId = 1;
-			}
-			if (_isEvil)
-			{
-				factionId = 2;
-			}
-			ps.setInt(50, factionId);
-			ps.setInt(51, getObjectId());
-			
-			ps.execute();
+		final String state = State.getStateName(qs.getState());
+		final List<Section> sections = new ArrayList<>(3);
+		if (create)
+		{
+			sections.add(new Section("quest_state", false, null, null, INSERT_QUEST_VAR).addRow(getObjectId(), qs.getQuestName(), "<state>", state));
 		}
-		catch (Exception e)
+		else
 		{
-			LOGGER.log(Level.WARNING, "Could not store char base data: " + this + " - " + e.getMessage(), e);
+			sections.add(new Section("quest_state", false, null, null, UPDATE_QUEST_VAR).addRow(state, getObjectId(), qs.getQuestName(), "<state>"));
 		}
+		addQuestVarSections(sections, qs);
+		_store.write(sections, null);
+	}
+	
+	/**
+	 * Queues the deletion of a quest for the database writer of the player, dropping its variable changes not written yet.
+	 * @param qs the quest state
+	 * @param repeatable if {@code false}, the state row is kept
+	 */
+	public void deleteQuest(QuestState qs, boolean repeatable)
+	{
+		qs.takeChangedVars();
+		final Section section = repeatable ? new Section("quest_delete", false, DELETE_QUEST, new Object[]
+		{
+			getObjectId(),
+			qs.getQuestName()
+		}, null) : new Section("quest_delete", false, DELETE_QUEST_VARS, new Object[]
+		{
+			getObjectId(),
+			qs.getQuestName(),
+			"<state>"
+		}, null);
+		_store.write(Collections.singletonList(section), null);
 	}
 	
-	private void storeCharSub()
+	private void addQuestVarSections(List<Section> sections, QuestState qs)
 	{
-		if (getTotalSubClasses() <= 0)
+		final Map<String, String> changed = qs.takeChangedVars();
+		if (changed.isEmpty())
 		{
 			return;
 		}
 		
-		// TODO(Zoey76): Refactor this to use batch.
-		try (Connection con = DatabaseFactory.getConnection();
-			PreparedStatement ps = con.prepareStatement(UPDATE_CHAR_SUBCLASS))
+		final Section inserts = new Section("quest_vars", false, null, null, INSERT_QUEST_VAR);
+		final Section deletes = new Section("quest_vars_delete", false, null, null, DELETE_QUEST_VAR);
+		for (Entry<String, String> entry : changed.entrySet())
 		{
-			for (SubClass subClass : getSubClasses().values())
+			if (entry.getValue() != null)
 			{
-				ps.setLong(1, subClass.getExp());
-				ps.setLong(2, subClass.getSp());
-				ps.setInt(3, subClass.getLevel());
-				ps.setInt(4, subClass.getClassId());
-				ps.setInt(5, getObjectId());
-				ps.setInt(6, subClass.getClassIndex());
-				ps.addBatch();
+				inserts.addRow(getObjectId(), qs.getQuestName(), entry.getKey(), entry.getValue());
+			}
+			else
+			{
+				deletes.addRow(getObjectId(), qs.getQuestName(), entry.getKey());
 			}
-			ps.executeBatch();
 		}
-		catch (Exception e)
+		// Both sections are in the same transaction, the changes are given back once if it fails.
+		final Section first = deletes._rows.isEmpty() ? inserts : deletes;
+		first.onFailure(() -> qs.restoreChangedVars(changed));
+		if (!deletes._rows.isEmpty())
+		{
+			sections.add(deletes);
+		}
+		if (!inserts._rows.isEmpty())
 		{
-			LOGGER.log(Level.WARNING, "Could not store sub class data for " + getName() + ": " + e.getMessage(), e);
+			sections.add(inserts);
 		}
 	}
 	
+	private Section getCharBaseSection()
+	{
+		// Get the exp, level, and sp of base class to store in base table
+		final long exp = getStat().getBaseExp();
+		final int level = getStat().getBaseLevel();
+		final long sp = getStat().getBaseSp();
+		
+		long totalOnlineTime = _onlineTime;
+		if (_onlineBeginTime > 0)
+		{
+			totalOnlineTime += (System.currentTimeMillis() - _onlineBeginTime) / 1000;
+		}
+		
+		int factionId = 0;
+		if (_isGood)
+		{
+			factionId = 1;
+		}
+		if (_isEvil)
+		{
+			factionId = 2;
+		}
+		
+		return new Section("characters", UPDATE_CHARACTER).addRow(level, getMaxHp(), getCurrentHp(), getMaxCp(), getCurrentCp(), getMaxMp(), getCurrentMp(), _appearance.getFace(), _appearance.getHairStyle(), _appearance.getHairColor(), _appearance.getSex() ? 1 : 0, getHeading(), _observerMode ? _lastLoc.getX() : getX(), _observerMode ? _lastLoc.getY() : getY(), _observerMode ? _lastLoc.getZ() : getZ(), exp, _expBeforeDeath, sp, getKarma(), _fame, _pvpKills, _pkKills, _clanId, getRace().ordinal(), getClassId().getId(), _deleteTimer, getTitle(), _appearance.getTitleColor(), getAccessLevel().getLevel(), isOnlineInt(), _isIn7sDungeon ? 1 : 0, _clanPrivileges.getBitmask(), _wantsPeace, _baseClass, totalOnlineTime, _newbie, _noble ? 1 : 0, _powerGrade, _pledgeType, _lvlJoinedAcademy, _apprentice, _sponsor, _clanJoinExpiryTime, _clanCreateExpiryTime, getName(), _deathPenaltyBuffLevel, _bookmarkslot, getVitalityPoints(), _lang, factionId, getObjectId());
+	}
+	
+	private Section getCharSubSection()
+	{
+		final Section section = new Section("character_subclasses", UPDATE_CHAR_SUBCLASS);
+		for (SubClass subClass : getSubClasses().values())
+		{
+			section.addRow(subClass.getExp(), subClass.getSp(), subClass.getLevel(), subClass.getClassId(), getObjectId(), subClass.getClassIndex());
+		}
+		return section;
+	}
+	
 	@Override
 	public void storeEffect(boolean storeEffects)
 	{
-		if (!Config.STORE_SKILL_COOLTIME)
+		if (Config.STORE_SKILL_COOLTIME)
 		{
-			return;
+			_store.write(Collections.singletonList(getEffectSection(storeEffects)), null);
 		}
+	}
+	
+	/**
+	 * The saved effects are deleted when restored, so this section is written every time.
+	 * @param storeEffects {@code true} to store the active effects, {@code false} to store only the skill reuse delays
+	 * @return the section of the effects and skill reuse delays of the current class
+	 */
+	private Section getEffectSection(boolean storeEffects)
+	{
+		final Section section = new Section("character_skills_save", false, DELETE_SKILL_SAVE, new Object[]
+		{
+			getObjectId(),
+			_classIndex
+		}, ADD_SKILL_SAVE);
 		
-		try (Connection con = DatabaseFactory.getConnection();
-			PreparedStatement delete = con.prepareStatement(DELETE_SKILL_SAVE);
-			PreparedStatement statement = con.prepareStatement(ADD_SKILL_SAVE);)
+		int buff_index = 0;
+		final List<Integer> storedSkills = new ArrayList<>();
+		
+		// Store all effect data along with calulated remaining
+		// reuse delays for matching skills. 'restore_type'= 0.
+		if (storeEffects)
 		{
-			// Delete all current stored effects for char to avoid dupe
-			delete.setInt(1, getObjectId());
-			delete.setInt(2, _classIndex);
-			delete.execute();
-			
-			int buff_index = 0;
-			final List<Integer> storedSkills = new ArrayList<>();
-			
-			// Store all effect data along with calulated remaining
-			// reuse delays for matching skills. 'restore_type'= 0.
-			if (storeEffects)
+			for (BuffInfo info : getEffectList().getEffects())
 			{
-				for (BuffInfo info : getEffectList().getEffects())
+				if (info == null)
 				{
-					if (info == null)
-					{
-						continue;
-					}
-					
-					final Skill skill = info.getSkill();
-					// Do not save heals.
-					if (skill.getAbnormalType() == AbnormalType.LIFE_FORCE_OTHERS)
-					{
-						continue;
-					}
-					
-					if (skill.isToggle())
-					{
-						continue;
-					}
-					
-					// Dances and songs are not kept in retail.
-					if (skill.isDance() && !Config.ALT_STORE_DANCES)
-					{
-						continue;
-					}
-					
-					if (storedSkills.contains(skill.getReuseHashCode()))
-					{
-						continue;
-					}
-					
-					storedSkills.add(skill.getReuseHashCode());
-					
-					statement.setInt(1, getObjectId());
-					statement.setInt(2, skill.getId());
-					statement.setInt(3, skill.getLevel());
-					statement.setInt(4, info.getTime());
-					
-					final TimeStamp t = getSkillReuseTimeStamp(skill.getReuseHashCode());
-					statement.setLong(5, (t != null) && t.hasNotPassed() ? t.getReuse() : 0);
-					statement.setLong(6, (t != null) && t.hasNotPassed() ? t.getStamp() : 0);
-					
-					statement.setInt(7, 0); // Store type 0, active buffs/debuffs.
-					statement.setInt(8, _classIndex);
-					statement.setInt(9, ++buff_index);
-					statement.addBatch();
+					continue;
 				}
-				statement.executeBatch();
-			}
-			
-			// Skills under reuse.
-			final Map<Integer, TimeStamp> reuseTimeStamps = getSkillReuseTimeStamps();
-			if (reuseTimeStamps != null)
-			{
-				for (Entry<Integer, TimeStamp> ts : reuseTimeStamps.entrySet())
+				
+				final Skill skill = info.getSkill();
+				// Do not save heals.
+				if (skill.getAbnormalType() == AbnormalType.LIFE_FORCE_OTHERS)
 				{
-					final int hash = ts.getKey();
-					if (storedSkills.contains(hash))
-					{
-						continue;
-					}
-					
-					final TimeStamp t = ts.getValue();
-					if ((t != null) && t.hasNotPassed())
-					{
-						storedSkills.add(hash);
-						
-						statement.setInt(1, getObjectId());
-						statement.setInt(2, t.getSkillId());
-						statement.setInt(3, t.getSkillLvl());
-						statement.setInt(4, -1);
-						statement.setLong(5, t.getReuse());
-						statement.setLong(6, t.getStamp());
-						statement.setInt(7, 1); // Restore type 1, skill reuse.
-						statement.setInt(8, _classIndex);
-						statement.setInt(9, ++buff_index);
-						statement.addBatch();
-					}
+					continue;
+				}
+				
+				if (skill.isToggle())
+				{
+					continue;
+				}
+				
+				// Dances and songs are not kept in retail.
+				if (skill.isDance() && !Config.ALT_STORE_DANCES)
+				{
+					continue;
+				}
+				
+				if (storedSkills.contains(skill.getReuseHashCode()))
+				{
+					continue;
 				}
-				statement.executeBatch();
+				
+				storedSkills.add(skill.getReuseHashCode());
+				
+				final TimeStamp t = getSkillReuseTimeStamp(skill.getReuseHashCode());
+				final long reuse = (t != null) && t.hasNotPassed() ? t.getReuse() : 0;
+				final long stamp = (t != null) && t.hasNotPassed() ? t.getStamp() : 0;
+				// Store type 0, active buffs/debuffs.
+				section.addRow(getObjectId(), skill.getId(), skill.getLevel(), info.getTime(), reuse, stamp, 0, _classIndex, ++buff_index);
 			}
 		}
-		catch (Exception e)
+		
+		// Skills under reuse.
+		final Map<Integer, TimeStamp> reuseTimeStamps = getSkillReuseTimeStamps();
+		if (reuseTimeStamps != null)
 		{
-			LOGGER.log(Level.WARNING, "Could not store char effect data: ", e);
+			for (Entry<Integer, TimeStamp> ts : reuseTimeStamps.entrySet())
+			{
+				final int hash = ts.getKey();
+				if (storedSkills.contains(hash))
+				{
+					continue;
+				}
+				
+				final TimeStamp t = ts.getValue();
+				if ((t != null) && t.hasNotPassed())
+				{
+					storedSkills.add(hash);
+					// Restore type 1, skill reuse.
+					section.addRow(getObjectId(), t.getSkillId(), t.getSkillLvl(), -1, t.getReuse(), t.getStamp(), 1, _classIndex, ++buff_index);
+				}
+			}
 		}
+		return section;
 	}
 	
-	private void storeItemReuseDelay()
+	private Section getItemReuseSection()
 	{
-		try (Connection con = DatabaseFactory.getConnection();
-			PreparedStatement ps1 = con.prepareStatement(DELETE_ITEM_REUSE_SAVE);
-			PreparedStatement ps2 = con.prepareStatement(ADD_ITEM_REUSE_SAVE))
+		final Section section = new Section("character_item_reuse_save", true, DELETE_ITEM_REUSE_SAVE, new Object[]
 		{
-			ps1.setInt(1, getObjectId());
-			ps1.execute();
-			
-			final Map<Integer, TimeStamp> itemReuseTimeStamps = getItemReuseTimeStamps();
-			if (itemReuseTimeStamps != null)
+			getObjectId()
+		}, ADD_ITEM_REUSE_SAVE);
+		
+		final Map<Integer, TimeStamp> itemReuseTimeStamps = getItemReuseTimeStamps();
+		if (itemReuseTimeStamps != null)
+		{
+			for (TimeStamp ts : itemReuseTimeStamps.values())
 			{
-				for (TimeStamp ts : itemReuseTimeStamps.values())
+				if ((ts != null) && ts.hasNotPassed())
 				{
-					if ((ts != null) && ts.hasNotPassed())
-					{
-						ps2.setInt(1, getObjectId());
-						ps2.setInt(2, ts.getItemId());
-						ps2.setInt(3, ts.getItemObjectId());
-						ps2.setLong(4, ts.getReuse());
-						ps2.setLong(5, ts.getStamp());
-						ps2.addBatch();
-					}
+					section.addRow(getObjectId(), ts.getItemId(), ts.getItemObjectId(), ts.getReuse(), ts.getStamp());
 				}
-				ps2.executeBatch();
 			}
 		}
-		catch (Exception e)
-		{
-			LOGGER.log(Level.WARNING, "Could not store char item reuse data: ", e);
-		}
+		return section;
 	}
 	
 	/**
@@ -7795,13 +7958,10 @@ public final class L2PcInstance extends L2Playable
 	 */
 	private void restoreSkills()
 	{
-		try (Connection con = DatabaseFactory.getConnection();
-			PreparedStatement ps = con.prepareStatement(RESTORE_SKILLS_FOR_CHAR))
+		try
 		{
 			// Retrieve all skills of this L2PcInstance from the database
-			ps.setInt(1, getObjectId());
-			ps.setInt(2, _classIndex);
-			try (ResultSet rs = ps.executeQuery())
+			PlayerLoad.read(this, "Skills", RESTORE_SKILLS_FOR_CHAR, rs ->
 			{
 				while (rs.next())
 				{
@@ -7829,7 +7989,7 @@ public final class L2PcInstance extends L2Playable
 						}
 					}
 				}
-			}
+			}, getObjectId(), _classIndex);
 		}
 		catch (Exception e)
 		{
@@ -7900,27 +8060,16 @@ public final class L2PcInstance extends L2Playable
 	 */
 	private void restoreItemReuse()
 	{
-		try (Connection con = DatabaseFactory.getConnection();
-			PreparedStatement ps = con.prepareStatement(RESTORE_ITEM_REUSE_SAVE);
-			PreparedStatement delete = con.prepareStatement(DELETE_ITEM_REUSE_SAVE);)
+		try
 		{
-			ps.setInt(1, getObjectId());
-			try (ResultSet rs = ps.executeQuery())
+			PlayerLoad.read(this, "ItemReuse", RESTORE_ITEM_REUSE_SAVE, rs ->
 			{
-				int itemId;
-				@SuppressWarnings("unused")
-				int itemObjId;
-				long reuseDelay;
-				long systime;
-				boolean isInInventory;
-				long remainingTime;
 				while (rs.next())
 				{
-					itemId = rs.getInt("itemId");
-					itemObjId = rs.getInt("itemObjId");
-					reuseDelay = rs.getLong("reuseDelay");
-					systime = rs.getLong("systime");
-					isInInventory = true;
+					final int itemId = rs.getInt("itemId");
+					final long reuseDelay = rs.getLong("reuseDelay");
+					final long systime = rs.getLong("systime");
+					boolean isInInventory = true;
 					
 					// Using item Id
 					L2ItemInstance item = _inventory.getItemByItemId(itemId);
@@ -7932,7 +8081,7 @@ public final class L2PcInstance extends L2Playable
 					
 					if ((item != null) && (item.getId() == itemId) && (item.getReuseDelay() > 0))
 					{
-						remainingTime = systime - System.currentTimeMillis();
+						final long remainingTime = systime - System.currentTimeMillis();
 						// Hardcoded to 10 seconds.
 						if (remainingTime > 10)
 						{
@@ -7949,11 +8098,10 @@ public final class L2PcInstance extends L2Playable
 						}
 					}
 				}
-			}
+			}, getObjectId());
 			
-			// Delete item reuse.
-			delete.setInt(1, getObjectId());
-			delete.executeUpdate();
+			// Delete item reuse, queued behind the stores of the player.
+			DatabaseExecutor.execute(getObjectId(), DELETE_ITEM_REUSE_SAVE, getObjectId());
 		}
 		catch (Exception e)
 		{
@@ -7971,31 +8119,26 @@ public final class L2PcInstance extends L2Playable
 			_henna[i] = null;
 		}
 		
-		try (Connection con = DatabaseFactory.getConnection();
-			PreparedStatement ps = con.prepareStatement(RESTORE_CHAR_HENNAS))
+		try
 		{
-			ps.setInt(1, getObjectId());
-			ps.setInt(2, _classIndex);
-			try (ResultSet rs = ps.executeQuery())
+			PlayerLoad.read(this, "Henna", RESTORE_CHAR_HENNAS, rs ->
 			{
-				int slot;
-				int symbolId;
 				while (rs.next())
 				{
-					slot = rs.getInt("slot");
+					final int slot = rs.getInt("slot");
 					if ((slot < 1) || (slot > 3))
 					{
 						continue;
 					}
 					
-					symbolId = rs.getInt("symbol_id");
+					final int symbolId = rs.getInt("symbol_id");
 					if (symbolId == 0)
 					{
 						continue;
 					}
 					_henna[slot - 1] = HennaData.getInstance().getHenna(symbolId);
 				}
-			}
+			}, getObjectId(), _classIndex);
 		}
 		catch (Exception e)
 		{
@@ -9821,6 +9964,7 @@ public final class L2PcInstance extends L2Playable
 			}
 		}
 		_hero = hero;
+		_conditionCache.invalidate();
 		
 		sendSkillList();
 	}
@@ -10320,6 +10464,7 @@ public final class L2PcInstance extends L2Playable
 		}
 		// Set the template of the L2PcInstance
 		setTemplate(pcTemplate);
+		_conditionCache.invalidate();
 		
 		// Notify to scripts
 		EventDispatcher.getInstance().notifyEventAsync(new OnPlayerProfessionChange(this, pcTemplate, isSubClassActive()), this);
@@ -10398,6 +10543,7 @@ public final class L2PcInstance extends L2Playable
 				}
 			}
 			_classIndex = classIndex;
+			_conditionCache.invalidate();
 			
 			setLearningClass(getClassId());
 			
@@ -13145,17 +13291,15 @@ public final class L2PcInstance extends L2Playable
 	
 	public void restoreTeleportBookmark()
 	{
-		try (Connection con = DatabaseFactory.getConnection();
-			PreparedStatement ps = con.prepareStatement(RESTORE_TP_BOOKMARK))
+		try
 		{
-			ps.setInt(1, getObjectId());
-			try (ResultSet rs = ps.executeQuery())
+			PlayerLoad.read(this, "Bookmarks", RESTORE_TP_BOOKMARK, rs ->
 			{
 				while (rs.next())
 				{
 					_tpbookmarks.put(rs.getInt("Id"), new TeleportBookmark(rs.getInt("Id"), rs.getInt("x"), rs.getInt("y"), rs.getInt("z"), rs.getInt("icon"), rs.getString("tag"), rs.getString("name")));
 				}
-			}
+			}, getObjectId());
 		}
 		catch (Exception e)
 		{
@@ -13382,12 +13526,9 @@ public final class L2PcInstance extends L2Playable
 	{
 		_friendList.clear();
 		
-		final String sqlQuery = "SELECT friendId FROM character_friends WHERE charId=? AND relation=0";
-		try (Connection con = DatabaseFactory.getConnection();
-			PreparedStatement ps = con.prepareStatement(sqlQuery))
+		try
 		{
-			ps.setInt(1, getObjectId());
-			try (ResultSet rs = ps.executeQuery())
+			PlayerLoad.read(this, "Friends", RESTORE_FRIENDS, rs ->
 			{
 				while (rs.next())
 				{
@@ -13398,7 +13539,7 @@ public final class L2PcInstance extends L2Playable
 					}
 					_friendList.add(friendId);
 				}
-			}
+			}, getObjectId());
 		}
 		catch (Exception e)
 		{
@@ -13469,39 +13610,19 @@ public final class L2PcInstance extends L2Playable
 		_silenceModeExcluded.add(playerObjId);
 	}
 	
-	private void storeRecipeShopList()
+	private Section getRecipeShopListSection()
 	{
-		if (hasManufactureShop())
+		final Section section = new Section("character_recipeshoplist", true, DELETE_CHAR_RECIPE_SHOP, new Object[]
 		{
-			try (Connection con = DatabaseFactory.getConnection())
-			{
-				try (PreparedStatement st = con.prepareStatement(DELETE_CHAR_RECIPE_SHOP))
-				{
-					st.setInt(1, getObjectId());
-					st.execute();
-				}
-				
-				try (PreparedStatement st = con.prepareStatement(INSERT_CHAR_RECIPE_SHOP))
-				{
-					final AtomicInteger slot = new AtomicInteger(1);
-					con.setAutoCommit(false);
-					for (L2ManufactureItem item : _manufactureItems.values())
-					{
-						st.setInt(1, getObjectId());
-						st.setInt(2, item.getRecipeId());
-						st.setLong(3, item.getCost());
-						st.setInt(4, slot.getAndIncrement());
-						st.addBatch();
-					}
-					st.executeBatch();
-					con.commit();
-				}
-			}
-			catch (Exception e)
-			{
-				LOGGER.log(Level.SEVERE, "Could not store recipe shop for playerId " + getObjectId() + ": ", e);
-			}
+			getObjectId()
+		}, INSERT_CHAR_RECIPE_SHOP);
+		
+		int slot = 1;
+		for (L2ManufactureItem item : _manufactureItems.values())
+		{
+			section.addRow(getObjectId(), item.getRecipeId(), item.getCost(), slot++);
 		}
+		return section;
 	}
 	
 	private void restoreRecipeShopList()
@@ -13511,17 +13632,15 @@ public final class L2PcInstance extends L2Playable
 			_manufactureItems.clear();
 		}
 		
-		try (Connection con = DatabaseFactory.getConnection();
-			PreparedStatement ps = con.prepareStatement(RESTORE_CHAR_RECIPE_SHOP))
+		try
 		{
-			ps.setInt(1, getObjectId());
-			try (ResultSet rs = ps.executeQuery())
+			PlayerLoad.read(this, "RecipeShop", RESTORE_CHAR_RECIPE_SHOP, rs ->
 			{
 				while (rs.next())
 				{
 					getManufactureItems().put(rs.getInt("recipeId"), new L2ManufactureItem(rs.getInt("recipeId"), rs.getLong("price")));
 				}
-			}
+			}, getObjectId());
 		}
 		catch (Exception e)
 		{
@@ -13955,14 +14074,9 @@ public final class L2PcInstance extends L2Playable
 	 */
 	private void restorePetInventoryItems()
 	{
-		try (Connection con = DatabaseFactory.getConnection();
-			PreparedStatement ps = con.prepareStatement("SELECT object_id FROM `items` WHERE `owner_id`=? AND (`loc`='PET' OR `loc`='PET_EQUIP') LIMIT 1;"))
+		try
 		{
-			ps.setInt(1, getObjectId());
-			try (ResultSet rs = ps.executeQuery())
-			{
-				setPetInvItems(rs.next() && (rs.getInt("object_id") > 0));
-			}
+			PlayerLoad.read(this, "PetItems", RESTORE_PET_ITEMS, rs -> setPetInvItems(rs.next() && (rs.getInt("object_id") > 0)), getObjectId());
 		}
 		catch (Exception e)
 		{
@@ -0,0 +1,283 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jmobius.gameserver.model.actor.instance;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetFactory;
+import javax.sql.rowset.RowSetProvider;
+
+import com.l2jmobius.commons.concurrent.ThreadPool;
+import com.l2jmobius.commons.concurrent.TimeHistogram;
+import com.l2jmobius.commons.database.DatabaseFactory;
+
+/**
+ * Reads the secondary tables of a player ahead of its restore.<br>
+ * The queries of a batch run one after another on a single connection of the blocking pool while the loading thread restores the character row and the items.
+ * Their rows are copied, the restore methods read them through {@link #read(L2PcInstance, String, String, ResultReader, Object...)} and query the database themselves when nothing was prefetched.
+ * @author Mobius
+ */
+public final class PlayerLoad
+{
+	private static final Logger LOGGER = Logger.getLogger(PlayerLoad.class.getName());
+	
+	/** Seconds the loading thread waits for prefetched rows before reading them itself. */
+	private static final int PREFETCH_TIMEOUT = 10;
+	
+	private static final TimeHistogram LOAD_TIME = new TimeHistogram();
+	private static final TimeHistogram WAIT_TIME = new TimeHistogram();
+	private static final Map<String, TimeHistogram> SECTION_TIMES = new ConcurrentHashMap<>();
+	private static final AtomicLong LOADS = new AtomicLong();
+	private static final AtomicLong PREFETCHED = new AtomicLong();
+	private static final AtomicLong FALLBACKS = new AtomicLong();
+	
+	private static RowSetFactory _rowSetFactory;
+	
+	private final long _start = System.nanoTime();
+	/** Prefetched queries by statement, only used by the loading thread. */
+	private final Map<String, Prefetch> _prefetched = new HashMap<>();
+	private final List<Prefetch> _pending = new ArrayList<>();
+	
+	/**
+	 * Reads the rows of a restore section.
+	 */
+	@FunctionalInterface
+	public interface ResultReader
+	{
+		void read(ResultSet rs) throws SQLException;
+	}
+	
+	/**
+	 * Adds a query to the next batch.
+	 * @param section the name of the section, used for its timing
+	 * @param sql the statement, the same one the restore method uses
+	 * @param params the parameters of the statement
+	 */
+	void prefetch(String section, String sql, Object... params)
+	{
+		final Prefetch prefetch = new Prefetch(section, sql, params);
+		_prefetched.put(sql, prefetch);
+		_pending.add(prefetch);
+	}
+	
+	/**
+	 * Starts reading the queries added since the previous batch.
+	 */
+	void start()
+	{
+		final List<Prefetch> batch = new ArrayList<>(_pending);
+		_pending.clear();
+		ThreadPool.executeBlocking(() -> fetch(batch));
+	}
+	
+	/**
+	 * Drops the rows no section asked for and records the load time.
+	 */
+	void finish()
+	{
+		_prefetched.clear();
+		LOADS.incrementAndGet();
+		LOAD_TIME.record(System.nanoTime() - _start);
+	}
+	
+	private static void fetch(List<Prefetch> batch)
+	{
+		try (Connection con = DatabaseFactory.getConnection())
+		{
+			for (Prefetch prefetch : batch)
+			{
+				final long start = System.nanoTime();
+				try (PreparedStatement ps = con.prepareStatement(prefetch._sql))
+				{
+					bind(ps, prefetch._params);
+					try (ResultSet rs = ps.executeQuery())
+					{
+						final CachedRowSet rows = getRowSetFactory().createCachedRowSet();
+						rows.populate(rs);
+						prefetch._rows.complete(rows);
+					}
+				}
+				catch (SQLException e)
+				{
+					prefetch._rows.completeExceptionally(e);
+				}
+				getSectionTime(prefetch._section).record(System.nanoTime() - start);
+			}
+		}
+		catch (Exception e)
+		{
+			LOGGER.log(Level.WARNING, "Could not prefetch player data: " + e.getMessage(), e);
+			for (Prefetch prefetch : batch)
+			{
+				prefetch._rows.completeExceptionally(e);
+			}
+		}
+	}
+	
+	/**
+	 * @param sql the statement
+	 * @param params the parameters of the statement
+	 * @return the prefetched rows of the statement, {@code null} if they were not prefetched for these parameters or could not be read
+	 */
+	private ResultSet take(String sql, Object[] params)
+	{
+		final Prefetch prefetch = _prefetched.remove(sql);
+		if ((prefetch == null) || !Arrays.equals(prefetch._params, params))
+		{
+			return null;
+		}
+		
+		final long start = System.nanoTime();
+		try
+		{
+			final ResultSet rows = prefetch._rows.get(PREFETCH_TIMEOUT, TimeUnit.SECONDS);
+			PREFETCHED.incrementAndGet();
+			return rows;
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		catch (Exception e)
+		{
+			// Read by the restore method instead.
+		}
+		finally
+		{
+			WAIT_TIME.record(System.nanoTime() - start);
+		}
+		FALLBACKS.incrementAndGet();
+		return null;
+	}
+	
+	/**
+	 * Reads the rows of a restore section, from the prefetched rows of the player when available.
+	 * @param player the player
+	 * @param section the name of the section, used for its timing
+	 * @param sql the statement
+	 * @param reader the reader of the rows
+	 * @param params the parameters of the statement
+	 * @throws SQLException
+	 */
+	public static void read(L2PcInstance player, String section, String sql, ResultReader reader, Object... params) throws SQLException
+	{
+		final PlayerLoad load = player._load;
+		if (load != null)
+		{
+			final ResultSet rows = load.take(sql, params);
+			if (rows != null)
+			{
+				try (ResultSet rs = rows)
+				{
+					reader.read(rs);
+				}
+				return;
+			}
+		}
+		
+		final long start = System.nanoTime();
+		try (Connection con = DatabaseFactory.getConnection();
+			PreparedStatement ps = con.prepareStatement(sql))
+		{
+			bind(ps, params);
+			try (ResultSet rs = ps.executeQuery())
+			{
+				reader.read(rs);
+			}
+		}
+		getSectionTime(section).record(System.nanoTime() - start);
+	}
+	
+	private static void bind(PreparedStatement ps, Object[] params) throws SQLException
+	{
+		for (int i = 0; i < params.length; i++)
+		{
+			ps.setObject(i + 1, params[i]);
+		}
+	}
+	
+	private static synchronized RowSetFactory getRowSetFactory() throws SQLException
+	{
+		if (_rowSetFactory == null)
+		{
+			_rowSetFactory = RowSetProvider.newFactory();
+		}
+		return _rowSetFactory;
+	}
+	
+	private static TimeHistogram getSectionTime(String section)
+	{
+		return SECTION_TIMES.computeIfAbsent(section, k -> new TimeHistogram());
+	}
+	
+	public static String[] getStats()
+	{
+		final List<String> stats = new ArrayList<>();
+		stats.add("Player load:");
+		stats.add(" |- Loads: ............ " + LOADS.get());
+		stats.add(" |- Prefetched: ....... " + PREFETCHED.get());
+		stats.add(" |- Fallbacks: ........ " + FALLBACKS.get());
+		stats.add(" |- LoadTime: ......... " + LOAD_TIME);
+		stats.add(" |- WaitTime: ......... " + WAIT_TIME);
+		for (Entry<String, TimeHistogram> entry : new TreeMap<>(SECTION_TIMES).entrySet())
+		{
+			final StringBuilder sb = new StringBuilder(" |- ").append(entry.getKey()).append(": ");
+			while (sb.length() < 23)
+			{
+				sb.append('.');
+			}
+			stats.add(sb.append(' ').append(entry.getValue()).toString());
+		}
+		stats.add(" | -------");
+		return stats.toArray(new String[stats.size()]);
+	}
+	
+	/**
+	 * A query read ahead, with its copied rows once read.
+	 */
+	private static final class Prefetch
+	{
+		final String _section;
+		final String _sql;
+		final Object[] _params;
+		final CompletableFuture<CachedRowSet> _rows = new CompletableFuture<>();
+		
+		Prefetch(String section, String sql, Object[] params)
+		{
+			_section = section;
+			_sql = sql;
+			_params = params;
+		}
+	}
+}
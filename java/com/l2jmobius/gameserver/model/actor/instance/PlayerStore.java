@@ -0,0 +1,271 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jmobius.gameserver.model.actor.instance;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.l2jmobius.commons.concurrent.TimeHistogram;
+import com.l2jmobius.commons.database.DatabaseExecutor;
+
+/**
+ * Writes the data of a player on the database writer of the player, in one transaction.<br>
+ * The player copies its data into sections on the game thread. A section holding the same rows as when it was last written is skipped.
+ * @author Mobius
+ */
+public final class PlayerStore
+{
+	private static final Logger LOGGER = Logger.getLogger(PlayerStore.class.getName());
+	
+	private static final TimeHistogram STORE_TIME = new TimeHistogram();
+	private static final AtomicLong STORES = new AtomicLong();
+	private static final AtomicLong SECTIONS_WRITTEN = new AtomicLong();
+	private static final AtomicLong SECTIONS_SKIPPED = new AtomicLong();
+	private static final AtomicLong FAILURES = new AtomicLong();
+	
+	private final L2PcInstance _player;
+	/** Rows of the compared sections as last committed, only used on the database writer of the player. */
+	private final Map<String, List<Object[]>> _written = new HashMap<>();
+	
+	PlayerStore(L2PcInstance player)
+	{
+		_player = player;
+	}
+	
+	/**
+	 * Queues the sections for the database writer of the player.
+	 * @param sections the sections
+	 * @param after the task executed on the database writer once the sections are written, can be {@code null}
+	 */
+	void write(List<Section> sections, Runnable after)
+	{
+		DatabaseExecutor.execute(_player.getObjectId(), con ->
+		{
+			writeSections(con, sections);
+			if (after != null)
+			{
+				after.run();
+			}
+		});
+	}
+	
+	private void writeSections(Connection con, List<Section> sections) throws SQLException
+	{
+		final long start = System.nanoTime();
+		final List<Section> changed = new ArrayList<>(sections.size());
+		for (Section section : sections)
+		{
+			if (section._compared && isWritten(section))
+			{
+				SECTIONS_SKIPPED.incrementAndGet();
+			}
+			else
+			{
+				changed.add(section);
+			}
+		}
+		
+		if (!changed.isEmpty())
+		{
+			final boolean autoCommit = con.getAutoCommit();
+			con.setAutoCommit(false);
+			try
+			{
+				for (Section section : changed)
+				{
+					section.execute(con);
+				}
+				con.commit();
+			}
+			catch (SQLException e)
+			{
+				con.rollback();
+				onFailure(changed);
+				LOGGER.log(Level.WARNING, "Could not store " + _player + ": " + e.getMessage(), e);
+				return;
+			}
+			catch (RuntimeException e)
+			{
+				// The connection goes back to the pool, no partial write may be committed with it.
+				con.rollback();
+				onFailure(changed);
+				throw e;
+			}
+			finally
+			{
+				con.setAutoCommit(autoCommit);
+			}
+			
+			for (Section section : changed)
+			{
+				if (section._compared)
+				{
+					_written.put(section._key, section._rows);
+				}
+			}
+			SECTIONS_WRITTEN.addAndGet(changed.size());
+		}
+		
+		STORES.incrementAndGet();
+		STORE_TIME.record(System.nanoTime() - start);
+	}
+	
+	private static void onFailure(List<Section> sections)
+	{
+		FAILURES.incrementAndGet();
+		for (Section section : sections)
+		{
+			if (section._onFailure != null)
+			{
+				section._onFailure.run();
+			}
+		}
+	}
+	
+	private boolean isWritten(Section section)
+	{
+		final List<Object[]> written = _written.get(section._key);
+		if ((written == null) || (written.size() != section._rows.size()))
+		{
+			return false;
+		}
+		
+		for (int i = 0; i < written.size(); i++)
+		{
+			if (!Arrays.equals(written.get(i), section._rows.get(i)))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	public static String[] getStats()
+	{
+		return new String[]
+		{
+			"Player store:",
+			" |- Stores: ........... " + STORES.get(),
+			" |- SectionsWritten: .. " + SECTIONS_WRITTEN.get(),
+			" |- SectionsSkipped: .. " + SECTIONS_SKIPPED.get(),
+			" |- Failures: ......... " + FAILURES.get(),
+			" |- StoreTime: ........ " + STORE_TIME,
+			" | -------"
+		};
+	}
+	
+	/**
+	 * Rows of one table, written with a statement per row, after an optional delete of the previous rows.
+	 */
+	static final class Section
+	{
+		final String _key;
+		/** {@code false} for tables also written elsewhere, the section is written every time. */
+		final boolean _compared;
+		final String _deleteSql;
+		final Object[] _deleteParams;
+		final String _sql;
+		final List<Object[]> _rows = new ArrayList<>();
+		/** Executed on the database writer when the transaction of the section was rolled back. */
+		Runnable _onFailure;
+		
+		/**
+		 * @param key the key of the rows last written
+		 * @param compared {@code true} to skip the section when its rows did not change
+		 * @param deleteSql the statement deleting the previous rows, {@code null} for updates
+		 * @param deleteParams the parameters of the delete statement
+		 * @param sql the statement executed for each row
+		 */
+		Section(String key, boolean compared, String deleteSql, Object[] deleteParams, String sql)
+		{
+			_key = key;
+			_compared = compared;
+			_deleteSql = deleteSql;
+			_deleteParams = deleteParams;
+			_sql = sql;
+		}
+		
+		/**
+		 * @param key the key of the rows last written
+		 * @param sql the update statement executed for each row
+		 */
+		Section(String key, String sql)
+		{
+			this(key, true, null, null, sql);
+		}
+		
+		Section addRow(Object... params)
+		{
+			_rows.add(params);
+			return this;
+		}
+		
+		/**
+		 * @param onFailure the task executed when the section could not be written
+		 * @return this section
+		 */
+		Section onFailure(Runnable onFailure)
+		{
+			_onFailure = onFailure;
+			return this;
+		}
+		
+		void execute(Connection con) throws SQLException
+		{
+			if (_deleteSql != null)
+			{
+				try (PreparedStatement ps = con.prepareStatement(_deleteSql))
+				{
+					bind(ps, _deleteParams);
+					ps.execute();
+				}
+			}
+			
+			if (_rows.isEmpty())
+			{
+				return;
+			}
+			
+			try (PreparedStatement ps = con.prepareStatement(_sql))
+			{
+				for (Object[] row : _rows)
+				{
+					bind(ps, row);
+					ps.addBatch();
+				}
+				ps.executeBatch();
+			}
+		}
+		
+		private static void bind(PreparedStatement ps, Object[] params) throws SQLException
+		{
+			for (int i = 0; i < params.length; i++)
+			{
+				ps.setObject(i + 1, params[i]);
+			}
+		}
+	}
+}
@@ -495,6 +495,7 @@ public class PcStat extends PlayableStat
 		{
 			super.setLevel(value);
 		}
+		getActiveChar().getConditionCache().invalidate();
 	}
 	
 	@Override
@@ -25,9 +25,7 @@ import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import com.l2jmobius.Config;
-import com.l2jmobius.commons.util.Rnd;
 import com.l2jmobius.gameserver.data.xml.impl.NpcData;
-import com.l2jmobius.gameserver.datatables.ItemTable;
 import com.l2jmobius.gameserver.enums.AISkillScope;
 import com.l2jmobius.gameserver.enums.AIType;
 import com.l2jmobius.gameserver.enums.DropType;
@@ -36,13 +34,11 @@ import com.l2jmobius.gameserver.enums.Sex;
 import com.l2jmobius.gameserver.model.StatsSet;
 import com.l2jmobius.gameserver.model.actor.L2Character;
 import com.l2jmobius.gameserver.model.base.ClassId;
+import com.l2jmobius.gameserver.model.drops.DropTable;
 import com.l2jmobius.gameserver.model.holders.DropHolder;
 import com.l2jmobius.gameserver.model.holders.ItemHolder;
 import com.l2jmobius.gameserver.model.interfaces.IIdentifiable;
-import com.l2jmobius.gameserver.model.itemcontainer.Inventory;
-import com.l2jmobius.gameserver.model.items.L2Item;
 import com.l2jmobius.gameserver.model.skills.Skill;
-import com.l2jmobius.gameserver.util.Util;
 
 /**
  * NPC template.
@@ -103,6 +99,8 @@ public final class L2NpcTemplate extends L2CharTemplate implements IIdentifiable
 	private Set<Integer> _ignoreClanNpcIds;
 	private CopyOnWriteArrayList<DropHolder> _dropListDeath;
 	private CopyOnWriteArrayList<DropHolder> _dropListSpoil;
+	private volatile DropTable _dropTableDeath;
+	private volatile DropTable _dropTableSpoil;
 	private double _collisionRadiusGrown;
 	private double _collisionHeightGrown;
 	
@@ -642,200 +640,42 @@ public final class L2NpcTemplate extends L2CharTemplate implements IIdentifiable
 		return null;
 	}
 	
-	public Collection<ItemHolder> calculateDrops(DropType dropType, L2Character victim, L2Character killer)
+	/**
+	 * Compiles the drop and spoil lists into their precomputed tables.<br>
+	 * Called once the NPC data is loaded, and again lazily when the rate configuration is reloaded.
+	 */
+	public void compileDropTables()
+	{
+		_dropTableDeath = DropTable.compile(DropType.DROP, _dropListDeath);
+		_dropTableSpoil = DropTable.compile(DropType.SPOIL, _dropListSpoil);
+	}
+	
+	private DropTable getDropTable(DropType dropType)
 	{
 		if (getDropList(dropType) == null)
 		{
 			return null;
 		}
 		
-		final List<DropHolder> dropList = new ArrayList<>(getDropList(dropType));
-		
-		// randomize drop order
-		Collections.shuffle(dropList);
-		
-		final int levelDifference = victim.getLevel() - killer.getLevel();
-		int dropOccurrenceCounter = victim.isRaid() ? Config.DROP_MAX_OCCURRENCES_RAIDBOSS : Config.DROP_MAX_OCCURRENCES_NORMAL;
-		Collection<ItemHolder> calculatedDrops = null;
-		for (DropHolder dropItem : dropList)
+		DropTable dropTable = dropType == DropType.DROP ? _dropTableDeath : _dropTableSpoil;
+		if ((dropTable == null) || dropTable.isStale())
 		{
-			// check if maximum drop occurrences have been reached
-			// items that have 100% drop chance without server rate multipliers drop normally
-			if ((dropOccurrenceCounter == 0) && (dropItem.getChance() < 100))
-			{
-				continue;
-			}
-			
-			// check level gap that may prevent drop this item
-			final double levelGapChanceToDrop;
-			if (dropItem.getItemId() == Inventory.ADENA_ID)
-			{
-				levelGapChanceToDrop = Util.map(levelDifference, -Config.DROP_ADENA_MAX_LEVEL_DIFFERENCE, -Config.DROP_ADENA_MIN_LEVEL_DIFFERENCE, Config.DROP_ADENA_MIN_LEVEL_GAP_CHANCE, 100.0);
-			}
-			else
-			{
-				levelGapChanceToDrop = Util.map(levelDifference, -Config.DROP_ITEM_MAX_LEVEL_DIFFERENCE, -Config.DROP_ITEM_MIN_LEVEL_DIFFERENCE, Config.DROP_ITEM_MIN_LEVEL_GAP_CHANCE, 100.0);
-			}
-			if ((Rnd.nextDouble() * 100) > levelGapChanceToDrop)
-			{
-				continue;
-			}
-			
-			// calculate chances
-			final ItemHolder drop = calculateDrop(dropItem, victim, killer);
-			if (drop == null)
-			{
-				continue;
-			}
-			
-			// create list
-			if (calculatedDrops == null)
-			{
-				calculatedDrops = new ArrayList<>();
-			}
-			
-			// finally
-			if (dropItem.getChance() < 100)
-			{
-				dropOccurrenceCounter--;
-			}
-			calculatedDrops.add(drop);
+			compileDropTables();
+			dropTable = dropType == DropType.DROP ? _dropTableDeath : _dropTableSpoil;
 		}
-		
-		return calculatedDrops;
+		return dropTable;
 	}
 	
-	/**
-	 * All item drop chance calculations are done by this method.
-	 * @param dropItem
-	 * @param victim
-	 * @param killer
-	 * @return ItemHolder
-	 */
-	private ItemHolder calculateDrop(DropHolder dropItem, L2Character victim, L2Character killer)
+	public Collection<ItemHolder> calculateDrops(DropType dropType, L2Character victim, L2Character killer)
 	{
-		switch (dropItem.getDropType())
+		final DropTable dropTable = getDropTable(dropType);
+		if (dropTable == null)
 		{
-			case DROP:
-			{
-				final L2Item item = ItemTable.getInstance().getTemplate(dropItem.getItemId());
-				
-				// chance
-				double rateChance = 1;
-				if (Config.RATE_DROP_CHANCE_BY_ID.get(dropItem.getItemId()) != null)
-				{
-					rateChance *= Config.RATE_DROP_CHANCE_BY_ID.get(dropItem.getItemId());
-				}
-				else if (item.hasExImmediateEffect())
-				{
-					rateChance *= Config.RATE_HERB_DROP_CHANCE_MULTIPLIER;
-				}
-				else if (victim.isRaid())
-				{
-					rateChance *= Config.RATE_RAID_DROP_CHANCE_MULTIPLIER;
-				}
-				else
-				{
-					rateChance *= Config.RATE_DEATH_DROP_CHANCE_MULTIPLIER;
-				}
-				
-				// premium chance
-				if (Config.PREMIUM_SYSTEM_ENABLED && killer.getActingPlayer().hasPremiumStatus())
-				{
-					if (Config.PREMIUM_RATE_DROP_CHANCE_BY_ID.get(dropItem.getItemId()) != null)
-					{
-						rateChance *= Config.PREMIUM_RATE_DROP_CHANCE_BY_ID.get(dropItem.getItemId());
-					}
-					else if (item.hasExImmediateEffect())
-					{
-						// TODO: Premium herb chance? :)
-					}
-					else if (victim.isRaid())
-					{
-						// TODO: Premium raid chance? :)
-					}
-					else
-					{
-						rateChance *= Config.PREMIUM_RATE_DROP_CHANCE;
-					}
-				}
-				
-				// calculate if item will drop
-				if ((Rnd.nextDouble() * 100) < (dropItem.getChance() * rateChance))
-				{
-					// amount is calculated after chance returned success
-					double rateAmount = 1;
-					if (Config.RATE_DROP_AMOUNT_BY_ID.get(dropItem.getItemId()) != null)
-					{
-						rateAmount *= Config.RATE_DROP_AMOUNT_BY_ID.get(dropItem.getItemId());
-					}
-					else if (item.hasExImmediateEffect())
-					{
-						rateAmount *= Config.RATE_HERB_DROP_AMOUNT_MULTIPLIER;
-					}
-					else if (victim.isRaid())
-					{
-						rateAmount *= Config.RATE_RAID_DROP_AMOUNT_MULTIPLIER;
-					}
-					else
-					{
-						rateAmount *= Config.RATE_DEATH_DROP_AMOUNT_MULTIPLIER;
-					}
-					
-					// premium chance
-					if (Config.PREMIUM_SYSTEM_ENABLED && killer.getActingPlayer().hasPremiumStatus())
-					{
-						if (Config.PREMIUM_RATE_DROP_AMOUNT_BY_ID.get(dropItem.getItemId()) != null)
-						{
-							rateAmount *= Config.PREMIUM_RATE_DROP_AMOUNT_BY_ID.get(dropItem.getItemId());
-						}
-						else if (item.hasExImmediateEffect())
-						{
-							// TODO: Premium herb amount? :)
-						}
-						else if (victim.isRaid())
-						{
-							// TODO: Premium raid amount? :)
-						}
-						else
-						{
-							rateAmount *= Config.PREMIUM_RATE_DROP_AMOUNT;
-						}
-					}
-					
-					// finally
-					return new ItemHolder(dropItem.getItemId(), (long) (Rnd.get(dropItem.getMin(), dropItem.getMax()) * rateAmount));
-				}
-				break;
-			}
-			case SPOIL:
-			{
-				// chance
-				double rateChance = Config.RATE_SPOIL_DROP_CHANCE_MULTIPLIER;
-				// premium chance
-				if (Config.PREMIUM_SYSTEM_ENABLED && killer.getActingPlayer().hasPremiumStatus())
-				{
-					rateChance *= Config.PREMIUM_RATE_SPOIL_CHANCE;
-				}
-				
-				// calculate if item will be rewarded
-				if ((Rnd.nextDouble() * 100) < (dropItem.getChance() * rateChance))
-				{
-					// amount is calculated after chance returned success
-					double rateAmount = Config.RATE_SPOIL_DROP_AMOUNT_MULTIPLIER;
-					// premium amount
-					if (Config.PREMIUM_SYSTEM_ENABLED && killer.getActingPlayer().hasPremiumStatus())
-					{
-						rateAmount *= Config.PREMIUM_RATE_SPOIL_AMOUNT;
-					}
-					
-					// finally
-					return new ItemHolder(dropItem.getItemId(), (long) (Rnd.get(dropItem.getMin(), dropItem.getMax()) * rateAmount));
-				}
-				break;
-			}
+			return null;
 		}
-		return null;
+		
+		final boolean premium = Config.PREMIUM_SYSTEM_ENABLED && killer.getActingPlayer().hasPremiumStatus();
+		return dropTable.calculateDrops(victim.getLevel() - killer.getLevel(), victim.isRaid(), premium);
 	}
 	
 	public double getCollisionRadiusGrown()
@@ -31,6 +31,7 @@ public abstract class Condition implements ConditionListener
 	private int _msgId;
 	private boolean _addName = false;
 	private boolean _result;
+	private int _cacheId;
 	
 	/**
 	 * Sets the message.
@@ -114,9 +115,38 @@ public abstract class Condition implements ConditionListener
 		return test(caster, target, null, null);
 	}
 	
+	/**
+	 * Sets the id of this condition in the player condition caches.
+	 * @param cacheId the cache id, 0 if the condition is not cached
+	 */
+	final void setCacheId(int cacheId)
+	{
+		_cacheId = cacheId;
+	}
+	
+	/**
+	 * Gets the id of this condition in the player condition caches.
+	 * @return the cache id, 0 if the condition is not cached
+	 */
+	final int getCacheId()
+	{
+		return _cacheId;
+	}
+	
+	/**
+	 * Checks if the result only depends on effector state that invalidates the {@link ConditionCache} of the player when it changes.
+	 * @return {@code true} if the result can be cached, {@code false} otherwise
+	 */
+	boolean isCacheable()
+	{
+		return false;
+	}
+	
 	public final boolean test(L2Character caster, L2Character target, Skill skill, L2Item item)
 	{
-		final boolean res = testImpl(caster, target, skill, item);
+		// The cache is not created yet while the player is constructed.
+		final ConditionCache cache = ((_cacheId != 0) && (caster != null) && caster.isPlayer()) ? caster.getActingPlayer().getConditionCache() : null;
+		final boolean res = (cache != null) ? cache.test(this, caster, target, skill, item) : testImpl(caster, target, skill, item);
 		if ((_listener != null) && (res != _result))
 		{
 			_result = res;
@@ -0,0 +1,79 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jmobius.gameserver.model.conditions;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.l2jmobius.gameserver.model.actor.L2Character;
+import com.l2jmobius.gameserver.model.items.L2Item;
+import com.l2jmobius.gameserver.model.skills.Skill;
+
+/**
+ * Results of the cacheable conditions of a player.<br>
+ * Class, level, hero status, sex and worn items rarely change, so the conditions reading only them are evaluated once per change of that state instead of on every stat calculation.<br>
+ * Every change increments the version of the cache, results of older versions are ignored.<br>
+ * Condition ids are global, so the cache is a small open addressed table hashed on the id, looked up over a few slots. Its size does not depend on the number of ids.<br>
+ * Each entry packs the id, the version and the result, so it is read and written without locking. Entries of older versions are reused first, a full window replaces the first slot.
+ * @author Mobius
+ */
+public final class ConditionCache
+{
+	private static final int SLOTS = 256;
+	private static final int SLOT_MASK = SLOTS - 1;
+	private static final int PROBES = 8;
+	
+	private final AtomicInteger _version = new AtomicInteger();
+	private final AtomicLongArray _entries = new AtomicLongArray(SLOTS);
+	
+	/**
+	 * Invalidates all the results, to be called right after the state read by cacheable conditions changed.
+	 */
+	public void invalidate()
+	{
+		_version.incrementAndGet();
+	}
+	
+	boolean test(Condition condition, L2Character effector, L2Character effected, Skill skill, L2Item item)
+	{
+		final int cacheId = condition.getCacheId();
+		// The version is read before the condition, a result computed while the state changes is stored with the old version.
+		final int version = _version.get();
+		final long key = ((long) cacheId << 32) | (version & 0xFFFFFFFFL);
+		final int hash = cacheId * 0x9E3779B9;
+		final int home = (hash ^ (hash >>> 16)) & SLOT_MASK;
+		int free = -1;
+		for (int i = 0; i < PROBES; i++)
+		{
+			final int slot = (home + i) & SLOT_MASK;
+			final long entry = _entries.get(slot);
+			if ((entry >>> 1) == key)
+			{
+				return (entry & 1) != 0;
+			}
+			if ((free < 0) && ((entry == 0) || ((int) (entry >>> 1) != version)))
+			{
+				free = slot;
+			}
+		}
+		
+		final boolean result = condition.testImpl(effector, effected, skill, item);
+		// A concurrent write to the same slot only loses a result, it is evaluated again.
+		_entries.lazySet(free >= 0 ? free : home, (key << 1) | (result ? 1 : 0));
+		return result;
+	}
+}
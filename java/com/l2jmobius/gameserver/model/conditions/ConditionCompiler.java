@@ -0,0 +1,162 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jmobius.gameserver.model.conditions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Prepares the condition trees read from the XML files.<br>
+ * Nested and/or nodes are merged into their parent, single child nodes and double negations are removed, then every largest subtree reading only rarely changing player state gets a {@link ConditionCache} id.
+ * @author Mobius
+ */
+public final class ConditionCompiler
+{
+	private static final AtomicInteger CACHE_IDS = new AtomicInteger();
+	
+	private ConditionCompiler()
+	{
+	}
+	
+	/**
+	 * @param condition the parsed condition tree, can be {@code null}
+	 * @return the compiled condition tree
+	 */
+	public static Condition compile(Condition condition)
+	{
+		if (condition == null)
+		{
+			return null;
+		}
+		
+		final Condition compiled = flatten(condition);
+		assignCacheIds(compiled);
+		return compiled;
+	}
+	
+	private static Condition flatten(Condition condition)
+	{
+		if (condition instanceof ConditionLogicAnd)
+		{
+			final ConditionLogicAnd and = (ConditionLogicAnd) condition;
+			final List<Condition> conditions = new ArrayList<>(and.conditions.length);
+			for (Condition c : and.conditions)
+			{
+				final Condition child = flatten(c);
+				if ((child instanceof ConditionLogicAnd) && !hasMessage(child))
+				{
+					Collections.addAll(conditions, ((ConditionLogicAnd) child).conditions);
+				}
+				else
+				{
+					conditions.add(child);
+				}
+			}
+			if ((conditions.size() == 1) && !hasMessage(and))
+			{
+				return conditions.get(0);
+			}
+			and.conditions = conditions.toArray(new Condition[conditions.size()]);
+			return and;
+		}
+		
+		if (condition instanceof ConditionLogicOr)
+		{
+			final ConditionLogicOr or = (ConditionLogicOr) condition;
+			final List<Condition> conditions = new ArrayList<>(or.conditions.length);
+			for (Condition c : or.conditions)
+			{
+				final Condition child = flatten(c);
+				if ((child instanceof ConditionLogicOr) && !hasMessage(child))
+				{
+					Collections.addAll(conditions, ((ConditionLogicOr) child).conditions);
+				}
+				else
+				{
+					conditions.add(child);
+				}
+			}
+			if ((conditions.size() == 1) && !hasMessage(or))
+			{
+				return conditions.get(0);
+			}
+			or.conditions = conditions.toArray(new Condition[conditions.size()]);
+			return or;
+		}
+		
+		if (condition instanceof ConditionLogicNot)
+		{
+			final ConditionLogicNot not = (ConditionLogicNot) condition;
+			final Condition child = flatten(not.getCondition());
+			if ((child instanceof ConditionLogicNot) && !hasMessage(child) && !hasMessage(not))
+			{
+				return ((ConditionLogicNot) child).getCondition();
+			}
+			if ((child == not.getCondition()) || hasMessage(not))
+			{
+				return not;
+			}
+			return new ConditionLogicNot(child);
+		}
+		
+		return condition;
+	}
+	
+	private static void assignCacheIds(Condition condition)
+	{
+		if ((condition == null) || (condition.getCacheId() != 0))
+		{
+			return;
+		}
+		
+		if (condition.isCacheable())
+		{
+			final int cacheId = CACHE_IDS.incrementAndGet();
+			if (cacheId > 0)
+			{
+				condition.setCacheId(cacheId);
+			}
+			return;
+		}
+		
+		if (condition instanceof ConditionLogicAnd)
+		{
+			for (Condition c : ((ConditionLogicAnd) condition).conditions)
+			{
+				assignCacheIds(c);
+			}
+		}
+		else if (condition instanceof ConditionLogicOr)
+		{
+			for (Condition c : ((ConditionLogicOr) condition).conditions)
+			{
+				assignCacheIds(c);
+			}
+		}
+		else if (condition instanceof ConditionLogicNot)
+		{
+			assignCacheIds(((ConditionLogicNot) condition).getCondition());
+		}
+	}
+	
+	private static boolean hasMessage(Condition condition)
+	{
+		return (condition.getMessage() != null) || (condition.getMessageId() != 0) || condition.isAddName();
+	}
+}
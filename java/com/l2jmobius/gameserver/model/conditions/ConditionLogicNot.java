@@ -48,6 +48,21 @@ public class ConditionLogicNot extends Condition
 		super.setListener(listener);
 	}
 	
+	/**
+	 * Gets the negated condition.
+	 * @return the condition
+	 */
+	Condition getCondition()
+	{
+		return _condition;
+	}
+	
+	@Override
+	boolean isCacheable()
+	{
+		return (_condition != null) && _condition.isCacheable();
+	}
+	
 	@Override
 	public boolean testImpl(L2Character effector, L2Character effected, Skill skill, L2Item item)
 	{
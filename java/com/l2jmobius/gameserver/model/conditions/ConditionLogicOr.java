@@ -70,6 +70,19 @@ public class ConditionLogicOr extends Condition
 		super.setListener(listener);
 	}
 	
+	@Override
+	boolean isCacheable()
+	{
+		for (Condition c : conditions)
+		{
+			if (!c.isCacheable())
+			{
+				return false;
+			}
+		}
+		return conditions.length > 0;
+	}
+	
 	@Override
 	public boolean testImpl(L2Character effector, L2Character effected, Skill skill, L2Item item)
 	{
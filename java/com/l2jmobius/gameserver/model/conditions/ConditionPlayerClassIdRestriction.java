@@ -38,6 +38,12 @@ public class ConditionPlayerClassIdRestriction extends Condition
 		_classIds = classId;
 	}
 	
+	@Override
+	boolean isCacheable()
+	{
+		return true;
+	}
+	
 	@Override
 	public boolean testImpl(L2Character effector, L2Character effected, Skill skill, L2Item item)
 	{
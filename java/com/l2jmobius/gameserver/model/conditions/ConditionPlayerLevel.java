@@ -37,6 +37,12 @@ public class ConditionPlayerLevel extends Condition
 		_level = level;
 	}
 	
+	@Override
+	boolean isCacheable()
+	{
+		return true;
+	}
+	
 	@Override
 	public boolean testImpl(L2Character effector, L2Character effected, Skill skill, L2Item item)
 	{
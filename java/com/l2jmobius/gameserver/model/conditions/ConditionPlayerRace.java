@@ -39,6 +39,12 @@ public class ConditionPlayerRace extends Condition
 		_races = races;
 	}
 	
+	@Override
+	boolean isCacheable()
+	{
+		return true;
+	}
+	
 	@Override
 	public boolean testImpl(L2Character effector, L2Character effected, Skill skill, L2Item item)
 	{
@@ -37,6 +37,12 @@ public class ConditionPlayerSex extends Condition
 		_sex = sex;
 	}
 	
+	@Override
+	boolean isCacheable()
+	{
+		return true;
+	}
+	
 	@Override
 	public boolean testImpl(L2Character effector, L2Character effected, Skill skill, L2Item item)
 	{
@@ -36,6 +36,12 @@ public class ConditionPlayerSubclass extends Condition
 		_val = val;
 	}
 	
+	@Override
+	boolean isCacheable()
+	{
+		return true;
+	}
+	
 	@Override
 	public boolean testImpl(L2Character effector, L2Character effected, Skill skill, L2Item item)
 	{
@@ -0,0 +1,326 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jmobius.gameserver.model.drops;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import com.l2jmobius.Config;
+import com.l2jmobius.commons.util.Rnd;
+import com.l2jmobius.gameserver.datatables.ItemTable;
+import com.l2jmobius.gameserver.enums.DropType;
+import com.l2jmobius.gameserver.model.holders.DropHolder;
+import com.l2jmobius.gameserver.model.holders.ItemHolder;
+import com.l2jmobius.gameserver.model.itemcontainer.Inventory;
+import com.l2jmobius.gameserver.model.items.L2Item;
+import com.l2jmobius.gameserver.util.Util;
+
+/**
+ * Immutable, primitive packed form of an NPC drop or spoil list.<br>
+ * Server rate multipliers are resolved once when the table is compiled, for every combination of raid and premium killer, so rolling a kill only reads from arrays.<br>
+ * Every entry is an independent chance roll limited by the drop occurrence counter, so the entries are not a weighted choice and are still rolled one by one in random order.
+ * @author Mobius
+ */
+public final class DropTable
+{
+	private static final int VARIANT_RAID = 1;
+	private static final int VARIANT_PREMIUM = 2;
+	private static final int VARIANTS = 4;
+	
+	/** Per thread scratch buffer used to visit the entries in random order. */
+	private static final ThreadLocal<int[]> ORDER = ThreadLocal.withInitial(() -> new int[32]);
+	
+	private final DropType _dropType;
+	private final int _size;
+	private final int[] _itemIds;
+	private final long[] _min;
+	private final long[] _max;
+	private final boolean[] _adena;
+	private final boolean[] _limited;
+	private final double[] _chances;
+	private final double[] _amounts;
+	private final Map<Integer, Float> _ratesSource;
+	
+	private DropTable(DropType dropType, List<DropHolder> dropList)
+	{
+		_dropType = dropType;
+		_size = dropList.size();
+		_itemIds = new int[_size];
+		_min = new long[_size];
+		_max = new long[_size];
+		_adena = new boolean[_size];
+		_limited = new boolean[_size];
+		_chances = new double[_size * VARIANTS];
+		_amounts = new double[_size * VARIANTS];
+		_ratesSource = Config.RATE_DROP_CHANCE_BY_ID;
+		
+		for (int i = 0; i < _size; i++)
+		{
+			final DropHolder dropItem = dropList.get(i);
+			_itemIds[i] = dropItem.getItemId();
+			_min[i] = dropItem.getMin();
+			_max[i] = dropItem.getMax();
+			_adena[i] = dropItem.getItemId() == Inventory.ADENA_ID;
+			// items that have 100% drop chance without server rate multipliers drop normally
+			_limited[i] = dropItem.getChance() < 100;
+			for (int variant = 0; variant < VARIANTS; variant++)
+			{
+				_chances[(i * VARIANTS) + variant] = Math.min(100, dropItem.getChance() * getRateChance(dropItem, (variant & VARIANT_RAID) != 0, (variant & VARIANT_PREMIUM) != 0));
+				_amounts[(i * VARIANTS) + variant] = getRateAmount(dropItem, (variant & VARIANT_RAID) != 0, (variant & VARIANT_PREMIUM) != 0);
+			}
+		}
+	}
+	
+	/**
+	 * @param dropType the type of the list
+	 * @param dropList the drop holders as read from the NPC data
+	 * @return the compiled table, or {@code null} if the list is empty
+	 */
+	public static DropTable compile(DropType dropType, List<DropHolder> dropList)
+	{
+		return (dropList == null) || dropList.isEmpty() ? null : new DropTable(dropType, dropList);
+	}
+	
+	/**
+	 * @return {@code true} if the rate configuration was reloaded after this table was compiled
+	 */
+	public boolean isStale()
+	{
+		return _ratesSource != Config.RATE_DROP_CHANCE_BY_ID;
+	}
+	
+	public DropType getDropType()
+	{
+		return _dropType;
+	}
+	
+	public int size()
+	{
+		return _size;
+	}
+	
+	/**
+	 * Rolls all entries of this table.
+	 * @param levelDifference the victim level minus the killer level
+	 * @param raid {@code true} if the victim is a raid
+	 * @param premium {@code true} if the killer has premium status
+	 * @return the dropped items, or {@code null} if nothing dropped
+	 */
+	public Collection<ItemHolder> calculateDrops(int levelDifference, boolean raid, boolean premium)
+	{
+		// level gap penalty is the same for every entry of a kind, so it is resolved once per kill
+		final double adenaLevelGapChance = getLevelGapChance(levelDifference, true);
+		final double itemLevelGapChance = getLevelGapChance(levelDifference, false);
+		final int variant = (raid ? VARIANT_RAID : 0) | (premium ? VARIANT_PREMIUM : 0);
+		
+		// randomize drop order
+		final int[] order = getShuffledOrder();
+		
+		int dropOccurrenceCounter = raid ? Config.DROP_MAX_OCCURRENCES_RAIDBOSS : Config.DROP_MAX_OCCURRENCES_NORMAL;
+		Collection<ItemHolder> calculatedDrops = null;
+		for (int n = 0; n < _size; n++)
+		{
+			final int i = order[n];
+			
+			// check if maximum drop occurrences have been reached
+			if ((dropOccurrenceCounter == 0) && _limited[i])
+			{
+				continue;
+			}
+			
+			// level gap and drop chance are independent, so a single roll against their product is enough
+			final double chance = _chances[(i * VARIANTS) + variant] * (_adena[i] ? adenaLevelGapChance : itemLevelGapChance);
+			if ((Rnd.nextDouble() * 100) >= chance)
+			{
+				continue;
+			}
+			
+			// create list
+			if (calculatedDrops == null)
+			{
+				calculatedDrops = new ArrayList<>();
+			}
+			
+			// finally
+			if (_limited[i])
+			{
+				dropOccurrenceCounter--;
+			}
+			calculatedDrops.add(new ItemHolder(_itemIds[i], (long) (Rnd.get(_min[i], _max[i]) * _amounts[(i * VARIANTS) + variant])));
+		}
+		
+		return calculatedDrops;
+	}
+	
+	/**
+	 * Shuffles the entry indexes into the calling thread scratch buffer.
+	 * @return the buffer, of which only the first {@link #size()} elements are meaningful
+	 */
+	private int[] getShuffledOrder()
+	{
+		int[] order = ORDER.get();
+		if (order.length < _size)
+		{
+			order = new int[Integer.highestOneBit(_size) << 1];
+			ORDER.set(order);
+		}
+		for (int i = 0; i < _size; i++)
+		{
+			final int j = Rnd.get(i + 1);
+			order[i] = order[j];
+			order[j] = i;
+		}
+		return order;
+	}
+	
+	/**
+	 * @param levelDifference the victim level minus the killer level
+	 * @param adena {@code true} for the adena penalty, {@code false} for the item penalty
+	 * @return the level gap multiplier, from 0 to 1
+	 */
+	private static double getLevelGapChance(int levelDifference, boolean adena)
+	{
+		final double percent;
+		if (adena)
+		{
+			percent = Util.map(levelDifference, -Config.DROP_ADENA_MAX_LEVEL_DIFFERENCE, -Config.DROP_ADENA_MIN_LEVEL_DIFFERENCE, Config.DROP_ADENA_MIN_LEVEL_GAP_CHANCE, 100.0);
+		}
+		else
+		{
+			percent = Util.map(levelDifference, -Config.DROP_ITEM_MAX_LEVEL_DIFFERENCE, -Config.DROP_ITEM_MIN_LEVEL_DIFFERENCE, Config.DROP_ITEM_MIN_LEVEL_GAP_CHANCE, 100.0);
+		}
+		return Math.max(0, Math.min(100, percent)) / 100;
+	}
+	
+	private static double getRateChance(DropHolder dropItem, boolean raid, boolean premium)
+	{
+		switch (dropItem.getDropType())
+		{
+			case DROP:
+			{
+				final boolean herb = isHerb(dropItem.getItemId());
+				double rateChance = 1;
+				final Float chanceById = Config.RATE_DROP_CHANCE_BY_ID.get(dropItem.getItemId());
+				if (chanceById != null)
+				{
+					rateChance *= chanceById;
+				}
+				else if (herb)
+				{
+					rateChance *= Config.RATE_HERB_DROP_CHANCE_MULTIPLIER;
+				}
+				else if (raid)
+				{
+					rateChance *= Config.RATE_RAID_DROP_CHANCE_MULTIPLIER;
+				}
+				else
+				{
+					rateChance *= Config.RATE_DEATH_DROP_CHANCE_MULTIPLIER;
+				}
+				
+				// premium chance
+				if (premium)
+				{
+					final Float premiumChanceById = Config.PREMIUM_RATE_DROP_CHANCE_BY_ID.get(dropItem.getItemId());
+					if (premiumChanceById != null)
+					{
+						rateChance *= premiumChanceById;
+					}
+					else if (!herb && !raid)
+					{
+						rateChance *= Config.PREMIUM_RATE_DROP_CHANCE;
+					}
+				}
+				return rateChance;
+			}
+			case SPOIL:
+			{
+				double rateChance = Config.RATE_SPOIL_DROP_CHANCE_MULTIPLIER;
+				// premium chance
+				if (premium)
+				{
+					rateChance *= Config.PREMIUM_RATE_SPOIL_CHANCE;
+				}
+				return rateChance;
+			}
+		}
+		return 0;
+	}
+	
+	private static double getRateAmount(DropHolder dropItem, boolean raid, boolean premium)
+	{
+		switch (dropItem.getDropType())
+		{
+			case DROP:
+			{
+				final boolean herb = isHerb(dropItem.getItemId());
+				double rateAmount = 1;
+				final Float amountById = Config.RATE_DROP_AMOUNT_BY_ID.get(dropItem.getItemId());
+				if (amountById != null)
+				{
+					rateAmount *= amountById;
+				}
+				else if (herb)
+				{
+					rateAmount *= Config.RATE_HERB_DROP_AMOUNT_MULTIPLIER;
+				}
+				else if (raid)
+				{
+					rateAmount *= Config.RATE_RAID_DROP_AMOUNT_MULTIPLIER;
+				}
+				else
+				{
+					rateAmount *= Config.RATE_DEATH_DROP_AMOUNT_MULTIPLIER;
+				}
+				
+				// premium amount
+				if (premium)
+				{
+					final Float premiumAmountById = Config.PREMIUM_RATE_DROP_AMOUNT_BY_ID.get(dropItem.getItemId());
+					if (premiumAmountById != null)
+					{
+						rateAmount *= premiumAmountById;
+					}
+					else if (!herb && !raid)
+					{
+						rateAmount *= Config.PREMIUM_RATE_DROP_AMOUNT;
+					}
+				}
+				return rateAmount;
+			}
+			case SPOIL:
+			{
+				double rateAmount = Config.RATE_SPOIL_DROP_AMOUNT_MULTIPLIER;
+				// premium amount
+				if (premium)
+				{
+					rateAmount *= Config.PREMIUM_RATE_SPOIL_AMOUNT;
+				}
+				return rateAmount;
+			}
+		}
+		return 0;
+	}
+	
+	private static boolean isHerb(int itemId)
+	{
+		final L2Item item = ItemTable.getInstance().getTemplate(itemId);
+		return (item != null) && item.hasExImmediateEffect();
+	}
+}
@@ -34,6 +34,7 @@ import com.l2jmobius.gameserver.enums.PrivateStoreType;
 import com.l2jmobius.gameserver.model.L2ArmorSet;
 import com.l2jmobius.gameserver.model.L2World;
 import com.l2jmobius.gameserver.model.PcCondOverride;
+import com.l2jmobius.gameserver.model.actor.L2Character;
 import com.l2jmobius.gameserver.model.actor.instance.L2PcInstance;
 import com.l2jmobius.gameserver.model.holders.SkillHolder;
 import com.l2jmobius.gameserver.model.items.L2Item;
@@ -1111,6 +1112,7 @@ public abstract class Inventory extends ItemContainer
 					}
 				}
 				_wearedMask = mask;
+				invalidateConditions();
 				// Notify all paperdoll listener in order to unequip old item in slot
 				for (PaperdollListener listener : _paperdollListeners)
 				{
@@ -1130,6 +1132,7 @@ public abstract class Inventory extends ItemContainer
 				item.setItemLocation(getEquipLocation(), slot);
 				item.setLastChange(L2ItemInstance.MODIFIED);
 				_wearedMask |= item.getItem().getItemMask();
+				invalidateConditions();
 				for (PaperdollListener listener : _paperdollListeners)
 				{
 					if (listener == null)
@@ -1145,6 +1148,18 @@ public abstract class Inventory extends ItemContainer
 		return old;
 	}
 	
+	/**
+	 * Invalidates the cached condition results of the owner, called right after the paperdoll changed.
+	 */
+	private void invalidateConditions()
+	{
+		final L2Character owner = getOwner();
+		if ((owner != null) && owner.isPlayer())
+		{
+			owner.getActingPlayer().getConditionCache().invalidate();
+		}
+	}
+	
 	/**
 	 * @return the mask of wore item
 	 */
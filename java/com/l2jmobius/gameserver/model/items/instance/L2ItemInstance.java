@@ -77,6 +77,7 @@ import com.l2jmobius.gameserver.network.serverpackets.SpawnItem;
 import com.l2jmobius.gameserver.network.serverpackets.StatusUpdate;
 import com.l2jmobius.gameserver.network.serverpackets.SystemMessage;
 import com.l2jmobius.gameserver.util.GMAudit;
+import com.l2jmobius.log.ItemLogRecord;
 
 /**
  * This class manages items.
@@ -300,25 +301,7 @@ public final class L2ItemInstance extends L2Object
 		{
 			if (!Config.LOG_ITEMS_SMALL_LOG || (Config.LOG_ITEMS_SMALL_LOG && (_item.isEquipable() || (_item.getId() == ADENA_ID))))
 			{
-				if (_enchantLevel > 0)
-				{
-					LOG_ITEMS.info("SETOWNER:" + String.valueOf(process) // in case of null
-						+ ", item " + getObjectId() //
-						+ ":+" + _enchantLevel //
-						+ " " + _item.getName() //
-						+ "(" + _count + "), " //
-						+ String.valueOf(creator) + ", " // in case of null
-						+ String.valueOf(reference)); // in case of null
-				}
-				else
-				{
-					LOG_ITEMS.info("SETOWNER:" + String.valueOf(process) // in case of null
-						+ ", item " + getObjectId() //
-						+ ":" + _item.getName() //
-						+ "(" + _count + "), " //
-						+ String.valueOf(creator) + ", " // in case of null
-						+ String.valueOf(reference)); // in case of null
-				}
+				LOG_ITEMS.log(new ItemLogRecord(LOG_ITEMS, "SETOWNER", process, this, creator, reference));
 			}
 		}
 		
@@ -474,27 +457,7 @@ public final class L2ItemInstance extends L2Object
 		{
 			if (!Config.LOG_ITEMS_SMALL_LOG || (Config.LOG_ITEMS_SMALL_LOG && (_item.isEquipable() || (_item.getId() == ADENA_ID))))
 			{
-				if (_enchantLevel > 0)
-				{
-					LOG_ITEMS.info("CHANGE:" + String.valueOf(process) // in case of null
-						+ ", item " + getObjectId() //
-						+ ":+" + _enchantLevel //
-						+ " " + _item.getName() //
-						+ "(" + _count + "), PrevCount(" //
-						+ String.valueOf(old) + "), " // in case of null
-						+ String.valueOf(creator) + ", " // in case of null
-						+ String.valueOf(reference)); // in case of null
-				}
-				else
-				{
-					LOG_ITEMS.info("CHANGE:" + String.valueOf(process) // in case of null
-						+ ", item " + getObjectId() //
-						+ ":" + _item.getName() //
-						+ "(" + _count + "), PrevCount(" //
-						+ String.valueOf(old) + "), " // in case of null
-						+ String.valueOf(creator) + ", " // in case of null
-						+ String.valueOf(reference)); // in case of null
-				}
+				LOG_ITEMS.log(new ItemLogRecord(LOG_ITEMS, "CHANGE", process, this, old, creator, reference));
 			}
 		}
 		
@@ -17,8 +17,10 @@
 package com.l2jmobius.gameserver.model.quest;
 
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -56,6 +58,9 @@ public final class QuestState
 	/** A map of key->value pairs containing the quest state variables and their values */
 	private Map<String, String> _vars;
 	
+	/** Variables changed since they were last stored, with a {@code null} value for the removed ones */
+	private final Map<String, String> _changedVars = new HashMap<>();
+	
 	/**
 	 * boolean flag letting QuestStateManager know to exit quest when cleaning up
 	 */
@@ -164,14 +169,7 @@ public final class QuestState
 		_state = state;
 		if (saveInDb)
 		{
-			if (newQuest)
-			{
-				Quest.createQuestInDb(this);
-			}
-			else
-			{
-				Quest.updateQuestInDb(this);
-			}
+			_player.storeQuestState(this, newQuest);
 		}
 		
 		_player.sendPacket(new QuestList(_player));
@@ -212,9 +210,7 @@ public final class QuestState
 	 * <li>Initialize class variable "vars" if is null.</li>
 	 * <li>Initialize parameter "val" if is null</li>
 	 * <li>Add/Update couple (var,val) in class variable Map "vars"</li>
-	 * <li>If the key represented by "var" exists in Map "vars", the couple (var,val) is updated in the database.<br>
-	 * The key is known as existing if the preceding value of the key (given as result of function put()) is not null.<br>
-	 * If the key doesn't exist, the couple is added/created in the database</li>
+	 * <li>Mark the variable as changed, it is written to the database with the next store of the player or the next change of the quest state.</li>
 	 * <ul>
 	 * @param var String indicating the name of the variable for quest
 	 * @param val String indicating the value of the variable for quest
@@ -233,14 +229,7 @@ public final class QuestState
 		}
 		
 		final String old = _vars.put(var, val);
-		if (old != null)
-		{
-			Quest.updateQuestVarInDb(this, var, val);
-		}
-		else
-		{
-			Quest.createQuestVarInDb(this, var, val);
-		}
+		markChanged(var, val);
 		
 		if ("cond".equals(var))
 		{
@@ -378,11 +367,57 @@ public final class QuestState
 		final String old = _vars.remove(var);
 		if (old != null)
 		{
-			Quest.deleteQuestVarInDb(this, var);
+			markChanged(var, null);
 		}
 		return old;
 	}
 	
+	private void markChanged(String var, String val)
+	{
+		synchronized (_changedVars)
+		{
+			_changedVars.put(var, val);
+		}
+	}
+	
+	/**
+	 * Takes the variables changed since the previous call, the caller writes them to the database.
+	 * @return the changed variables, with a {@code null} value for the removed ones
+	 */
+	public Map<String, String> takeChangedVars()
+	{
+		synchronized (_changedVars)
+		{
+			if (_changedVars.isEmpty())
+			{
+				return Collections.emptyMap();
+			}
+			
+			final Map<String, String> changed = new HashMap<>(_changedVars);
+			_changedVars.clear();
+			return changed;
+		}
+	}
+	
+	/**
+	 * Gives back the variables taken by {@link #takeChangedVars()} when they could not be written, variables changed since then are kept.
+	 * @param changed the changed variables
+	 */
+	public void restoreChangedVars(Map<String, String> changed)
+	{
+		synchronized (_changedVars)
+		{
+			for (Entry<String, String> entry : changed.entrySet())
+			{
+				// Not putIfAbsent, a null value is a newer removal.
+				if (!_changedVars.containsKey(entry.getKey()))
+				{
+					_changedVars.put(entry.getKey(), entry.getValue());
+				}
+			}
+		}
+	}
+	
 	/**
 	 * @param var the name of the variable to get
 	 * @return the value of the variable from the list of quest variables
@@ -679,7 +714,7 @@ public final class QuestState
 		// Clean registered quest items
 		getQuest().removeRegisteredQuestItems(_player);
 		
-		Quest.deleteQuestInDb(this, repeatable);
+		_player.deleteQuest(this, repeatable);
 		if (repeatable)
 		{
 			_player.delQuestState(_questName);
@@ -0,0 +1,121 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jmobius.gameserver.model.skills.targets;
+
+import java.util.Arrays;
+
+import com.l2jmobius.gameserver.handler.ITargetTypeHandler;
+import com.l2jmobius.gameserver.model.L2Object;
+import com.l2jmobius.gameserver.model.actor.L2Character;
+
+/**
+ * Reusable, thread confined work area of the area target handlers.<br>
+ * Candidates are collected by a range bounded world query, the handler then keeps the accepted ones as targets.<br>
+ * Only the final target array is allocated, with its exact size.
+ * @author Mobius
+ */
+public final class TargetBuffer
+{
+	private static final ThreadLocal<TargetBuffer> BUFFERS = ThreadLocal.withInitial(TargetBuffer::new);
+	
+	private L2Character[] _candidates = new L2Character[64];
+	private int _candidateCount;
+	private L2Character[] _targets = new L2Character[64];
+	private int _targetCount;
+	private boolean _inUse;
+	
+	/**
+	 * Gets the cleared buffer of the calling thread.<br>
+	 * A nested call, while the thread buffer is still in use, gets a private buffer.<br>
+	 * Every call must be paired with {@link #release()}, usually in a finally block.
+	 * @return the buffer
+	 */
+	public static TargetBuffer acquire()
+	{
+		TargetBuffer buffer = BUFFERS.get();
+		if (buffer._inUse)
+		{
+			buffer = new TargetBuffer();
+		}
+		buffer._inUse = true;
+		return buffer;
+	}
+	
+	/**
+	 * Clears the buffer and makes it available to the next {@link #acquire()} of its thread.
+	 */
+	public void release()
+	{
+		// drop the references, so characters do not stay reachable from an idle thread
+		Arrays.fill(_candidates, 0, _candidateCount, null);
+		Arrays.fill(_targets, 0, _targetCount, null);
+		_candidateCount = 0;
+		_targetCount = 0;
+		_inUse = false;
+	}
+	
+	public void addCandidate(L2Character candidate)
+	{
+		if (_candidateCount == _candidates.length)
+		{
+			_candidates = Arrays.copyOf(_candidates, _candidateCount * 2);
+		}
+		_candidates[_candidateCount++] = candidate;
+	}
+	
+	public int getCandidateCount()
+	{
+		return _candidateCount;
+	}
+	
+	public L2Character getCandidate(int index)
+	{
+		return _candidates[index];
+	}
+	
+	public void addTarget(L2Character target)
+	{
+		if (_targetCount == _targets.length)
+		{
+			_targets = Arrays.copyOf(_targets, _targetCount * 2);
+		}
+		_targets[_targetCount++] = target;
+	}
+	
+	public int getTargetCount()
+	{
+		return _targetCount;
+	}
+	
+	/**
+	 * @param maxTargets the skill affect limit, 0 or less for no limit
+	 * @return {@code true} if no more targets can be added
+	 */
+	public boolean isFull(int maxTargets)
+	{
+		return (maxTargets > 0) && (_targetCount >= maxTargets);
+	}
+	
+	/**
+	 * Copies the accepted targets, the buffer stays acquired.
+	 * @return the targets, or {@link ITargetTypeHandler#EMPTY_TARGET_LIST} if there are none
+	 */
+	public L2Object[] toArray()
+	{
+		return _targetCount == 0 ? ITargetTypeHandler.EMPTY_TARGET_LIST : Arrays.copyOf(_targets, _targetCount, L2Character[].class);
+	}
+}
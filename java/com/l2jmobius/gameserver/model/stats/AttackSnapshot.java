@@ -0,0 +1,293 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jmobius.gameserver.model.stats;
+
+import java.util.Map;
+
+import com.l2jmobius.Config;
+import com.l2jmobius.commons.util.Rnd;
+import com.l2jmobius.gameserver.model.actor.L2Character;
+import com.l2jmobius.gameserver.model.actor.instance.L2PcInstance;
+import com.l2jmobius.gameserver.model.items.L2Weapon;
+import com.l2jmobius.gameserver.model.items.type.WeaponType;
+
+/**
+ * Stats of an auto attack of an attacker on a target, read once and kept in primitive fields.<br>
+ * The hits of one attack (both hits of a dual attack) roll against the same snapshot, so the stat calculators of both characters are walked once per attack instead of once per formula and per hit.<br>
+ * Results are the same as {@link Formulas#calcHitMiss(L2Character, L2Character)}, {@link Formulas#calcShldUse(L2Character, L2Character)}, {@link Formulas#calcCrit(L2Character, L2Character)} and {@link Formulas#calcPhysDam(L2Character, L2Character, com.l2jmobius.gameserver.model.skills.Skill, byte, boolean, boolean)} without skill, the factors being applied in the same order.<br>
+ * Only auto attacks use it, physical and magic skills still compute their damage through {@link Formulas}.<br>
+ * Critical and shield defense factors are read only by a hit that needs them.
+ * @author Mobius
+ */
+public final class AttackSnapshot
+{
+	private final L2Character _attacker;
+	private final L2Character _target;
+	private final int _hitChance;
+	
+	// Read on the first hit that is not missed.
+	private boolean _loaded;
+	private double _shieldRate;
+	private double _critRate;
+	private boolean _isPvP;
+	private double _proximityBonus;
+	private double _pAtk;
+	private double _pDef;
+	private int _shieldDef = -1;
+	// Read on the first critical hit.
+	private boolean _critLoaded;
+	private double _critDamage;
+	private double _critDamageAdd;
+	private double _critDefenceAdd;
+	private double _traitBonus;
+	private double _pvpDamage;
+	private double _attributeBonus;
+	private boolean _isPvE;
+	private double _pveDamage;
+	private double _levelPenalty;
+	private double _critLevelPenalty;
+	
+	/**
+	 * @param attacker the attacker
+	 * @param target the target
+	 */
+	public AttackSnapshot(L2Character attacker, L2Character target)
+	{
+		_attacker = attacker;
+		_target = target;
+		_hitChance = Formulas.getHitChance(attacker, target);
+	}
+	
+	private void load()
+	{
+		if (_loaded)
+		{
+			return;
+		}
+		_loaded = true;
+		
+		final L2Character attacker = _attacker;
+		final L2Character target = _target;
+		_shieldRate = Formulas.getShieldRate(attacker, target, null);
+		_critRate = Formulas.getCritRate(attacker, target, null);
+		_isPvP = attacker.isPlayable() && target.isPlayable();
+		_proximityBonus = attacker.isBehind(target) ? 1.2 : attacker.isInFrontOf(target) ? 1 : 1.1; // Behind: +20% - Side: +10%
+		_pAtk = attacker.getPAtk(target);
+		_pDef = target.getPDef(attacker);
+		if (_isPvP)
+		{
+			_pDef *= target.calcStat(Stats.PVP_PHYSICAL_DEF, 1, null, null);
+		}
+		_traitBonus = Formulas.calcAttackTraitBonus(attacker, target);
+		_pvpDamage = _isPvP ? attacker.calcStat(Stats.PVP_PHYSICAL_DMG, 1, null, null) : 1;
+		_attributeBonus = Formulas.calcAttributeBonus(attacker, target, null);
+		_isPvE = target.isAttackable();
+		if (_isPvE)
+		{
+			final L2Weapon weapon = attacker.getActiveWeaponItem();
+			if ((weapon != null) && ((weapon.getItemType() == WeaponType.BOW) || (weapon.getItemType() == WeaponType.CROSSBOW)))
+			{
+				_pveDamage = attacker.calcStat(Stats.PVE_BOW_DMG, 1, null, null);
+			}
+			else
+			{
+				_pveDamage = attacker.calcStat(Stats.PVE_PHYSICAL_DMG, 1, null, null);
+			}
+			
+			_levelPenalty = 1;
+			_critLevelPenalty = 1;
+			final L2PcInstance player = attacker.getActingPlayer();
+			if (!target.isRaid() && !target.isRaidMinion() && (target.getLevel() >= Config.MIN_NPC_LVL_DMG_PENALTY) && (player != null) && ((target.getLevel() - player.getLevel()) >= 2))
+			{
+				final int lvlDiff = target.getLevel() - player.getLevel() - 1;
+				_levelPenalty = getPenalty(Config.NPC_DMG_PENALTY, lvlDiff);
+				_critLevelPenalty = getPenalty(Config.NPC_CRIT_DMG_PENALTY, lvlDiff);
+			}
+		}
+	}
+	
+	private void loadCrit()
+	{
+		if (_critLoaded)
+		{
+			return;
+		}
+		_critLoaded = true;
+		
+		final L2Character attacker = _attacker;
+		final L2Character target = _target;
+		_critDamage = 2 * attacker.calcStat(Stats.CRITICAL_DAMAGE, 1, target, null) * attacker.calcStat(Stats.CRITICAL_DAMAGE_POS, 1, target, null) * target.calcStat(Stats.DEFENCE_CRITICAL_DAMAGE, 1, target, null);
+		_critDamageAdd = attacker.calcStat(Stats.CRITICAL_DAMAGE_ADD, 0, target, null);
+		_critDefenceAdd = target.calcStat(Stats.DEFENCE_CRITICAL_DAMAGE_ADD, 0, target, null);
+	}
+	
+	/**
+	 * @return the shield defense of the target, read on the first hit blocked by the shield
+	 */
+	private int getShieldDef()
+	{
+		if (_shieldDef < 0)
+		{
+			_shieldDef = _target.getShldDef();
+		}
+		return _shieldDef;
+	}
+	
+	private static double getPenalty(Map<Integer, Float> penalties, int lvlDiff)
+	{
+		return penalties.get(Math.min(lvlDiff, penalties.size() - 1));
+	}
+	
+	/**
+	 * @return the chance to hit the target, in 1/1000
+	 */
+	public int getHitChance()
+	{
+		return _hitChance;
+	}
+	
+	/**
+	 * @return the critical rate against the target, in 1/1000
+	 */
+	public double getCritRate()
+	{
+		load();
+		return _critRate;
+	}
+	
+	/**
+	 * @return the shield rate of the target, 0 if the shield cannot be used
+	 */
+	public double getShieldRate()
+	{
+		load();
+		return _shieldRate;
+	}
+	
+	/**
+	 * @return {@code true} if the hit missed (target evaded), {@code false} otherwise
+	 */
+	public boolean calcHitMiss()
+	{
+		return _hitChance < Rnd.get(1000);
+	}
+	
+	/**
+	 * @return one of the Formulas.SHIELD_DEFENSE_XXX constants, the target is told about a successful defense
+	 */
+	public byte calcShldUse()
+	{
+		load();
+		return Formulas.calcShldSuccess(_target, _shieldRate, true);
+	}
+	
+	/**
+	 * @return {@code true} in case of critical hit
+	 */
+	public boolean calcCrit()
+	{
+		load();
+		return _critRate > Rnd.get(1000);
+	}
+	
+	/**
+	 * @param shld one of the Formulas.SHIELD_DEFENSE_XXX constants
+	 * @param crit if the hit is critical
+	 * @param ss if the weapon was charged by soulshot
+	 * @return the damage of the hit
+	 */
+	public double calcPhysDam(byte shld, boolean crit, boolean ss)
+	{
+		return calcPhysDam(shld, crit, ss, _attacker.getRandomDamageMultiplier());
+	}
+	
+	/**
+	 * @param shld one of the Formulas.SHIELD_DEFENSE_XXX constants
+	 * @param crit if the hit is critical
+	 * @param ss if the weapon was charged by soulshot
+	 * @param random the weapon random damage multiplier
+	 * @return the damage of the hit
+	 */
+	public double calcPhysDam(byte shld, boolean crit, boolean ss, double random)
+	{
+		load();
+		
+		double defence = _pDef;
+		switch (shld)
+		{
+			case Formulas.SHIELD_DEFENSE_SUCCEED:
+			{
+				if (!Config.ALT_GAME_SHIELD_BLOCKS)
+				{
+					defence += getShieldDef();
+				}
+				break;
+			}
+			case Formulas.SHIELD_DEFENSE_PERFECT_BLOCK:
+			{
+				return 1.;
+			}
+		}
+		
+		final int ssBoost = ss ? 2 : 1;
+		double damage = _pAtk * ssBoost;
+		if (crit)
+		{
+			loadCrit();
+			damage = _critDamage * ((76 * damage * _proximityBonus) / defence);
+			damage += ((_critDamageAdd * 77) / defence);
+			damage += _critDefenceAdd;
+		}
+		else
+		{
+			damage = (76 * damage * _proximityBonus) / defence;
+		}
+		
+		damage *= _traitBonus;
+		damage *= random;
+		if ((shld > 0) && Config.ALT_GAME_SHIELD_BLOCKS)
+		{
+			damage -= getShieldDef();
+			if (damage < 0)
+			{
+				damage = 0;
+			}
+		}
+		
+		if ((damage > 0) && (damage < 1))
+		{
+			damage = 1;
+		}
+		else if (damage < 0)
+		{
+			damage = 0;
+		}
+		
+		if (_isPvP)
+		{
+			damage *= _pvpDamage;
+		}
+		
+		damage *= _attributeBonus;
+		if (_isPvE)
+		{
+			damage *= _pveDamage;
+			damage *= crit ? _critLevelPenalty : _levelPenalty;
+		}
+		return damage;
+	}
+}
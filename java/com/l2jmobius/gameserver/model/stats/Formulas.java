@@ -17,6 +17,7 @@
 package com.l2jmobius.gameserver.model.stats;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import com.l2jmobius.Config;
@@ -91,6 +92,9 @@ public final class Formulas
 	
 	private static final byte MELEE_ATTACK_RANGE = 40;
 	
+	/** Traits of type 2 (weaknesses), read on every physical hit. */
+	private static final TraitType[] WEAKNESS_TRAITS = Arrays.stream(TraitType.values()).filter(t -> t.getType() == 2).toArray(TraitType[]::new);
+	
 	/**
 	 * Return the period between 2 regeneration task (3s for L2Character, 5 min for L2DoorInstance).
 	 * @param cha
@@ -692,6 +696,22 @@ public final class Formulas
 	 * @return
 	 */
 	public static double calcPhysDam(L2Character attacker, L2Character target, Skill skill, byte shld, boolean crit, boolean ss)
+	{
+		return calcPhysDam(attacker, target, skill, shld, crit, ss, attacker.getRandomDamageMultiplier());
+	}
+	
+	/**
+	 * Calculated damage caused by ATTACK of attacker on target with a given weapon random damage.
+	 * @param attacker player or NPC that makes ATTACK
+	 * @param target player or NPC, target of ATTACK
+	 * @param skill
+	 * @param shld one of ATTACK_XXX constants
+	 * @param crit if the ATTACK have critical success
+	 * @param ss if weapon item was charged by soulshot
+	 * @param random the weapon random damage multiplier
+	 * @return
+	 */
+	public static double calcPhysDam(L2Character attacker, L2Character target, Skill skill, byte shld, boolean crit, boolean ss, double random)
 	{
 		final boolean isPvP = attacker.isPlayable() && target.isPlayable();
 		final boolean isPvE = attacker.isPlayable() && target.isAttackable();
@@ -739,7 +759,7 @@ public final class Formulas
 		damage *= calcAttackTraitBonus(attacker, target);
 		
 		// Weapon random damage
-		damage *= attacker.getRandomDamageMultiplier();
+		damage *= random;
 		if ((shld > 0) && Config.ALT_GAME_SHIELD_BLOCKS)
 		{
 			damage -= target.getShldDef();
@@ -1049,6 +1069,17 @@ public final class Formulas
 	 * @return
 	 */
 	public static boolean calcCrit(L2Character attacker, L2Character target, Skill skill)
+	{
+		return getCritRate(attacker, target, skill) > Rnd.get(1000);
+	}
+	
+	/**
+	 * @param attacker
+	 * @param target
+	 * @param skill
+	 * @return the critical rate against the target, in 1/1000
+	 */
+	public static double getCritRate(L2Character attacker, L2Character target, Skill skill)
 	{
 		double rate = 0.d;
 		if (skill != null)
@@ -1059,7 +1090,7 @@ public final class Formulas
 		{
 			rate = attacker.getStat().calcStat(Stats.CRITICAL_RATE_POS, attacker.getStat().getCriticalHit(target, null));
 		}
-		return (target.getStat().calcStat(Stats.DEFENCE_CRITICAL_RATE, rate, null, null) + target.getStat().calcStat(Stats.DEFENCE_CRITICAL_RATE_ADD, 0, null, null)) > Rnd.get(1000);
+		return target.getStat().calcStat(Stats.DEFENCE_CRITICAL_RATE, rate, null, null) + target.getStat().calcStat(Stats.DEFENCE_CRITICAL_RATE_ADD, 0, null, null);
 	}
 	
 	public static boolean calcMCrit(double mRate)
@@ -1155,6 +1186,16 @@ public final class Formulas
 	 * @return {@code true} if hit missed (target evaded), {@code false} otherwise.
 	 */
 	public static boolean calcHitMiss(L2Character attacker, L2Character target)
+	{
+		return getHitChance(attacker, target) < Rnd.get(1000);
+	}
+	
+	/**
+	 * @param attacker
+	 * @param target
+	 * @return the chance to hit the target, in 1/1000
+	 */
+	public static int getHitChance(L2Character attacker, L2Character target)
 	{
 		int chance = (80 + (2 * (attacker.getAccuracy() - target.getEvasionRate(attacker)))) * 10;
 		
@@ -1163,8 +1204,7 @@ public final class Formulas
 		
 		chance = Math.max(chance, 200);
 		chance = Math.min(chance, 980);
-		
-		return chance < Rnd.get(1000);
+		return chance;
 	}
 	
 	/**
@@ -1179,6 +1219,17 @@ public final class Formulas
 	 * @return
 	 */
 	public static byte calcShldUse(L2Character attacker, L2Character target, Skill skill, boolean sendSysMsg)
+	{
+		return calcShldSuccess(target, getShieldRate(attacker, target, skill), sendSysMsg);
+	}
+	
+	/**
+	 * @param attacker
+	 * @param target
+	 * @param skill
+	 * @return the shield rate of the target against this attack, 0 if the shield cannot be used
+	 */
+	public static double getShieldRate(L2Character attacker, L2Character target, Skill skill)
 	{
 		if ((skill != null) && skill.ignoreShield())
 		{
@@ -1203,15 +1254,30 @@ public final class Formulas
 			return 0;
 		}
 		
-		byte shldSuccess = SHIELD_DEFENSE_FAILED;
-		// if attacker
 		// if attacker use bow and target wear shield, shield block rate is multiplied by 1.3 (30%)
 		final L2Weapon at_weapon = attacker.getActiveWeaponItem();
 		if ((at_weapon != null) && (at_weapon.getItemType() == WeaponType.BOW))
 		{
 			shldRate *= 1.3;
 		}
+		return shldRate;
+	}
+	
+	/**
+	 * Rolls the shield defense of the target for a shield rate computed by {@link #getShieldRate(L2Character, L2Character, Skill)}.
+	 * @param target
+	 * @param shldRate
+	 * @param sendSysMsg
+	 * @return one of the SHIELD_DEFENSE_XXX constants
+	 */
+	public static byte calcShldSuccess(L2Character target, double shldRate, boolean sendSysMsg)
+	{
+		if (shldRate <= 0)
+		{
+			return SHIELD_DEFENSE_FAILED;
+		}
 		
+		byte shldSuccess = SHIELD_DEFENSE_FAILED;
 		if ((shldRate > 0) && ((100 - Config.ALT_PERFECT_SHLD_BLOCK) < Rnd.get(100)))
 		{
 			shldSuccess = SHIELD_DEFENSE_PERFECT_BLOCK;
@@ -2119,15 +2185,12 @@ public final class Formulas
 		}
 		
 		double weaknessBonus = 1.0;
-		for (TraitType traitType : TraitType.values())
+		for (TraitType traitType : WEAKNESS_TRAITS)
 		{
-			if (traitType.getType() == 2)
+			weaknessBonus *= calcGeneralTraitBonus(attacker, target, traitType, true);
+			if (weaknessBonus == 0)
 			{
-				weaknessBonus *= calcGeneralTraitBonus(attacker, target, traitType, true);
-				if (weaknessBonus == 0)
-				{
-					return 0;
-				}
+				return 0;
 			}
 		}
 		
@@ -19,10 +19,10 @@ package com.l2jmobius.gameserver.model.zone;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
+import com.l2jmobius.commons.util.collections.ConcurrentIntObjectHashMap;
+import com.l2jmobius.commons.util.collections.IntObjectMap;
 import com.l2jmobius.gameserver.enums.InstanceType;
 import com.l2jmobius.gameserver.instancemanager.InstanceManager;
 import com.l2jmobius.gameserver.model.L2Object;
@@ -46,7 +46,7 @@ public abstract class L2ZoneType extends ListenersContainer
 	
 	private final int _id;
 	protected L2ZoneForm _zone;
-	protected Map<Integer, L2Character> _characterList = new ConcurrentHashMap<>();
+	protected IntObjectMap<L2Character> _characterList = new ConcurrentIntObjectHashMap<>(4);
 	
 	/** Parameters to affect specific characters */
 	private boolean _checkAffected = false;
@@ -489,7 +489,7 @@ public abstract class L2ZoneType extends ListenersContainer
 	{
 	}
 	
-	public Map<Integer, L2Character> getCharacters()
+	public IntObjectMap<L2Character> getCharacters()
 	{
 		return _characterList;
 	}
@@ -16,9 +16,8 @@
  */
 package com.l2jmobius.gameserver.model.zone;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-
+import com.l2jmobius.commons.util.collections.ConcurrentIntObjectHashMap;
+import com.l2jmobius.commons.util.collections.IntObjectMap;
 import com.l2jmobius.gameserver.model.actor.L2Character;
 import com.l2jmobius.gameserver.model.skills.Skill;
 import com.l2jmobius.gameserver.model.zone.type.L2PeaceZone;
@@ -30,7 +29,7 @@ public class ZoneRegion
 {
 	private final int _regionX;
 	private final int _regionY;
-	private final Map<Integer, L2ZoneType> _zones = new ConcurrentHashMap<>();
+	private final IntObjectMap<L2ZoneType> _zones = new ConcurrentIntObjectHashMap<>(1);
 	
 	public ZoneRegion(int regionX, int regionY)
 	{
@@ -38,7 +37,7 @@ public class ZoneRegion
 		_regionY = regionY;
 	}
 	
-	public Map<Integer, L2ZoneType> getZones()
+	public IntObjectMap<L2ZoneType> getZones()
 	{
 		return _zones;
 	}
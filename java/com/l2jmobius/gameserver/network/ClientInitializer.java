@@ -33,7 +33,7 @@ import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 public class ClientInitializer extends ChannelInitializer<SocketChannel>
 {
 	private static final LengthFieldBasedFrameEncoder LENGTH_ENCODER = new LengthFieldBasedFrameEncoder();
-	private static final PacketEncoder PACKET_ENCODER = new PacketEncoder(0x8000 - 2);
+	private static final PacketEncoder PACKET_ENCODER = new PacketEncoder(0x8000 - 2, PacketTelemetry.OUTGOING);
 	
 	@Override
 	protected void initChannel(SocketChannel ch)
@@ -43,7 +43,7 @@ public class ClientInitializer extends ChannelInitializer<SocketChannel>
 		ch.pipeline().addLast("length-encoder", LENGTH_ENCODER);
 		ch.pipeline().addLast("crypt-codec", new CryptCodec(client.getCrypt()));
 		// ch.pipeline().addLast(new LoggingHandler(LogLevel.INFO));
-		ch.pipeline().addLast("packet-decoder", new PacketDecoder<>(IncomingPackets.PACKET_ARRAY, client));
+		ch.pipeline().addLast("packet-decoder", new PacketDecoder<>(IncomingPackets.PACKET_ARRAY, client, PacketTelemetry.INCOMING));
 		ch.pipeline().addLast("packet-encoder", PACKET_ENCODER);
 		ch.pipeline().addLast(client);
 	}
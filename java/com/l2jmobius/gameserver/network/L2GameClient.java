@@ -30,6 +30,8 @@ import com.l2jmobius.commons.database.DatabaseFactory;
 import com.l2jmobius.commons.network.ChannelInboundHandler;
 import com.l2jmobius.commons.network.ICrypt;
 import com.l2jmobius.commons.network.IIncomingPacket;
+import com.l2jmobius.commons.network.PacketStatistics;
+import com.l2jmobius.commons.network.PacketStatistics.PacketCounters;
 import com.l2jmobius.gameserver.LoginServerThread;
 import com.l2jmobius.gameserver.LoginServerThread.SessionKey;
 import com.l2jmobius.gameserver.data.sql.impl.CharNameTable;
@@ -126,6 +128,8 @@ public final class L2GameClient extends ChannelInboundHandler<L2GameClient>
 	@Override
 	protected void channelRead0(ChannelHandlerContext ctx, IIncomingPacket<L2GameClient> packet)
 	{
+		final PacketCounters counters = PacketTelemetry.INCOMING.isEnabled() ? ctx.channel().attr(PacketStatistics.COUNTERS_KEY).getAndSet(null) : null;
+		final long start = counters != null ? System.nanoTime() : 0;
 		try
 		{
 			packet.run(this);
@@ -134,6 +138,13 @@ public final class L2GameClient extends ChannelInboundHandler<L2GameClient>
 		{
 			LOGGER.log(Level.WARNING, "Exception for: " + toString() + " on packet.run: " + packet.getClass().getSimpleName(), e);
 		}
+		finally
+		{
+			if (counters != null)
+			{
+				counters.onRun(System.nanoTime() - start);
+			}
+		}
 	}
 	
 	@Override
@@ -0,0 +1,121 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jmobius.gameserver.network;
+
+import java.util.logging.Logger;
+
+import com.l2jmobius.Config;
+import com.l2jmobius.commons.concurrent.TaskCategory;
+import com.l2jmobius.commons.concurrent.ThreadPool;
+import com.l2jmobius.commons.network.PacketStatistics;
+
+/**
+ * Per opcode counters of the game client packets.<br>
+ * Received packets are accounted with their decode time and the run time of their handler, sent packets with their encode time.
+ * @author Mobius
+ */
+public final class PacketTelemetry
+{
+	private static final Logger LOGGER = Logger.getLogger(PacketTelemetry.class.getName());
+	
+	/** Extended client packets are sent as 0xD0 followed by their own opcode. */
+	private static final int EX_INCOMING_OPCODE = 0xD0;
+	/** Extended server packets are sent as 0xFE followed by their own opcode. */
+	private static final int EX_OUTGOING_OPCODE = 0xFE;
+	private static final int MAIN_SLOTS = 0x100;
+	
+	public static final PacketStatistics INCOMING = new PacketStatistics("Incoming", EX_INCOMING_OPCODE, PacketTelemetry::getIncomingName);
+	public static final PacketStatistics OUTGOING = new PacketStatistics("Outgoing", EX_OUTGOING_OPCODE, PacketTelemetry::getOutgoingName);
+	
+	private PacketTelemetry()
+	{
+	}
+	
+	public static void init()
+	{
+		setEnabled(Config.PACKET_STATISTICS);
+		if (Config.PACKET_STATISTICS_LOG_INTERVAL > 0)
+		{
+			final long interval = Config.PACKET_STATISTICS_LOG_INTERVAL * 60000L;
+			ThreadPool.scheduleAtFixedRate(TaskCategory.GENERAL, PacketTelemetry::logSnapshot, interval, interval);
+		}
+	}
+	
+	public static boolean isEnabled()
+	{
+		return INCOMING.isEnabled();
+	}
+	
+	public static void setEnabled(boolean enabled)
+	{
+		INCOMING.setEnabled(enabled);
+		OUTGOING.setEnabled(enabled);
+	}
+	
+	public static void reset()
+	{
+		INCOMING.reset();
+		OUTGOING.reset();
+	}
+	
+	/**
+	 * @param count the maximum number of opcodes per direction
+	 * @param byBytes {@code true} to order by traffic, {@code false} to order by processing time
+	 * @return the report of the busiest opcodes of both directions
+	 */
+	public static String[] getStats(int count, boolean byBytes)
+	{
+		final String[] incoming = INCOMING.getStats(count, byBytes);
+		final String[] outgoing = OUTGOING.getStats(count, byBytes);
+		final String[] stats = new String[incoming.length + outgoing.length];
+		System.arraycopy(incoming, 0, stats, 0, incoming.length);
+		System.arraycopy(outgoing, 0, stats, incoming.length, outgoing.length);
+		return stats;
+	}
+	
+	private static void logSnapshot()
+	{
+		if (!isEnabled())
+		{
+			return;
+		}
+		
+		for (String line : getStats(Config.PACKET_STATISTICS_LOG_TOP, false))
+		{
+			LOGGER.info(line);
+		}
+	}
+	
+	private static String getIncomingName(int slot)
+	{
+		if (slot < MAIN_SLOTS)
+		{
+			final IncomingPackets packet = slot < IncomingPackets.PACKET_ARRAY.length ? IncomingPackets.PACKET_ARRAY[slot] : null;
+			return packet != null ? packet.name() : null;
+		}
+		
+		final int exSlot = slot - MAIN_SLOTS;
+		final ExIncomingPackets packet = exSlot < ExIncomingPackets.PACKET_ARRAY.length ? ExIncomingPackets.PACKET_ARRAY[exSlot] : null;
+		return packet != null ? packet.name() : null;
+	}
+	
+	private static String getOutgoingName(int slot)
+	{
+		final OutgoingPackets packet = slot < MAIN_SLOTS ? OutgoingPackets.getPacket(slot, -1) : OutgoingPackets.getPacket(EX_OUTGOING_OPCODE, slot - MAIN_SLOTS);
+		return packet != null ? packet.name() : null;
+	}
+}
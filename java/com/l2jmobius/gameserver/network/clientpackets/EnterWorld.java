@@ -372,7 +372,9 @@ public class EnterWorld implements IClientIncomingPacket
 			activeChar.checkRecoBonusTask();
 		}
 		
-		activeChar.broadcastUserInfo();
+		// The client expects the user info before the following packets
+		activeChar.sendUserInfo();
+		activeChar.sendCharInfo();
 		
 		// Send Macro List
 		activeChar.getMacros().sendUpdate();
@@ -19,6 +19,7 @@ package com.l2jmobius.gameserver.network.clientpackets;
 import java.util.logging.Logger;
 
 import com.l2jmobius.Config;
+import com.l2jmobius.commons.database.DatabaseExecutor;
 import com.l2jmobius.commons.network.PacketReader;
 import com.l2jmobius.gameserver.SevenSignsFestival;
 import com.l2jmobius.gameserver.enums.PrivateStoreType;
@@ -138,7 +139,8 @@ public final class RequestRestart implements IClientIncomingPacket
 		
 		client.sendPacket(RestartResponse.valueOf(true));
 		
-		// send char list
+		// send char list, read back after the store of the player
+		DatabaseExecutor.await(player.getObjectId());
 		final CharSelectionInfo cl = new CharSelectionInfo(client.getAccountName(), client.getSessionId().playOkID1);
 		client.sendPacket(cl);
 		client.setCharSelection(cl.getCharInfo());
@@ -25,6 +25,7 @@ import com.l2jmobius.gameserver.model.actor.instance.L2PcInstance;
 import com.l2jmobius.gameserver.network.L2GameClient;
 import com.l2jmobius.gameserver.network.SystemMessageId;
 import com.l2jmobius.gameserver.network.serverpackets.L2FriendSay;
+import com.l2jmobius.log.ChatLogRecord;
 
 /**
  * Recieve Private (Friend) Message - 0xCC Format: c SS S: Message S: Receiving Player
@@ -68,7 +69,7 @@ public final class RequestSendFriendMsg implements IClientIncomingPacket
 		
 		if (Config.LOG_CHAT)
 		{
-			LOGGER_CHAT.info("PRIV_MSG [" + activeChar + " to " + targetPlayer + "] " + _message);
+			LOGGER_CHAT.log(new ChatLogRecord(LOGGER_CHAT, "PRIV_MSG", activeChar, targetPlayer, _message));
 		}
 		
 		targetPlayer.sendPacket(new L2FriendSay(activeChar.getName(), _reciever, _message));
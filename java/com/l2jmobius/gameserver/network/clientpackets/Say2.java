@@ -35,7 +35,9 @@ import com.l2jmobius.gameserver.network.Disconnection;
 import com.l2jmobius.gameserver.network.L2GameClient;
 import com.l2jmobius.gameserver.network.SystemMessageId;
 import com.l2jmobius.gameserver.network.serverpackets.ActionFailed;
+import com.l2jmobius.gameserver.util.ChatFilter;
 import com.l2jmobius.gameserver.util.Util;
+import com.l2jmobius.log.ChatLogRecord;
 
 /**
  * This class ...
@@ -170,14 +172,7 @@ public final class Say2 implements IClientIncomingPacket
 		
 		if (Config.LOG_CHAT)
 		{
-			if (chatType == ChatType.WHISPER)
-			{
-				LOGGER_CHAT.info(chatType.name() + " [" + activeChar + " to " + _target + "] " + _text);
-			}
-			else
-			{
-				LOGGER_CHAT.info(chatType.name() + " [" + activeChar + "] " + _text);
-			}
+			LOGGER_CHAT.log(new ChatLogRecord(LOGGER_CHAT, chatType.name(), activeChar, chatType == ChatType.WHISPER ? _target : null, _text));
 		}
 		
 		if ((_text.indexOf(8) >= 0) && !parseAndPublishItem(activeChar))
@@ -222,12 +217,7 @@ public final class Say2 implements IClientIncomingPacket
 	
 	private void checkText()
 	{
-		String filteredText = _text;
-		for (String pattern : Config.FILTER_LIST)
-		{
-			filteredText = filteredText.replaceAll("(?i)" + pattern, Config.CHAT_FILTER_CHARS);
-		}
-		_text = filteredText;
+		_text = ChatFilter.filter(_text);
 	}
 	
 	private boolean parseAndPublishItem(L2PcInstance owner)
@@ -16,6 +16,7 @@
  */
 package com.l2jmobius.gameserver.network.loginserverpackets.game;
 
+import java.util.Collections;
 import java.util.List;
 
 import com.l2jmobius.commons.network.BaseSendablePacket;
@@ -25,15 +26,16 @@ import com.l2jmobius.commons.network.BaseSendablePacket;
  */
 public class PlayerInGame extends BaseSendablePacket
 {
+	private final List<String> _players;
+	
 	public PlayerInGame(String player)
 	{
-		writeC(0x02);
-		writeH(1);
-		writeS(player);
+		this(Collections.singletonList(player));
 	}
 	
 	public PlayerInGame(List<String> players)
 	{
+		_players = players;
 		writeC(0x02);
 		writeH(players.size());
 		for (String pc : players)
@@ -42,6 +44,14 @@ public class PlayerInGame extends BaseSendablePacket
 		}
 	}
 	
+	/**
+	 * @return the accounts of the packet, so queued packets can be merged
+	 */
+	public List<String> getPlayers()
+	{
+		return _players;
+	}
+	
 	@Override
 	public byte[] getContent()
 	{
@@ -26,6 +26,9 @@ import com.l2jmobius.gameserver.model.skills.AbnormalVisualEffect;
 import com.l2jmobius.gameserver.model.zone.ZoneId;
 import com.l2jmobius.gameserver.network.OutgoingPackets;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
 public class CharInfo implements IClientOutgoingPacket
 {
 	private final L2PcInstance _activeChar;
@@ -113,6 +116,23 @@ public class CharInfo implements IClientOutgoingPacket
 		_heading = decoy.getHeading();
 	}
 	
+	/**
+	 * @param player the player
+	 * @return the CharInfo and ExBrExtraUserInfo content of the player, position and heading included, to detect changes since the last broadcast
+	 */
+	public static byte[] getContent(L2PcInstance player)
+	{
+		final CharInfo charInfo = new CharInfo(player, false);
+		final ByteBuf buffer = Unpooled.buffer(512);
+		final PacketWriter writer = new PacketWriter(buffer);
+		charInfo.write(writer);
+		new ExBrExtraUserInfo(player).write(writer);
+		
+		final byte[] content = new byte[buffer.readableBytes()];
+		buffer.readBytes(content);
+		return content;
+	}
+	
 	@Override
 	public boolean write(PacketWriter packet)
 	{
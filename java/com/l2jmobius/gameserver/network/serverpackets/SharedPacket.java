@@ -0,0 +1,97 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jmobius.gameserver.network.serverpackets;
+
+import java.util.logging.Level;
+
+import com.l2jmobius.commons.network.PacketWriter;
+import com.l2jmobius.gameserver.model.actor.instance.L2PcInstance;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * Packet written once and copied to every recipient, for packets broadcast to many players.<br>
+ * Only the content is shared, the encryption still happens per client.
+ * @author Mobius
+ */
+public final class SharedPacket implements IClientOutgoingPacket
+{
+	private final IClientOutgoingPacket _packet;
+	/** The written content, {@code null} if the packet must not be sent. */
+	private final byte[] _data;
+	
+	private SharedPacket(IClientOutgoingPacket packet)
+	{
+		_packet = packet;
+		_data = writeData(packet);
+	}
+	
+	/**
+	 * @param packet the packet to broadcast
+	 * @return the packet written once for all the recipients
+	 */
+	public static IClientOutgoingPacket of(IClientOutgoingPacket packet)
+	{
+		return packet instanceof SharedPacket ? packet : new SharedPacket(packet);
+	}
+	
+	private static byte[] writeData(IClientOutgoingPacket packet)
+	{
+		final ByteBuf buffer = Unpooled.buffer();
+		try
+		{
+			if (!packet.write(new PacketWriter(buffer)))
+			{
+				return null;
+			}
+			
+			final byte[] data = new byte[buffer.readableBytes()];
+			buffer.readBytes(data);
+			return data;
+		}
+		catch (Exception e)
+		{
+			LOGGER.log(Level.WARNING, "Failed writing Packet(" + packet + ")", e);
+			return null;
+		}
+	}
+	
+	@Override
+	public boolean write(PacketWriter packet)
+	{
+		if (_data == null)
+		{
+			return false;
+		}
+		
+		packet.writeB(_data);
+		return true;
+	}
+	
+	@Override
+	public void runImpl(L2PcInstance player)
+	{
+		_packet.runImpl(player);
+	}
+	
+	@Override
+	public String toString()
+	{
+		return _packet.toString();
+	}
+}
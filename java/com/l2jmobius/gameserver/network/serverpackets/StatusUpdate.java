@@ -103,6 +103,26 @@ public final class StatusUpdate implements IClientOutgoingPacket
 		return !_attributes.isEmpty();
 	}
 	
+	public int getObjectId()
+	{
+		return _objectId;
+	}
+	
+	/**
+	 * Copies the attribute values into an array indexed by attribute id, the ids out of its bounds are ignored.
+	 * @param values the array
+	 */
+	public void copyAttributes(int[] values)
+	{
+		for (Attribute attribute : _attributes)
+		{
+			if (attribute.id < values.length)
+			{
+				values[attribute.id] = attribute.value;
+			}
+		}
+	}
+	
 	@Override
 	public boolean write(PacketWriter packet)
 	{
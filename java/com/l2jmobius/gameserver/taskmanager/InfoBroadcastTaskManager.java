@@ -0,0 +1,172 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jmobius.gameserver.taskmanager;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.l2jmobius.commons.concurrent.TaskCategory;
+import com.l2jmobius.commons.concurrent.ThreadPool;
+import com.l2jmobius.gameserver.GameTimeController;
+import com.l2jmobius.gameserver.model.actor.L2Character;
+import com.l2jmobius.gameserver.model.actor.instance.L2PcInstance;
+
+/**
+ * Coalesces the info broadcasts of characters, all the changes of a game tick are sent as a single update.<br>
+ * CharInfo is only broadcast when the appearance or position of the player changed and the own StatusUpdate of a player only holds the changed attributes.
+ * @author Mobius
+ */
+public class InfoBroadcastTaskManager implements Runnable
+{
+	private static final Logger LOGGER = Logger.getLogger(InfoBroadcastTaskManager.class.getName());
+	
+	public enum InfoType
+	{
+		USER_INFO,
+		CHAR_INFO,
+		STATUS;
+		
+		private final int _mask = 1 << ordinal();
+		private final LongAdder _requested = new LongAdder();
+		private final LongAdder _sent = new LongAdder();
+		private final LongAdder _suppressed = new LongAdder();
+		private final LongAdder _coalesced = new LongAdder();
+		
+		public int getMask()
+		{
+			return _mask;
+		}
+		
+		/**
+		 * Counts an update that has been sent.
+		 */
+		public void onSent()
+		{
+			_sent.increment();
+		}
+		
+		/**
+		 * Counts an update that has not been sent, because the client already knows its values.
+		 */
+		public void onSuppressed()
+		{
+			_suppressed.increment();
+		}
+	}
+	
+	private final Map<L2Character, Integer> _pending = new ConcurrentHashMap<>();
+	
+	protected InfoBroadcastTaskManager()
+	{
+		ThreadPool.scheduleAtFixedRate(TaskCategory.GENERAL, this, GameTimeController.MILLIS_IN_TICK, GameTimeController.MILLIS_IN_TICK);
+	}
+	
+	/**
+	 * Queues an update, sent with the other updates of the character at the end of the tick.
+	 * @param cha the character
+	 * @param type the type of update
+	 */
+	public void add(L2Character cha, InfoType type)
+	{
+		type._requested.increment();
+		_pending.merge(cha, type.getMask(), (oldMask, mask) ->
+		{
+			if ((oldMask & mask) != 0)
+			{
+				type._coalesced.increment();
+			}
+			return oldMask | mask;
+		});
+	}
+	
+	@Override
+	public synchronized void run()
+	{
+		final Iterator<Entry<L2Character, Integer>> iterator = _pending.entrySet().iterator();
+		while (iterator.hasNext())
+		{
+			final Entry<L2Character, Integer> entry = iterator.next();
+			final L2Character cha = entry.getKey();
+			// Updates queued from now on are sent next tick.
+			final Integer mask = _pending.remove(cha);
+			if (mask == null)
+			{
+				continue;
+			}
+			
+			try
+			{
+				send(cha, mask);
+			}
+			catch (Exception e)
+			{
+				LOGGER.log(Level.WARNING, getClass().getSimpleName() + ": Error while sending info of " + cha + ".", e);
+			}
+		}
+	}
+	
+	private static void send(L2Character cha, int mask)
+	{
+		if (cha.isPlayer())
+		{
+			final L2PcInstance player = cha.getActingPlayer();
+			if ((mask & InfoType.USER_INFO.getMask()) != 0)
+			{
+				player.sendUserInfo();
+			}
+			// Removed players must not reappear to their former viewers.
+			if (((mask & InfoType.CHAR_INFO.getMask()) != 0) && player.isSpawned())
+			{
+				player.sendCharInfo();
+			}
+		}
+		
+		if ((mask & InfoType.STATUS.getMask()) != 0)
+		{
+			cha.sendStatusUpdate();
+		}
+	}
+	
+	public String[] getStats()
+	{
+		final List<String> stats = new ArrayList<>();
+		stats.add("Info broadcasts:");
+		stats.add(" |- Pending: .......... " + _pending.size());
+		for (InfoType type : InfoType.values())
+		{
+			stats.add(" |- " + type + ": requested " + type._requested.sum() + ", sent " + type._sent.sum() + ", suppressed " + type._suppressed.sum() + ", coalesced " + type._coalesced.sum());
+		}
+		return stats.toArray(new String[stats.size()]);
+	}
+	
+	public static InfoBroadcastTaskManager getInstance()
+	{
+		return SingletonHolder._instance;
+	}
+	
+	private static class SingletonHolder
+	{
+		protected static final InfoBroadcastTaskManager _instance = new InfoBroadcastTaskManager();
+	}
+}
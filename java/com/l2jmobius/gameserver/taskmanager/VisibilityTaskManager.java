@@ -0,0 +1,262 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jmobius.gameserver.taskmanager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.l2jmobius.Config;
+import com.l2jmobius.commons.concurrent.TaskCategory;
+import com.l2jmobius.commons.concurrent.ThreadPool;
+import com.l2jmobius.gameserver.GameTimeController;
+import com.l2jmobius.gameserver.ai.L2CharacterAI;
+import com.l2jmobius.gameserver.model.L2Object;
+import com.l2jmobius.gameserver.model.L2WorldRegion;
+import com.l2jmobius.gameserver.model.actor.L2Character;
+import com.l2jmobius.gameserver.model.actor.instance.L2PcInstance;
+import com.l2jmobius.gameserver.network.serverpackets.DeleteObject;
+
+/**
+ * Sends the info and delete packets of objects coming into or going out of the view of players, after the world region change that caused them.<br>
+ * Only the last change of an object is kept per player, so objects crossing a region border back and forth are sent once.<br>
+ * Deletions are sent first, then at most {@link Config#VISIBILITY_UPDATES_PER_TICK} infos per player and tick, players and attackers first.
+ * @author Mobius
+ */
+public class VisibilityTaskManager implements Runnable
+{
+	private static final Logger LOGGER = Logger.getLogger(VisibilityTaskManager.class.getName());
+	
+	private static final Boolean SHOW = Boolean.TRUE;
+	private static final Boolean HIDE = Boolean.FALSE;
+	
+	/** Objects whose info has to be sent or deleted, per player. Only modified inside the map compute methods. */
+	private final Map<L2PcInstance, Map<L2Object, Boolean>> _pending = new ConcurrentHashMap<>();
+	
+	private final LongAdder _queued = new LongAdder();
+	private final LongAdder _merged = new LongAdder();
+	private final LongAdder _shown = new LongAdder();
+	private final LongAdder _hidden = new LongAdder();
+	private final LongAdder _skipped = new LongAdder();
+	private final LongAdder _delayed = new LongAdder();
+	
+	protected VisibilityTaskManager()
+	{
+		ThreadPool.scheduleAtFixedRate(TaskCategory.GENERAL, this, GameTimeController.MILLIS_IN_TICK, GameTimeController.MILLIS_IN_TICK);
+	}
+	
+	/**
+	 * Queues the info of an object which came into the view of a player.
+	 * @param player the player
+	 * @param object the object
+	 */
+	public void show(L2PcInstance player, L2Object object)
+	{
+		add(player, object, SHOW);
+	}
+	
+	/**
+	 * Queues the deletion of an object which went out of the view of a player.
+	 * @param player the player
+	 * @param object the object
+	 */
+	public void hide(L2PcInstance player, L2Object object)
+	{
+		add(player, object, HIDE);
+	}
+	
+	private void add(L2PcInstance player, L2Object object, Boolean visible)
+	{
+		_queued.increment();
+		_pending.compute(player, (key, updates) ->
+		{
+			if (updates == null)
+			{
+				updates = new LinkedHashMap<>();
+			}
+			if (updates.put(object, visible) != null)
+			{
+				_merged.increment();
+			}
+			return updates;
+		});
+	}
+	
+	/**
+	 * Sends the info of an object to a player right away.
+	 * @param player the player
+	 * @param object the object
+	 */
+	public static void sendInfo(L2PcInstance player, L2Object object)
+	{
+		object.sendInfo(player);
+		if (object.isCharacter())
+		{
+			final L2CharacterAI ai = ((L2Character) object).getAI();
+			if (ai != null)
+			{
+				ai.describeStateToPlayer(player);
+			}
+		}
+	}
+	
+	@Override
+	public synchronized void run()
+	{
+		final List<L2Object> hides = new ArrayList<>();
+		final List<L2Object> shows = new ArrayList<>();
+		for (L2PcInstance player : _pending.keySet())
+		{
+			hides.clear();
+			shows.clear();
+			try
+			{
+				poll(player, hides, shows);
+				
+				for (L2Object object : hides)
+				{
+					// Back in view before the deletion was sent.
+					if (isInView(player, object))
+					{
+						_skipped.increment();
+						continue;
+					}
+					player.sendPacket(new DeleteObject(object));
+					_hidden.increment();
+				}
+				
+				for (L2Object object : shows)
+				{
+					if (!isInView(player, object) || !object.isVisibleFor(player))
+					{
+						_skipped.increment();
+						continue;
+					}
+					sendInfo(player, object);
+					_shown.increment();
+				}
+			}
+			catch (Exception e)
+			{
+				LOGGER.log(Level.WARNING, getClass().getSimpleName() + ": Error while updating the view of " + player + ".", e);
+			}
+		}
+	}
+	
+	/**
+	 * Takes the deletions and the first infos by priority of a player out of the queue, the other infos stay for the next tick.
+	 * @param player the player
+	 * @param hides the list receiving the objects to delete
+	 * @param shows the list receiving the objects to show
+	 */
+	private void poll(L2PcInstance player, List<L2Object> hides, List<L2Object> shows)
+	{
+		_pending.computeIfPresent(player, (key, updates) ->
+		{
+			if (player.isInOfflineMode())
+			{
+				_skipped.add(updates.size());
+				return null;
+			}
+			
+			final Iterator<Entry<L2Object, Boolean>> iterator = updates.entrySet().iterator();
+			while (iterator.hasNext())
+			{
+				final Entry<L2Object, Boolean> entry = iterator.next();
+				if (!entry.getValue())
+				{
+					hides.add(entry.getKey());
+					iterator.remove();
+				}
+				else
+				{
+					shows.add(entry.getKey());
+				}
+			}
+			
+			final int limit = Math.max(1, Config.VISIBILITY_UPDATES_PER_TICK);
+			if (shows.size() > limit)
+			{
+				shows.sort(Comparator.comparingInt(object -> getPriority(player, object)));
+				_delayed.add(shows.size() - limit);
+				shows.subList(limit, shows.size()).clear();
+			}
+			for (L2Object object : shows)
+			{
+				updates.remove(object);
+			}
+			return updates.isEmpty() ? null : updates;
+		});
+	}
+	
+	/**
+	 * @param player the player
+	 * @param object the object
+	 * @return the priority of the info of the object, lower first: players, characters attacking the player, attackable characters, everything else
+	 */
+	private static int getPriority(L2PcInstance player, L2Object object)
+	{
+		if (object.isPlayable())
+		{
+			return 0;
+		}
+		if (object.isCharacter() && (((L2Character) object).getTarget() == player))
+		{
+			return 1;
+		}
+		return object.isAttackable() ? 2 : 3;
+	}
+	
+	private static boolean isInView(L2PcInstance player, L2Object object)
+	{
+		final L2WorldRegion playerRegion = player.getWorldRegion();
+		final L2WorldRegion objectRegion = object.getWorldRegion();
+		return (playerRegion != null) && (objectRegion != null) && object.isSpawned() && (object.getInstanceId() == player.getInstanceId()) && playerRegion.isSurroundingRegion(objectRegion);
+	}
+	
+	public String[] getStats()
+	{
+		final List<String> stats = new ArrayList<>();
+		stats.add("Visibility updates:");
+		stats.add(" |- Players: .......... " + _pending.size());
+		stats.add(" |- Queued: ........... " + _queued.sum());
+		stats.add(" |- Merged: ........... " + _merged.sum());
+		stats.add(" |- Shown: ............ " + _shown.sum());
+		stats.add(" |- Hidden: ........... " + _hidden.sum());
+		stats.add(" |- Skipped: .......... " + _skipped.sum());
+		stats.add(" |- Delayed: .......... " + _delayed.sum());
+		return stats.toArray(new String[stats.size()]);
+	}
+	
+	public static VisibilityTaskManager getInstance()
+	{
+		return SingletonHolder._instance;
+	}
+	
+	private static class SingletonHolder
+	{
+		protected static final VisibilityTaskManager _instance = new VisibilityTaskManager();
+	}
+}
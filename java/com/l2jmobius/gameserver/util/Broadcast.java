@@ -28,6 +28,7 @@ import com.l2jmobius.gameserver.network.serverpackets.CreatureSay;
 import com.l2jmobius.gameserver.network.serverpackets.ExShowScreenMessage;
 import com.l2jmobius.gameserver.network.serverpackets.IClientOutgoingPacket;
 import com.l2jmobius.gameserver.network.serverpackets.RelationChanged;
+import com.l2jmobius.gameserver.network.serverpackets.SharedPacket;
 
 /**
  * This class ...
@@ -157,11 +158,12 @@ public final class Broadcast
 	 */
 	public static void toAllOnlinePlayers(IClientOutgoingPacket packet)
 	{
+		final IClientOutgoingPacket shared = SharedPacket.of(packet);
 		for (L2PcInstance player : L2World.getInstance().getPlayers())
 		{
 			if (player.isOnline())
 			{
-				player.sendPacket(packet);
+				player.sendPacket(shared);
 			}
 		}
 	}
@@ -178,11 +180,12 @@ public final class Broadcast
 	
 	public static void toPlayersInInstance(IClientOutgoingPacket packet, int instanceId)
 	{
-		for (L2PcInstance player : L2World.getInstance().getPlayers())
+		final IClientOutgoingPacket shared = SharedPacket.of(packet);
+		for (L2PcInstance player : L2World.getInstance().getPlayersInInstance(instanceId))
 		{
 			if (player.isOnline() && (player.getInstanceId() == instanceId))
 			{
-				player.sendPacket(packet);
+				player.sendPacket(shared);
 			}
 		}
 	}
@@ -0,0 +1,220 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jmobius.gameserver.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.regex.Pattern;
+
+import com.l2jmobius.Config;
+
+/**
+ * Chat filter replacing the words of the chat filter list with the filter chars.<br>
+ * The words are compiled once per loaded list into a case insensitive Aho-Corasick automaton matching all of them in one pass over the text.<br>
+ * With ChatFilterRegex the words are regular expressions applied one after the other, as before.
+ * @author Mobius
+ */
+public final class ChatFilter
+{
+	private static volatile ChatFilter _instance;
+	
+	/** The filter list this filter was compiled from, compared by identity to notice reloads. */
+	private final List<String> _words;
+	private final boolean _regex;
+	private final List<Pattern> _patterns = new ArrayList<>();
+	private final Node _root = new Node();
+	
+	private ChatFilter(List<String> words, boolean regex)
+	{
+		_words = words;
+		_regex = regex;
+		if (regex)
+		{
+			for (String word : words)
+			{
+				_patterns.add(Pattern.compile(word, Pattern.CASE_INSENSITIVE));
+			}
+		}
+		else
+		{
+			for (String word : words)
+			{
+				addWord(word);
+			}
+			buildFailLinks();
+		}
+	}
+	
+	/**
+	 * @param text the text
+	 * @return the text with the filter words replaced
+	 */
+	public static String filter(String text)
+	{
+		ChatFilter filter = _instance;
+		final List<String> words = Config.FILTER_LIST;
+		if ((filter == null) || (filter._words != words) || (filter._regex != Config.CHAT_FILTER_REGEX))
+		{
+			if (words == null)
+			{
+				return text;
+			}
+			filter = new ChatFilter(words, Config.CHAT_FILTER_REGEX);
+			_instance = filter;
+		}
+		return filter._regex ? filter.replacePatterns(text) : filter.replaceWords(text);
+	}
+	
+	private String replacePatterns(String text)
+	{
+		String filteredText = text;
+		for (Pattern pattern : _patterns)
+		{
+			filteredText = pattern.matcher(filteredText).replaceAll(Config.CHAT_FILTER_CHARS);
+		}
+		return filteredText;
+	}
+	
+	/**
+	 * Overlapping matches are replaced together by a single filter chars string.
+	 * @param text the text
+	 * @return the filtered text
+	 */
+	private String replaceWords(String text)
+	{
+		StringBuilder sb = null;
+		int copied = 0; // End of the text already copied to the builder.
+		int matchStart = -1;
+		int matchEnd = -1; // Exclusive end of the pending match.
+		Node node = _root;
+		for (int i = 0; i < text.length(); i++)
+		{
+			node = node.next(Character.toLowerCase(text.charAt(i)));
+			if (node._length == 0)
+			{
+				continue;
+			}
+			
+			final int start = (i + 1) - node._length;
+			if ((matchEnd >= 0) && (start < matchEnd))
+			{
+				// Never reaches back into an already replaced match.
+				matchStart = Math.max(Math.min(matchStart, start), copied);
+				matchEnd = i + 1;
+				continue;
+			}
+			
+			if (matchEnd >= 0)
+			{
+				sb = replace(sb, text, copied, matchStart);
+				copied = matchEnd;
+			}
+			matchStart = start;
+			matchEnd = i + 1;
+		}
+		
+		if (matchEnd < 0)
+		{
+			return text;
+		}
+		
+		sb = replace(sb, text, copied, matchStart);
+		return sb.append(text, matchEnd, text.length()).toString();
+	}
+	
+	private static StringBuilder replace(StringBuilder sb, String text, int from, int matchStart)
+	{
+		final StringBuilder result = sb != null ? sb : new StringBuilder(text.length());
+		return result.append(text, from, matchStart).append(Config.CHAT_FILTER_CHARS);
+	}
+	
+	private void addWord(String word)
+	{
+		if (word.isEmpty())
+		{
+			return;
+		}
+		
+		Node node = _root;
+		for (int i = 0; i < word.length(); i++)
+		{
+			node = node._children.computeIfAbsent(Character.toLowerCase(word.charAt(i)), c -> new Node());
+		}
+		node._length = word.length();
+	}
+	
+	/**
+	 * Links every node to the node of its longest proper suffix, breadth first, and propagates the longest word ending at each node.
+	 */
+	private void buildFailLinks()
+	{
+		final Queue<Node> queue = new ArrayDeque<>();
+		for (Node child : _root._children.values())
+		{
+			child._fail = _root;
+			queue.add(child);
+		}
+		
+		while (!queue.isEmpty())
+		{
+			final Node node = queue.poll();
+			for (Map.Entry<Character, Node> entry : node._children.entrySet())
+			{
+				final Node child = entry.getValue();
+				Node fail = node._fail;
+				while ((fail != _root) && !fail._children.containsKey(entry.getKey()))
+				{
+					fail = fail._fail;
+				}
+				final Node target = fail._children.get(entry.getKey());
+				child._fail = target != null ? target : _root;
+				child._length = Math.max(child._length, child._fail._length);
+				queue.add(child);
+			}
+		}
+	}
+	
+	private final class Node
+	{
+		final Map<Character, Node> _children = new HashMap<>();
+		Node _fail;
+		/** Length of the longest word ending at this node, 0 if none. */
+		int _length;
+		
+		Node next(char c)
+		{
+			Node node = this;
+			while (true)
+			{
+				final Node child = node._children.get(c);
+				if (child != null)
+				{
+					return child;
+				}
+				if (node == _root)
+				{
+					return _root;
+				}
+				node = node._fail;
+			}
+		}
+	}
+}
@@ -0,0 +1,58 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jmobius.log;
+
+import java.util.logging.Logger;
+
+/**
+ * Chat log event.
+ * @author Mobius
+ */
+public final class ChatLogRecord extends StructuredLogRecord
+{
+	private static final long serialVersionUID = 1L;
+	
+	private final String _sender;
+	private final String _receiver;
+	private final String _text;
+	
+	/**
+	 * @param logger the chat logger
+	 * @param type the chat type
+	 * @param sender the sender
+	 * @param receiver the receiver of a private message, {@code null} otherwise
+	 * @param text the text
+	 */
+	public ChatLogRecord(Logger logger, String type, Object sender, Object receiver, String text)
+	{
+		super(logger, type);
+		_sender = String.valueOf(sender);
+		_receiver = receiver != null ? String.valueOf(receiver) : null;
+		_text = text;
+	}
+	
+	@Override
+	public void appendTo(StringBuilder sb)
+	{
+		sb.append(getMessage()).append(" [").append(_sender);
+		if (_receiver != null)
+		{
+			sb.append(" to ").append(_receiver);
+		}
+		sb.append("] ").append(_text);
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jmobius.log;
+
+import java.util.logging.Logger;
+
+import com.l2jmobius.gameserver.model.items.instance.L2ItemInstance;
+import com.l2jmobius.gameserver.model.items.type.ItemType;
+
+/**
+ * Item log event, the item state is copied when the event happens.
+ * @author Mobius
+ */
+public final class ItemLogRecord extends StructuredLogRecord
+{
+	private static final long serialVersionUID = 1L;
+	
+	private static final long NO_PREVIOUS_COUNT = -1;
+	
+	private final String _process;
+	private final int _objectId;
+	private final int _enchantLevel;
+	private final String _itemName;
+	private final ItemType _itemType;
+	private final long _count;
+	private final long _previousCount;
+	private final String _actor;
+	private final String _reference;
+	
+	/**
+	 * @param logger the item logger
+	 * @param action the action, such as CREATE or DELETE
+	 * @param process the identifier of the process triggering the action
+	 * @param item the item
+	 * @param actor the player requesting the action
+	 * @param reference the object referencing the action
+	 */
+	public ItemLogRecord(Logger logger, String action, String process, L2ItemInstance item, Object actor, Object reference)
+	{
+		this(logger, action, process, item, NO_PREVIOUS_COUNT, actor, reference);
+	}
+	
+	/**
+	 * @param logger the item logger
+	 * @param action the action, such as CHANGE or DELETE
+	 * @param process the identifier of the process triggering the action
+	 * @param item the item
+	 * @param previousCount the count of the item before the action
+	 * @param actor the player requesting the action
+	 * @param reference the object referencing the action
+	 */
+	public ItemLogRecord(Logger logger, String action, String process, L2ItemInstance item, long previousCount, Object actor, Object reference)
+	{
+		super(logger, action);
+		_process = process;
+		_objectId = item.getObjectId();
+		_enchantLevel = item.getEnchantLevel();
+		_itemName = item.getItem().getName();
+		_itemType = item.getItemType();
+		_count = item.getCount();
+		_previousCount = previousCount;
+		_actor = String.valueOf(actor);
+		_reference = String.valueOf(reference);
+	}
+	
+	public String getProcess()
+	{
+		return _process;
+	}
+	
+	public ItemType getItemType()
+	{
+		return _itemType;
+	}
+	
+	@Override
+	public void appendTo(StringBuilder sb)
+	{
+		sb.append(getMessage()).append(':').append(_process).append(", item ").append(_objectId).append(':');
+		if (_enchantLevel > 0)
+		{
+			sb.append('+').append(_enchantLevel).append(' ');
+		}
+		sb.append(_itemName).append('(').append(_count).append(')');
+		if (_previousCount != NO_PREVIOUS_COUNT)
+		{
+			sb.append(", PrevCount(").append(_previousCount).append(')');
+		}
+		sb.append(", ").append(_actor).append(", ").append(_reference);
+	}
+}
@@ -0,0 +1,44 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jmobius.log;
+
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Log record holding the values of an event instead of its text.<br>
+ * The values are copied when the record is created, so the text can be built later on the log writer thread.
+ * @author Mobius
+ */
+public abstract class StructuredLogRecord extends LogRecord
+{
+	private static final long serialVersionUID = 1L;
+	
+	protected StructuredLogRecord(Logger logger, String message)
+	{
+		super(Level.INFO, message);
+		// Logger.log(LogRecord) does not set the logger name, filters rely on it.
+		setLoggerName(logger.getName());
+	}
+	
+	/**
+	 * Appends the text of the event, without date and line separator.
+	 * @param sb the builder
+	 */
+	public abstract void appendTo(StringBuilder sb);
+}
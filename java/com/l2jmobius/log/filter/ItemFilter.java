@@ -24,6 +24,7 @@ import java.util.logging.LogRecord;
 import com.l2jmobius.gameserver.model.items.instance.L2ItemInstance;
 import com.l2jmobius.gameserver.model.items.type.EtcItemType;
 import com.l2jmobius.gameserver.model.items.type.ItemType;
+import com.l2jmobius.log.ItemLogRecord;
 
 /**
  * @author Advi
@@ -50,6 +51,12 @@ public class ItemFilter implements Filter
 			return false;
 		}
 		
+		if (record instanceof ItemLogRecord)
+		{
+			final ItemLogRecord itemRecord = (ItemLogRecord) record;
+			return !EXCLUDE_PROCESS.equals(itemRecord.getProcess()) || !EXCLUDED_ITEM_TYPES.contains(itemRecord.getItemType());
+		}
+		
 		final String[] messageList = record.getMessage().split(":");
 		return (messageList.length < 2) || !EXCLUDE_PROCESS.contains(messageList[1]) || !EXCLUDED_ITEM_TYPES.contains(((L2ItemInstance) record.getParameters()[0]).getItemType());
 	}
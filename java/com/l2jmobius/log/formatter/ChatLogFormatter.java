@@ -23,6 +23,7 @@ import java.util.logging.LogRecord;
 
 import com.l2jmobius.Config;
 import com.l2jmobius.commons.util.StringUtil;
+import com.l2jmobius.log.StructuredLogRecord;
 
 public class ChatLogFormatter extends Formatter
 {
@@ -31,6 +32,14 @@ public class ChatLogFormatter extends Formatter
 	@Override
 	public String format(LogRecord record)
 	{
+		if (record instanceof StructuredLogRecord)
+		{
+			final StringBuilder output = StringUtil.startAppend(100, "[", dateFmt.format(new Date(record.getMillis())), "] ");
+			((StructuredLogRecord) record).appendTo(output);
+			output.append(Config.EOL);
+			return output.toString();
+		}
+		
 		final Object[] params = record.getParameters();
 		final StringBuilder output = StringUtil.startAppend(30 + record.getMessage().length() + (params != null ? 10 * params.length : 0), "[", dateFmt.format(new Date(record.getMillis())), "] ");
 		
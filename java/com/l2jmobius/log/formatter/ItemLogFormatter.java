@@ -24,6 +24,7 @@ import java.util.logging.LogRecord;
 import com.l2jmobius.Config;
 import com.l2jmobius.commons.util.StringUtil;
 import com.l2jmobius.gameserver.model.items.instance.L2ItemInstance;
+import com.l2jmobius.log.StructuredLogRecord;
 
 /**
  * @author Advi
@@ -35,6 +36,14 @@ public class ItemLogFormatter extends Formatter
 	@Override
 	public String format(LogRecord record)
 	{
+		if (record instanceof StructuredLogRecord)
+		{
+			final StringBuilder output = StringUtil.startAppend(100, "[", dateFmt.format(new Date(record.getMillis())), "] ");
+			((StructuredLogRecord) record).appendTo(output);
+			output.append(Config.EOL);
+			return output.toString();
+		}
+		
 		final Object[] params = record.getParameters();
 		final StringBuilder output = StringUtil.startAppend(30 + record.getMessage().length() + (params != null ? params.length * 50 : 0), "[", dateFmt.format(new Date(record.getMillis())), "] ", record.getMessage());
 		
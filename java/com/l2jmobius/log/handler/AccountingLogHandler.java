@@ -17,9 +17,8 @@
 package com.l2jmobius.log.handler;
 
 import java.io.IOException;
-import java.util.logging.FileHandler;
 
-public class AccountingLogHandler extends FileHandler
+public class AccountingLogHandler extends AsyncFileHandler
 {
 	public AccountingLogHandler() throws IOException, SecurityException
 	{
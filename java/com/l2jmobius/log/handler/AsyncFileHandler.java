@@ -0,0 +1,561 @@
+/*
+ * This file is part of the L2J Mobius project.
+ * 
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ * 
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.l2jmobius.log.handler;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.ErrorManager;
+import java.util.logging.Filter;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+
+import com.l2jmobius.log.StructuredLogRecord;
+
+/**
+ * File handler that never writes on the logging thread.<br>
+ * Records go to a bounded lock free ring buffer, drained by one writer thread per handler which formats them and writes them to the file in batches.<br>
+ * {@link StructuredLogRecord}s and records without parameters are formatted by the writer. Other records may hold live game objects, so they are formatted when logged, as before.<br>
+ * Rotation happens on the writer thread, so it never blocks the logging threads. When the buffer is full a record is dropped, or the logging thread waits if {@code blockWhenFull} is set.<br>
+ * Configured like {@link java.util.logging.FileHandler}, with the {@code pattern}, {@code limit}, {@code count}, {@code append}, {@code level}, {@code filter}, {@code formatter} and {@code encoding} properties, and the additional {@code bufferSize} and {@code blockWhenFull} properties.
+ * @author Mobius
+ */
+public class AsyncFileHandler extends Handler
+{
+	private static final Logger LOGGER = Logger.getLogger(AsyncFileHandler.class.getName());
+	
+	private static final Collection<AsyncFileHandler> HANDLERS = new ConcurrentLinkedQueue<>();
+	static
+	{
+		Runtime.getRuntime().addShutdownHook(new Thread(AsyncFileHandler::shutdownAll, "AsyncFileHandler-Shutdown"));
+	}
+	
+	private static final int DEFAULT_BUFFER_SIZE = 8192;
+	private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+	private static final int MAX_BATCH = 512;
+	private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+	private static final long FULL_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+	
+	private final String _name = getClass().getSimpleName();
+	private final String _pattern;
+	private final long _limit;
+	private final int _count;
+	private final boolean _blockWhenFull;
+	
+	private final AtomicReferenceArray<Object> _ring;
+	private final int _mask;
+	/** Next sequence claimed by a logging thread. */
+	private final AtomicLong _tail = new AtomicLong();
+	/** Next sequence read by the writer. */
+	private volatile long _head;
+	
+	private final LongAdder _dropped = new LongAdder();
+	private final LongAdder _backpressure = new LongAdder();
+	private long _reportedDrops;
+	private volatile long _written;
+	
+	/** Guards the formatter, which is usually not thread safe. */
+	private final Object _formatLock = new Object();
+	/** Guards the file, held by the writer while it writes a batch. */
+	private final Object _writeLock = new Object();
+	private final ByteBuffer _buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+	private Charset _charset = Charset.defaultCharset();
+	private FileChannel _channel;
+	private long _size;
+	
+	private final Thread _writer;
+	/** Set on shutdown, later records are written by the logging thread. */
+	private volatile boolean _synchronous;
+	private volatile boolean _closed;
+	
+	public AsyncFileHandler() throws IOException
+	{
+		final LogManager manager = LogManager.getLogManager();
+		final String prefix = getClass().getName();
+		_pattern = getProperty(manager, prefix + ".pattern", "%h/java%u.log");
+		_limit = Math.max(0, Long.parseLong(getProperty(manager, prefix + ".limit", "0")));
+		_count = Math.max(1, Integer.parseInt(getProperty(manager, prefix + ".count", "1")));
+		_blockWhenFull = Boolean.parseBoolean(getProperty(manager, prefix + ".blockWhenFull", "false"));
+		final boolean append = Boolean.parseBoolean(getProperty(manager, prefix + ".append", "false"));
+		final int bufferSize = Integer.highestOneBit(Math.max(64, Integer.parseInt(getProperty(manager, prefix + ".bufferSize", String.valueOf(DEFAULT_BUFFER_SIZE)))));
+		_ring = new AtomicReferenceArray<>(bufferSize);
+		_mask = bufferSize - 1;
+		
+		setLevel(Level.parse(getProperty(manager, prefix + ".level", Level.ALL.getName())));
+		setFilter(newInstance(manager.getProperty(prefix + ".filter"), Filter.class));
+		final Formatter formatter = newInstance(manager.getProperty(prefix + ".formatter"), Formatter.class);
+		setFormatter(formatter != null ? formatter : new SimpleFormatter());
+		final String encoding = manager.getProperty(prefix + ".encoding");
+		if (encoding != null)
+		{
+			setEncoding(encoding);
+		}
+		
+		if (!append && (_count > 1))
+		{
+			rotate();
+		}
+		open(append);
+		
+		_writer = new Thread(this::write, "AsyncLog-" + _name);
+		_writer.setDaemon(true);
+		_writer.start();
+		HANDLERS.add(this);
+	}
+	
+	@Override
+	public void publish(LogRecord record)
+	{
+		if (!isLoggable(record))
+		{
+			return;
+		}
+		
+		// Records holding live objects are formatted now, later they could describe another state.
+		final Object entry = (record instanceof StructuredLogRecord) || (record.getParameters() == null) ? record : format(record);
+		if (entry == null)
+		{
+			return;
+		}
+		
+		if (_synchronous)
+		{
+			writeNow(entry);
+			return;
+		}
+		
+		boolean waited = false;
+		long tail;
+		while (true)
+		{
+			tail = _tail.get();
+			if ((tail - _head) <= _mask)
+			{
+				if (_tail.compareAndSet(tail, tail + 1))
+				{
+					break;
+				}
+				continue;
+			}
+			
+			if (!_blockWhenFull || _synchronous)
+			{
+				_dropped.increment();
+				return;
+			}
+			if (!waited)
+			{
+				waited = true;
+				_backpressure.increment();
+			}
+			LockSupport.unpark(_writer);
+			LockSupport.parkNanos(this, FULL_WAIT_NANOS);
+		}
+		_ring.set((int) (tail & _mask), entry);
+		
+		// The writer may have stopped between the check and the claim.
+		if (_synchronous && !_writer.isAlive())
+		{
+			synchronized (_writeLock)
+			{
+				drain();
+			}
+		}
+	}
+	
+	private void writeNow(Object entry)
+	{
+		synchronized (_writeLock)
+		{
+			writeEntry(entry);
+			flushBuffer();
+			_written++;
+		}
+	}
+	
+	private String format(LogRecord record)
+	{
+		synchronized (_formatLock)
+		{
+			try
+			{
+				return getFormatter().format(record);
+			}
+			catch (Exception e)
+			{
+				reportError(null, e, ErrorManager.FORMAT_FAILURE);
+				return null;
+			}
+		}
+	}
+	
+	@Override
+	public synchronized void setEncoding(String encoding) throws SecurityException, UnsupportedEncodingException
+	{
+		super.setEncoding(encoding);
+		_charset = encoding != null ? Charset.forName(encoding) : Charset.defaultCharset();
+	}
+	
+	/**
+	 * Writer loop, drains the ring buffer in batches until the handler is closed or switched to synchronous writes.
+	 */
+	private void write()
+	{
+		while (true)
+		{
+			final boolean stopping = _closed || _synchronous;
+			final int drained;
+			synchronized (_writeLock)
+			{
+				drained = drain();
+			}
+			if ((drained == 0) && stopping && (_head == _tail.get()))
+			{
+				break;
+			}
+			if (drained < MAX_BATCH)
+			{
+				LockSupport.parkNanos(this, IDLE_NANOS);
+			}
+		}
+	}
+	
+	/**
+	 * @return the number of records written
+	 */
+	private int drain()
+	{
+		int drained = 0;
+		long head = _head;
+		while (drained < MAX_BATCH)
+		{
+			final int index = (int) (head & _mask);
+			final Object entry = _ring.get(index);
+			if (entry == null)
+			{
+				// Empty, or claimed by a logging thread that did not store it yet.
+				break;
+			}
+			_ring.set(index, null);
+			_head = ++head;
+			writeEntry(entry);
+			drained++;
+		}
+		
+		if (drained > 0)
+		{
+			flushBuffer();
+			_written += drained;
+		}
+		
+		final long dropped = _dropped.sum();
+		if (dropped != _reportedDrops)
+		{
+			LOGGER.warning(_name + ": Log buffer full, " + (dropped - _reportedDrops) + " records dropped.");
+			_reportedDrops = dropped;
+		}
+		return drained;
+	}
+	
+	private void writeEntry(Object entry)
+	{
+		final String text = entry instanceof String ? (String) entry : format((LogRecord) entry);
+		if ((text == null) || text.isEmpty())
+		{
+			return;
+		}
+		
+		final byte[] bytes = text.getBytes(_charset);
+		if (bytes.length > _buffer.remaining())
+		{
+			flushBuffer();
+		}
+		if (bytes.length > _buffer.capacity())
+		{
+			writeFully(ByteBuffer.wrap(bytes));
+		}
+		else
+		{
+			_buffer.put(bytes);
+		}
+	}
+	
+	private void flushBuffer()
+	{
+		if (_buffer.position() > 0)
+		{
+			_buffer.flip();
+			writeFully(_buffer);
+			_buffer.clear();
+		}
+	}
+	
+	private void writeFully(ByteBuffer buffer)
+	{
+		if (_channel == null)
+		{
+			return;
+		}
+		
+		try
+		{
+			while (buffer.hasRemaining())
+			{
+				_size += _channel.write(buffer);
+			}
+			
+			if ((_limit > 0) && (_size >= _limit))
+			{
+				_channel.close();
+				rotate();
+				open(false);
+			}
+		}
+		catch (IOException e)
+		{
+			buffer.position(buffer.limit());
+			reportError(null, e, ErrorManager.WRITE_FAILURE);
+		}
+	}
+	
+	private void open(boolean append) throws IOException
+	{
+		final Path path = getPath(0);
+		if (path.getParent() != null)
+		{
+			Files.createDirectories(path.getParent());
+		}
+		_channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING);
+		_size = append ? _channel.size() : 0;
+	}
+	
+	private void rotate() throws IOException
+	{
+		for (int generation = _count - 2; generation >= 0; generation--)
+		{
+			final Path path = getPath(generation);
+			if (Files.exists(path))
+			{
+				Files.move(path, getPath(generation + 1), StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+	}
+	
+	private Path getPath(int generation)
+	{
+		final StringBuilder sb = new StringBuilder();
+		boolean hasGeneration = false;
+		for (int i = 0; i < _pattern.length(); i++)
+		{
+			final char ch = _pattern.charAt(i);
+			if ((ch != '%') || (i == (_pattern.length() - 1)))
+			{
+				sb.append(ch);
+				continue;
+			}
+			
+			final char code = _pattern.charAt(++i);
+			switch (code)
+			{
+				case 'g':
+				{
+					sb.append(generation);
+					hasGeneration = true;
+					break;
+				}
+				case 'u':
+				{
+					sb.append('0');
+					break;
+				}
+				case 't':
+				{
+					sb.append(System.getProperty("java.io.tmpdir"));
+					break;
+				}
+				case 'h':
+				{
+					sb.append(System.getProperty("user.home"));
+					break;
+				}
+				default:
+				{
+					sb.append(code);
+					break;
+				}
+			}
+		}
+		if (!hasGeneration && (_count > 1))
+		{
+			sb.append('.').append(generation);
+		}
+		return Paths.get(sb.toString().replace('/', File.separatorChar));
+	}
+	
+	/**
+	 * Waits until the records logged before this call are written, at most one second.
+	 */
+	@Override
+	public void flush()
+	{
+		final long target = _tail.get();
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+		while ((_head < target) && _writer.isAlive() && ((deadline - System.nanoTime()) > 0))
+		{
+			LockSupport.unpark(_writer);
+			LockSupport.parkNanos(this, FULL_WAIT_NANOS);
+		}
+	}
+	
+	/**
+	 * Writes the pending records, then writes the next records on the logging thread.
+	 */
+	public void shutdown()
+	{
+		_synchronous = true;
+		LockSupport.unpark(_writer);
+		try
+		{
+			_writer.join(TimeUnit.SECONDS.toMillis(10));
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	@Override
+	public void close()
+	{
+		if (_closed)
+		{
+			return;
+		}
+		
+		_closed = true;
+		shutdown();
+		synchronized (_writeLock)
+		{
+			flushBuffer();
+			try
+			{
+				if (_channel != null)
+				{
+					_channel.close();
+					_channel = null;
+				}
+			}
+			catch (IOException e)
+			{
+				reportError(null, e, ErrorManager.CLOSE_FAILURE);
+			}
+		}
+		HANDLERS.remove(this);
+	}
+	
+	public long getDropped()
+	{
+		return _dropped.sum();
+	}
+	
+	public long getBackpressure()
+	{
+		return _backpressure.sum();
+	}
+	
+	public long getWritten()
+	{
+		return _written;
+	}
+	
+	public long getPending()
+	{
+		return _tail.get() - _head;
+	}
+	
+	/**
+	 * Writes the pending records of all handlers, called on shutdown since the log manager does not close them.
+	 */
+	public static void shutdownAll()
+	{
+		for (AsyncFileHandler handler : HANDLERS)
+		{
+			handler.shutdown();
+		}
+	}
+	
+	public static String[] getStats()
+	{
+		final List<String> stats = new ArrayList<>();
+		for (AsyncFileHandler handler : HANDLERS)
+		{
+			stats.add(handler._name + ":");
+			stats.add(" |- Written: ........ " + handler.getWritten());
+			stats.add(" |- Pending: ........ " + handler.getPending() + "/" + (handler._mask + 1));
+			stats.add(" |- Dropped: ........ " + handler.getDropped());
+			stats.add(" |- Backpressure: ... " + handler.getBackpressure());
+			stats.add(" | -------");
+		}
+		return stats.toArray(new String[stats.size()]);
+	}
+	
+	private static String getProperty(LogManager manager, String name, String defaultValue)
+	{
+		final String value = manager.getProperty(name);
+		return value != null ? value.trim() : defaultValue;
+	}
+	
+	private static <T> T newInstance(String className, Class<T> type)
+	{
+		if ((className == null) || className.trim().isEmpty())
+		{
+			return null;
+		}
+		
+		try
+		{
+			return type.cast(ClassLoader.getSystemClassLoader().loadClass(className.trim()).getDeclaredConstructor().newInstance());
+		}
+		catch (Exception e)
+		{
+			LOGGER.warning(AsyncFileHandler.class.getSimpleName() + ": Could not create " + className + ": " + e.getMessage());
+			return null;
+		}
+	}
+}
@@ -17,9 +17,8 @@
 package com.l2jmobius.log.handler;
 
 import java.io.IOException;
-import java.util.logging.FileHandler;
 
-public class ChatLogHandler extends FileHandler
+public class ChatLogHandler extends AsyncFileHandler
 {
 	public ChatLogHandler() throws IOException, SecurityException
 	{
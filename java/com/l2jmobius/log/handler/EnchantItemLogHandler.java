@@ -17,9 +17,8 @@
 package com.l2jmobius.log.handler;
 
 import java.io.IOException;
-import java.util.logging.FileHandler;
 
-public class EnchantItemLogHandler extends FileHandler
+public class EnchantItemLogHandler extends AsyncFileHandler
 {
 	public EnchantItemLogHandler() throws IOException, SecurityException
 	{
@@ -17,9 +17,8 @@
 package com.l2jmobius.log.handler;
 
 import java.io.IOException;
-import java.util.logging.FileHandler;
 
-public class OlympiadLogHandler extends FileHandler
+public class OlympiadLogHandler extends AsyncFileHandler
 {
 	public OlympiadLogHandler() throws IOException, SecurityException
 	{